@@ -6,9 +6,12 @@ import org.jetbrains.annotations.Nullable;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.FileTime;
 import java.util.*;
 
@@ -83,6 +86,33 @@ public final class IO {
         }
     }
 
+    /**
+     * Maps the whole content of a file into memory in read-only mode.
+     * <p>
+     * Content is read lazily by the operating system through its page cache, so no copy
+     * of the file is made on the heap. Mapping remains valid after this method returns
+     * and is released when the returned buffer is garbage collected.
+     * </p>
+     *
+     * @param path the path to the file
+     * @return read-only buffer whose content is the content of the file
+     * @throws WrappedIOException if an I/O error occurs
+     * @throws IllegalArgumentException if the file is larger than {@link Integer#MAX_VALUE} bytes
+     * @see FileChannel#map(FileChannel.MapMode, long, long)
+     */
+    public static @NotNull MappedByteBuffer map(@NotNull Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("File is too large to be mapped: " + path + " (" + size + " bytes)");
+            }
+
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        } catch (IOException e) {
+            throw new WrappedIOException(e);
+        }
+    }
+
     /**
      * Tests whether a file exists.
      *
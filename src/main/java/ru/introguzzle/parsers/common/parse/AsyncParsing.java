@@ -0,0 +1,138 @@
+package ru.introguzzle.parsers.common.parse;
+
+import org.jetbrains.annotations.NotNull;
+import ru.introguzzle.parsers.common.util.Meta;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Support for asynchronous parsing shared by all parsers of this library
+ */
+public final class AsyncParsing {
+    /**
+     * Default maximal number of inputs of a batch that are parsed simultaneously
+     */
+    public static final int DEFAULT_CONCURRENCY = Runtime.getRuntime().availableProcessors();
+
+    private static final class Holder {
+        private static final Executor EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    /**
+     * Returns executor that runs every task in a new virtual thread. It's created on first use and
+     * shared by all parsers, so creating parsers doesn't create any threads, and it never needs to be shut down
+     *
+     * @return shared executor
+     */
+    public static @NotNull Executor sharedExecutor() {
+        return Holder.EXECUTOR;
+    }
+
+    /**
+     * Applies {@code function} to every input asynchronously, running at most {@code maxConcurrency}
+     * tasks at the same time. Next input is submitted as soon as one of running tasks completes.
+     * <br>
+     * Returned future completes with results in order of inputs, or exceptionally with the first failure,
+     * in which case remaining inputs are not submitted. If {@code executor} rejects a task, returned future
+     * completes exceptionally with {@link RejectedExecutionException}. Cancelling returned future also stops submission
+     *
+     * @param inputs inputs, may contain {@code null}
+     * @param function function to apply
+     * @param executor executor to run tasks
+     * @param maxConcurrency maximal number of simultaneously running tasks
+     * @return future of all results
+     * @param <S> type of input
+     * @param <T> type of result
+     * @throws IllegalArgumentException if {@code maxConcurrency} is not positive
+     */
+    public static <S, T> @NotNull CompletableFuture<List<T>> supplyAll(@NotNull Collection<? extends S> inputs,
+                                                                       @NotNull Function<? super S, ? extends T> function,
+                                                                       @NotNull Executor executor,
+                                                                       int maxConcurrency) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("Concurrency must be positive: " + maxConcurrency);
+        }
+
+        Batch<S, T> batch = new Batch<>(new ArrayList<>(inputs), function, executor);
+        int initial = Math.min(maxConcurrency, batch.inputs.size());
+        if (initial == 0) {
+            batch.result.complete(Collections.emptyList());
+        }
+
+        for (int i = 0; i < initial; i++) {
+            batch.submitNext();
+        }
+
+        return batch.result;
+    }
+
+    private static final class Batch<S, T> {
+        final List<S> inputs;
+        final Function<? super S, ? extends T> function;
+        final Executor executor;
+        final Object[] results;
+        final AtomicInteger next = new AtomicInteger();
+        final AtomicInteger remaining;
+        final CompletableFuture<List<T>> result = new CompletableFuture<>();
+
+        Batch(List<S> inputs, Function<? super S, ? extends T> function, Executor executor) {
+            this.inputs = inputs;
+            this.function = function;
+            this.executor = executor;
+            this.results = new Object[inputs.size()];
+            this.remaining = new AtomicInteger(inputs.size());
+        }
+
+        @SuppressWarnings("unchecked")
+        void submitNext() {
+            int index = next.getAndIncrement();
+            if (index >= inputs.size() || result.isDone()) {
+                return;
+            }
+
+            S input = inputs.get(index);
+            CompletableFuture<T> task;
+            try {
+                task = CompletableFuture.supplyAsync(() -> function.apply(input), executor);
+            } catch (RejectedExecutionException e) {
+                // Otherwise it would be lost in callback of previous task and result would never complete
+                result.completeExceptionally(e);
+                return;
+            }
+
+            task.whenComplete((value, error) -> {
+                if (error != null) {
+                    result.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause()
+                            : error);
+                    return;
+                }
+
+                results[index] = value;
+                if (remaining.decrementAndGet() == 0) {
+                    result.complete((List<T>) Arrays.asList(results));
+                } else {
+                    submitNext();
+                }
+            });
+        }
+    }
+
+    /**
+     * Private constructor. Always throws {@code AssertionError}
+     */
+    private AsyncParsing() {
+        throw Meta.newInstantiationError(AsyncParsing.class);
+    }
+}
@@ -1,7 +1,23 @@
 package ru.introguzzle.parsers.common.parse;
 
 import org.jetbrains.annotations.NotNull;
+import ru.introguzzle.parsers.common.io.IO;
+
+import java.nio.file.Path;
 
 public interface BaseParser<T> {
     T parse(@NotNull String data);
+
+    /**
+     * Parses content of the file.
+     * Default implementation reads the file into a {@code String} and delegates to {@link #parse(String)},
+     * implementations that are able to read the file more efficiently override it.
+     *
+     * @param path the path to the file
+     * @return parsed content of the file
+     * @throws ru.introguzzle.parsers.common.io.WrappedIOException if an I/O error occurs
+     */
+    default T parse(@NotNull Path path) {
+        return parse(IO.readString(path));
+    }
 }
@@ -0,0 +1,176 @@
+package ru.introguzzle.parsers.common.parse;
+
+import org.jetbrains.annotations.NotNull;
+import ru.introguzzle.parsers.config.Configuration;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * Immutable bounds of resources that a parser may spend on a single document.
+ * <p>
+ * Parsers check limits while they scan the input and fail as soon as any of them is exceeded,
+ * reporting position where it happened, so a hostile document can neither exhaust the stack
+ * with deep nesting nor occupy the parser and the heap for long. Limits built by {@link #builder()}
+ * are {@link Integer#MAX_VALUE} unless set, and {@link #defaults()} limit only depth, to 1000 unless
+ * {@code limits} section of {@link Configuration} says otherwise:
+ * </p>
+ * <ul>
+ *     <li>maximal depth — number of nested objects, arrays or elements</li>
+ *     <li>maximal document length — number of characters (or bytes) of a document</li>
+ *     <li>maximal string length — number of characters of a single string, key or text</li>
+ *     <li>maximal entries — number of members of an object or elements of an array,
+ *     children or attributes of an element</li>
+ * </ul>
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * Parser parser = Parser.newParser().setLimits(ParseLimits.builder()
+ *         .setMaxDepth(64)
+ *         .setMaxDocumentLength(1 << 20)
+ *         .build());
+ * }</pre>
+ *
+ * @see #defaults()
+ */
+public final class ParseLimits implements Serializable {
+    @Serial
+    private static final long serialVersionUID = -4411032375063817458L;
+
+    /**
+     * Limits that never fail
+     */
+    public static final ParseLimits NONE = builder().build();
+
+    private final int maxDepth;
+    private final int maxDocumentLength;
+    private final int maxStringLength;
+    private final int maxEntries;
+
+    private ParseLimits(Builder builder) {
+        this.maxDepth = builder.maxDepth;
+        this.maxDocumentLength = builder.maxDocumentLength;
+        this.maxStringLength = builder.maxStringLength;
+        this.maxEntries = builder.maxEntries;
+    }
+
+    private static final class Holder {
+        private static final ParseLimits DEFAULTS = builder()
+                .setMaxDepth(Configuration.instance().getMaxDepthProperty().getValue())
+                .setMaxDocumentLength(Configuration.instance().getMaxDocumentLengthProperty().getValue())
+                .setMaxStringLength(Configuration.instance().getMaxStringLengthProperty().getValue())
+                .setMaxEntries(Configuration.instance().getMaxEntriesProperty().getValue())
+                .build();
+    }
+
+    /**
+     * Returns limits defined by {@code limits} section of {@link Configuration}. By default, only depth is limited
+     *
+     * @return default limits
+     */
+    public static @NotNull ParseLimits defaults() {
+        return Holder.DEFAULTS;
+    }
+
+    public static @NotNull Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return builder initialized with limits of this object
+     */
+    public @NotNull Builder toBuilder() {
+        return new Builder()
+                .setMaxDepth(maxDepth)
+                .setMaxDocumentLength(maxDocumentLength)
+                .setMaxStringLength(maxStringLength)
+                .setMaxEntries(maxEntries);
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public int getMaxDocumentLength() {
+        return maxDocumentLength;
+    }
+
+    public int getMaxStringLength() {
+        return maxStringLength;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) return true;
+        if (!(object instanceof ParseLimits limits)) return false;
+        return maxDepth == limits.maxDepth
+                && maxDocumentLength == limits.maxDocumentLength
+                && maxStringLength == limits.maxStringLength
+                && maxEntries == limits.maxEntries;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = maxDepth;
+        result = 31 * result + maxDocumentLength;
+        result = 31 * result + maxStringLength;
+        result = 31 * result + maxEntries;
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "ParseLimits{" +
+                "maxDepth=" + maxDepth +
+                ", maxDocumentLength=" + maxDocumentLength +
+                ", maxStringLength=" + maxStringLength +
+                ", maxEntries=" + maxEntries +
+                '}';
+    }
+
+    public static final class Builder {
+        private int maxDepth = Integer.MAX_VALUE;
+        private int maxDocumentLength = Integer.MAX_VALUE;
+        private int maxStringLength = Integer.MAX_VALUE;
+        private int maxEntries = Integer.MAX_VALUE;
+
+        private Builder() {
+        }
+
+        public @NotNull Builder setMaxDepth(int maxDepth) {
+            this.maxDepth = requirePositive(maxDepth, "Depth");
+            return this;
+        }
+
+        public @NotNull Builder setMaxDocumentLength(int maxDocumentLength) {
+            this.maxDocumentLength = requirePositive(maxDocumentLength, "Document length");
+            return this;
+        }
+
+        public @NotNull Builder setMaxStringLength(int maxStringLength) {
+            this.maxStringLength = requirePositive(maxStringLength, "String length");
+            return this;
+        }
+
+        public @NotNull Builder setMaxEntries(int maxEntries) {
+            this.maxEntries = requirePositive(maxEntries, "Number of entries");
+            return this;
+        }
+
+        public @NotNull ParseLimits build() {
+            return new ParseLimits(this);
+        }
+
+        private static int requirePositive(int limit, String name) {
+            if (limit <= 0) {
+                throw new IllegalArgumentException(name + " limit must be positive: " + limit);
+            }
+
+            return limit;
+        }
+    }
+}
@@ -0,0 +1,441 @@
+package ru.introguzzle.parsers.common.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Insertion-ordered {@link Map} that stores keys and values in a single flat array.
+ * <p>
+ * Entry {@code i} occupies slots {@code 2 * i} and {@code 2 * i + 1} of the array, so a map costs
+ * two references per entry instead of an entry object per mapping and a separate table.
+ * Maps of up to {@value #THRESHOLD} entries are searched linearly, which for such sizes is
+ * as fast as hashing. Larger maps build a hash index with linear probing that stores positions
+ * of entries, so lookups stay constant-time while order is still defined by the flat array.
+ * </p>
+ * <p>
+ * Removal shifts subsequent entries and is linear in the size of the map, since documents are
+ * built and read far more often than entries are removed from them.
+ * Null keys and values are permitted. This class is not thread-safe.
+ * </p>
+ *
+ * @param <K> the type of keys maintained by this map
+ * @param <V> the type of mapped values
+ */
+public class CompactMap<K, V> extends AbstractMap<K, V> implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 4718309212462380183L;
+
+    /**
+     * Maximal size of map that is searched without hash index
+     */
+    public static final int THRESHOLD = 8;
+
+    private static final int DEFAULT_CAPACITY = 4;
+    private static final Object[] EMPTY = {};
+
+    /**
+     * Keys at even and values at odd indices
+     */
+    private transient Object[] table = EMPTY;
+    private transient int size;
+
+    /**
+     * Open-addressing table of entry positions plus one, zero marks free slot.
+     * {@code null} while size of map doesn't exceed {@link #THRESHOLD}
+     */
+    private transient int[] index;
+    private transient int modCount;
+    private transient Set<Entry<K, V>> entrySet;
+
+    public CompactMap() {
+    }
+
+    /**
+     * @param expectedSize number of entries to allocate space for
+     */
+    public CompactMap(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size must not be negative: " + expectedSize);
+        }
+
+        if (expectedSize > 0) {
+            table = new Object[expectedSize * 2];
+        }
+    }
+
+    public CompactMap(@NotNull Map<? extends K, ? extends V> map) {
+        this(map.size());
+        // Overridable putAll would let subclasses see partially constructed map
+        for (Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            putValue(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private static int hash(Object key) {
+        int h = key == null ? 0 : key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean matches(Object key, Object other) {
+        return key == other || (key != null && key.equals(other));
+    }
+
+    /**
+     * @return position of entry with key or {@code -1} if there is none
+     */
+    private int find(Object key) {
+        if (index == null) {
+            for (int i = 0; i < size; i++) {
+                if (matches(key, table[i << 1])) {
+                    return i;
+                }
+            }
+
+            return -1;
+        }
+
+        int mask = index.length - 1;
+        for (int slot = hash(key) & mask; index[slot] != 0; slot = (slot + 1) & mask) {
+            int position = index[slot] - 1;
+            if (matches(key, table[position << 1])) {
+                return position;
+            }
+        }
+
+        return -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private K keyAt(int position) {
+        return (K) table[position << 1];
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(int position) {
+        return (V) table[(position << 1) + 1];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return find(key) >= 0;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        for (int i = 0; i < size; i++) {
+            if (Objects.equals(value, valueAt(i))) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public V get(Object key) {
+        int position = find(key);
+        return position < 0 ? null : valueAt(position);
+    }
+
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        int position = find(key);
+        return position < 0 ? defaultValue : valueAt(position);
+    }
+
+    @Override
+    public V put(K key, V value) {
+        return putValue(key, value);
+    }
+
+    private V putValue(K key, V value) {
+        int position = find(key);
+        if (position >= 0) {
+            V previous = valueAt(position);
+            table[(position << 1) + 1] = value;
+            return previous;
+        }
+
+        if (size << 1 == table.length) {
+            grow();
+        }
+
+        table[size << 1] = key;
+        table[(size << 1) + 1] = value;
+        size++;
+        modCount++;
+
+        if (index != null) {
+            insert(size - 1);
+        } else if (size > THRESHOLD) {
+            rebuildIndex();
+        }
+
+        return null;
+    }
+
+    @Override
+    public V remove(Object key) {
+        int position = find(key);
+        if (position < 0) {
+            return null;
+        }
+
+        V previous = valueAt(position);
+        removeAt(position);
+        return previous;
+    }
+
+    private void removeAt(int position) {
+        int moved = (size - position - 1) << 1;
+        if (moved > 0) {
+            System.arraycopy(table, (position + 1) << 1, table, position << 1, moved);
+        }
+
+        size--;
+        table[size << 1] = null;
+        table[(size << 1) + 1] = null;
+        modCount++;
+
+        if (size > THRESHOLD) {
+            rebuildIndex();
+        } else {
+            index = null;
+        }
+    }
+
+    @Override
+    public void clear() {
+        if (size > 0) {
+            Arrays.fill(table, 0, size << 1, null);
+            size = 0;
+            index = null;
+            modCount++;
+        }
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        int expected = modCount;
+        for (int i = 0; i < size; i++) {
+            action.accept(keyAt(i), valueAt(i));
+            if (modCount != expected) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    private void grow() {
+        int capacity = table.length == 0 ? DEFAULT_CAPACITY : size * 2;
+        table = Arrays.copyOf(table, capacity << 1);
+        if (index != null) {
+            rebuildIndex();
+        }
+    }
+
+    /**
+     * Rebuilds hash index for current capacity, keeping load factor at most one half
+     */
+    private void rebuildIndex() {
+        int length = Integer.highestOneBit(Math.max(table.length, 2 * THRESHOLD) - 1) << 1;
+        if (index == null || index.length != length) {
+            index = new int[length];
+        } else {
+            Arrays.fill(index, 0);
+        }
+
+        for (int i = 0; i < size; i++) {
+            insert(i);
+        }
+    }
+
+    private void insert(int position) {
+        int mask = index.length - 1;
+        int slot = hash(table[position << 1]) & mask;
+        while (index[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+
+        index[slot] = position + 1;
+    }
+
+    @Override
+    public @NotNull Set<Entry<K, V>> entrySet() {
+        Set<Entry<K, V>> set = entrySet;
+        return set == null ? (entrySet = new EntrySet()) : set;
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<K, V>> {
+        @Override
+        public @NotNull Iterator<Entry<K, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            CompactMap.this.clear();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry<?, ?> entry)) {
+                return false;
+            }
+
+            int position = find(entry.getKey());
+            return position >= 0 && Objects.equals(valueAt(position), entry.getValue());
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!contains(o)) {
+                return false;
+            }
+
+            removeAt(find(((Map.Entry<?, ?>) o).getKey()));
+            return true;
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Entry<K, V>> {
+        private int next;
+        private int last = -1;
+        private int expected = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return next < size;
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (modCount != expected) {
+                throw new ConcurrentModificationException();
+            }
+
+            if (next >= size) {
+                throw new NoSuchElementException();
+            }
+
+            last = next++;
+            return new EntryView(last);
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+
+            if (modCount != expected) {
+                throw new ConcurrentModificationException();
+            }
+
+            removeAt(last);
+            next = last;
+            last = -1;
+            expected = modCount;
+        }
+    }
+
+    /**
+     * Entry that reads and writes through to the table at its position
+     */
+    private final class EntryView implements Entry<K, V> {
+        private final int position;
+
+        EntryView(int position) {
+            this.position = position;
+        }
+
+        @Override
+        public K getKey() {
+            return keyAt(position);
+        }
+
+        @Override
+        public V getValue() {
+            return valueAt(position);
+        }
+
+        @Override
+        public V setValue(V value) {
+            V previous = valueAt(position);
+            table[(position << 1) + 1] = value;
+            return previous;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Map.Entry<?, ?> entry
+                    && Objects.equals(getKey(), entry.getKey())
+                    && Objects.equals(getValue(), entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+
+    @Serial
+    private void writeObject(@NotNull ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeInt(size);
+        for (int i = 0; i < size << 1; i++) {
+            out.writeObject(table[i]);
+        }
+    }
+
+    @Serial
+    @SuppressWarnings("unchecked")
+    private void readObject(@NotNull ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        int count = in.readInt();
+        if (count < 0) {
+            throw new InvalidObjectException("Negative size: " + count);
+        }
+
+        table = count == 0 ? EMPTY : new Object[count << 1];
+        for (int i = 0; i < count; i++) {
+            put((K) in.readObject(), (V) in.readObject());
+        }
+    }
+}
@@ -0,0 +1,408 @@
+package ru.introguzzle.parsers.common.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Immutable insertion-ordered map that shares structure between versions.
+ * <p>
+ * Keys are indexed by a hash array mapped trie (HAMT) that maps every key to the ordinal of its
+ * entry, and entries are kept in insertion order in a {@link PersistentVector}. {@link #with(Object, Object)}
+ * and {@link #without(Object)} return a new version in {@code O(log n)}, copying only the nodes on the path
+ * to the changed key and sharing everything else with this version. Removed entries leave a hole in
+ * the vector, which is compacted once holes outnumber live entries.
+ * </p>
+ * <p>
+ * Instances are immutable and can be shared across threads without synchronization. {@code null} keys
+ * are not permitted, {@code null} values are. All methods of {@link Map} that would modify the map throw
+ * {@link UnsupportedOperationException}.
+ * </p>
+ *
+ * @param <K> the type of keys maintained by this map
+ * @param <V> the type of mapped values
+ */
+public final class PersistentMap<K, V> extends AbstractMap<K, V> {
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final PersistentMap<?, ?> EMPTY = new PersistentMap<>(null, PersistentVector.empty(), 0);
+
+    /**
+     * Trie of ordinals of entries, {@code null} if map is empty
+     */
+    private final Node root;
+    private final PersistentVector<Entry<K, V>> entries;
+    private final int size;
+    private Set<Entry<K, V>> entrySet;
+
+    private PersistentMap(Node root, PersistentVector<Entry<K, V>> entries, int size) {
+        this.root = root;
+        this.entries = entries;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <K, V> @NotNull PersistentMap<K, V> empty() {
+        return (PersistentMap<K, V>) EMPTY;
+    }
+
+    public static <K, V> @NotNull PersistentMap<K, V> of(@NotNull Map<? extends K, ? extends V> map) {
+        PersistentMap<K, V> result = empty();
+        for (Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            result = result.with(entry.getKey(), entry.getValue());
+        }
+
+        return result;
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * @return ordinal of entry of key or {@code -1}
+     */
+    private int ordinal(Object key) {
+        return root == null || key == null ? -1 : root.find(key, hash(key), 0);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return ordinal(key) >= 0;
+    }
+
+    @Override
+    public V get(Object key) {
+        int ordinal = ordinal(key);
+        return ordinal < 0 ? null : entries.get(ordinal).getValue();
+    }
+
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        int ordinal = ordinal(key);
+        return ordinal < 0 ? defaultValue : entries.get(ordinal).getValue();
+    }
+
+    /**
+     * Returns version of this map where {@code key} is mapped to {@code value}.
+     * Existing key keeps its position, new key is appended
+     *
+     * @param key key
+     * @param value value
+     * @return new map or this map if key is already mapped to the same value
+     */
+    public @NotNull PersistentMap<K, V> with(@NotNull K key, V value) {
+        Objects.requireNonNull(key, "key");
+        int ordinal = ordinal(key);
+        if (ordinal >= 0) {
+            if (entries.get(ordinal).getValue() == value) {
+                return this;
+            }
+
+            return new PersistentMap<>(root, entries.with(ordinal, new SimpleImmutableEntry<>(key, value)), size);
+        }
+
+        int next = entries.size();
+        Node root = this.root == null
+                ? new BitmapNode(0, new Object[0]).put(key, hash(key), next, 0)
+                : this.root.put(key, hash(key), next, 0);
+
+        return new PersistentMap<>(root, entries.plus(new SimpleImmutableEntry<>(key, value)), size + 1);
+    }
+
+    /**
+     * Returns version of this map without {@code key}
+     *
+     * @param key key
+     * @return new map or this map if it doesn't contain key
+     */
+    public @NotNull PersistentMap<K, V> without(Object key) {
+        int ordinal = ordinal(key);
+        if (ordinal < 0) {
+            return this;
+        }
+
+        if (size == 1) {
+            return empty();
+        }
+
+        // Holes outnumber entries, rebuild instead of leaving another one
+        if (entries.size() >= 2 * size) {
+            PersistentMap<K, V> result = empty();
+            for (Entry<K, V> entry : entries) {
+                if (entry != null && !entry.getKey().equals(key)) {
+                    result = result.with(entry.getKey(), entry.getValue());
+                }
+            }
+
+            return result;
+        }
+
+        return new PersistentMap<>(root.remove(key, hash(key), 0), entries.with(ordinal, null), size - 1);
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        for (Entry<K, V> entry : entries) {
+            if (entry != null) {
+                action.accept(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    @Override
+    public @NotNull Set<Entry<K, V>> entrySet() {
+        Set<Entry<K, V>> set = entrySet;
+        return set == null ? (entrySet = new EntrySet()) : set;
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<K, V>> {
+        @Override
+        public @NotNull Iterator<Entry<K, V>> iterator() {
+            return new Iterator<>() {
+                private final Iterator<Entry<K, V>> iterator = entries.iterator();
+                private Entry<K, V> next = advance();
+
+                private Entry<K, V> advance() {
+                    while (iterator.hasNext()) {
+                        Entry<K, V> entry = iterator.next();
+                        if (entry != null) {
+                            return entry;
+                        }
+                    }
+
+                    return null;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return next != null;
+                }
+
+                @Override
+                public Entry<K, V> next() {
+                    if (next == null) {
+                        throw new NoSuchElementException();
+                    }
+
+                    Entry<K, V> entry = next;
+                    next = advance();
+                    return entry;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * Immutable node of trie
+     */
+    private abstract static class Node {
+        /**
+         * @return ordinal of key or {@code -1}
+         */
+        abstract int find(Object key, int hash, int shift);
+
+        abstract Node put(Object key, int hash, int ordinal, int shift);
+
+        /**
+         * @return node without key, {@code null} if it becomes empty
+         */
+        abstract Node remove(Object key, int hash, int shift);
+
+        static Node merge(int shift, Object key1, int hash1, int ordinal1, Object key2, int hash2, int ordinal2) {
+            if (shift > Integer.SIZE - 2) {
+                return new CollisionNode(hash1, new Object[] {key1, ordinal1, key2, ordinal2});
+            }
+
+            int index1 = (hash1 >>> shift) & MASK;
+            int index2 = (hash2 >>> shift) & MASK;
+            if (index1 == index2) {
+                return new BitmapNode(1 << index1, new Object[] {null, merge(shift + BITS, key1, hash1, ordinal1, key2, hash2, ordinal2)});
+            }
+
+            int bitmap = (1 << index1) | (1 << index2);
+            return index1 < index2
+                    ? new BitmapNode(bitmap, new Object[] {key1, ordinal1, key2, ordinal2})
+                    : new BitmapNode(bitmap, new Object[] {key2, ordinal2, key1, ordinal1});
+        }
+    }
+
+    /**
+     * Node with up to 32 slots, present slots are marked in bitmap and stored compactly as pairs:
+     * a key and its ordinal, or {@code null} and a child node
+     */
+    private static final class BitmapNode extends Node {
+        final int bitmap;
+        final Object[] array;
+
+        BitmapNode(int bitmap, Object[] array) {
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+        private int indexOf(int bit) {
+            return 2 * Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        @Override
+        int find(Object key, int hash, int shift) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((bitmap & bit) == 0) {
+                return -1;
+            }
+
+            int index = indexOf(bit);
+            Object k = array[index];
+            if (k == null) {
+                return ((Node) array[index + 1]).find(key, hash, shift + BITS);
+            }
+
+            return key.equals(k) ? (Integer) array[index + 1] : -1;
+        }
+
+        @Override
+        Node put(Object key, int hash, int ordinal, int shift) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            int index = indexOf(bit);
+            if ((bitmap & bit) == 0) {
+                Object[] array = new Object[this.array.length + 2];
+                System.arraycopy(this.array, 0, array, 0, index);
+                array[index] = key;
+                array[index + 1] = ordinal;
+                System.arraycopy(this.array, index, array, index + 2, this.array.length - index);
+                return new BitmapNode(bitmap | bit, array);
+            }
+
+            Object k = array[index];
+            Object v = array[index + 1];
+            Object[] array = this.array.clone();
+            if (k == null) {
+                array[index + 1] = ((Node) v).put(key, hash, ordinal, shift + BITS);
+            } else if (key.equals(k)) {
+                array[index + 1] = ordinal;
+            } else {
+                array[index] = null;
+                array[index + 1] = merge(shift + BITS, k, PersistentMap.hash(k), (Integer) v, key, hash, ordinal);
+            }
+
+            return new BitmapNode(bitmap, array);
+        }
+
+        @Override
+        Node remove(Object key, int hash, int shift) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+
+            int index = indexOf(bit);
+            Object k = array[index];
+            if (k == null) {
+                Node child = (Node) array[index + 1];
+                Node removed = child.remove(key, hash, shift + BITS);
+                if (removed == child) {
+                    return this;
+                }
+
+                if (removed != null) {
+                    Object[] array = this.array.clone();
+                    array[index + 1] = removed;
+                    return new BitmapNode(bitmap, array);
+                }
+            } else if (!key.equals(k)) {
+                return this;
+            }
+
+            if (bitmap == bit) {
+                return null;
+            }
+
+            Object[] array = new Object[this.array.length - 2];
+            System.arraycopy(this.array, 0, array, 0, index);
+            System.arraycopy(this.array, index + 2, array, index, this.array.length - index - 2);
+            return new BitmapNode(bitmap & ~bit, array);
+        }
+    }
+
+    /**
+     * Node of keys whose hashes are equal, stored as pairs of a key and its ordinal
+     */
+    private static final class CollisionNode extends Node {
+        final int hash;
+        final Object[] array;
+
+        CollisionNode(int hash, Object[] array) {
+            this.hash = hash;
+            this.array = array;
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i])) {
+                    return i;
+                }
+            }
+
+            return -1;
+        }
+
+        @Override
+        int find(Object key, int hash, int shift) {
+            int index = hash == this.hash ? indexOf(key) : -1;
+            return index < 0 ? -1 : (Integer) array[index + 1];
+        }
+
+        @Override
+        Node put(Object key, int hash, int ordinal, int shift) {
+            int index = indexOf(key);
+            Object[] array;
+            if (index < 0) {
+                array = new Object[this.array.length + 2];
+                System.arraycopy(this.array, 0, array, 0, this.array.length);
+                array[this.array.length] = key;
+                array[this.array.length + 1] = ordinal;
+            } else {
+                array = this.array.clone();
+                array[index + 1] = ordinal;
+            }
+
+            return new CollisionNode(hash, array);
+        }
+
+        @Override
+        Node remove(Object key, int hash, int shift) {
+            int index = hash == this.hash ? indexOf(key) : -1;
+            if (index < 0) {
+                return this;
+            }
+
+            if (array.length == 2) {
+                return null;
+            }
+
+            Object[] array = new Object[this.array.length - 2];
+            System.arraycopy(this.array, 0, array, 0, index);
+            System.arraycopy(this.array, index + 2, array, index, this.array.length - index - 2);
+            return new CollisionNode(hash, array);
+        }
+    }
+}
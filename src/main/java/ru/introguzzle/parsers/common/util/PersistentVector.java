@@ -0,0 +1,183 @@
+package ru.introguzzle.parsers.common.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Immutable list that shares structure between versions.
+ * <p>
+ * Elements are kept in a trie of 32-element arrays with the last, incomplete array held
+ * separately as a tail. {@link #plus(Object)} and {@link #with(int, Object)} return a new version
+ * that copies only arrays on the path to the changed element, which is at most
+ * {@code log32(n)} arrays, and shares all others with this version, so any number of versions
+ * can be kept cheaply. Appending to the tail copies only the tail.
+ * </p>
+ * <p>
+ * Instances are immutable and can be shared across threads without synchronization.
+ * All methods of {@link java.util.List} that would modify the list throw
+ * {@link UnsupportedOperationException}.
+ * </p>
+ *
+ * @param <E> the type of elements
+ */
+public final class PersistentVector<E> extends AbstractList<E> implements RandomAccess {
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+
+    private static final Object[] EMPTY_NODE = new Object[WIDTH];
+    private static final PersistentVector<?> EMPTY = new PersistentVector<>(0, BITS, EMPTY_NODE, new Object[0]);
+
+    private final int size;
+    private final int shift;
+    private final Object[] root;
+    private final Object[] tail;
+
+    private PersistentVector(int size, int shift, Object[] root, Object[] tail) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+        this.tail = tail;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <E> @NotNull PersistentVector<E> empty() {
+        return (PersistentVector<E>) EMPTY;
+    }
+
+    public static <E> @NotNull PersistentVector<E> of(@NotNull Collection<? extends E> elements) {
+        PersistentVector<E> vector = empty();
+        for (E element : elements) {
+            vector = vector.plus(element);
+        }
+
+        return vector;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return index of the first element in {@link #tail}
+     */
+    private int tailOffset() {
+        return size < WIDTH ? 0 : ((size - 1) >>> BITS) << BITS;
+    }
+
+    /**
+     * @return array that holds element at {@code index}
+     */
+    private Object[] arrayFor(int index) {
+        if (index >= tailOffset()) {
+            return tail;
+        }
+
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(index >>> level) & MASK];
+        }
+
+        return node;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        Objects.checkIndex(index, size);
+        return (E) arrayFor(index)[index & MASK];
+    }
+
+    /**
+     * Returns version of this vector with {@code element} appended
+     *
+     * @param element element
+     * @return new vector
+     */
+    public @NotNull PersistentVector<E> plus(E element) {
+        if (size - tailOffset() < WIDTH) {
+            Object[] tail = new Object[this.tail.length + 1];
+            System.arraycopy(this.tail, 0, tail, 0, this.tail.length);
+            tail[this.tail.length] = element;
+            return new PersistentVector<>(size + 1, shift, root, tail);
+        }
+
+        // Tail is full, push it into the trie
+        Object[] root;
+        int shift = this.shift;
+        if ((size >>> BITS) > (1 << shift)) {
+            root = new Object[WIDTH];
+            root[0] = this.root;
+            root[1] = path(shift, tail);
+            shift += BITS;
+        } else {
+            root = pushTail(shift, this.root, tail);
+        }
+
+        return new PersistentVector<>(size + 1, shift, root, new Object[] {element});
+    }
+
+    private Object[] pushTail(int level, Object[] parent, Object[] tail) {
+        int index = ((size - 1) >>> level) & MASK;
+        Object[] node = parent.clone();
+        if (level == BITS) {
+            node[index] = tail;
+        } else {
+            Object[] child = (Object[]) parent[index];
+            node[index] = child == null ? path(level - BITS, tail) : pushTail(level - BITS, child, tail);
+        }
+
+        return node;
+    }
+
+    private static Object[] path(int level, Object[] node) {
+        if (level == 0) {
+            return node;
+        }
+
+        Object[] path = new Object[WIDTH];
+        path[0] = path(level - BITS, node);
+        return path;
+    }
+
+    /**
+     * Returns version of this vector with element at {@code index} replaced.
+     * If {@code index} is equal to size, element is appended
+     *
+     * @param index index of element
+     * @param element element
+     * @return new vector
+     * @throws IndexOutOfBoundsException if index is out of range
+     */
+    public @NotNull PersistentVector<E> with(int index, E element) {
+        if (index == size) {
+            return plus(element);
+        }
+
+        Objects.checkIndex(index, size);
+        if (index >= tailOffset()) {
+            Object[] tail = this.tail.clone();
+            tail[index & MASK] = element;
+            return new PersistentVector<>(size, shift, root, tail);
+        }
+
+        return new PersistentVector<>(size, shift, assign(shift, root, index, element), tail);
+    }
+
+    private static Object[] assign(int level, Object[] node, int index, Object element) {
+        Object[] copy = node.clone();
+        if (level == 0) {
+            copy[index & MASK] = element;
+        } else {
+            int child = (index >>> level) & MASK;
+            copy[child] = assign(level - BITS, (Object[]) node[child], index, element);
+        }
+
+        return copy;
+    }
+}
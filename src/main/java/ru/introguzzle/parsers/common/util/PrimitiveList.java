@@ -0,0 +1,447 @@
+package ru.introguzzle.parsers.common.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serial;
+import java.io.Serializable;
+import java.lang.reflect.Array;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * {@link java.util.List} of objects that stores homogeneous numeric and boolean elements
+ * in a primitive array.
+ * <p>
+ * Storage is chosen by the first element that is added: {@code Double}, {@code Long}, {@code Integer}
+ * and {@code Boolean} elements are kept in {@code double[]}, {@code long[]}, {@code int[]} and
+ * {@code boolean[]} respectively, anything else in {@code Object[]}. As long as all elements have
+ * the same class no boxes are retained, and {@link #getDouble(int)}, {@link #getLong(int)},
+ * {@link #getBoolean(int)} and bulk methods read the array without boxing. Adding an element
+ * of another class or {@code null} switches list to {@code Object[]} storage permanently, until it's cleared.
+ * </p>
+ * <p>
+ * {@link #get(int)} returns element of the same class that was added, so the list is
+ * indistinguishable from {@link java.util.ArrayList} through {@code List} interface.
+ * This class is not thread-safe.
+ * </p>
+ */
+public class PrimitiveList extends AbstractList<Object> implements RandomAccess, Serializable {
+    @Serial
+    private static final long serialVersionUID = -5380137196651385921L;
+
+    private static final int DEFAULT_CAPACITY = 8;
+
+    /**
+     * Kind of array that stores elements
+     */
+    public enum Storage {
+        /**
+         * List has no elements yet, storage is chosen by the first one
+         */
+        EMPTY,
+        DOUBLE,
+        LONG,
+        INT,
+        BOOLEAN,
+        OBJECT
+    }
+
+    private Storage storage = Storage.EMPTY;
+
+    /**
+     * Array of kind defined by {@link #storage}
+     */
+    private transient Object elements;
+    private transient int size;
+
+    public PrimitiveList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity number of elements to allocate space for
+     */
+    public PrimitiveList(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative: " + capacity);
+        }
+
+        this.elements = new Object[capacity];
+    }
+
+    public static @NotNull PrimitiveList ofDoubles(double @NotNull ... values) {
+        PrimitiveList list = new PrimitiveList(values.length);
+        list.addAll(values);
+        return list;
+    }
+
+    public static @NotNull PrimitiveList ofLongs(long @NotNull ... values) {
+        PrimitiveList list = new PrimitiveList(values.length);
+        list.addAll(values);
+        return list;
+    }
+
+    public static @NotNull PrimitiveList ofBooleans(boolean @NotNull ... values) {
+        PrimitiveList list = new PrimitiveList(values.length);
+        list.addAll(values);
+        return list;
+    }
+
+    private static Storage storageOf(Object element) {
+        if (element instanceof Double) return Storage.DOUBLE;
+        if (element instanceof Long) return Storage.LONG;
+        if (element instanceof Integer) return Storage.INT;
+        if (element instanceof Boolean) return Storage.BOOLEAN;
+        return Storage.OBJECT;
+    }
+
+    public @NotNull Storage getStorage() {
+        return storage;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Object get(int index) {
+        Objects.checkIndex(index, size);
+        return switch (storage) {
+            case DOUBLE -> ((double[]) elements)[index];
+            case LONG -> ((long[]) elements)[index];
+            case INT -> ((int[]) elements)[index];
+            case BOOLEAN -> ((boolean[]) elements)[index];
+            default -> ((Object[]) elements)[index];
+        };
+    }
+
+    @Override
+    public Object set(int index, Object element) {
+        Object previous = get(index);
+        prepare(element);
+        store(index, element);
+        return previous;
+    }
+
+    @Override
+    public boolean add(Object element) {
+        add(size, element);
+        return true;
+    }
+
+    @Override
+    public void add(int index, Object element) {
+        Objects.checkIndex(index, size + 1);
+        prepare(element);
+        if (size == Array.getLength(elements)) {
+            elements = resize(elements, Math.max(DEFAULT_CAPACITY, size + (size >> 1)));
+        }
+
+        System.arraycopy(elements, index, elements, index + 1, size - index);
+        store(index, element);
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public Object remove(int index) {
+        Object previous = get(index);
+        System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+        size--;
+        if (storage == Storage.OBJECT) {
+            ((Object[]) elements)[size] = null;
+        }
+
+        modCount++;
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        elements = new Object[Math.min(Array.getLength(elements), DEFAULT_CAPACITY)];
+        storage = Storage.EMPTY;
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Switches storage so that it can hold {@code element}
+     */
+    private void prepare(Object element) {
+        if (storage == Storage.OBJECT) {
+            return;
+        }
+
+        Storage required = storageOf(element);
+        if (required == storage) {
+            return;
+        }
+
+        if (storage == Storage.EMPTY && size == 0) {
+            int capacity = Math.max(Array.getLength(elements), DEFAULT_CAPACITY);
+            elements = switch (required) {
+                case DOUBLE -> new double[capacity];
+                case LONG -> new long[capacity];
+                case INT -> new int[capacity];
+                case BOOLEAN -> new boolean[capacity];
+                default -> elements;
+            };
+
+            storage = required;
+            return;
+        }
+
+        Object[] boxed = new Object[Array.getLength(elements)];
+        for (int i = 0; i < size; i++) {
+            boxed[i] = get(i);
+        }
+
+        elements = boxed;
+        storage = Storage.OBJECT;
+    }
+
+    private void store(int index, Object element) {
+        switch (storage) {
+            case DOUBLE -> ((double[]) elements)[index] = (Double) element;
+            case LONG -> ((long[]) elements)[index] = (Long) element;
+            case INT -> ((int[]) elements)[index] = (Integer) element;
+            case BOOLEAN -> ((boolean[]) elements)[index] = (Boolean) element;
+            default -> ((Object[]) elements)[index] = element;
+        }
+    }
+
+    private static Object resize(Object array, int length) {
+        Object resized = Array.newInstance(array.getClass().getComponentType(), length);
+        System.arraycopy(array, 0, resized, 0, Math.min(Array.getLength(array), length));
+        return resized;
+    }
+
+    private void ensureCapacity(int capacity) {
+        int length = Array.getLength(elements);
+        if (capacity > length) {
+            elements = resize(elements, Math.max(capacity, length + (length >> 1)));
+        }
+    }
+
+    /**
+     * @param index index of element
+     * @return element as {@code double}
+     * @throws ClassCastException if element is not a {@code Number}
+     * @throws NullPointerException if element is {@code null}
+     */
+    public double getDouble(int index) {
+        Objects.checkIndex(index, size);
+        return switch (storage) {
+            case DOUBLE -> ((double[]) elements)[index];
+            case LONG -> ((long[]) elements)[index];
+            case INT -> ((int[]) elements)[index];
+            default -> ((Number) get(index)).doubleValue();
+        };
+    }
+
+    /**
+     * @param index index of element
+     * @return element as {@code long}
+     * @throws ClassCastException if element is not a {@code Number}
+     * @throws NullPointerException if element is {@code null}
+     */
+    public long getLong(int index) {
+        Objects.checkIndex(index, size);
+        return switch (storage) {
+            case LONG -> ((long[]) elements)[index];
+            case INT -> ((int[]) elements)[index];
+            default -> ((Number) get(index)).longValue();
+        };
+    }
+
+    /**
+     * @param index index of element
+     * @return element as {@code boolean}
+     * @throws ClassCastException if element is not a {@code Boolean}
+     * @throws NullPointerException if element is {@code null}
+     */
+    public boolean getBoolean(int index) {
+        Objects.checkIndex(index, size);
+        return storage == Storage.BOOLEAN ? ((boolean[]) elements)[index] : (Boolean) get(index);
+    }
+
+    /**
+     * @return new array of all elements as {@code double}
+     * @throws ClassCastException if any element is not a {@code Number}
+     * @throws NullPointerException if any element is {@code null}
+     */
+    public double @NotNull [] toDoubleArray() {
+        if (storage == Storage.DOUBLE) {
+            return Arrays.copyOf((double[]) elements, size);
+        }
+
+        double[] array = new double[size];
+        for (int i = 0; i < size; i++) {
+            array[i] = getDouble(i);
+        }
+
+        return array;
+    }
+
+    /**
+     * @return new array of all elements as {@code long}
+     * @throws ClassCastException if any element is not a {@code Number}
+     * @throws NullPointerException if any element is {@code null}
+     */
+    public long @NotNull [] toLongArray() {
+        if (storage == Storage.LONG) {
+            return Arrays.copyOf((long[]) elements, size);
+        }
+
+        long[] array = new long[size];
+        for (int i = 0; i < size; i++) {
+            array[i] = getLong(i);
+        }
+
+        return array;
+    }
+
+    /**
+     * @return new array of all elements as {@code boolean}
+     * @throws ClassCastException if any element is not a {@code Boolean}
+     * @throws NullPointerException if any element is {@code null}
+     */
+    public boolean @NotNull [] toBooleanArray() {
+        if (storage == Storage.BOOLEAN) {
+            return Arrays.copyOf((boolean[]) elements, size);
+        }
+
+        boolean[] array = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            array[i] = getBoolean(i);
+        }
+
+        return array;
+    }
+
+    /**
+     * Appends values as {@code Double} elements, copying them at once if list stores doubles
+     *
+     * @param values values to append
+     */
+    public void addAll(double @NotNull ... values) {
+        if (values.length == 0) {
+            return;
+        }
+
+        prepare(0.0);
+        if (storage != Storage.DOUBLE) {
+            for (double value : values) {
+                add(value);
+            }
+
+            return;
+        }
+
+        ensureCapacity(size + values.length);
+        System.arraycopy(values, 0, elements, size, values.length);
+        size += values.length;
+        modCount++;
+    }
+
+    /**
+     * Appends values as {@code Long} elements, copying them at once if list stores longs
+     *
+     * @param values values to append
+     */
+    public void addAll(long @NotNull ... values) {
+        if (values.length == 0) {
+            return;
+        }
+
+        prepare(0L);
+        if (storage != Storage.LONG) {
+            for (long value : values) {
+                add(value);
+            }
+
+            return;
+        }
+
+        ensureCapacity(size + values.length);
+        System.arraycopy(values, 0, elements, size, values.length);
+        size += values.length;
+        modCount++;
+    }
+
+    /**
+     * Appends values as {@code Boolean} elements, copying them at once if list stores booleans
+     *
+     * @param values values to append
+     */
+    public void addAll(boolean @NotNull ... values) {
+        if (values.length == 0) {
+            return;
+        }
+
+        prepare(false);
+        if (storage != Storage.BOOLEAN) {
+            for (boolean value : values) {
+                add(value);
+            }
+
+            return;
+        }
+
+        ensureCapacity(size + values.length);
+        System.arraycopy(values, 0, elements, size, values.length);
+        size += values.length;
+        modCount++;
+    }
+
+    @Serial
+    private void writeObject(@NotNull ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            switch (storage) {
+                case DOUBLE -> out.writeDouble(((double[]) elements)[i]);
+                case LONG -> out.writeLong(((long[]) elements)[i]);
+                case INT -> out.writeInt(((int[]) elements)[i]);
+                case BOOLEAN -> out.writeBoolean(((boolean[]) elements)[i]);
+                default -> out.writeObject(((Object[]) elements)[i]);
+            }
+        }
+    }
+
+    @Serial
+    private void readObject(@NotNull ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        int count = in.readInt();
+        if (count < 0 || count > 0 && storage == Storage.EMPTY) {
+            throw new InvalidObjectException("Invalid size: " + count);
+        }
+
+        elements = switch (storage) {
+            case DOUBLE -> new double[count];
+            case LONG -> new long[count];
+            case INT -> new int[count];
+            case BOOLEAN -> new boolean[count];
+            default -> new Object[count];
+        };
+
+        for (int i = 0; i < count; i++) {
+            switch (storage) {
+                case DOUBLE -> ((double[]) elements)[i] = in.readDouble();
+                case LONG -> ((long[]) elements)[i] = in.readLong();
+                case INT -> ((int[]) elements)[i] = in.readInt();
+                case BOOLEAN -> ((boolean[]) elements)[i] = in.readBoolean();
+                default -> ((Object[]) elements)[i] = in.readObject();
+            }
+        }
+
+        size = count;
+    }
+}
@@ -0,0 +1,120 @@
+package ru.introguzzle.parsers.common.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Per-thread cache of a single scratch object, such as a buffer or a stack, that a parser
+ * needs only for the duration of one call.
+ * <p>
+ * {@link #acquire()} takes the cached object out of the pool, so nested or recursive calls
+ * on the same thread never share it: they simply get a fresh one. {@link #release(Object)}
+ * puts object back unless it has grown beyond maximal retained size, so a single huge document
+ * doesn't pin a huge buffer to the thread for its lifetime. Pool doesn't reset state of objects,
+ * the caller must clear what it reads.
+ * </p>
+ * <p>
+ * Virtual threads bypass the pool: they usually run a single task, such as asynchronous parsing,
+ * so a cached object would never be reused and would only add a thread-local map to every thread.
+ * There {@link #acquire()} always creates new object and {@link #release(Object)} drops it.
+ * </p>
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * StringBuilder builder = ScratchPool.STRING_BUILDERS.acquire();
+ * try {
+ *     builder.setLength(0);
+ *     ...
+ *     return builder.toString();
+ * } finally {
+ *     ScratchPool.STRING_BUILDERS.release(builder);
+ * }
+ * }</pre>
+ *
+ * @param <T> type of scratch object
+ */
+public final class ScratchPool<T> {
+    /**
+     * Maximal size (capacity in elements) of scratch objects that are retained by default
+     */
+    public static final int DEFAULT_MAX_RETAINED_SIZE = 16 * 1024;
+
+    public static final ScratchPool<StringBuilder> STRING_BUILDERS
+            = new ScratchPool<>(() -> new StringBuilder(64), StringBuilder::capacity);
+
+    public static final ScratchPool<int[]> INT_ARRAYS
+            = new ScratchPool<>(() -> new int[16], array -> array.length);
+
+    public static final ScratchPool<char[]> CHAR_ARRAYS
+            = new ScratchPool<>(() -> new char[16], array -> array.length);
+
+    public static final ScratchPool<byte[]> BYTE_ARRAYS
+            = new ScratchPool<>(() -> new byte[16], array -> array.length);
+
+    private final ThreadLocal<T> local = new ThreadLocal<>();
+    private final Supplier<? extends T> factory;
+    private final ToIntFunction<? super T> size;
+    private final int maxRetainedSize;
+
+    /**
+     * @param factory creates scratch object when pool of current thread is empty
+     * @param size measures size of scratch object
+     */
+    public ScratchPool(@NotNull Supplier<? extends T> factory, @NotNull ToIntFunction<? super T> size) {
+        this(factory, size, DEFAULT_MAX_RETAINED_SIZE);
+    }
+
+    /**
+     * @param factory creates scratch object when pool of current thread is empty
+     * @param size measures size of scratch object
+     * @param maxRetainedSize objects larger than this are dropped on release
+     */
+    public ScratchPool(@NotNull Supplier<? extends T> factory,
+                       @NotNull ToIntFunction<? super T> size,
+                       int maxRetainedSize) {
+        if (maxRetainedSize < 0) {
+            throw new IllegalArgumentException("Maximal retained size must not be negative: " + maxRetainedSize);
+        }
+
+        this.factory = Objects.requireNonNull(factory);
+        this.size = Objects.requireNonNull(size);
+        this.maxRetainedSize = maxRetainedSize;
+    }
+
+    /**
+     * Takes scratch object of current thread out of the pool or creates new one if it's empty
+     *
+     * @return scratch object owned by the caller until it's released
+     */
+    public @NotNull T acquire() {
+        if (Thread.currentThread().isVirtual()) {
+            return factory.get();
+        }
+
+        T value = local.get();
+        if (value == null) {
+            return factory.get();
+        }
+
+        local.set(null);
+        return value;
+    }
+
+    /**
+     * Returns scratch object to the pool of current thread. Object must not be used after that
+     *
+     * @param value object obtained from {@link #acquire()}, possibly grown by the caller
+     */
+    public void release(@NotNull T value) {
+        if (!Thread.currentThread().isVirtual() && size.applyAsInt(value) <= maxRetainedSize) {
+            local.set(value);
+        }
+    }
+
+    public int getMaxRetainedSize() {
+        return maxRetainedSize;
+    }
+}
@@ -0,0 +1,187 @@
+package ru.introguzzle.parsers.common.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable ordered set of keys that maps every key to a slot index, shared by
+ * {@link ShapedMap} instances with the same keys in the same order.
+ * <p>
+ * Shapes form a tree: every shape but the root is derived from its parent by appending a key,
+ * and derived shapes are cached in the parent, so maps that were filled with the same keys
+ * in the same order end up with the same shape instance. A tree is created with {@link #root()}
+ * and lives as long as shapes or maps refer to it, so a parser creates one tree per document
+ * and shapes are shared only among objects of that document.
+ * </p>
+ * <p>
+ * To keep trees small shapes are limited to {@value #MAX_SIZE} keys and {@value #MAX_TRANSITIONS}
+ * derived shapes per shape. When either limit is reached {@link #with(Object)} returns {@code null}
+ * and maps fall back to their own storage. Shapes are thread-safe.
+ * </p>
+ *
+ * @param <K> the type of keys
+ */
+public final class Shape<K> {
+    /**
+     * Maximal number of keys in a shape
+     */
+    public static final int MAX_SIZE = 32;
+
+    /**
+     * Maximal number of shapes derived from a single shape
+     */
+    public static final int MAX_TRANSITIONS = 16;
+
+    private final Shape<K> root;
+    private final Object[] keys;
+    private final int[] hashes;
+
+    /**
+     * The most recently derived shape, checked before {@link #transitions}
+     */
+    private volatile Shape<K> last;
+    private volatile ConcurrentHashMap<K, Shape<K>> transitions;
+
+    private Shape() {
+        this.root = this;
+        this.keys = new Object[0];
+        this.hashes = new int[0];
+    }
+
+    private Shape(Shape<K> parent, K key) {
+        int size = parent.keys.length;
+        this.root = parent.root;
+        this.keys = Arrays.copyOf(parent.keys, size + 1);
+        this.hashes = Arrays.copyOf(parent.hashes, size + 1);
+        this.keys[size] = key;
+        this.hashes[size] = key.hashCode();
+    }
+
+    /**
+     * Creates root of a new tree of shapes
+     *
+     * @return shape without keys
+     */
+    public static <K> @NotNull Shape<K> root() {
+        return new Shape<>();
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    public boolean isRoot() {
+        return this == root;
+    }
+
+    /**
+     * @return root of tree of this shape
+     */
+    public @NotNull Shape<K> getRoot() {
+        return root;
+    }
+
+    /**
+     * @param slot slot index
+     * @return key that occupies slot
+     */
+    @SuppressWarnings("unchecked")
+    public @NotNull K key(int slot) {
+        return (K) keys[Objects.checkIndex(slot, keys.length)];
+    }
+
+    /**
+     * @param key key
+     * @return slot of key or {@code -1} if shape doesn't contain it
+     */
+    public int indexOf(@Nullable Object key) {
+        if (key == null) {
+            return -1;
+        }
+
+        int hash = key.hashCode();
+        for (int i = 0; i < keys.length; i++) {
+            if (hashes[i] == hash && (keys[i] == key || keys[i].equals(key))) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns shape that has keys of this shape followed by {@code key}. Key must not be in this shape
+     *
+     * @param key key to append
+     * @return derived shape or {@code null} if any limit of tree is reached
+     */
+    public @Nullable Shape<K> with(@NotNull K key) {
+        Objects.requireNonNull(key, "key");
+        Shape<K> last = this.last;
+        if (last != null && key.equals(last.keys[keys.length])) {
+            return last;
+        }
+
+        ConcurrentHashMap<K, Shape<K>> transitions = this.transitions;
+        Shape<K> shape = transitions == null ? null : transitions.get(key);
+        if (shape == null) {
+            shape = derive(key);
+            if (shape == null) {
+                return null;
+            }
+        }
+
+        this.last = shape;
+        return shape;
+    }
+
+    private synchronized @Nullable Shape<K> derive(K key) {
+        if (keys.length == MAX_SIZE) {
+            return null;
+        }
+
+        if (transitions == null) {
+            transitions = new ConcurrentHashMap<>(4);
+        }
+
+        Shape<K> shape = transitions.get(key);
+        if (shape == null) {
+            if (transitions.size() == MAX_TRANSITIONS) {
+                return null;
+            }
+
+            shape = new Shape<>(this, key);
+            transitions.put(key, shape);
+        }
+
+        return shape;
+    }
+
+    /**
+     * Returns shape of the same tree that has keys of this shape except key at {@code slot}
+     *
+     * @param slot slot to remove
+     * @return derived shape or {@code null} if any limit of tree is reached
+     */
+    @SuppressWarnings("unchecked")
+    public @Nullable Shape<K> without(int slot) {
+        Objects.checkIndex(slot, keys.length);
+        Shape<K> shape = root;
+        for (int i = 0; i < keys.length && shape != null; i++) {
+            if (i != slot) {
+                shape = shape.with((K) keys[i]);
+            }
+        }
+
+        return shape;
+    }
+
+    @Override
+    public String toString() {
+        return "Shape" + Arrays.toString(keys);
+    }
+}
@@ -0,0 +1,412 @@
+package ru.introguzzle.parsers.common.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Insertion-ordered {@link Map} that keeps its keys in a shared {@link Shape} and only
+ * values in its own array.
+ * <p>
+ * Maps that are created from the same root shape and filled with the same keys in the same order
+ * share one shape instance, so a document of thousands of records with identical keys stores
+ * the keys once, and looking a key up is a scan of the shared shape followed by an array index.
+ * Adding a key transitions map to a derived shape, removing one transitions it to the shape
+ * without that key.
+ * </p>
+ * <p>
+ * If a shape can't be derived because limits of its tree are reached or key is {@code null},
+ * map moves its entries to a private {@link CompactMap} and keeps working in this dictionary mode
+ * until it's cleared. This class is not thread-safe, although shapes are.
+ * </p>
+ *
+ * @param <K> the type of keys maintained by this map
+ * @param <V> the type of mapped values
+ */
+public class ShapedMap<K, V> extends AbstractMap<K, V> implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 2958023406735261823L;
+
+    private static final int DEFAULT_CAPACITY = 4;
+    private static final Object[] EMPTY = {};
+
+    private transient Shape<K> shape;
+    private transient Object[] values = EMPTY;
+
+    /**
+     * Storage of dictionary mode, {@code null} while map is shaped
+     */
+    private transient CompactMap<K, V> dictionary;
+    private transient int modCount;
+    private transient Set<Entry<K, V>> entrySet;
+
+    /**
+     * Constructs empty map with shapes of a new tree, which isn't shared with other maps
+     */
+    public ShapedMap() {
+        this(Shape.root());
+    }
+
+    /**
+     * Constructs empty map with shapes of tree of {@code root}
+     *
+     * @param root root shape
+     * @throws IllegalArgumentException if {@code root} is not a root shape
+     */
+    public ShapedMap(@NotNull Shape<K> root) {
+        if (!root.isRoot()) {
+            throw new IllegalArgumentException("Shape must be a root: " + root);
+        }
+
+        this.shape = root;
+    }
+
+    /**
+     * @return current shape, or root shape if map is in dictionary mode
+     */
+    public @NotNull Shape<K> getShape() {
+        return shape;
+    }
+
+    /**
+     * @return {@code true} if keys of this map are stored in its shape
+     */
+    public boolean isShaped() {
+        return dictionary == null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(int slot) {
+        return (V) values[slot];
+    }
+
+    @Override
+    public int size() {
+        return dictionary == null ? shape.size() : dictionary.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return dictionary == null ? shape.indexOf(key) >= 0 : dictionary.containsKey(key);
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        if (dictionary != null) {
+            return dictionary.containsValue(value);
+        }
+
+        for (int i = 0; i < shape.size(); i++) {
+            if (Objects.equals(value, values[i])) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public V get(Object key) {
+        if (dictionary != null) {
+            return dictionary.get(key);
+        }
+
+        int slot = shape.indexOf(key);
+        return slot < 0 ? null : valueAt(slot);
+    }
+
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        if (dictionary != null) {
+            return dictionary.getOrDefault(key, defaultValue);
+        }
+
+        int slot = shape.indexOf(key);
+        return slot < 0 ? defaultValue : valueAt(slot);
+    }
+
+    @Override
+    public V put(K key, V value) {
+        if (dictionary != null) {
+            return dictionary.put(key, value);
+        }
+
+        int slot = shape.indexOf(key);
+        if (slot >= 0) {
+            V previous = valueAt(slot);
+            values[slot] = value;
+            return previous;
+        }
+
+        Shape<K> next = key == null ? null : shape.with(key);
+        if (next == null) {
+            toDictionary();
+            return dictionary.put(key, value);
+        }
+
+        int size = shape.size();
+        if (size == values.length) {
+            values = Arrays.copyOf(values, Math.max(DEFAULT_CAPACITY, size * 2));
+        }
+
+        values[size] = value;
+        shape = next;
+        modCount++;
+        return null;
+    }
+
+    @Override
+    public V remove(Object key) {
+        if (dictionary != null) {
+            return dictionary.remove(key);
+        }
+
+        int slot = shape.indexOf(key);
+        if (slot < 0) {
+            return null;
+        }
+
+        V previous = valueAt(slot);
+        removeAt(slot);
+        return previous;
+    }
+
+    private void removeAt(int slot) {
+        Shape<K> next = shape.without(slot);
+        if (next == null) {
+            K key = shape.key(slot);
+            toDictionary();
+            dictionary.remove(key);
+            return;
+        }
+
+        int size = shape.size();
+        System.arraycopy(values, slot + 1, values, slot, size - slot - 1);
+        values[size - 1] = null;
+        shape = next;
+        modCount++;
+    }
+
+    @Override
+    public void clear() {
+        dictionary = null;
+        Arrays.fill(values, 0, shape.size(), null);
+        shape = shape.getRoot();
+        modCount++;
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        if (dictionary != null) {
+            dictionary.forEach(action);
+            return;
+        }
+
+        Objects.requireNonNull(action);
+        int expected = modCount;
+        for (int i = 0; i < shape.size(); i++) {
+            action.accept(shape.key(i), valueAt(i));
+            if (modCount != expected) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    /**
+     * Moves entries to private storage
+     */
+    private void toDictionary() {
+        int size = shape.size();
+        CompactMap<K, V> dictionary = new CompactMap<>(size + 1);
+        for (int i = 0; i < size; i++) {
+            dictionary.put(shape.key(i), valueAt(i));
+        }
+
+        this.dictionary = dictionary;
+        this.values = EMPTY;
+        this.shape = shape.getRoot();
+    }
+
+    @Override
+    public @NotNull Set<Entry<K, V>> entrySet() {
+        Set<Entry<K, V>> set = entrySet;
+        return set == null ? (entrySet = new EntrySet()) : set;
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<K, V>> {
+        @Override
+        public @NotNull Iterator<Entry<K, V>> iterator() {
+            return dictionary == null ? new EntryIterator() : dictionary.entrySet().iterator();
+        }
+
+        @Override
+        public int size() {
+            return ShapedMap.this.size();
+        }
+
+        @Override
+        public void clear() {
+            ShapedMap.this.clear();
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Entry<K, V>> {
+        private int next;
+        private int last = -1;
+        private int expected = modCount;
+
+        /**
+         * Iterator of dictionary if map has moved to it while being iterated
+         */
+        private Iterator<Entry<K, V>> delegate;
+
+        @Override
+        public boolean hasNext() {
+            return delegate == null ? next < shape.size() : delegate.hasNext();
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (delegate != null) {
+                return delegate.next();
+            }
+
+            if (modCount != expected || dictionary != null) {
+                throw new ConcurrentModificationException();
+            }
+
+            if (next >= shape.size()) {
+                throw new NoSuchElementException();
+            }
+
+            last = next++;
+            return new EntryView(shape.key(last), last);
+        }
+
+        @Override
+        public void remove() {
+            if (delegate != null) {
+                delegate.remove();
+                return;
+            }
+
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+
+            if (modCount != expected || dictionary != null) {
+                throw new ConcurrentModificationException();
+            }
+
+            removeAt(last);
+            if (dictionary != null) {
+                // Dictionary keeps order of entries, skip those that were already returned
+                delegate = dictionary.entrySet().iterator();
+                for (int i = 0; i < last; i++) {
+                    delegate.next();
+                }
+            }
+
+            next = last;
+            last = -1;
+            expected = modCount;
+        }
+    }
+
+    /**
+     * Entry that reads and writes through to the map
+     */
+    private final class EntryView implements Entry<K, V> {
+        private final K key;
+        private final int slot;
+
+        EntryView(K key, int slot) {
+            this.key = key;
+            this.slot = slot;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return dictionary == null ? valueAt(slot) : dictionary.get(key);
+        }
+
+        @Override
+        public V setValue(V value) {
+            if (dictionary != null) {
+                return dictionary.put(key, value);
+            }
+
+            V previous = valueAt(slot);
+            values[slot] = value;
+            return previous;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Map.Entry<?, ?> entry
+                    && Objects.equals(key, entry.getKey())
+                    && Objects.equals(getValue(), entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + getValue();
+        }
+    }
+
+    @Serial
+    private void writeObject(@NotNull ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeInt(size());
+        for (Entry<K, V> entry : entrySet()) {
+            out.writeObject(entry.getKey());
+            out.writeObject(entry.getValue());
+        }
+    }
+
+    @Serial
+    @SuppressWarnings("unchecked")
+    private void readObject(@NotNull ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        int count = in.readInt();
+        if (count < 0) {
+            throw new InvalidObjectException("Negative size: " + count);
+        }
+
+        shape = Shape.root();
+        values = EMPTY;
+        for (int i = 0; i < count; i++) {
+            put((K) in.readObject(), (V) in.readObject());
+        }
+    }
+}
@@ -5,7 +5,9 @@ import org.jetbrains.annotations.NotNull;
 import ru.introguzzle.parsers.common.convert.NameConverter;
 import ru.introguzzle.parsers.common.io.resource.ClassResourceLoader;
 import ru.introguzzle.parsers.common.parse.BaseParser;
+import ru.introguzzle.parsers.common.parse.ParseLimits;
 import ru.introguzzle.parsers.common.util.NamingUtilities;
+import ru.introguzzle.parsers.json.parse.NumberPolicy;
 import ru.introguzzle.parsers.yaml.SimpleYAMLParser;
 import ru.introguzzle.parsers.yaml.YAMLDocument;
 
@@ -32,6 +34,12 @@ public final class Configuration {
     final Property<TimeUnit> cacheTimeUnit;
     final Property<Boolean> debugEnabled;
     final Property<Boolean> entityValidationEnabled;
+    final Property<NumberPolicy> numberPolicy;
+    final Property<Boolean> shapeSharing;
+    final Property<Integer> maxDepth;
+    final Property<Integer> maxDocumentLength;
+    final Property<Integer> maxStringLength;
+    final Property<Integer> maxEntries;
 
     public static Configuration instance() {
         return Holder.INSTANCE;
@@ -60,6 +68,13 @@ public final class Configuration {
 
         debugEnabled = FACTORY.ofBoolean("debug", false);
         entityValidationEnabled = FACTORY.ofBoolean("entity.validation", true);
+        numberPolicy = FACTORY.ofEnum("json.number_policy", NumberPolicy.class, NumberPolicy.DOUBLE);
+        shapeSharing = FACTORY.ofBoolean("json.shape_sharing", false);
+
+        maxDepth = FACTORY.ofInteger("limits.max_depth", 1000);
+        maxDocumentLength = FACTORY.ofInteger("limits.max_document_length", Integer.MAX_VALUE);
+        maxStringLength = FACTORY.ofInteger("limits.max_string_length", Integer.MAX_VALUE);
+        maxEntries = FACTORY.ofInteger("limits.max_entries", Integer.MAX_VALUE);
     }
 
     public boolean isLoaded() {
@@ -146,11 +161,41 @@ public final class Configuration {
         return entityValidationEnabled;
     }
 
+    @SuppressWarnings("ALL")
+    public Property<NumberPolicy> getNumberPolicyProperty() {
+        return numberPolicy;
+    }
+
+    @SuppressWarnings("ALL")
+    public Property<Boolean> getShapeSharingProperty() {
+        return shapeSharing;
+    }
+
+    @SuppressWarnings("ALL")
+    public Property<Integer> getMaxDepthProperty() {
+        return maxDepth;
+    }
+
+    @SuppressWarnings("ALL")
+    public Property<Integer> getMaxDocumentLengthProperty() {
+        return maxDocumentLength;
+    }
+
+    @SuppressWarnings("ALL")
+    public Property<Integer> getMaxStringLengthProperty() {
+        return maxStringLength;
+    }
+
+    @SuppressWarnings("ALL")
+    public Property<Integer> getMaxEntriesProperty() {
+        return maxEntries;
+    }
+
     private static final PropertyFactory<YAMLDocument> FACTORY =
             new PropertyFactory<>(new ClassResourceLoader<>() {
                 @Override
                 public @NotNull BaseParser<YAMLDocument> getParser() {
-                    return new SimpleYAMLParser(2);
+                    return new SimpleYAMLParser(2, ParseLimits.NONE);
                 }
             }, CONFIG_PATH, ((document, key) -> document.get(key, String.class)));
 
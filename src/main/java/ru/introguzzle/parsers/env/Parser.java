@@ -42,7 +42,7 @@ public abstract class Parser implements BaseParser<Environment> {
 
     public final @NotNull Environment parse(@NotNull Path path,
                                             @NotNull Charset encoding) {
-        return parse(IO.readString(path, encoding));
+        return parse(encoding.decode(IO.map(path)).toString());
     }
 
     public final @NotNull Environment parseDefault() {
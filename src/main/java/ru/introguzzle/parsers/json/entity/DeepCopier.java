@@ -8,13 +8,11 @@ class DeepCopier {
             Object value = entry.getValue();
             if (value instanceof JSONObject object) {
                 copy.put(key, createDeepCopy(object));
-            }
-
-            if (value instanceof JSONArray array) {
+            } else if (value instanceof JSONArray array) {
                 copy.put(key, createDeepCopy(array));
+            } else {
+                copy.put(key, value);
             }
-
-            copy.put(key, value);
         }
 
         return copy;
@@ -25,13 +23,11 @@ class DeepCopier {
         for (Object item : original) {
             if (item instanceof JSONObject object) {
                 copy.add(createDeepCopy(object));
-            }
-
-            if (item instanceof JSONArray array) {
+            } else if (item instanceof JSONArray array) {
                 copy.add(createDeepCopy(array));
+            } else {
+                copy.add(item);
             }
-
-            copy.add(item);
         }
 
         return copy;
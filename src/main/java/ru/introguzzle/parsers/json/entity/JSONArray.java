@@ -1,13 +1,18 @@
 package ru.introguzzle.parsers.json.entity;
 
 import org.jetbrains.annotations.NotNull;
+import ru.introguzzle.parsers.common.util.PrimitiveList;
 import ru.introguzzle.parsers.common.util.UntypedArray;
 import ru.introguzzle.parsers.common.visit.Visitable;
 import ru.introguzzle.parsers.common.visit.Visitor;
+import ru.introguzzle.parsers.json.patch.JSONDiff;
+import ru.introguzzle.parsers.json.patch.JSONPatch;
+import ru.introguzzle.parsers.json.patch.JSONPatchException;
 
 import java.io.Serial;
 import java.io.Serializable;
 import java.util.*;
+import java.util.function.UnaryOperator;
 
 /**
  * Represents a JSON array as a list of objects.
@@ -71,6 +76,11 @@ public class JSONArray extends UntypedArray implements
         PERMITTED_CLASSES = Types.PERMITTED_CLASSES;
     }
 
+    /**
+     * Tracker of changes and cache of serialized form, {@code null} until this array is tracked
+     */
+    transient volatile SerializedForm form;
+
     /**
      * Creates a new {@code JSONArray} containing the specified items.
      *
@@ -82,6 +92,39 @@ public class JSONArray extends UntypedArray implements
         return new JSONArray(List.of(items));
     }
 
+    /**
+     * Creates a new {@code JSONArray} of {@code Double} elements stored without boxing.
+     *
+     * @param values the values to be added to the new array
+     * @return a new {@code JSONArray} containing the specified values
+     * @see PrimitiveList
+     */
+    public static JSONArray ofDoubles(double... values) {
+        return new JSONArray(PrimitiveList.ofDoubles(values));
+    }
+
+    /**
+     * Creates a new {@code JSONArray} of {@code Long} elements stored without boxing.
+     *
+     * @param values the values to be added to the new array
+     * @return a new {@code JSONArray} containing the specified values
+     * @see PrimitiveList
+     */
+    public static JSONArray ofLongs(long... values) {
+        return new JSONArray(PrimitiveList.ofLongs(values));
+    }
+
+    /**
+     * Creates a new {@code JSONArray} of {@code Boolean} elements stored without boxing.
+     *
+     * @param values the values to be added to the new array
+     * @return a new {@code JSONArray} containing the specified values
+     * @see PrimitiveList
+     */
+    public static JSONArray ofBooleans(boolean... values) {
+        return new JSONArray(PrimitiveList.ofBooleans(values));
+    }
+
     /**
      * Constructs an empty {@code JSONArray}.
      */
@@ -125,7 +168,9 @@ public class JSONArray extends UntypedArray implements
      */
     @Override
     public boolean addAll(@NotNull Collection<?> c) {
-        return super.addAll(Types.requirePermittedTypes(c));
+        boolean changed = super.addAll(Types.requirePermittedTypes(c));
+        SerializedForm.changed(form, c);
+        return changed;
     }
 
     /**
@@ -134,7 +179,9 @@ public class JSONArray extends UntypedArray implements
      */
     @Override
     public boolean addAll(int index, @NotNull Collection<?> c) {
-        return super.addAll(index, Types.requirePermittedTypes(c));
+        boolean changed = super.addAll(index, Types.requirePermittedTypes(c));
+        SerializedForm.changed(form, c);
+        return changed;
     }
 
     /**
@@ -167,7 +214,146 @@ public class JSONArray extends UntypedArray implements
      * @throws IllegalArgumentException if the class of {@code element} is not permitted
      */
     public boolean addChecked(Object element) {
-        return super.add(Types.requirePermittedType(element, EntityUnion.ARRAY));
+        boolean added = super.add(Types.requirePermittedType(element, EntityUnion.ARRAY));
+        SerializedForm.changed(form, null, element);
+        return added;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void add(int index, Object element) {
+        super.add(index, element);
+        SerializedForm.changed(form, null, element);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object set(int index, Object element) {
+        Object previous = super.set(index, element);
+        SerializedForm.changed(form, previous, element);
+        return previous;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object remove(int index) {
+        Object previous = super.remove(index);
+        SerializedForm.changed(form, previous, null);
+        return previous;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean remove(Object o) {
+        if (form == null) {
+            return super.remove(o);
+        }
+
+        int index = indexOf(o);
+        if (index < 0) {
+            return false;
+        }
+
+        remove(index);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean removeAll(@NotNull Collection<?> c) {
+        SerializedForm form = this.form;
+        List<Object> candidates = form == null ? null : new ArrayList<>(list);
+        boolean changed = super.removeAll(c);
+        SerializedForm.released(form, candidates);
+        return changed;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean retainAll(@NotNull Collection<?> c) {
+        SerializedForm form = this.form;
+        List<Object> candidates = form == null ? null : new ArrayList<>(list);
+        boolean changed = super.retainAll(c);
+        SerializedForm.released(form, candidates);
+        return changed;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void replaceAll(UnaryOperator<Object> operator) {
+        SerializedForm form = this.form;
+        List<Object> candidates = form == null ? null : new ArrayList<>(list);
+        super.replaceAll(operator);
+        SerializedForm.replaced(form, candidates, list);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear() {
+        SerializedForm form = this.form;
+        List<Object> candidates = form == null ? null : new ArrayList<>(list);
+        super.clear();
+        SerializedForm.released(form, candidates);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void sort(Comparator<? super Object> c) {
+        super.sort(c);
+        SerializedForm.changed(form);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @NotNull Iterator<Object> iterator() {
+        SerializedForm form = this.form;
+        return form == null ? super.iterator() : TrackingViews.iterator(super.iterator(), form);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @NotNull ListIterator<Object> listIterator() {
+        return listIterator(0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @NotNull ListIterator<Object> listIterator(int index) {
+        SerializedForm form = this.form;
+        return form == null ? super.listIterator(index) : TrackingViews.listIterator(super.listIterator(index), form);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @NotNull List<Object> subList(int fromIndex, int toIndex) {
+        SerializedForm form = this.form;
+        return form == null ? super.subList(fromIndex, toIndex) : TrackingViews.list(super.subList(fromIndex, toIndex), form);
     }
 
     /**
@@ -194,6 +380,158 @@ public class JSONArray extends UntypedArray implements
         return get(index, Number.class);
     }
 
+    /**
+     * Retrieves the element at the specified position in this array as a {@code double}.
+     * Doesn't box the element if this array is backed by {@link PrimitiveList}.
+     *
+     * @param index index of the element to return
+     * @return the element at the specified position as a {@code double}
+     * @throws ClassCastException if the element is not a {@code Number}
+     * @throws NullPointerException if the element is {@code null}
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public double getDouble(int index) {
+        return list instanceof PrimitiveList primitives
+                ? primitives.getDouble(index)
+                : getNumber(index).doubleValue();
+    }
+
+    /**
+     * Retrieves the element at the specified position in this array as a {@code long}.
+     * Doesn't box the element if this array is backed by {@link PrimitiveList}.
+     *
+     * @param index index of the element to return
+     * @return the element at the specified position as a {@code long}
+     * @throws ClassCastException if the element is not a {@code Number}
+     * @throws NullPointerException if the element is {@code null}
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public long getLong(int index) {
+        return list instanceof PrimitiveList primitives
+                ? primitives.getLong(index)
+                : getNumber(index).longValue();
+    }
+
+    /**
+     * Copies all elements of this array to a new {@code double} array.
+     *
+     * @return array of elements as {@code double}
+     * @throws ClassCastException if any element is not a {@code Number}
+     * @throws NullPointerException if any element is {@code null}
+     */
+    public double[] toDoubleArray() {
+        if (list instanceof PrimitiveList primitives) {
+            return primitives.toDoubleArray();
+        }
+
+        double[] array = new double[size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = getNumber(i).doubleValue();
+        }
+
+        return array;
+    }
+
+    /**
+     * Copies all elements of this array to a new {@code long} array.
+     *
+     * @return array of elements as {@code long}
+     * @throws ClassCastException if any element is not a {@code Number}
+     * @throws NullPointerException if any element is {@code null}
+     */
+    public long[] toLongArray() {
+        if (list instanceof PrimitiveList primitives) {
+            return primitives.toLongArray();
+        }
+
+        long[] array = new long[size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = getNumber(i).longValue();
+        }
+
+        return array;
+    }
+
+    /**
+     * Copies all elements of this array to a new {@code boolean} array.
+     *
+     * @return array of elements as {@code boolean}
+     * @throws ClassCastException if any element is not a {@code Boolean}
+     * @throws NullPointerException if any element is {@code null}
+     */
+    public boolean[] toBooleanArray() {
+        if (list instanceof PrimitiveList primitives) {
+            return primitives.toBooleanArray();
+        }
+
+        boolean[] array = new boolean[size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = getBoolean(i);
+        }
+
+        return array;
+    }
+
+    /**
+     * Appends values as {@code Double} elements. Values are copied at once
+     * if this array is backed by {@link PrimitiveList} of doubles.
+     *
+     * @param values the values to be appended
+     */
+    public void addAll(double... values) {
+        if (list instanceof PrimitiveList primitives) {
+            primitives.addAll(values);
+            SerializedForm.changed(form);
+            return;
+        }
+
+        for (double value : values) {
+            super.add(value);
+        }
+
+        SerializedForm.changed(form);
+    }
+
+    /**
+     * Appends values as {@code Long} elements. Values are copied at once
+     * if this array is backed by {@link PrimitiveList} of longs.
+     *
+     * @param values the values to be appended
+     */
+    public void addAll(long... values) {
+        if (list instanceof PrimitiveList primitives) {
+            primitives.addAll(values);
+            SerializedForm.changed(form);
+            return;
+        }
+
+        for (long value : values) {
+            super.add(value);
+        }
+
+        SerializedForm.changed(form);
+    }
+
+    /**
+     * Appends values as {@code Boolean} elements. Values are copied at once
+     * if this array is backed by {@link PrimitiveList} of booleans.
+     *
+     * @param values the values to be appended
+     */
+    public void addAll(boolean... values) {
+        if (list instanceof PrimitiveList primitives) {
+            primitives.addAll(values);
+            SerializedForm.changed(form);
+            return;
+        }
+
+        for (boolean value : values) {
+            super.add(value);
+        }
+
+        SerializedForm.changed(form);
+    }
+
     /**
      * Retrieves the element at the specified position in this array as a {@code String}.
      *
@@ -260,7 +598,95 @@ public class JSONArray extends UntypedArray implements
         return "]";
     }
 
+    /**
+     * Creates a deep copy of this array, nested objects and arrays are copied recursively
+     *
+     * @return deep copy of this array
+     */
     public JSONArray deepCopy() {
         return COPIER.createDeepCopy(this);
     }
+
+    /**
+     * Starts tracking changes of this array and objects and arrays it contains
+     */
+    SerializedForm track() {
+        SerializedForm form = this.form;
+        if (form == null) {
+            synchronized (this) {
+                form = this.form;
+                if (form == null) {
+                    this.form = form = new SerializedForm(this);
+                    form.adoptAll(list);
+                }
+            }
+        }
+
+        return form;
+    }
+
+    /**
+     * Enables or disables caching of compact serialized form of this array.
+     *
+     * @param cached whether to cache serialized form
+     * @see JSONObject#setSerializationCached(boolean)
+     */
+    public void setSerializationCached(boolean cached) {
+        if (cached || form != null) {
+            track().setCaching(cached);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isSerializationCached() {
+        SerializedForm form = this.form;
+        return form != null && form.isCaching();
+    }
+
+    /**
+     * {@inheritDoc}
+     * Result is cached if caching is enabled by {@link #setSerializationCached(boolean)}
+     */
+    @Override
+    public String toJSONStringCompact() {
+        SerializedForm form = this.form;
+        return form == null ? JSONStringConvertable.super.toJSONStringCompact() : form.getString();
+    }
+
+    /**
+     * {@inheritDoc}
+     * Result is cached if caching is enabled by {@link #setSerializationCached(boolean)}
+     */
+    @Override
+    public byte[] toJSONBytes() {
+        SerializedForm form = this.form;
+        return form == null || !form.isCaching()
+                ? JSONStringConvertable.super.toJSONBytes()
+                : form.getBytes().clone();
+    }
+
+    /**
+     * Creates an immutable persistent copy of this array, which returns new versions
+     * that share unchanged subtrees instead of being modified
+     *
+     * @return persistent copy of this array
+     * @see PersistentJSONArray
+     */
+    public PersistentJSONArray toPersistent() {
+        return PersistentJSONArray.of(this);
+    }
+
+    /**
+     * Applies {@code patch} to this array in place
+     *
+     * @param patch patch to apply
+     * @throws JSONPatchException if operation of patch can't be applied or its test fails
+     * @see JSONDiff#diff(JSONArray, JSONArray)
+     */
+    public void apply(@NotNull JSONPatch patch) {
+        patch.apply(this);
+    }
 }
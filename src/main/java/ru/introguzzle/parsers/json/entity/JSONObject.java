@@ -3,6 +3,7 @@ package ru.introguzzle.parsers.json.entity;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import ru.introguzzle.parsers.common.mapping.MappingException;
+import ru.introguzzle.parsers.common.util.CompactMap;
 import ru.introguzzle.parsers.common.util.UntypedMap;
 import ru.introguzzle.parsers.common.convert.ConverterFactory;
 import ru.introguzzle.parsers.common.convert.Converter;
@@ -12,6 +13,10 @@ import ru.introguzzle.parsers.json.mapping.JSONObjectConvertable;
 import ru.introguzzle.parsers.json.mapping.deserialization.ObjectMapper;
 import ru.introguzzle.parsers.json.mapping.reference.StandardCircularReferenceStrategies.CircularReference;
 import ru.introguzzle.parsers.json.mapping.serialization.JSONMapper;
+import ru.introguzzle.parsers.json.patch.JSONDiff;
+import ru.introguzzle.parsers.json.patch.JSONPatch;
+import ru.introguzzle.parsers.json.patch.JSONPatchException;
+import ru.introguzzle.parsers.json.path.JSONPath;
 import ru.introguzzle.parsers.xml.entity.XMLDocument;
 import ru.introguzzle.parsers.xml.entity.XMLDocumentConvertable;
 
@@ -102,15 +107,20 @@ public class JSONObject extends UntypedMap implements
      */
     private volatile transient JSONMapper producer;
 
+    /**
+     * Tracker of changes and cache of serialized form, {@code null} until this object is tracked
+     */
+    transient volatile SerializedForm form;
+
     @Serial
     private static final long serialVersionUID = -697931640108868641L;
 
     /**
-     * Constructs an empty {@code JSONObject} with {@link LinkedHashMap}
+     * Constructs an empty {@code JSONObject} with {@link CompactMap}
      * as map to delegate
      */
     public JSONObject() {
-        super();
+        super(new CompactMap<>());
     }
 
     /**
@@ -172,47 +182,29 @@ public class JSONObject extends UntypedMap implements
     }
 
     /**
-     * Retrieves element by key in dot notation
+     * Retrieves element by key in dot notation. Every part of key is a literal name, even if it starts with {@code $}.
+     * Keys are compiled once and cached, see {@link JSONPath#compileKey(String)}
      * @param key key in dot notation
      * @param type class of element of last key
-     * @return element of last key
+     * @return element of last key, or {@code null} if there is none
      * @param <T> type of element of last key
      */
     public <T> T getTraverse(String key, Class<? extends T> type) {
-        String[] keys = key.split("\\.");
-        if (keys.length == 1) {
-            return get(key, type);
-        }
-
-        JSONObject last = getObject(keys[0]);
-        for (int i = 1; i < keys.length - 1; i++) {
-            last = last.getObject(keys[i]);
-        }
-
-        return last.get(keys[keys.length - 1], type);
+        return JSONPath.compileKey(key).read(this, type);
     }
 
     /**
      * Associates the specified value with the specified key in dot notation in this object.
-     * Only values of permitted types are allowed.
+     * Missing objects on the way are created. Only values of permitted types are allowed.
      *
      * @param key   the key in dot notation with which the specified value is to be associated
      * @param value the value to be associated with the specified key
      * @return the previous value associated with the key, or {@code null} if there was no mapping
      * @throws IllegalArgumentException if the value's class is not permitted or key is {@code null}
+     * @see JSONPath#put(Object, Object)
      */
     public Object putTraverse(String key, Object value) {
-        String[] keys = key.split("\\.");
-        if (keys.length == 1) {
-            return put(key, value);
-        }
-
-        JSONObject last = getObject(keys[0]);
-        for (int i = 1; i < keys.length - 1; i++) {
-            last = last.getObject(keys[i]);
-        }
-
-        return last.put(keys[keys.length - 1], value);
+        return JSONPath.compileKey(key).put(this, value);
     }
 
     /**
@@ -243,7 +235,9 @@ public class JSONObject extends UntypedMap implements
             throw new IllegalArgumentException("Null key is not permitted in JSONObject");
         }
 
-        return super.put(key, Types.requirePermittedType(value, EntityUnion.OBJECT));
+        Object previous = super.put(key, Types.requirePermittedType(value, EntityUnion.OBJECT));
+        SerializedForm.changed(form, previous, value);
+        return previous;
     }
 
     /**
@@ -252,7 +246,132 @@ public class JSONObject extends UntypedMap implements
      */
     @Override
     public void putAll(@NotNull Map<? extends String, ?> m) {
+        SerializedForm form = this.form;
+        List<Object> candidates = null;
+        if (form != null) {
+            candidates = new ArrayList<>(m.size());
+            for (String key : m.keySet()) {
+                candidates.add(super.get(key));
+            }
+        }
+
         super.putAll(Types.requirePermittedTypes(m));
+        SerializedForm.replaced(form, candidates, m.values());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object remove(Object key) {
+        Object previous = super.remove(key);
+        SerializedForm.changed(form, previous, null);
+        return previous;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear() {
+        SerializedForm form = this.form;
+        List<Object> candidates = form == null ? null : new ArrayList<>(super.values());
+        super.clear();
+        SerializedForm.released(form, candidates);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @NotNull Set<String> keySet() {
+        SerializedForm form = this.form;
+        return form == null ? super.keySet() : TrackingViews.keySet(super.keySet(), this, form);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @NotNull Collection<Object> values() {
+        SerializedForm form = this.form;
+        return form == null ? super.values() : TrackingViews.collection(super.values(), form);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @NotNull Set<Entry<String, Object>> entrySet() {
+        SerializedForm form = this.form;
+        return form == null ? super.entrySet() : TrackingViews.entrySet(super.entrySet(), this, form);
+    }
+
+    /**
+     * Starts tracking changes of this object and objects and arrays it contains
+     */
+    SerializedForm track() {
+        SerializedForm form = this.form;
+        if (form == null) {
+            synchronized (this) {
+                form = this.form;
+                if (form == null) {
+                    this.form = form = new SerializedForm(this);
+                    form.adoptAll(values());
+                }
+            }
+        }
+
+        return form;
+    }
+
+    /**
+     * Enables or disables caching of compact serialized form of this object.
+     * <p>
+     * While caching is enabled, {@link #toJSONStringCompact()} and {@link #toJSONBytes()} serialize
+     * this object once and return cached result until it or any object or array it contains is changed,
+     * and writers splice cached form in when this object is serialized as a part of another entity.
+     * Changes are tracked through all methods of this object and its views, including changes of
+     * nested objects and arrays, which propagate to every object and array that contains them.
+     * </p>
+     *
+     * @param cached whether to cache serialized form
+     */
+    public void setSerializationCached(boolean cached) {
+        if (cached || form != null) {
+            track().setCaching(cached);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isSerializationCached() {
+        SerializedForm form = this.form;
+        return form != null && form.isCaching();
+    }
+
+    /**
+     * {@inheritDoc}
+     * Result is cached if caching is enabled by {@link #setSerializationCached(boolean)}
+     */
+    @Override
+    public String toJSONStringCompact() {
+        SerializedForm form = this.form;
+        return form == null ? JSONStringConvertable.super.toJSONStringCompact() : form.getString();
+    }
+
+    /**
+     * {@inheritDoc}
+     * Result is cached if caching is enabled by {@link #setSerializationCached(boolean)}
+     */
+    @Override
+    public byte[] toJSONBytes() {
+        SerializedForm form = this.form;
+        return form == null || !form.isCaching()
+                ? JSONStringConvertable.super.toJSONBytes()
+                : form.getBytes().clone();
     }
 
     /**
@@ -488,10 +607,37 @@ public class JSONObject extends UntypedMap implements
         return new JSONObject(Collections.unmodifiableMap(this));
     }
 
+    /**
+     * Creates a deep copy of this object, nested objects and arrays are copied recursively
+     *
+     * @return deep copy of this object
+     */
     public JSONObject deepCopy() {
         return COPIER.createDeepCopy(this);
     }
 
+    /**
+     * Creates an immutable persistent copy of this object, which returns new versions
+     * that share unchanged subtrees instead of being modified
+     *
+     * @return persistent copy of this object
+     * @see PersistentJSONObject
+     */
+    public PersistentJSONObject toPersistent() {
+        return PersistentJSONObject.of(this);
+    }
+
+    /**
+     * Applies {@code patch} to this object in place
+     *
+     * @param patch patch to apply
+     * @throws JSONPatchException if operation of patch can't be applied or its test fails
+     * @see JSONDiff#diff(JSONObject, JSONObject)
+     */
+    public void apply(@NotNull JSONPatch patch) {
+        patch.apply(this);
+    }
+
     @Override
     public String toString() {
         return toJSONString();
@@ -1,9 +1,9 @@
 package ru.introguzzle.parsers.json.entity;
 
-import ru.introguzzle.parsers.json.mapping.reference.StandardCircularReferenceStrategies;
+import ru.introguzzle.parsers.json.write.JSONByteWriter;
+import ru.introguzzle.parsers.json.write.JSONWriter;
 
 import java.util.Iterator;
-import java.util.Map;
 
 /**
  * Interface representing an entity that can be converted to a JSON string.
@@ -11,7 +11,7 @@ import java.util.Map;
  * This interface defines methods to retrieve the opening and closing symbols,
  * iterate over its contents, and obtain the size of the entity. It provides
  * default methods for converting the entity to a JSON string in both compact
- * and pretty-printed formats.
+ * and pretty-printed formats, which are written by {@link JSONWriter}.
  * </p>
  */
 public interface JSONStringConvertable {
@@ -51,84 +51,48 @@ public interface JSONStringConvertable {
      */
     int size();
 
+    /**
+     * Returns whether compact serialized form of this entity is cached. Writers use
+     * {@link #toJSONStringCompact()} and {@link #toJSONBytes()} of cached entities
+     * instead of writing their contents.
+     *
+     * @return {@code true} if serialized form of this entity is cached
+     */
+    default boolean isSerializationCached() {
+        return false;
+    }
+
     /**
      * Converts this entity to a JSON string in a pretty-printed format.
      *
      * @return a pretty-printed JSON string representation of this entity
+     * @see JSONWriter
      */
     default String toJSONString() {
-        return toJSONStringRecursive(INITIAL_LEVEL, false);
+        StringBuilder builder = new StringBuilder();
+        JSONWriter.pretty(builder).write(this);
+        return builder.toString();
     }
 
     /**
-     * Converts this entity to a JSON string in a compact format.
+     * Converts this entity to a JSON string in a compact format, without any whitespace.
      *
      * @return a compact JSON string representation of this entity
+     * @see JSONWriter
      */
     default String toJSONStringCompact() {
-        return toJSONStringRecursive(INITIAL_LEVEL, true);
+        StringBuilder builder = new StringBuilder();
+        JSONWriter.compact(builder).write(this);
+        return builder.toString();
     }
 
     /**
-     * Recursively converts this entity to a JSON string.
+     * Converts this entity to UTF-8 bytes of JSON in a compact format, without building a string.
      *
-     * @param level  the current indentation level
-     * @param compact whether to produce a compact JSON string
-     * @return a JSON string representation of this entity
+     * @return UTF-8 bytes of compact JSON representation of this entity
+     * @see JSONByteWriter
      */
-    private String toJSONStringRecursive(int level, boolean compact) {
-        String newLine = compact ? "" : System.lineSeparator();
-
-        StringBuilder result = new StringBuilder();
-        if (level == INITIAL_LEVEL) {
-            result.append(getOpeningSymbol()).append(newLine);
-        }
-
-        int i = 0;
-        Iterator<?> iterator = getIterator();
-        while (iterator.hasNext()) {
-            Object value = iterator.next();
-            result.append(TAB.repeat(level));
-
-            if (value instanceof Map.Entry<?, ?> entry) {
-                result.append(QUOTE).append(entry.getKey()).append(QUOTE).append(": ");
-                value = entry.getValue();
-            }
-
-            if (value instanceof JSONStringConvertable convertable) {
-                if (convertable.size() == 0) {
-                    result.append(convertable.getOpeningSymbol())
-                            .append(convertable.getClosingSymbol());
-                } else {
-                    result.append(convertable.getOpeningSymbol()).append(newLine)
-                            .append(convertable.toJSONStringRecursive(level + 1, compact))
-                            .append(TAB.repeat(level))
-                            .append(convertable.getClosingSymbol());
-                }
-            } else {
-                if (value instanceof String s
-                        && s.charAt(0) != '\"'
-                        && s.charAt(s.length() - 1) != '\"'
-                        && !s.contentEquals(StandardCircularReferenceStrategies.PLACEHOLDER)) {
-
-                    result.append(QUOTE)
-                            .append(s)
-                            .append(QUOTE);
-                } else {
-                    result.append(value);
-                }
-            }
-
-            if (i != size() - 1) {
-                result.append(",");
-            }
-
-            result.append(newLine);
-            i++;
-        }
-
-        return level == INITIAL_LEVEL
-                ? result.append(getClosingSymbol()).toString()
-                : result.toString();
+    default byte[] toJSONBytes() {
+        return JSONByteWriter.toBytes(this);
     }
 }
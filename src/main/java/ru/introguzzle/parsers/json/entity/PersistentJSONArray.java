@@ -0,0 +1,216 @@
+package ru.introguzzle.parsers.json.entity;
+
+import org.jetbrains.annotations.NotNull;
+import ru.introguzzle.parsers.common.util.PersistentVector;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Represents an immutable JSON array that shares structure between its versions.
+ * <p>
+ * Elements are stored in a {@link PersistentVector}, and nested objects and arrays are stored as
+ * {@link PersistentJSONObject} and {@code PersistentJSONArray}. {@link #plus(Object)}, {@link #with(int, Object)}
+ * and {@link #withPath(String, Object)} return a new version that shares all untouched elements and subtrees
+ * with this version.
+ * </p>
+ *
+ * @see PersistentJSONObject
+ * @see JSONArray#toPersistent()
+ */
+public final class PersistentJSONArray implements JSONStringConvertable {
+    private static final PersistentJSONArray EMPTY = new PersistentJSONArray(PersistentVector.empty());
+
+    private final PersistentVector<Object> vector;
+
+    private PersistentJSONArray(PersistentVector<Object> vector) {
+        this.vector = vector;
+    }
+
+    /**
+     * @return empty persistent array
+     */
+    public static @NotNull PersistentJSONArray empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Creates a persistent array with elements of {@code collection}, converting nested
+     * {@link JSONObject} and {@link JSONArray} elements to persistent ones
+     *
+     * @param collection collection of elements
+     * @return persistent array
+     * @throws IllegalArgumentException if class of any element is not permitted
+     */
+    public static @NotNull PersistentJSONArray of(@NotNull Collection<?> collection) {
+        PersistentVector<Object> result = PersistentVector.empty();
+        for (Object element : collection) {
+            result = result.plus(PersistentJSONObject.freeze(element, EntityUnion.ARRAY));
+        }
+
+        return result.isEmpty() ? EMPTY : new PersistentJSONArray(result);
+    }
+
+    static int parseIndex(String segment) {
+        try {
+            return Integer.parseInt(segment);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("'" + segment + "' is not an index of array", e);
+        }
+    }
+
+    /**
+     * @param index index of the element to return
+     * @return the element at the specified position
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public Object get(int index) {
+        return vector.get(index);
+    }
+
+    /**
+     * Retrieves the element at the specified position, casting it to the desired type.
+     *
+     * @param index index of the element to return
+     * @param type  the class type to cast to
+     * @param <T>   the type to be returned
+     * @return the element at the specified position cast to the specified type
+     * @throws ClassCastException if the element is not of {@code type}
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public <T> T get(int index, @NotNull Class<? extends T> type) {
+        return type.cast(vector.get(index));
+    }
+
+    public String getString(int index) {
+        return get(index, String.class);
+    }
+
+    public Number getNumber(int index) {
+        return get(index, Number.class);
+    }
+
+    public Boolean getBoolean(int index) {
+        return get(index, Boolean.class);
+    }
+
+    public PersistentJSONObject getObject(int index) {
+        return get(index, PersistentJSONObject.class);
+    }
+
+    public PersistentJSONArray getArray(int index) {
+        return get(index, PersistentJSONArray.class);
+    }
+
+    /**
+     * Retrieves value by path in dot notation that starts with index of this array
+     *
+     * @param path path in dot notation
+     * @return value at path or {@code null} if any segment of path doesn't exist
+     * @throws IllegalArgumentException if segment that follows an array is not an index
+     */
+    public Object getPath(@NotNull String path) {
+        return PersistentJSONObject.getPath(this, PersistentJSONObject.split(path), 0);
+    }
+
+    public boolean isEmpty() {
+        return vector.isEmpty();
+    }
+
+    /**
+     * @return immutable list view of elements of this array
+     */
+    public @NotNull List<Object> asList() {
+        return vector;
+    }
+
+    /**
+     * Returns version of this array with {@code element} appended
+     *
+     * @param element the element to be appended
+     * @return new version
+     * @throws IllegalArgumentException if the element's class is not permitted
+     */
+    public @NotNull PersistentJSONArray plus(Object element) {
+        return new PersistentJSONArray(vector.plus(PersistentJSONObject.freeze(element, EntityUnion.ARRAY)));
+    }
+
+    /**
+     * Returns version of this array with element at {@code index} replaced.
+     * If {@code index} is equal to size, element is appended
+     *
+     * @param index   index of the element to replace
+     * @param element the element to be stored
+     * @return new version
+     * @throws IllegalArgumentException if the element's class is not permitted
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public @NotNull PersistentJSONArray with(int index, Object element) {
+        return new PersistentJSONArray(vector.with(index, PersistentJSONObject.freeze(element, EntityUnion.ARRAY)));
+    }
+
+    /**
+     * Returns version of this array where value at {@code path} in dot notation, that starts with
+     * index of this array, is replaced with {@code value}
+     *
+     * @param path  path in dot notation
+     * @param value the value to be stored
+     * @return new version
+     * @see PersistentJSONObject#withPath(String, Object)
+     */
+    public @NotNull PersistentJSONArray withPath(@NotNull String path, Object value) {
+        return (PersistentJSONArray) PersistentJSONObject.withPath(this, PersistentJSONObject.split(path), 0,
+                PersistentJSONObject.freeze(value, EntityUnion.ARRAY));
+    }
+
+    /**
+     * Creates a mutable deep copy of this array
+     *
+     * @return {@code JSONArray} with elements of this array
+     */
+    public @NotNull JSONArray toJSONArray() {
+        JSONArray array = new JSONArray();
+        for (Object element : vector) {
+            array.add(PersistentJSONObject.thaw(element));
+        }
+
+        return array;
+    }
+
+    @Override
+    public Iterator<?> getIterator() {
+        return vector.iterator();
+    }
+
+    @Override
+    public String getOpeningSymbol() {
+        return "[";
+    }
+
+    @Override
+    public String getClosingSymbol() {
+        return "]";
+    }
+
+    @Override
+    public int size() {
+        return vector.size();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof PersistentJSONArray array && vector.equals(array.vector);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(vector);
+    }
+
+    @Override
+    public String toString() {
+        return toJSONString();
+    }
+}
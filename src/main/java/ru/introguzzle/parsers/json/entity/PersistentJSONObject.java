@@ -0,0 +1,336 @@
+package ru.introguzzle.parsers.json.entity;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import ru.introguzzle.parsers.common.util.PersistentMap;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Represents an immutable JSON object that shares structure between its versions.
+ * <p>
+ * Entries are stored in a {@link PersistentMap}, and nested objects and arrays are stored as
+ * {@code PersistentJSONObject} and {@link PersistentJSONArray}. Methods such as {@link #with(String, Object)}
+ * and {@link #withPath(String, Object)} never modify this object: they return a new version that copies
+ * only the nodes on the path to the changed value, in {@code O(log n)} per level, and shares all untouched
+ * subtrees with this version. Keeping many versions, e.g. snapshots of configuration, is therefore
+ * cheap, and instances can be shared across threads without locks.
+ * </p>
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * PersistentJSONObject v1 = jsonObject.toPersistent();
+ * PersistentJSONObject v2 = v1.withPath("server.port", 8080);
+ *
+ * v1.getPath("server.port"); // unchanged
+ * v2.getObject("client") == v1.getObject("client"); // true, subtree is shared
+ * }</pre>
+ *
+ * <h5>
+ * Note: mutable {@link JSONObject} and {@link JSONArray} values are converted to persistent ones
+ * when they are stored, other values must be of classes permitted in {@link JSONObject}
+ * </h5>
+ *
+ * @see PersistentJSONArray
+ * @see JSONObject#toPersistent()
+ */
+public final class PersistentJSONObject implements JSONStringConvertable {
+    private static final PersistentJSONObject EMPTY = new PersistentJSONObject(PersistentMap.empty());
+
+    private final PersistentMap<String, Object> map;
+
+    private PersistentJSONObject(PersistentMap<String, Object> map) {
+        this.map = map;
+    }
+
+    /**
+     * @return empty persistent object
+     */
+    public static @NotNull PersistentJSONObject empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Creates a persistent object with entries of {@code map}, converting nested
+     * {@link JSONObject} and {@link JSONArray} values to persistent ones
+     *
+     * @param map map of entries
+     * @return persistent object
+     * @throws IllegalArgumentException if class of any value is not permitted or any key is {@code null}
+     */
+    public static @NotNull PersistentJSONObject of(@NotNull Map<? extends String, ?> map) {
+        PersistentMap<String, Object> result = PersistentMap.empty();
+        for (Map.Entry<? extends String, ?> entry : map.entrySet()) {
+            result = result.with(requireKey(entry.getKey()), freeze(entry.getValue(), EntityUnion.OBJECT));
+        }
+
+        return result.isEmpty() ? EMPTY : new PersistentJSONObject(result);
+    }
+
+    private static String requireKey(String key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Null key is not permitted in JSONObject");
+        }
+
+        return key;
+    }
+
+    /**
+     * Converts {@code value} to a value that can be stored in persistent object or array
+     */
+    static Object freeze(Object value, EntityUnion union) {
+        if (value instanceof JSONObject object) {
+            return of(object);
+        }
+
+        if (value instanceof JSONArray array) {
+            return PersistentJSONArray.of(array);
+        }
+
+        if (value instanceof PersistentJSONObject || value instanceof PersistentJSONArray) {
+            return value;
+        }
+
+        return Types.requirePermittedType(value, union);
+    }
+
+    /**
+     * Converts {@code value} of persistent object or array to a value of mutable one
+     */
+    static Object thaw(Object value) {
+        if (value instanceof PersistentJSONObject object) {
+            return object.toJSONObject();
+        }
+
+        if (value instanceof PersistentJSONArray array) {
+            return array.toJSONArray();
+        }
+
+        return value;
+    }
+
+    /**
+     * Splits path in dot notation without regular expressions
+     */
+    static String[] split(String path) {
+        int count = 1;
+        for (int i = 0; i < path.length(); i++) {
+            if (path.charAt(i) == '.') count++;
+        }
+
+        String[] keys = new String[count];
+        int start = 0;
+        for (int i = 0; i < count - 1; i++) {
+            int end = path.indexOf('.', start);
+            keys[i] = path.substring(start, end);
+            start = end + 1;
+        }
+
+        keys[count - 1] = path.substring(start);
+        return keys;
+    }
+
+    /**
+     * Returns version of {@code container} where value at {@code keys} from {@code index} is replaced.
+     * Missing containers are created as objects
+     */
+    static Object withPath(@Nullable Object container, String[] keys, int index, Object value) {
+        if (container == null) {
+            container = EMPTY;
+        }
+
+        if (container instanceof PersistentJSONObject object) {
+            String key = keys[index];
+            return index == keys.length - 1
+                    ? object.with(key, value)
+                    : object.with(key, withPath(object.get(key), keys, index + 1, value));
+        }
+
+        if (container instanceof PersistentJSONArray array) {
+            int position = PersistentJSONArray.parseIndex(keys[index]);
+            return index == keys.length - 1
+                    ? array.with(position, value)
+                    : array.with(position, withPath(position < array.size() ? array.get(position) : null,
+                    keys, index + 1, value));
+        }
+
+        throw new IllegalArgumentException("Value at '" + keys[index - 1] + "' is neither object nor array");
+    }
+
+    /**
+     * Returns value at {@code keys} from {@code index} in {@code container} or {@code null} if path doesn't exist
+     */
+    static Object getPath(@Nullable Object container, String[] keys, int index) {
+        for (int i = index; i < keys.length; i++) {
+            if (container instanceof PersistentJSONObject object) {
+                container = object.get(keys[i]);
+            } else if (container instanceof PersistentJSONArray array) {
+                int position = PersistentJSONArray.parseIndex(keys[i]);
+                container = position < array.size() ? array.get(position) : null;
+            } else {
+                return null;
+            }
+        }
+
+        return container;
+    }
+
+    /**
+     * @param key the key whose associated value is to be returned
+     * @return the value associated with the key, or {@code null} if not found
+     */
+    public Object get(@NotNull String key) {
+        return map.get(key);
+    }
+
+    /**
+     * Retrieves the value associated with the specified key, casting it to the desired type.
+     *
+     * @param key  the key for the desired value
+     * @param type the class type to cast to
+     * @param <T>  the type to be returned
+     * @return the value associated with the key cast to the specified type
+     * @throws ClassCastException if the value is not of {@code type}
+     */
+    public <T> T get(@NotNull String key, @NotNull Class<? extends T> type) {
+        return type.cast(map.get(key));
+    }
+
+    public String getString(@NotNull String key) {
+        return get(key, String.class);
+    }
+
+    public Number getNumber(@NotNull String key) {
+        return get(key, Number.class);
+    }
+
+    public Boolean getBoolean(@NotNull String key) {
+        return get(key, Boolean.class);
+    }
+
+    public PersistentJSONObject getObject(@NotNull String key) {
+        return get(key, PersistentJSONObject.class);
+    }
+
+    public PersistentJSONArray getArray(@NotNull String key) {
+        return get(key, PersistentJSONArray.class);
+    }
+
+    /**
+     * Retrieves value by key in dot notation, where segments that follow an array are its indices
+     *
+     * @param path key in dot notation
+     * @return value at path or {@code null} if any segment of path doesn't exist
+     * @throws IllegalArgumentException if segment that follows an array is not an index
+     */
+    public Object getPath(@NotNull String path) {
+        return getPath(this, split(path), 0);
+    }
+
+    public boolean containsKey(@NotNull String key) {
+        return map.containsKey(key);
+    }
+
+    public boolean isEmpty() {
+        return map.isEmpty();
+    }
+
+    /**
+     * @return immutable map view of entries of this object
+     */
+    public @NotNull Map<String, Object> asMap() {
+        return map;
+    }
+
+    /**
+     * Returns version of this object where {@code key} is associated with {@code value}
+     *
+     * @param key   the key with which the specified value is to be associated
+     * @param value the value to be associated with the specified key
+     * @return new version or this object if key is already associated with {@code value}
+     * @throws IllegalArgumentException if the value's class is not permitted or key is {@code null}
+     */
+    public @NotNull PersistentJSONObject with(@NotNull String key, Object value) {
+        PersistentMap<String, Object> map = this.map.with(requireKey(key), freeze(value, EntityUnion.OBJECT));
+        return map == this.map ? this : new PersistentJSONObject(map);
+    }
+
+    /**
+     * Returns version of this object where value at {@code path} in dot notation is replaced with {@code value}.
+     * Missing intermediate objects are created, segments that follow an array are its indices,
+     * and index equal to size of array appends to it
+     *
+     * @param path  the key in dot notation with which the specified value is to be associated
+     * @param value the value to be associated with the specified key
+     * @return new version
+     * @throws IllegalArgumentException if the value's class is not permitted, if path goes through
+     * a value that is neither object nor array, or if segment that follows an array is not an index
+     * @throws IndexOutOfBoundsException if index is greater than size of array
+     */
+    public @NotNull PersistentJSONObject withPath(@NotNull String path, Object value) {
+        return (PersistentJSONObject) withPath(this, split(path), 0, freeze(value, EntityUnion.OBJECT));
+    }
+
+    /**
+     * Returns version of this object without {@code key}
+     *
+     * @param key key to remove
+     * @return new version or this object if it doesn't contain key
+     */
+    public @NotNull PersistentJSONObject without(@NotNull String key) {
+        PersistentMap<String, Object> map = this.map.without(key);
+        if (map == this.map) {
+            return this;
+        }
+
+        return map.isEmpty() ? EMPTY : new PersistentJSONObject(map);
+    }
+
+    /**
+     * Creates a mutable deep copy of this object
+     *
+     * @return {@code JSONObject} with entries of this object
+     */
+    public @NotNull JSONObject toJSONObject() {
+        JSONObject object = new JSONObject();
+        map.forEach((key, value) -> object.put(key, thaw(value)));
+        return object;
+    }
+
+    @Override
+    public Iterator<?> getIterator() {
+        return map.entrySet().iterator();
+    }
+
+    @Override
+    public String getOpeningSymbol() {
+        return "{";
+    }
+
+    @Override
+    public String getClosingSymbol() {
+        return "}";
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof PersistentJSONObject object && map.equals(object.map);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(map);
+    }
+
+    @Override
+    public String toString() {
+        return toJSONString();
+    }
+}
@@ -0,0 +1,286 @@
+package ru.introguzzle.parsers.json.entity;
+
+import org.jetbrains.annotations.Nullable;
+import ru.introguzzle.parsers.json.write.JSONByteWriter;
+import ru.introguzzle.parsers.json.write.JSONWriter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Tracks changes of a {@link JSONObject} or {@link JSONArray} and caches its compact serialized form.
+ * <p>
+ * An entity is tracked once caching is enabled for it or for any entity that contains it.
+ * Every tracked entity links to tracked entities that contain it, so a change of a nested entity
+ * invalidates caches of all entities that contain it, directly or not. Entities that are added
+ * to a tracked entity become tracked as well. Entity is unlinked from container only when container
+ * doesn't hold it anymore, so the same entity can be held by container several times.
+ * </p>
+ */
+final class SerializedForm {
+    private final JSONStringConvertable owner;
+
+    /**
+     * Whether owner caches its own form, otherwise it's tracked only to propagate changes
+     */
+    private volatile boolean caching;
+    private volatile String string;
+    private volatile byte[] bytes;
+
+    /**
+     * Forms of entities that contain owner, {@code null}, a single form or a list of forms
+     */
+    private Object parents;
+
+    /**
+     * Guards against cycles while invalidating
+     */
+    private boolean invalidating;
+
+    SerializedForm(JSONStringConvertable owner) {
+        this.owner = owner;
+    }
+
+    /**
+     * Tracks all entities of {@code values} as contained by owner. Must be called after
+     * the form is assigned to owner, so that cycles terminate
+     */
+    void adoptAll(Iterable<?> values) {
+        for (Object value : values) {
+            adopt(value);
+        }
+    }
+
+    /**
+     * Handles change of owner, where {@code removed} was removed from it and {@code added} was added to it.
+     * Either can be {@code null}
+     */
+    static void changed(@Nullable SerializedForm form, Object removed, Object added) {
+        if (form == null) {
+            return;
+        }
+
+        if (removed != added) {
+            form.release(removed);
+            form.adopt(added);
+        }
+
+        form.invalidate();
+    }
+
+    /**
+     * Handles change of owner, where values of unknown number of entries were replaced or added
+     */
+    static void changed(@Nullable SerializedForm form, Iterable<?> added) {
+        if (form == null) {
+            return;
+        }
+
+        form.adoptAll(added);
+        form.invalidate();
+    }
+
+    /**
+     * Handles change of owner that removed some of {@code candidates}, whose contents were copied before change
+     */
+    static void released(@Nullable SerializedForm form, @Nullable Iterable<?> candidates) {
+        if (form == null) {
+            return;
+        }
+
+        if (candidates != null) {
+            form.releaseAll(candidates);
+        }
+
+        form.invalidate();
+    }
+
+    /**
+     * Handles change of owner that replaced some of {@code candidates} with {@code added}
+     */
+    static void replaced(@Nullable SerializedForm form, @Nullable Iterable<?> candidates, Iterable<?> added) {
+        if (form == null) {
+            return;
+        }
+
+        form.adoptAll(added);
+        if (candidates != null) {
+            form.releaseAll(candidates);
+        }
+
+        form.invalidate();
+    }
+
+    /**
+     * Handles change of owner that only changed order of entries
+     */
+    static void changed(@Nullable SerializedForm form) {
+        if (form != null) {
+            form.invalidate();
+        }
+    }
+
+    boolean isCaching() {
+        return caching;
+    }
+
+    void setCaching(boolean caching) {
+        this.caching = caching;
+        this.string = null;
+        this.bytes = null;
+    }
+
+    private void adopt(Object value) {
+        SerializedForm child = switch (value) {
+            case JSONObject object -> object.track();
+            case JSONArray array -> array.track();
+            case null, default -> null;
+        };
+
+        if (child != null) {
+            child.link(this);
+        }
+    }
+
+    private static SerializedForm formOf(Object value) {
+        return switch (value) {
+            case JSONObject object -> object.form;
+            case JSONArray array -> array.form;
+            case null, default -> null;
+        };
+    }
+
+    /**
+     * @return values or elements of owner
+     */
+    private Iterable<?> contents() {
+        return owner instanceof JSONObject object ? object.values() : (JSONArray) owner;
+    }
+
+    /**
+     * Unlinks {@code value} that was removed from owner, unless owner still holds it
+     */
+    private void release(Object value) {
+        SerializedForm child = formOf(value);
+        if (child == null) {
+            return;
+        }
+
+        for (Object held : contents()) {
+            if (held == value) return;
+        }
+
+        child.unlink(this);
+    }
+
+    /**
+     * Unlinks those of {@code candidates} that owner doesn't hold anymore
+     */
+    private void releaseAll(Iterable<?> candidates) {
+        Set<Object> held = null;
+        for (Object value : candidates) {
+            SerializedForm child = formOf(value);
+            if (child == null) {
+                continue;
+            }
+
+            if (held == null) {
+                held = Collections.newSetFromMap(new IdentityHashMap<>());
+                for (Object element : contents()) {
+                    held.add(element);
+                }
+            }
+
+            if (!held.contains(value)) {
+                child.unlink(this);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized void link(SerializedForm parent) {
+        if (parents == null) {
+            parents = parent;
+        } else if (parents instanceof SerializedForm single) {
+            if (single != parent) {
+                List<SerializedForm> list = new ArrayList<>(2);
+                list.add(single);
+                list.add(parent);
+                parents = list;
+            }
+        } else {
+            List<SerializedForm> list = (List<SerializedForm>) parents;
+            for (SerializedForm form : list) {
+                if (form == parent) return;
+            }
+
+            list.add(parent);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized void unlink(SerializedForm parent) {
+        if (parents == parent) {
+            parents = null;
+        } else if (parents instanceof List<?>) {
+            ((List<SerializedForm>) parents).removeIf(form -> form == parent);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized void invalidate() {
+        if (invalidating) {
+            return;
+        }
+
+        string = null;
+        bytes = null;
+        invalidating = true;
+        try {
+            if (parents instanceof SerializedForm single) {
+                single.invalidate();
+            } else if (parents != null) {
+                for (SerializedForm parent : (List<SerializedForm>) parents) {
+                    parent.invalidate();
+                }
+            }
+        } finally {
+            invalidating = false;
+        }
+    }
+
+    /**
+     * @return compact JSON string of owner, cached if owner is caching
+     */
+    String getString() {
+        String string = this.string;
+        if (string == null) {
+            StringBuilder builder = new StringBuilder();
+            JSONWriter.compact(builder).write(owner);
+            string = builder.toString();
+            if (caching) {
+                this.string = string;
+            }
+        }
+
+        return string;
+    }
+
+    /**
+     * @return UTF-8 bytes of compact JSON of owner, cached if owner is caching. Must not be modified
+     */
+    byte[] getBytes() {
+        byte[] bytes = this.bytes;
+        if (bytes == null) {
+            bytes = new JSONByteWriter().write(owner).toByteArray();
+            if (caching) {
+                this.bytes = bytes;
+            }
+        }
+
+        return bytes;
+    }
+}
@@ -0,0 +1,310 @@
+package ru.introguzzle.parsers.json.entity;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.AbstractCollection;
+import java.util.AbstractList;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Views of collections of tracked entities that report changes made through them to {@link SerializedForm}
+ */
+final class TrackingViews {
+    private TrackingViews() {
+    }
+
+    static <E> @NotNull Iterator<E> iterator(Iterator<E> iterator, SerializedForm form) {
+        return iterator(iterator, form, Function.identity());
+    }
+
+    /**
+     * @param removed function that returns value which is removed from owner with element
+     */
+    private static <E> @NotNull Iterator<E> iterator(Iterator<E> iterator, SerializedForm form,
+                                                     Function<? super E, ?> removed) {
+        return new Iterator<>() {
+            private E last;
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public E next() {
+                return last = iterator.next();
+            }
+
+            @Override
+            public void remove() {
+                Object value = removed.apply(last);
+                iterator.remove();
+                SerializedForm.changed(form, value, null);
+            }
+        };
+    }
+
+    static <E> @NotNull ListIterator<E> listIterator(ListIterator<E> iterator, SerializedForm form) {
+        return new ListIterator<>() {
+            private E last;
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public E next() {
+                return last = iterator.next();
+            }
+
+            @Override
+            public boolean hasPrevious() {
+                return iterator.hasPrevious();
+            }
+
+            @Override
+            public E previous() {
+                return last = iterator.previous();
+            }
+
+            @Override
+            public int nextIndex() {
+                return iterator.nextIndex();
+            }
+
+            @Override
+            public int previousIndex() {
+                return iterator.previousIndex();
+            }
+
+            @Override
+            public void remove() {
+                iterator.remove();
+                SerializedForm.changed(form, last, null);
+            }
+
+            @Override
+            public void set(E e) {
+                iterator.set(e);
+                SerializedForm.changed(form, last, e);
+                last = e;
+            }
+
+            @Override
+            public void add(E e) {
+                iterator.add(e);
+                SerializedForm.changed(form, null, e);
+            }
+        };
+    }
+
+    static <E> @NotNull Collection<E> collection(Collection<E> collection, SerializedForm form) {
+        return new AbstractCollection<>() {
+            @Override
+            public @NotNull Iterator<E> iterator() {
+                return TrackingViews.iterator(collection.iterator(), form);
+            }
+
+            @Override
+            public int size() {
+                return collection.size();
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return collection.contains(o);
+            }
+
+            @Override
+            public void clear() {
+                List<E> candidates = new ArrayList<>(collection);
+                collection.clear();
+                SerializedForm.released(form, candidates);
+            }
+        };
+    }
+
+    /**
+     * @param set key set of {@code map}
+     */
+    static <K> @NotNull Set<K> keySet(Set<K> set, Map<K, ?> map, SerializedForm form) {
+        return new AbstractSet<>() {
+            @Override
+            public @NotNull Iterator<K> iterator() {
+                return TrackingViews.iterator(set.iterator(), form, map::get);
+            }
+
+            @Override
+            public int size() {
+                return set.size();
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return set.contains(o);
+            }
+
+            @Override
+            public boolean remove(Object o) {
+                Object value = map.get(o);
+                boolean removed = set.remove(o);
+                if (removed) {
+                    SerializedForm.changed(form, value, null);
+                }
+
+                return removed;
+            }
+
+            @Override
+            public void clear() {
+                List<Object> candidates = new ArrayList<>(map.values());
+                set.clear();
+                SerializedForm.released(form, candidates);
+            }
+        };
+    }
+
+    /**
+     * @param set entry set of {@code map}
+     */
+    static <K, V> @NotNull Set<Map.Entry<K, V>> entrySet(Set<Map.Entry<K, V>> set, Map<K, V> map,
+                                                         SerializedForm form) {
+        return new AbstractSet<>() {
+            @Override
+            public @NotNull Iterator<Map.Entry<K, V>> iterator() {
+                Iterator<Map.Entry<K, V>> iterator = TrackingViews.iterator(set.iterator(), form, Map.Entry::getValue);
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public Map.Entry<K, V> next() {
+                        return new TrackingEntry<>(iterator.next(), form);
+                    }
+
+                    @Override
+                    public void remove() {
+                        iterator.remove();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return set.size();
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return set.contains(o);
+            }
+
+            @Override
+            public boolean remove(Object o) {
+                // Value that is held, which may be equal to value of entry but not the same
+                Object value = o instanceof Map.Entry<?, ?> entry ? map.get(entry.getKey()) : null;
+                boolean removed = set.remove(o);
+                if (removed) {
+                    SerializedForm.changed(form, value, null);
+                }
+
+                return removed;
+            }
+
+            @Override
+            public void clear() {
+                List<Object> candidates = new ArrayList<>(set.size());
+                for (Map.Entry<K, V> entry : set) {
+                    candidates.add(entry.getValue());
+                }
+
+                set.clear();
+                SerializedForm.released(form, candidates);
+            }
+        };
+    }
+
+    static <E> @NotNull List<E> list(List<E> list, SerializedForm form) {
+        return new AbstractList<>() {
+            @Override
+            public E get(int index) {
+                return list.get(index);
+            }
+
+            @Override
+            public int size() {
+                return list.size();
+            }
+
+            @Override
+            public E set(int index, E element) {
+                E previous = list.set(index, element);
+                SerializedForm.changed(form, previous, element);
+                return previous;
+            }
+
+            @Override
+            public void add(int index, E element) {
+                list.add(index, element);
+                modCount++;
+                SerializedForm.changed(form, null, element);
+            }
+
+            @Override
+            public E remove(int index) {
+                E previous = list.remove(index);
+                modCount++;
+                SerializedForm.changed(form, previous, null);
+                return previous;
+            }
+        };
+    }
+
+    private record TrackingEntry<K, V>(Map.Entry<K, V> entry, SerializedForm form) implements Map.Entry<K, V> {
+        @Override
+        public K getKey() {
+            return entry.getKey();
+        }
+
+        @Override
+        public V getValue() {
+            return entry.getValue();
+        }
+
+        @Override
+        public V setValue(V value) {
+            V previous = entry.setValue(value);
+            SerializedForm.changed(form, previous, value);
+            return previous;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Map.Entry<?, ?> other
+                    && Objects.equals(getKey(), other.getKey())
+                    && Objects.equals(getValue(), other.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+}
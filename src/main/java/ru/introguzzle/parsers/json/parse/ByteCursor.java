@@ -0,0 +1,174 @@
+package ru.introguzzle.parsers.json.parse;
+
+import org.jetbrains.annotations.NotNull;
+import ru.introguzzle.parsers.common.util.ScratchPool;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Cursor over UTF-8 encoded bytes of a {@link ByteBuffer}.
+ * <p>
+ * Source is scanned byte by byte with absolute indexing, so buffer's own position is never changed.
+ * Only string values that are returned to the caller are decoded: strings that consist of printable
+ * ASCII characters are copied directly, others are decoded from UTF-8 with escape sequences.
+ * </p>
+ */
+final class ByteCursor extends Cursor {
+    private static final int BYTE_ORDER_MARK_LENGTH = 3;
+
+    final ByteBuffer buffer;
+
+    ByteCursor(@NotNull ByteBuffer buffer) {
+        this(buffer, buffer.position(), buffer.limit());
+        skipByteOrderMark();
+    }
+
+    ByteCursor(@NotNull ByteBuffer buffer, int start, int limit) {
+        super(start, limit);
+        this.buffer = buffer;
+    }
+
+    private void skipByteOrderMark() {
+        if (position + BYTE_ORDER_MARK_LENGTH <= limit
+                && at(position) == 0xEF
+                && at(position + 1) == 0xBB
+                && at(position + 2) == 0xBF) {
+            position += BYTE_ORDER_MARK_LENGTH;
+        }
+    }
+
+    @Override
+    @NotNull Cursor slice(int start, int limit) {
+        ByteCursor cursor = new ByteCursor(buffer, start, limit);
+        cursor.numberPolicy = numberPolicy;
+        cursor.symbolTable = symbolTable;
+        cursor.limits = limits;
+        cursor.shapes = shapes;
+        cursor.depth = depth;
+        return cursor;
+    }
+
+    @Override
+    int at(int index) {
+        return buffer.get(index) & 0xFF;
+    }
+
+    @Override
+    @NotNull String text(int start, int end) {
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + start, end - start, StandardCharsets.ISO_8859_1);
+        }
+
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    @Override
+    @NotNull String readString() {
+        int start = ++position;
+        while (position < limit) {
+            int b = at(position);
+            if (b == '"') {
+                checkStringLength(start);
+                return text(start, position++);
+            }
+
+            if (b == '\\' || b >= 0x80) {
+                return readEncodedString(start);
+            }
+
+            if (b < 0x20) {
+                throw error("Unescaped control character in string");
+            }
+
+            position++;
+        }
+
+        throw error("Unterminated string");
+    }
+
+    private @NotNull String readEncodedString(int start) {
+        StringBuilder builder = ScratchPool.STRING_BUILDERS.acquire();
+        try {
+            builder.setLength(0);
+            for (int i = start; i < position; i++) {
+                builder.append((char) at(i));
+            }
+
+            while (position < limit) {
+                checkStringLength(start);
+                int b = at(position++);
+                if (b == '"') {
+                    return builder.toString();
+                }
+
+                if (b == '\\') {
+                    builder.append(readEscape());
+                } else if (b < 0x20) {
+                    position--;
+                    throw error("Unescaped control character in string");
+                } else if (b < 0x80) {
+                    builder.append((char) b);
+                } else {
+                    appendCodePoint(builder, b);
+                }
+            }
+
+            throw error("Unterminated string");
+        } finally {
+            ScratchPool.STRING_BUILDERS.release(builder);
+        }
+    }
+
+    /**
+     * Decodes multibyte UTF-8 sequence. Position must point right after {@code lead} byte
+     *
+     * @param builder builder to append decoded character to
+     * @param lead first byte of sequence
+     */
+    private void appendCodePoint(StringBuilder builder, int lead) {
+        int count;
+        int codePoint;
+        int min;
+
+        if (lead >= 0xC2 && lead <= 0xDF) {
+            count = 1;
+            codePoint = lead & 0x1F;
+            min = 0x80;
+        } else if (lead >= 0xE0 && lead <= 0xEF) {
+            count = 2;
+            codePoint = lead & 0x0F;
+            min = 0x800;
+        } else if (lead >= 0xF0 && lead <= 0xF4) {
+            count = 3;
+            codePoint = lead & 0x07;
+            min = 0x10000;
+        } else {
+            position--;
+            throw error("Malformed UTF-8 sequence");
+        }
+
+        if (position + count > limit) {
+            throw error("Truncated UTF-8 sequence");
+        }
+
+        for (int i = 0; i < count; i++) {
+            int b = at(position);
+            if ((b & 0xC0) != 0x80) {
+                throw error("Malformed UTF-8 sequence");
+            }
+
+            codePoint = (codePoint << 6) | (b & 0x3F);
+            position++;
+        }
+
+        if (codePoint < min || codePoint > Character.MAX_CODE_POINT
+                || (codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE)) {
+            throw error("Malformed UTF-8 sequence");
+        }
+
+        builder.appendCodePoint(codePoint);
+    }
+}
@@ -0,0 +1,94 @@
+package ru.introguzzle.parsers.json.parse;
+
+import org.jetbrains.annotations.NotNull;
+import ru.introguzzle.parsers.common.util.ScratchPool;
+
+/**
+ * Cursor over characters of a {@code String}
+ */
+final class CharCursor extends Cursor {
+    final String data;
+
+    CharCursor(@NotNull String data) {
+        this(data, 0, data.length());
+    }
+
+    CharCursor(@NotNull String data, int start, int limit) {
+        super(start, limit);
+        this.data = data;
+    }
+
+    @Override
+    @NotNull Cursor slice(int start, int limit) {
+        CharCursor cursor = new CharCursor(data, start, limit);
+        cursor.numberPolicy = numberPolicy;
+        cursor.symbolTable = symbolTable;
+        cursor.limits = limits;
+        cursor.shapes = shapes;
+        cursor.depth = depth;
+        return cursor;
+    }
+
+    @Override
+    int at(int index) {
+        return data.charAt(index);
+    }
+
+    @Override
+    @NotNull String text(int start, int end) {
+        return data.substring(start, end);
+    }
+
+    @Override
+    @NotNull String readString() {
+        int start = ++position;
+        while (position < limit) {
+            char c = data.charAt(position);
+            if (c == '"') {
+                checkStringLength(start);
+                return data.substring(start, position++);
+            }
+
+            if (c == '\\') {
+                return readEscapedString(start);
+            }
+
+            if (c < 0x20) {
+                throw error("Unescaped control character in string");
+            }
+
+            position++;
+        }
+
+        throw error("Unterminated string");
+    }
+
+    private @NotNull String readEscapedString(int start) {
+        StringBuilder builder = ScratchPool.STRING_BUILDERS.acquire();
+        try {
+            builder.setLength(0);
+            builder.append(data, start, position);
+
+            while (position < limit) {
+                checkStringLength(start);
+                char c = data.charAt(position++);
+                if (c == '"') {
+                    return builder.toString();
+                }
+
+                if (c == '\\') {
+                    builder.append(readEscape());
+                } else if (c < 0x20) {
+                    position--;
+                    throw error("Unescaped control character in string");
+                } else {
+                    builder.append(c);
+                }
+            }
+
+            throw error("Unterminated string");
+        } finally {
+            ScratchPool.STRING_BUILDERS.release(builder);
+        }
+    }
+}
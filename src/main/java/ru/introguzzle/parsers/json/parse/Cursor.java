@@ -0,0 +1,418 @@
+package ru.introguzzle.parsers.json.parse;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import ru.introguzzle.parsers.common.parse.ParseLimits;
+import ru.introguzzle.parsers.common.util.Shape;
+
+/**
+ * Mutable read position over a JSON source.
+ * <p>
+ * All scanning methods work directly on the source by index and never create
+ * intermediate substrings, except for the decoded values they return.
+ * Subclasses define how the source is accessed: {@link CharCursor} reads characters
+ * of a {@code String}, {@link ByteCursor} reads UTF-8 bytes.
+ * </p>
+ */
+abstract class Cursor {
+    /**
+     * Marker returned by {@link #skipWhitespace()} when the input is exhausted
+     */
+    static final int END = -1;
+
+    final int limit;
+    int position;
+
+    /**
+     * Policy of decoding numbers, inherited by slices
+     */
+    @NotNull NumberPolicy numberPolicy = NumberPolicy.DOUBLE;
+
+    /**
+     * Table that canonicalizes object keys, inherited by slices. Keys are not canonicalized if it's {@code null}
+     */
+    @Nullable SymbolTable symbolTable;
+
+    /**
+     * Limits checked while scanning, inherited by slices
+     */
+    @NotNull ParseLimits limits = ParseLimits.NONE;
+
+    /**
+     * Root of shapes shared by parsed objects, inherited by slices. Keys are not shared if it's {@code null}
+     */
+    @Nullable Shape<String> shapes;
+
+    /**
+     * Number of objects and arrays that enclose current position, inherited by slices
+     */
+    int depth;
+
+    Cursor(int start, int limit) {
+        this.position = start;
+        this.limit = limit;
+    }
+
+    /**
+     * Returns unit of source at specified index. For character sources it's a character,
+     * for byte sources it's an unsigned byte
+     *
+     * @param index index in source
+     * @return character or unsigned byte
+     */
+    abstract int at(int index);
+
+    /**
+     * Reads string literal starting at current position, which must point at opening quote
+     *
+     * @return decoded string value
+     */
+    abstract @NotNull String readString();
+
+    /**
+     * Reads object key starting at current position, which must point at opening quote.
+     * If {@link #symbolTable} is present, key is hashed while it's scanned and resolved to its canonical instance
+     *
+     * @return decoded key
+     */
+    final @NotNull String readKey() {
+        SymbolTable symbolTable = this.symbolTable;
+        if (symbolTable == null) {
+            return readString();
+        }
+
+        int start = position + 1;
+        int hash = 0;
+        for (int i = start; i < limit; i++) {
+            int c = at(i);
+            if (c == '"') {
+                position = i;
+                checkStringLength(start);
+                position++;
+                return symbolTable.lookup(this, start, i, hash);
+            }
+
+            if (c == '\\' || c < 0x20 || c >= 0x80) {
+                break;
+            }
+
+            hash = 31 * hash + c;
+        }
+
+        return symbolTable.intern(readString());
+    }
+
+    /**
+     * Returns ASCII text of source in specified range
+     *
+     * @param start start index, inclusive
+     * @param end end index, exclusive
+     * @return text of range
+     */
+    abstract @NotNull String text(int start, int end);
+
+    /**
+     * Creates independent cursor over the same source
+     *
+     * @param start start position of new cursor
+     * @param limit limit of new cursor
+     * @return new cursor
+     */
+    abstract @NotNull Cursor slice(int start, int limit);
+
+    /**
+     * Advances past JSON whitespace and returns the next unit without consuming it
+     *
+     * @return next significant unit or {@link #END} if the input is exhausted
+     */
+    final int skipWhitespace() {
+        while (position < limit) {
+            int c = at(position);
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return c;
+            }
+
+            position++;
+        }
+
+        return END;
+    }
+
+    /**
+     * Enters object or array
+     *
+     * @throws JSONParseException if depth exceeds {@link ParseLimits#getMaxDepth()}
+     */
+    final void enter() {
+        if (++depth > limits.getMaxDepth()) {
+            throw error("Nesting depth exceeds limit of " + limits.getMaxDepth());
+        }
+    }
+
+    /**
+     * Leaves object or array
+     */
+    final void leave() {
+        depth--;
+    }
+
+    /**
+     * @param count number of members or elements read so far
+     * @throws JSONParseException if {@code count} exceeds {@link ParseLimits#getMaxEntries()}
+     */
+    final void checkEntries(int count) {
+        if (count > limits.getMaxEntries()) {
+            throw error("Number of entries exceeds limit of " + limits.getMaxEntries());
+        }
+    }
+
+    /**
+     * Checks length of string that starts at {@code start}, while position points inside or right after it
+     *
+     * @param start position of the first unit of string
+     * @throws JSONParseException if length exceeds {@link ParseLimits#getMaxStringLength()}
+     */
+    final void checkStringLength(int start) {
+        if (position - start > limits.getMaxStringLength()) {
+            position = start + limits.getMaxStringLength();
+            throw error("String length exceeds limit of " + limits.getMaxStringLength());
+        }
+    }
+
+    /**
+     * Checks length of source between current position and limit
+     *
+     * @throws JSONParseException if length exceeds {@link ParseLimits#getMaxDocumentLength()}
+     */
+    final void checkDocumentLength() {
+        if (limit - position > limits.getMaxDocumentLength()) {
+            position += limits.getMaxDocumentLength();
+            throw error("Document length exceeds limit of " + limits.getMaxDocumentLength());
+        }
+    }
+
+    final boolean isExhausted() {
+        return skipWhitespace() == END;
+    }
+
+    /**
+     * Consumes expected character after optional whitespace
+     *
+     * @param expected expected character
+     * @throws JSONParseException if next significant character differs from {@code expected}
+     */
+    final void expect(char expected) {
+        if (skipWhitespace() != expected) {
+            throw unexpected("'" + expected + "'");
+        }
+
+        position++;
+    }
+
+    /**
+     * Skips number literal starting at current position according to JSON grammar
+     *
+     * @return position right after the last character of number
+     */
+    final int scanNumber() {
+        if (position < limit && at(position) == '-') {
+            position++;
+        }
+
+        if (position < limit && at(position) == '0') {
+            position++;
+        } else if (!scanDigits()) {
+            throw error("Invalid numeric value");
+        }
+
+        if (position < limit && at(position) == '.') {
+            position++;
+            if (!scanDigits()) {
+                throw error("Invalid numeric value");
+            }
+        }
+
+        if (position < limit && (at(position) == 'e' || at(position) == 'E')) {
+            position++;
+            if (position < limit && (at(position) == '+' || at(position) == '-')) {
+                position++;
+            }
+
+            if (!scanDigits()) {
+                throw error("Invalid numeric value");
+            }
+        }
+
+        return position;
+    }
+
+    private boolean scanDigits() {
+        int start = position;
+        while (position < limit) {
+            int c = at(position);
+            if (c < '0' || c > '9') {
+                break;
+            }
+
+            position++;
+        }
+
+        return position > start;
+    }
+
+    /**
+     * Reads number literal starting at current position. Integers of up to
+     * {@value NumberPolicy#MAX_LONG_DIGITS} digits and short decimals without exponent
+     * are decoded directly from source units, other numbers are decoded from their text
+     *
+     * @return number of type defined by {@link #numberPolicy}
+     */
+    final @NotNull Number readNumber() {
+        int start = position;
+        int end = scanNumber();
+
+        int i = start;
+        boolean negative = at(i) == '-';
+        if (negative) i++;
+
+        long significand = 0;
+        int digits = 0;
+        int scale = 0;
+        for (; i < end; i++) {
+            int c = at(i);
+            if (c == '.') {
+                if (scale > 0 || digits > NumberPolicy.MAX_EXACT_DOUBLE_DIGITS) break;
+                scale = end - i - 1;
+                continue;
+            }
+
+            if (c < '0' || c > '9' || digits == NumberPolicy.MAX_LONG_DIGITS) break;
+            significand = significand * 10 + (c - '0');
+            digits++;
+        }
+
+        if (i == end) {
+            long value = negative ? -significand : significand;
+            if (scale == 0) {
+                return numberPolicy.ofInteger(value, negative);
+            }
+
+            if (digits <= NumberPolicy.MAX_EXACT_DOUBLE_DIGITS && NumberPolicy.isExactScale(scale)) {
+                Number decimal = numberPolicy.ofDecimal(value, scale, negative);
+                if (decimal != null) {
+                    return decimal;
+                }
+            }
+        }
+
+        return numberPolicy.ofText(text(start, end), isIntegral(start, end));
+    }
+
+    private boolean isIntegral(int start, int end) {
+        for (int i = start; i < end; i++) {
+            int c = at(i);
+            if (c == '.' || c == 'e' || c == 'E') {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Reads string, number, boolean or null literal. Position must point at {@code c}
+     *
+     * @param c next significant unit returned by {@link #skipWhitespace()}
+     * @return {@code String}, {@code Number}, {@code Boolean} or {@code null}
+     */
+    final Object readScalar(int c) {
+        return switch (c) {
+            case '"' -> readString();
+            case 't' -> readLiteral("true", Boolean.TRUE);
+            case 'f' -> readLiteral("false", Boolean.FALSE);
+            case 'n' -> readLiteral("null", null);
+            case '-', '0', '1', '2', '3', '4', '5', '6', '7', '8', '9' -> readNumber();
+            default -> throw unexpected("value");
+        };
+    }
+
+    /**
+     * Consumes keyword literal ({@code true}, {@code false} or {@code null})
+     *
+     * @param literal literal to consume
+     * @param value value represented by literal
+     * @return {@code value}
+     */
+    final Object readLiteral(@NotNull String literal, Object value) {
+        int length = literal.length();
+        if (position + length > limit) {
+            throw unexpected("'" + literal + "'");
+        }
+
+        for (int i = 0; i < length; i++) {
+            if (at(position + i) != literal.charAt(i)) {
+                throw unexpected("'" + literal + "'");
+            }
+        }
+
+        position += length;
+        return value;
+    }
+
+    /**
+     * Decodes escape sequence. Position must point right after backslash
+     *
+     * @return decoded character
+     */
+    final char readEscape() {
+        if (position >= limit) {
+            throw error("Unterminated escape sequence");
+        }
+
+        int c = at(position++);
+        return switch (c) {
+            case '"', '\\', '/' -> (char) c;
+            case 'b' -> '\b';
+            case 'f' -> '\f';
+            case 'n' -> '\n';
+            case 'r' -> '\r';
+            case 't' -> '\t';
+            case 'u' -> readUnicodeEscape();
+            default  -> {
+                position--;
+                throw error("Invalid escape sequence '\\" + (char) c + "'");
+            }
+        };
+    }
+
+    private char readUnicodeEscape() {
+        if (position + 4 > limit) {
+            throw error("Unterminated unicode escape");
+        }
+
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            int digit = Character.digit(at(position), 16);
+            if (digit < 0) {
+                throw error("Invalid unicode escape");
+            }
+
+            value = (value << 4) | digit;
+            position++;
+        }
+
+        return (char) value;
+    }
+
+    final @NotNull JSONParseException unexpected(@NotNull String expected) {
+        if (position >= limit) {
+            return error("Unexpected end of input, expected " + expected);
+        }
+
+        return error("Unexpected character '" + (char) at(position) + "', expected " + expected);
+    }
+
+    final @NotNull JSONParseException error(@NotNull String message) {
+        return new JSONParseException(message + " at position " + position);
+    }
+}
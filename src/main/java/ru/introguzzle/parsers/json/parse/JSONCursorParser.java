@@ -0,0 +1,175 @@
+package ru.introguzzle.parsers.json.parse;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import ru.introguzzle.parsers.json.entity.JSONArray;
+import ru.introguzzle.parsers.json.entity.JSONObject;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Single-pass recursive-descent parser.
+ * <p>
+ * Unlike {@link JSONParser}, which splits every nesting level into substrings,
+ * this implementation walks the source once by index with a {@link Cursor},
+ * so every character is examined exactly once regardless of nesting depth.
+ * UTF-8 input is scanned as bytes with {@link ByteCursor}.
+ * </p>
+ */
+class JSONCursorParser extends Parser {
+    @Override
+    public <T> @Nullable T parse(@Nullable String data, @NotNull Class<? extends T> type) {
+        if (data == null) return null;
+        if (data.isBlank()) {
+            return handleEmptyString(data, type);
+        }
+
+        return parse(configure(new CharCursor(data)), type);
+    }
+
+    /**
+     * Scans UTF-8 bytes directly, without decoding the whole document into a {@code String}
+     */
+    @Override
+    public <T> @Nullable T parseBytes(@Nullable ByteBuffer data, @NotNull Class<? extends T> type) {
+        if (data == null) return null;
+
+        Cursor cursor = configure(new ByteCursor(data));
+        if (cursor.isExhausted()) {
+            return handleEmptyString("", type);
+        }
+
+        return parse(cursor, type);
+    }
+
+    @Override
+    public @Nullable JSONArray parseParallel(@Nullable String data, @NotNull ForkJoinPool pool) {
+        if (data == null) return null;
+        if (data.isBlank()) {
+            return handleEmptyString(data, JSONArray.class);
+        }
+
+        Cursor cursor = configure(new CharCursor(data));
+        cursor.checkDocumentLength();
+        return ParallelArrayParser.parse(this, cursor, pool);
+    }
+
+    @Override
+    public @Nullable JSONArray parseBytesParallel(@Nullable ByteBuffer data, @NotNull ForkJoinPool pool) {
+        if (data == null) return null;
+
+        Cursor cursor = configure(new ByteCursor(data));
+        if (cursor.isExhausted()) {
+            return handleEmptyString("", JSONArray.class);
+        }
+
+        cursor.checkDocumentLength();
+        return ParallelArrayParser.parse(this, cursor, pool);
+    }
+
+    <T> @Nullable T parse(@NotNull Cursor cursor, @NotNull Class<? extends T> type) {
+        cursor.checkDocumentLength();
+        Object result = readValue(cursor);
+
+        if (!cursor.isExhausted()) {
+            throw cursor.unexpected("end of input");
+        }
+
+        return type.cast(result);
+    }
+
+    /**
+     * Reads any JSON value starting at next significant character
+     *
+     * @param cursor cursor over source
+     * @return {@code JSONObject}, {@code JSONArray}, {@code String}, {@code Number}, {@code Boolean} or {@code null}
+     */
+    Object readValue(@NotNull Cursor cursor) {
+        int c = cursor.skipWhitespace();
+        if (c == '{') return readObject(cursor);
+        if (c == '[') return readArray(cursor);
+
+        return cursor.readScalar(c);
+    }
+
+    /**
+     * Reads JSON object. Cursor must point at opening curly brace
+     *
+     * @param cursor cursor over source
+     * @return the parsed {@code JSONObject}
+     */
+    @NotNull JSONObject readObject(@NotNull Cursor cursor) {
+        JSONObject object = newObject(cursor.shapes);
+        cursor.enter();
+        cursor.position++;
+
+        int c = cursor.skipWhitespace();
+        if (c == '}') {
+            cursor.position++;
+            cursor.leave();
+            return object;
+        }
+
+        for (int count = 1; ; count++) {
+            if (c != '"') {
+                throw cursor.unexpected("key");
+            }
+
+            cursor.checkEntries(count);
+            String key = cursor.readKey();
+            cursor.expect(':');
+            object.put(key, readValue(cursor));
+
+            c = cursor.skipWhitespace();
+            if (c == '}') {
+                cursor.position++;
+                cursor.leave();
+                return object;
+            }
+
+            if (c != ',') {
+                throw cursor.unexpected("',' or '}'");
+            }
+
+            cursor.position++;
+            c = cursor.skipWhitespace();
+        }
+    }
+
+    /**
+     * Reads JSON array. Cursor must point at opening square bracket
+     *
+     * @param cursor cursor over source
+     * @return the parsed {@code JSONArray}
+     */
+    @NotNull JSONArray readArray(@NotNull Cursor cursor) {
+        JSONArray array = newArray();
+        cursor.enter();
+        cursor.position++;
+
+        if (cursor.skipWhitespace() == ']') {
+            cursor.position++;
+            cursor.leave();
+            return array;
+        }
+
+        for (int count = 1; ; count++) {
+            cursor.checkEntries(count);
+            array.add(readValue(cursor));
+
+            int c = cursor.skipWhitespace();
+            if (c == ']') {
+                cursor.position++;
+                cursor.leave();
+                return array;
+            }
+
+            if (c != ',') {
+                throw cursor.unexpected("',' or ']'");
+            }
+
+            cursor.position++;
+        }
+    }
+}
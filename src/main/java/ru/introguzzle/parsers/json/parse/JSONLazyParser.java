@@ -0,0 +1,39 @@
+package ru.introguzzle.parsers.json.parse;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Parser that defers materialization of values until they are accessed.
+ * <p>
+ * Instead of building the whole tree, it makes a single pass over the source that records
+ * offsets of structural characters in a {@link StructuralIndex} and returns a {@code JSONObject}
+ * that decodes members only when they are read. This is beneficial when only a small part
+ * of a large document is needed. Top-level arrays are read immediately, but objects inside them stay lazy.
+ * </p>
+ * <p>
+ * Grammar errors inside a container are reported when that container is first accessed,
+ * not when the document is parsed.
+ * </p>
+ *
+ * @see LazyJSONObject
+ */
+class JSONLazyParser extends JSONCursorParser {
+    @Override
+    <T> @Nullable T parse(@NotNull Cursor cursor, @NotNull Class<? extends T> type) {
+        cursor.checkDocumentLength();
+        int c = cursor.skipWhitespace();
+        if (c != '{' && c != '[') {
+            return super.parse(cursor, type);
+        }
+
+        StructuralIndex index = StructuralIndex.build(cursor);
+        int close = index.match(0);
+        Cursor tail = index.cursor(index.position(close) + 1);
+        if (!tail.isExhausted()) {
+            throw tail.unexpected("end of input");
+        }
+
+        return type.cast(LazyJSONObject.value(index, cursor.position, 0));
+    }
+}
@@ -0,0 +1,189 @@
+package ru.introguzzle.parsers.json.parse;
+
+import org.jetbrains.annotations.NotNull;
+import ru.introguzzle.parsers.common.io.IO;
+import ru.introguzzle.parsers.json.entity.JSONObject;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reader of <a href="https://jsonlines.org">JSON Lines</a> (newline-delimited JSON), where every
+ * non-blank line is a separate JSON object.
+ * <p>
+ * Records are parsed lazily as the stream is consumed. Parallel streams split the source into
+ * newline-aligned chunks of at least {@code chunkSize} characters (or bytes) and parse them on
+ * the common fork-join pool. Streams are ordered, so terminal operations such as
+ * {@link Stream#forEachOrdered(Consumer)} or {@link Stream#toList()} preserve order of records even
+ * in parallel mode; call {@link Stream#unordered()} when order doesn't matter.
+ * </p>
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * JSONLines lines = new JSONLines(Parser.newParser().setSymbolTable(new SymbolTable()));
+ * long errors = lines.parallelStream(Path.of("events.jsonl"))
+ *         .filter(event -> "error".equals(event.getString("level")))
+ *         .count();
+ * }</pre>
+ */
+public final class JSONLines {
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+    private final Parser parser;
+    private final int chunkSize;
+
+    public JSONLines() {
+        this(Parser.newParser());
+    }
+
+    public JSONLines(@NotNull Parser parser) {
+        this(parser, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param parser parser of records
+     * @param chunkSize minimal size of chunk that is parsed by one task in parallel mode
+     * @throws IllegalArgumentException if {@code chunkSize} is not positive
+     */
+    public JSONLines(@NotNull Parser parser, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+
+        this.parser = parser;
+        this.chunkSize = chunkSize;
+    }
+
+    public @NotNull Stream<JSONObject> stream(@NotNull String data) {
+        return stream(parser.configure(new CharCursor(data)), false);
+    }
+
+    /**
+     * @param data UTF-8 encoded records between position and limit. Position of buffer is not changed
+     * @return sequential stream of records
+     */
+    public @NotNull Stream<JSONObject> stream(@NotNull ByteBuffer data) {
+        return stream(parser.configure(new ByteCursor(data)), false);
+    }
+
+    /**
+     * @param path path to UTF-8 encoded file, which is mapped into memory with {@link IO#map(Path)}
+     * @return sequential stream of records
+     */
+    public @NotNull Stream<JSONObject> stream(@NotNull Path path) {
+        return stream(IO.map(path));
+    }
+
+    public @NotNull Stream<JSONObject> parallelStream(@NotNull String data) {
+        return stream(parser.configure(new CharCursor(data)), true);
+    }
+
+    /**
+     * @param data UTF-8 encoded records between position and limit. Position of buffer is not changed
+     * @return parallel stream of records
+     */
+    public @NotNull Stream<JSONObject> parallelStream(@NotNull ByteBuffer data) {
+        return stream(parser.configure(new ByteCursor(data)), true);
+    }
+
+    /**
+     * @param path path to UTF-8 encoded file, which is mapped into memory with {@link IO#map(Path)}
+     * @return parallel stream of records
+     */
+    public @NotNull Stream<JSONObject> parallelStream(@NotNull Path path) {
+        return parallelStream(IO.map(path));
+    }
+
+    private Stream<JSONObject> stream(Cursor source, boolean parallel) {
+        return StreamSupport.stream(new LineSpliterator(source, source.position, source.limit), parallel);
+    }
+
+    private JSONObject parse(Cursor source, Cursor line) {
+        if (parser instanceof JSONCursorParser cursorParser) {
+            return cursorParser.parse(line, JSONObject.class);
+        }
+
+        String text = source instanceof CharCursor chars
+                ? chars.data.substring(line.position, line.limit)
+                : StandardCharsets.UTF_8.decode(((ByteCursor) source).buffer.slice(line.position, line.limit - line.position)).toString();
+
+        return parser.parse(text, JSONObject.class);
+    }
+
+    /**
+     * Spliterator over range of source that splits at line boundaries
+     */
+    private final class LineSpliterator implements Spliterator<JSONObject> {
+        private final Cursor source;
+        private final int end;
+        private int position;
+
+        LineSpliterator(Cursor source, int position, int end) {
+            this.source = source;
+            this.position = position;
+            this.end = end;
+        }
+
+        private int nextLineBreak(int from) {
+            for (int i = from; i < end; i++) {
+                if (source.at(i) == '\n') {
+                    return i;
+                }
+            }
+
+            return end;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super JSONObject> action) {
+            while (position < end) {
+                int start = position;
+                int lineBreak = nextLineBreak(start);
+                position = Math.min(lineBreak + 1, end);
+
+                Cursor line = source.slice(start, lineBreak);
+                if (!line.isExhausted()) {
+                    action.accept(parse(source, line));
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        @Override
+        public Spliterator<JSONObject> trySplit() {
+            int remaining = end - position;
+            if (remaining < 2 * chunkSize) {
+                return null;
+            }
+
+            int lineBreak = nextLineBreak(position + remaining / 2);
+            if (lineBreak >= end) {
+                return null;
+            }
+
+            Spliterator<JSONObject> prefix = new LineSpliterator(source, position, lineBreak);
+            position = lineBreak + 1;
+            return prefix;
+        }
+
+        /**
+         * @return number of remaining characters or bytes, which is proportional to number of records
+         */
+        @Override
+        public long estimateSize() {
+            return end - position;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL | IMMUTABLE;
+        }
+    }
+}
@@ -2,35 +2,29 @@ package ru.introguzzle.parsers.json.parse;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import ru.introguzzle.parsers.common.util.ScratchPool;
 import ru.introguzzle.parsers.json.entity.JSONArray;
 import ru.introguzzle.parsers.json.entity.JSONObject;
 
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
-import java.util.Stack;
 
 class JSONParser extends Parser {
-    private static final Map<Character, Character> BRACKET_MAP = Map.of(
-            '{', '}',
-            '[', ']',
-            '(', ')'
-    );
-
-    private static final Set<Character> OPEN_BRACKETS = BRACKET_MAP.keySet();
-    private static final Set<Character> CLOSE_BRACKETS = new HashSet<>(BRACKET_MAP.values());
-
     private static boolean isMatchingBracket(char open, char close) {
-        return BRACKET_MAP.get(open) == close;
+        return switch (open) {
+            case '{' -> close == '}';
+            case '[' -> close == ']';
+            case '(' -> close == ')';
+            default -> false;
+        };
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public <T> T parse(@Nullable String data, @NotNull Class<? extends T> type) {
         if (data == null) return null;
-        validate(data);
+        checkStructure(data);
         if (data.isEmpty()) {
             return handleEmptyString(data, type);
         }
@@ -98,7 +92,7 @@ class JSONParser extends Parser {
 
             // Split each line into a key-value pair by the first colon
             String[] split = line.split(":", 2);
-            String key = split[0].trim().replace("\"", ""); // Remove double quotes from keys
+            String key = intern(split[0].trim().replace("\"", "")); // Remove double quotes from keys
             Object value = map(split[1].trim(), JSONObject.class); // Recursively map the value
             object.put(key, value);
             index++;
@@ -114,7 +108,7 @@ class JSONParser extends Parser {
      * @return the parsed {@code JSONArray}
      */
     private JSONArray parseArray(String data) {
-        JSONArray array = new JSONArray();
+        JSONArray array = newArray();
         // Remove the outer square brackets
         data = data.substring(1, data.length() - 1).trim();
 
@@ -141,74 +135,123 @@ class JSONParser extends Parser {
         int bracketCount = 0;
         boolean inQuotes = false;
 
-        StringBuilder entry = new StringBuilder();
-
-        // Iterate over each character in the string
-        for (int i = 0; i < data.length(); i++) {
-            char c = data.charAt(i);
+        StringBuilder entry = ScratchPool.STRING_BUILDERS.acquire();
+        entry.setLength(0);
+        try {
+            // Iterate over each character in the string
+            for (int i = 0; i < data.length(); i++) {
+                char c = data.charAt(i);
 
-            // Toggle the inQuotes flag when encountering a double quote
-            if (c == '"') {
-                inQuotes = !inQuotes;
-            }
-
-            // If not inside a quoted string, track the opening and closing of brackets
-            if (!inQuotes) {
-                if (c == '{' || c == '[') {
-                    bracketCount++;
-                } else if (c == '}' || c == ']') {
-                    bracketCount--;
+                // Toggle the inQuotes flag when encountering a double quote
+                if (c == '"') {
+                    inQuotes = !inQuotes;
                 }
 
-                // If we encounter a comma outside of nested objects/arrays, it's a delimiter
-                if (c == ',' && bracketCount == 0) {
-                    entries.add(entry.toString().trim());
-                    entry.setLength(0); // Clear the entry for the next value
-                    continue;
+                // If not inside a quoted string, track the opening and closing of brackets
+                if (!inQuotes) {
+                    if (c == '{' || c == '[') {
+                        bracketCount++;
+                    } else if (c == '}' || c == ']') {
+                        bracketCount--;
+                    }
+
+                    // If we encounter a comma outside of nested objects/arrays, it's a delimiter
+                    if (c == ',' && bracketCount == 0) {
+                        entries.add(entry.toString().trim());
+                        entry.setLength(0); // Clear the entry for the next value
+                        continue;
+                    }
                 }
-            }
 
-            // Append the current character to the entry being built
-            entry.append(c);
-        }
+                // Append the current character to the entry being built
+                entry.append(c);
+            }
 
-        // Add the final entry if there's anything left in the buffer
-        if (!entry.isEmpty()) {
-            entries.add(entry.toString().trim());
+            // Add the final entry if there's anything left in the buffer
+            if (!entry.isEmpty()) {
+                entries.add(entry.toString().trim());
+            }
+        } finally {
+            ScratchPool.STRING_BUILDERS.release(entry);
         }
 
         return entries;
     }
 
-    private void validate(String data) {
-        Stack<Character> stack = new Stack<>();
-
-        boolean inQuotes = false;
-
-        for (int i = 0; i < data.length(); i++) {
-            char c = data.charAt(i);
-            if (c == '"') inQuotes = !inQuotes;
-
-            if (!inQuotes) for (char openBracket: OPEN_BRACKETS) {
-                if (c == openBracket) {
-                    stack.push(c);
-                }
-            }
+    /**
+     * Checks that brackets outside of strings are balanced and that {@link #limits} are not exceeded.
+     * Runs before recursive parsing, so that too deep documents never reach it
+     *
+     * @param data raw JSON data
+     * @throws JSONParseException if brackets are not balanced or any limit is exceeded
+     */
+    private void checkStructure(String data) {
+        checkDocumentLength(data.length());
+
+        char[] stack = ScratchPool.CHAR_ARRAYS.acquire();
+        int[] entries = ScratchPool.INT_ARRAYS.acquire();
+        try {
+            int depth = 0;
+            int stringStart = -1;
+
+            for (int i = 0; i < data.length(); i++) {
+                char c = data.charAt(i);
+                if (stringStart >= 0) {
+                    if (c == '\\') {
+                        i++;
+                    } else if (c == '"') {
+                        if (i - stringStart - 1 > limits.getMaxStringLength()) {
+                            throw exceeded("String length", limits.getMaxStringLength(), stringStart + 1 + limits.getMaxStringLength());
+                        }
+
+                        stringStart = -1;
+                    }
 
-            if (!inQuotes) for (char closeBracket: CLOSE_BRACKETS) {
-                if (c != closeBracket) {
                     continue;
                 }
 
-                if (stack.isEmpty()) {
-                    throw new JSONParseException("Invalid JSON: unmatched closing bracket at position " + i);
-                }
-
-                char openBracket = stack.pop();
-                if (!isMatchingBracket(openBracket, c)) {
-                    throw new JSONParseException("Invalid JSON: mismatched brackets at position " + i);
+                switch (c) {
+                    case '"' -> stringStart = i;
+                    case '{', '[', '(' -> {
+                        if (depth == limits.getMaxDepth()) {
+                            throw exceeded("Nesting depth", limits.getMaxDepth(), i);
+                        }
+
+                        if (depth == stack.length) {
+                            stack = Arrays.copyOf(stack, depth * 2);
+                        }
+
+                        if (depth == entries.length) {
+                            entries = Arrays.copyOf(entries, depth * 2);
+                        }
+
+                        entries[depth] = 1;
+                        stack[depth++] = c;
+                    }
+                    case '}', ']', ')' -> {
+                        if (depth == 0) {
+                            throw new JSONParseException("Invalid JSON: unmatched closing bracket at position " + i);
+                        }
+
+                        if (!isMatchingBracket(stack[--depth], c)) {
+                            throw new JSONParseException("Invalid JSON: mismatched brackets at position " + i);
+                        }
+                    }
+                    case ',' -> {
+                        if (depth > 0 && ++entries[depth - 1] > limits.getMaxEntries()) {
+                            throw exceeded("Number of entries", limits.getMaxEntries(), i);
+                        }
+                    }
+                    default -> {}
                 }
             }
+        } finally {
+            ScratchPool.CHAR_ARRAYS.release(stack);
+            ScratchPool.INT_ARRAYS.release(entries);
         }
     }
+
+    private static JSONParseException exceeded(String limit, int value, int position) {
+        return new JSONParseException(limit + " exceeds limit of " + value + " at position " + position);
+    }
 }
@@ -0,0 +1,321 @@
+package ru.introguzzle.parsers.json.parse;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Non-blocking incremental parser of UTF-8 encoded JSON that is fed with chunks of bytes.
+ * <p>
+ * Chunks are consumed with {@link #feed(ByteBuffer)} as soon as they arrive, and every top-level value
+ * is passed to the consumer right after its last byte is fed. Parser keeps only bytes of the value
+ * that is not complete yet, so memory per stream is bounded by the size of the largest value, not by the
+ * size of the whole stream. Length and depth of a value are checked against {@link Parser#getLimits() limits}
+ * of the parser while its bytes arrive. Top-level values may be separated by whitespace, as in JSON Lines.
+ * </p>
+ * <p>
+ * When root array is unwrapped, elements of a single top-level array are emitted one by one instead,
+ * which suits uploads that consist of one large array of records.
+ * </p>
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * JSONPushParser parser = new JSONPushParser(value -> process((JSONObject) value))
+ *         .setUnwrapRootArray(true);
+ *
+ * // for every received fragment
+ * parser.feed(fragment);
+ *
+ * // when the body is complete
+ * parser.endOfInput();
+ * }</pre>
+ */
+public final class JSONPushParser {
+    private static final int INITIAL_CAPACITY = 256;
+    private static final byte[] BYTE_ORDER_MARK = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+    private final Parser parser;
+    private final Consumer<Object> consumer;
+    private boolean unwrapRootArray;
+
+    /**
+     * Bytes of value that is not complete yet
+     */
+    private byte[] pending = new byte[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Position in stream of the first byte of pending value
+     */
+    private long valueStart;
+
+    /**
+     * Number of bytes consumed so far
+     */
+    private long consumed;
+
+    /**
+     * Number of skipped bytes of byte order mark
+     */
+    private int skipped;
+
+    private int depth;
+    private boolean inString;
+    private boolean escaped;
+    private boolean inScalar;
+
+    private boolean rootOpened;
+    private boolean rootClosed;
+    private boolean expectComma;
+    private boolean ended;
+
+    /**
+     * Number of values emitted so far
+     */
+    private long emitted;
+
+    /**
+     * @param consumer consumer of top-level values: {@code JSONObject}, {@code JSONArray},
+     *                 {@code String}, {@code Number}, {@code Boolean} or {@code null}
+     */
+    public JSONPushParser(@NotNull Consumer<Object> consumer) {
+        this(Parser.newParser(), consumer);
+    }
+
+    /**
+     * @param parser parser of complete values, see {@link Parser#parseBytes(ByteBuffer, Class)}
+     * @param consumer consumer of top-level values
+     */
+    public JSONPushParser(@NotNull Parser parser, @NotNull Consumer<Object> consumer) {
+        this.parser = parser;
+        this.consumer = consumer;
+    }
+
+    /**
+     * Sets whether elements of top-level array are emitted instead of the array itself.
+     * Must be set before the first chunk is fed
+     *
+     * @param unwrapRootArray whether root array is unwrapped
+     * @return this parser
+     * @throws IllegalStateException if some input was already fed
+     */
+    public @NotNull JSONPushParser setUnwrapRootArray(boolean unwrapRootArray) {
+        if (consumed > 0) {
+            throw new IllegalStateException("Input was already fed");
+        }
+
+        this.unwrapRootArray = unwrapRootArray;
+        return this;
+    }
+
+    /**
+     * Consumes all remaining bytes of {@code chunk}, emitting every value that is completed by them.
+     * Position of {@code chunk} is moved to its limit
+     *
+     * @param chunk next chunk of input
+     * @throws JSONParseException if input is malformed
+     * @throws IllegalStateException if {@link #endOfInput()} was already called
+     */
+    public void feed(@NotNull ByteBuffer chunk) {
+        if (ended) {
+            throw new IllegalStateException("Input has already ended");
+        }
+
+        while (chunk.hasRemaining()) {
+            int b = chunk.get() & 0xFF;
+            if (consumed == skipped && skipped < BYTE_ORDER_MARK.length && b == (BYTE_ORDER_MARK[skipped] & 0xFF)) {
+                skipped++;
+                consumed++;
+                continue;
+            }
+
+            accept(b);
+            consumed++;
+        }
+    }
+
+    /**
+     * Signals that input has ended, emitting the last value if it's not delimited, such as top-level number
+     *
+     * @throws JSONParseException if the last value is not complete
+     */
+    public void endOfInput() {
+        if (ended) {
+            return;
+        }
+
+        ended = true;
+        if (inScalar) {
+            complete();
+        }
+
+        if (inString || depth > valueDepth() || (rootOpened && !rootClosed)) {
+            throw error("Unexpected end of input");
+        }
+    }
+
+    /**
+     * @return number of bytes consumed so far
+     */
+    public long getPosition() {
+        return consumed;
+    }
+
+    private int valueDepth() {
+        return unwrapRootArray ? 1 : 0;
+    }
+
+    private void accept(int b) {
+        if (inString) {
+            append(b);
+            if (escaped) {
+                escaped = false;
+            } else if (b == '\\') {
+                escaped = true;
+            } else if (b == '"') {
+                inString = false;
+                if (depth == valueDepth()) {
+                    complete();
+                }
+            }
+
+            return;
+        }
+
+        if (inScalar) {
+            if (!isWhitespace(b) && !isDelimiter(b)) {
+                append(b);
+                return;
+            }
+
+            complete();
+        }
+
+        int valueDepth = valueDepth();
+        if (depth < valueDepth) {
+            acceptOutsideRoot(b);
+        } else if (depth == valueDepth) {
+            acceptBetweenValues(b);
+        } else {
+            append(b);
+            switch (b) {
+                case '"' -> inString = true;
+                case '{', '[' -> enter();
+                case '}', ']' -> {
+                    if (--depth == valueDepth) {
+                        complete();
+                    }
+                }
+                default -> {}
+            }
+        }
+    }
+
+    private void acceptOutsideRoot(int b) {
+        if (isWhitespace(b)) {
+            return;
+        }
+
+        if (b != '[' || rootOpened) {
+            throw unexpected(b, rootOpened ? "end of input" : "'['");
+        }
+
+        rootOpened = true;
+        enter();
+    }
+
+    private void acceptBetweenValues(int b) {
+        if (isWhitespace(b)) {
+            return;
+        }
+
+        if (unwrapRootArray) {
+            if (b == ',' && expectComma) {
+                expectComma = false;
+                return;
+            }
+
+            if (b == ']' && (expectComma || emitted == 0)) {
+                depth--;
+                rootClosed = true;
+                return;
+            }
+
+            if (expectComma) {
+                throw unexpected(b, "',' or ']'");
+            }
+        }
+
+        valueStart = consumed;
+        switch (b) {
+            case '{', '[' -> enter();
+            case '"' -> inString = true;
+            case '}', ']', ',', ':' -> throw unexpected(b, "value");
+            default -> inScalar = true;
+        }
+
+        append(b);
+    }
+
+    private void enter() {
+        if (++depth > parser.getLimits().getMaxDepth()) {
+            throw error("Nesting depth exceeds limit of " + parser.getLimits().getMaxDepth());
+        }
+    }
+
+    private void append(int b) {
+        if (size == parser.getLimits().getMaxDocumentLength()) {
+            throw error("Document length exceeds limit of " + parser.getLimits().getMaxDocumentLength());
+        }
+
+        if (size == pending.length) {
+            pending = Arrays.copyOf(pending, size * 2);
+        }
+
+        pending[size++] = (byte) b;
+    }
+
+    private void complete() {
+        inScalar = false;
+
+        Object value;
+        try {
+            value = parser.parseBytes(ByteBuffer.wrap(pending, 0, size), Object.class);
+        } catch (JSONParseException e) {
+            throw new JSONParseException(e.getMessage() + " of value starting at position " + valueStart);
+        }
+
+        size = 0;
+        if (pending.length > INITIAL_CAPACITY * 64) {
+            pending = new byte[INITIAL_CAPACITY];
+        }
+
+        expectComma = unwrapRootArray;
+        emitted++;
+        consumer.accept(value);
+    }
+
+    private static boolean isWhitespace(int b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+
+    private static boolean isDelimiter(int b) {
+        return switch (b) {
+            case '{', '}', '[', ']', ',', ':', '"' -> true;
+            default -> false;
+        };
+    }
+
+    private @NotNull JSONParseException unexpected(int b, @NotNull String expected) {
+        return error("Unexpected character '" + (char) b + "', expected " + expected);
+    }
+
+    private @NotNull JSONParseException error(@NotNull String message) {
+        return new JSONParseException(message + " at position " + consumed);
+    }
+}
@@ -0,0 +1,709 @@
+package ru.introguzzle.parsers.json.parse;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import ru.introguzzle.parsers.common.io.WrappedIOException;
+import ru.introguzzle.parsers.common.parse.ParseLimits;
+import ru.introguzzle.parsers.json.entity.JSONArray;
+import ru.introguzzle.parsers.json.entity.JSONObject;
+import ru.introguzzle.parsers.json.parse.tokenize.Type;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Pull-based streaming reader of JSON documents.
+ * <p>
+ * Reads tokens from a {@link Reader} through a fixed-size character buffer, so memory usage
+ * depends only on nesting depth and the size of individual values, not on the size of the document.
+ * Tokens are described with {@link Type}; {@link Type#COLON} and {@link Type#COMMA} are consumed
+ * implicitly and never reported. A stream may contain several whitespace-separated top-level values.
+ * </p>
+ * <p>
+ * Nesting depth, length of strings and keys and number of entries of objects and arrays are checked
+ * against {@link ParseLimits}, {@link ParseLimits#defaults()} unless set. Document length is not limited,
+ * as a stream is not a single document.
+ * </p>
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * try (JSONReader reader = new JSONReader(inputStream)) {
+ *     reader.beginArray();
+ *     while (reader.hasNext()) {
+ *         JSONObject record = reader.readObject();
+ *         // process record
+ *     }
+ *     reader.endArray();
+ * }
+ * }</pre>
+ *
+ * This class is not thread-safe.
+ */
+public final class JSONReader implements Closeable {
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_OBJECT = 2;
+    private static final int DANGLING_NAME = 3;
+    private static final int NONEMPTY_OBJECT = 4;
+    private static final int EMPTY_ARRAY = 5;
+    private static final int NONEMPTY_ARRAY = 6;
+
+    private static final int END = -1;
+
+    private final Reader in;
+    private final char[] buffer;
+    private int position;
+    private int limit;
+
+    /**
+     * Number of characters that were discarded from the buffer by previous fills
+     */
+    private long consumed;
+
+    private int[] stack = new int[32];
+    private int depth;
+
+    /**
+     * Number of members or elements read so far at every level of {@link #stack}
+     */
+    private int[] entries = new int[32];
+
+    private @Nullable Type peeked;
+    private final StringBuilder scratch = new StringBuilder();
+
+    /**
+     * Cursor over characters of the last number, which are copied from the buffer
+     */
+    private NumberCursor number = new NumberCursor(new char[32]);
+
+    /**
+     * Whether the last top-level value is a scalar, which must be separated from the next one
+     */
+    private boolean scalar;
+    private @NotNull NumberPolicy numberPolicy = NumberPolicy.defaults();
+    private @NotNull ParseLimits limits = ParseLimits.defaults();
+
+    public JSONReader(@NotNull Reader in) {
+        this(in, DEFAULT_BUFFER_SIZE);
+    }
+
+    public JSONReader(@NotNull Reader in, int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Buffer size must be positive");
+        }
+
+        this.in = in;
+        this.buffer = new char[bufferSize];
+        this.stack[depth++] = EMPTY_DOCUMENT;
+    }
+
+    public JSONReader(@NotNull InputStream in) {
+        this(in, StandardCharsets.UTF_8);
+    }
+
+    public JSONReader(@NotNull InputStream in, @NotNull Charset charset) {
+        this(new InputStreamReader(in, charset));
+    }
+
+    /**
+     * Returns type of the next token without consuming it
+     *
+     * @return type of the next token or {@link Type#END_DOCUMENT} if the stream is exhausted
+     * @throws JSONParseException if the stream is malformed
+     * @throws WrappedIOException if an I/O error occurs
+     */
+    public @NotNull Type peek() {
+        if (peeked != null) {
+            return peeked;
+        }
+
+        int context = stack[depth - 1];
+        int c;
+
+        switch (context) {
+            case EMPTY_ARRAY, NONEMPTY_ARRAY -> {
+                c = nextNonWhitespace();
+                if (c == ']') {
+                    return peeked = Type.ARRAY_END;
+                }
+
+                if (context == NONEMPTY_ARRAY) {
+                    if (c != ',') throw unexpected(c, "',' or ']'");
+                    position++;
+                    c = nextNonWhitespace();
+                }
+
+                countEntry();
+                stack[depth - 1] = NONEMPTY_ARRAY;
+            }
+
+            case EMPTY_OBJECT, NONEMPTY_OBJECT -> {
+                c = nextNonWhitespace();
+                if (c == '}') {
+                    return peeked = Type.OBJECT_END;
+                }
+
+                if (context == NONEMPTY_OBJECT) {
+                    if (c != ',') throw unexpected(c, "',' or '}'");
+                    position++;
+                    c = nextNonWhitespace();
+                }
+
+                if (c != '"') throw unexpected(c, "key");
+                countEntry();
+                stack[depth - 1] = DANGLING_NAME;
+                return peeked = Type.KEY;
+            }
+
+            case DANGLING_NAME -> {
+                c = nextNonWhitespace();
+                if (c != ':') throw unexpected(c, "':'");
+                position++;
+                stack[depth - 1] = NONEMPTY_OBJECT;
+                c = nextNonWhitespace();
+            }
+
+            default -> {
+                long start = getPosition();
+                c = nextNonWhitespace();
+                if (c == END) {
+                    return peeked = Type.END_DOCUMENT;
+                }
+
+                if (context == NONEMPTY_DOCUMENT && scalar && getPosition() == start && c != '{' && c != '[') {
+                    throw unexpected(c, "whitespace");
+                }
+
+                stack[depth - 1] = NONEMPTY_DOCUMENT;
+                scalar = c != '{' && c != '[';
+            }
+        }
+
+        return peeked = switch (c) {
+            case '{' -> Type.OBJECT_START;
+            case '[' -> Type.ARRAY_START;
+            case '"' -> Type.STRING;
+            case 't', 'f' -> Type.BOOLEAN;
+            case 'n' -> Type.NULL;
+            case '-', '0', '1', '2', '3', '4', '5', '6', '7', '8', '9' -> Type.NUMBER;
+            default -> throw unexpected(c, "value");
+        };
+    }
+
+    /**
+     * Consumes the next token and returns its type. Value of consumed key or scalar token is discarded,
+     * use the typed {@code next*} methods to obtain it
+     *
+     * @return type of the consumed token
+     */
+    public @NotNull Type nextToken() {
+        Type type = peek();
+        switch (type) {
+            case OBJECT_START -> beginObject();
+            case OBJECT_END   -> endObject();
+            case ARRAY_START  -> beginArray();
+            case ARRAY_END    -> endArray();
+            case KEY          -> skipString();
+            case END_DOCUMENT -> {}
+            default           -> skipScalar(type);
+        }
+
+        peeked = null;
+        return type;
+    }
+
+    /**
+     * @return {@code true} if current object or array has more elements,
+     * or if the stream has more top-level values
+     */
+    public boolean hasNext() {
+        Type type = peek();
+        return type != Type.OBJECT_END && type != Type.ARRAY_END && type != Type.END_DOCUMENT;
+    }
+
+    public void beginObject() {
+        require(Type.OBJECT_START);
+        position++;
+        push(EMPTY_OBJECT);
+    }
+
+    public void endObject() {
+        require(Type.OBJECT_END);
+        position++;
+        depth--;
+    }
+
+    public void beginArray() {
+        require(Type.ARRAY_START);
+        position++;
+        push(EMPTY_ARRAY);
+    }
+
+    public void endArray() {
+        require(Type.ARRAY_END);
+        position++;
+        depth--;
+    }
+
+    public @NotNull String nextName() {
+        require(Type.KEY);
+        return readString();
+    }
+
+    public @NotNull String nextString() {
+        require(Type.STRING);
+        return readString();
+    }
+
+    public @NotNull Number nextNumber() {
+        require(Type.NUMBER);
+        return readNumber();
+    }
+
+    public boolean nextBoolean() {
+        require(Type.BOOLEAN);
+        return readBoolean();
+    }
+
+    public void nextNull() {
+        require(Type.NULL);
+        readKeyword("null");
+    }
+
+    /**
+     * Skips the next value, including all nested values if it is an object or array.
+     * If the next token is a key, skips the key together with its value
+     */
+    public void skipValue() {
+        if (peek() == Type.KEY) {
+            skipString();
+            peeked = null;
+        }
+
+        Type first = peek();
+        if (first == Type.OBJECT_END || first == Type.ARRAY_END || first == Type.END_DOCUMENT) {
+            throw error("Expected value but was " + first);
+        }
+
+        int level = 0;
+        do {
+            Type type = peek();
+            switch (type) {
+                case OBJECT_START -> { beginObject(); level++; }
+                case ARRAY_START  -> { beginArray(); level++; }
+                case OBJECT_END   -> { endObject(); level--; }
+                case ARRAY_END    -> { endArray(); level--; }
+                case KEY          -> { skipString(); peeked = null; continue; }
+                case END_DOCUMENT -> throw error("Unexpected end of input");
+                default           -> skipScalar(type);
+            }
+
+            peeked = null;
+        } while (level > 0);
+    }
+
+    /**
+     * Reads the next value and materializes it
+     *
+     * @return {@code JSONObject}, {@code JSONArray}, {@code String}, {@code Number}, {@code Boolean} or {@code null}
+     */
+    public @Nullable Object readValue() {
+        return switch (peek()) {
+            case OBJECT_START -> readObject();
+            case ARRAY_START  -> readArray();
+            case STRING       -> nextString();
+            case NUMBER       -> nextNumber();
+            case BOOLEAN      -> nextBoolean();
+            case NULL         -> {
+                nextNull();
+                yield null;
+            }
+
+            default -> throw error("Expected value but was " + peek());
+        };
+    }
+
+    /**
+     * Reads the next object and materializes it with all nested values
+     *
+     * @return next object
+     */
+    public @NotNull JSONObject readObject() {
+        JSONObject object = new JSONObject();
+        beginObject();
+        while (hasNext()) {
+            String key = nextName();
+            object.put(key, readValue());
+        }
+
+        endObject();
+        return object;
+    }
+
+    /**
+     * Reads the next array and materializes it with all nested values
+     *
+     * @return next array
+     */
+    public @NotNull JSONArray readArray() {
+        JSONArray array = Parser.newArray();
+        beginArray();
+        while (hasNext()) {
+            array.add(readValue());
+        }
+
+        endArray();
+        return array;
+    }
+
+    /**
+     * Sets policy that defines Java types of numbers returned by {@link #nextNumber()}
+     *
+     * @param numberPolicy policy
+     * @return this reader
+     */
+    public @NotNull JSONReader setNumberPolicy(@NotNull NumberPolicy numberPolicy) {
+        this.numberPolicy = numberPolicy;
+        return this;
+    }
+
+    /**
+     * Sets limits of resources spent on values read by this reader
+     *
+     * @param limits limits
+     * @return this reader
+     */
+    public @NotNull JSONReader setLimits(@NotNull ParseLimits limits) {
+        this.limits = limits;
+        return this;
+    }
+
+    /**
+     * @return number of characters consumed from the underlying reader so far
+     */
+    public long getPosition() {
+        return consumed + position;
+    }
+
+    @Override
+    public void close() {
+        try {
+            in.close();
+        } catch (IOException e) {
+            throw new WrappedIOException(e);
+        }
+    }
+
+    private void require(Type expected) {
+        Type actual = peek();
+        if (actual != expected) {
+            throw error("Expected " + expected + " but was " + actual);
+        }
+
+        peeked = null;
+    }
+
+    private void push(int context) {
+        // The bottom of the stack is the document itself
+        if (depth > limits.getMaxDepth()) {
+            throw error("Nesting depth exceeds limit of " + limits.getMaxDepth());
+        }
+
+        if (depth == stack.length) {
+            stack = Arrays.copyOf(stack, depth * 2);
+            entries = Arrays.copyOf(entries, depth * 2);
+        }
+
+        entries[depth] = 0;
+        stack[depth++] = context;
+    }
+
+    private void countEntry() {
+        if (++entries[depth - 1] > limits.getMaxEntries()) {
+            throw error("Number of entries exceeds limit of " + limits.getMaxEntries());
+        }
+    }
+
+    private void checkStringLength(long length) {
+        if (length > limits.getMaxStringLength()) {
+            throw error("String length exceeds limit of " + limits.getMaxStringLength());
+        }
+    }
+
+    private void skipScalar(Type type) {
+        switch (type) {
+            case STRING  -> skipString();
+            case NUMBER  -> skipNumber();
+            case BOOLEAN -> readBoolean();
+            case NULL    -> readKeyword("null");
+        }
+    }
+
+    /**
+     * Ensures that at least one unread character is present in the buffer
+     *
+     * @return {@code false} if the underlying reader is exhausted
+     */
+    private boolean fill() {
+        if (position < limit) {
+            return true;
+        }
+
+        consumed += limit;
+        position = 0;
+        limit = 0;
+
+        try {
+            int read;
+            do {
+                read = in.read(buffer, 0, buffer.length);
+            } while (read == 0);
+
+            if (read < 0) {
+                return false;
+            }
+
+            limit = read;
+            return true;
+        } catch (IOException e) {
+            throw new WrappedIOException(e);
+        }
+    }
+
+    private int nextNonWhitespace() {
+        while (fill()) {
+            char c = buffer[position];
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return c;
+            }
+
+            position++;
+        }
+
+        return END;
+    }
+
+    private int nextChar() {
+        return fill() ? buffer[position++] : END;
+    }
+
+    private @NotNull String readString() {
+        scratch.setLength(0);
+        position++;
+
+        while (fill()) {
+            int start = position;
+            while (position < limit) {
+                char c = buffer[position];
+                if (c == '"') {
+                    scratch.append(buffer, start, position++ - start);
+                    checkStringLength(scratch.length());
+                    return scratch.toString();
+                }
+
+                if (c == '\\') {
+                    scratch.append(buffer, start, position++ - start);
+                    scratch.append(readEscape());
+                    checkStringLength(scratch.length());
+                    start = position;
+                    continue;
+                }
+
+                if (c < 0x20) {
+                    throw error("Unescaped control character in string");
+                }
+
+                position++;
+            }
+
+            scratch.append(buffer, start, position - start);
+            checkStringLength(scratch.length());
+        }
+
+        throw error("Unterminated string");
+    }
+
+    private void skipString() {
+        position++;
+        long length = 0;
+        while (fill()) {
+            while (position < limit) {
+                char c = buffer[position];
+                if (c < 0x20) {
+                    throw error("Unescaped control character in string");
+                }
+
+                position++;
+                if (c == '"') {
+                    checkStringLength(length);
+                    return;
+                }
+
+                if (c == '\\') {
+                    readEscape();
+                }
+
+                length++;
+            }
+
+            checkStringLength(length);
+        }
+
+        throw error("Unterminated string");
+    }
+
+    private char readEscape() {
+        int c = nextChar();
+        return switch (c) {
+            case '"', '\\', '/' -> (char) c;
+            case 'b' -> '\b';
+            case 'f' -> '\f';
+            case 'n' -> '\n';
+            case 'r' -> '\r';
+            case 't' -> '\t';
+            case 'u' -> {
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(nextChar(), 16);
+                    if (digit < 0) {
+                        throw error("Invalid unicode escape");
+                    }
+
+                    value = (value << 4) | digit;
+                }
+
+                yield (char) value;
+            }
+
+            case END -> throw error("Unterminated escape sequence");
+            default  -> throw error("Invalid escape sequence '\\" + (char) c + "'");
+        };
+    }
+
+    private @NotNull Number readNumber() {
+        int length = copyNumber();
+        number.numberPolicy = numberPolicy;
+        try {
+            Number result = number.readNumber();
+            if (number.position == length) {
+                return result;
+            }
+        } catch (JSONParseException e) {
+            // Reported below with text of number
+        }
+
+        throw error("Invalid numeric value: " + number.text(0, length));
+    }
+
+    private void skipNumber() {
+        int length = copyNumber();
+        try {
+            if (number.scanNumber() == length) {
+                return;
+            }
+        } catch (JSONParseException e) {
+            // Reported below with text of number
+        }
+
+        throw error("Invalid numeric value: " + number.text(0, length));
+    }
+
+    /**
+     * Copies characters of number at current position to {@link #number}, followed by a character
+     * that terminates it, and moves cursor to the start of them
+     *
+     * @return number of copied characters
+     */
+    private int copyNumber() {
+        char[] chars = number.chars;
+        int length = 0;
+        while (fill() && isNumberCharacter(buffer[position])) {
+            if (length == chars.length - 1) {
+                chars = Arrays.copyOf(chars, chars.length * 2);
+            }
+
+            chars[length++] = buffer[position++];
+        }
+
+        chars[length] = ' ';
+        if (chars != number.chars) {
+            number = new NumberCursor(chars);
+        }
+
+        number.position = 0;
+        return length;
+    }
+
+    private static boolean isNumberCharacter(char c) {
+        return c >= '0' && c <= '9' || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E';
+    }
+
+    private boolean readBoolean() {
+        if (fill() && buffer[position] == 't') {
+            readKeyword("true");
+            return true;
+        }
+
+        readKeyword("false");
+        return false;
+    }
+
+    private void readKeyword(String keyword) {
+        for (int i = 0; i < keyword.length(); i++) {
+            int c = nextChar();
+            if (c != keyword.charAt(i)) {
+                throw error("Expected '" + keyword + "'");
+            }
+        }
+    }
+
+    private @NotNull JSONParseException unexpected(int c, @NotNull String expected) {
+        return c == END
+                ? error("Unexpected end of input, expected " + expected)
+                : error("Unexpected character '" + (char) c + "', expected " + expected);
+    }
+
+    private @NotNull JSONParseException error(@NotNull String message) {
+        return new JSONParseException(message + " at position " + getPosition());
+    }
+
+    /**
+     * Cursor over characters of a number, reused for every number of the reader
+     */
+    private static final class NumberCursor extends Cursor {
+        final char[] chars;
+
+        NumberCursor(char[] chars) {
+            super(0, chars.length);
+            this.chars = chars;
+        }
+
+        @Override
+        int at(int index) {
+            return chars[index];
+        }
+
+        @Override
+        @NotNull String text(int start, int end) {
+            return new String(chars, start, end - start);
+        }
+
+        @Override
+        @NotNull String readString() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        @NotNull Cursor slice(int start, int limit) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -2,16 +2,19 @@ package ru.introguzzle.parsers.json.parse;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import ru.introguzzle.parsers.common.util.ScratchPool;
 import ru.introguzzle.parsers.json.entity.JSONArray;
 import ru.introguzzle.parsers.json.entity.JSONObject;
-import ru.introguzzle.parsers.json.parse.tokenize.Token;
+import ru.introguzzle.parsers.json.parse.tokenize.TokenTape;
 import ru.introguzzle.parsers.json.parse.tokenize.Tokenizer;
 import ru.introguzzle.parsers.json.parse.tokenize.Type;
 
-import java.util.List;
-import java.util.function.Predicate;
-
 class JSONTokenParser extends Parser {
+    /**
+     * Tapes are reused between calls on the same thread, values never refer to them after parsing
+     */
+    private static final ScratchPool<TokenTape> TAPES = new ScratchPool<>(TokenTape::new, TokenTape::capacity);
+
     private final Tokenizer tokenizer;
 
     public JSONTokenParser() {
@@ -25,66 +28,169 @@ class JSONTokenParser extends Parser {
     @Override
     public <T> @Nullable T parse(@Nullable String data, @NotNull Class<? extends T> type) {
         if (data == null) return null;
-        if (data.isEmpty()) {
-            return handleEmptyString(data, type);
+        checkDocumentLength(data.length());
+
+        TokenTape tape = tokenizer.tokenizeToTape(data, TAPES.acquire());
+        try {
+            if (tape.size() == 0) {
+                return handleEmptyString(data, type);
+            }
+
+            // Shapes are taken by objects, scalars are decoded by the cursor without them
+            Cursor cursor = configure(new CharCursor(data));
+            TokenBuffer buffer = new TokenBuffer(tape, cursor, cursor.shapes);
+            cursor.shapes = null;
+
+            T result = map(buffer, type);
+            if (buffer.next() != Type.END_DOCUMENT) {
+                throw unexpected(buffer, "end of input");
+            }
+
+            return result;
+        } finally {
+            tape.clear();
+            TAPES.release(tape);
         }
+    }
 
-        Predicate<Token> predicate = token -> {
-            Type t = token.getType();
-            return t != Type.COLON && t != Type.COMMA;
+    <T> T map(@NotNull TokenBuffer buffer, @NotNull Class<? extends T> type) {
+        TokenTape tape = buffer.tape;
+        int position = buffer.position;
+
+        Object result = switch (buffer.current()) {
+            case OBJECT_START -> parseObject(buffer);
+            case ARRAY_START -> parseArray(buffer);
+            case STRING -> readString(buffer);
+            case NUMBER -> readNumber(buffer);
+            case BOOLEAN -> tape.source().charAt(tape.start(position)) == 't';
+            case NULL -> null;
+            default -> throw unexpected(buffer, "value");
         };
 
-        List<Token> tokens = tokenizer.tokenize(data).stream()
-                .filter(predicate)
-                .toList();
+        return type.cast(result);
+    }
+
+    private @NotNull Number readNumber(@NotNull TokenBuffer buffer) {
+        Cursor cursor = buffer.cursor;
+        TokenTape tape = buffer.tape;
+        cursor.position = tape.start(buffer.position);
+        try {
+            Number number = cursor.readNumber();
+            if (cursor.position == tape.end(buffer.position)) {
+                return number;
+            }
+        } catch (JSONParseException e) {
+            // Reported below with text of token
+        }
 
-        return map(new TokenBuffer(tokens), type);
+        throw new JSONParseException("Invalid numeric value: " + tape.text(buffer.position));
     }
 
-    <T> T map(@NotNull TokenBuffer buffer, @NotNull Class<? extends T> type) {
-        Token token = buffer.current();
-        Type tokenType = token.getType();
-
-        Object result;
-        if (tokenType == Type.OBJECT_START) {
-            result = parseObject(buffer);
-        } else if (tokenType == Type.ARRAY_START) {
-            result = parseArray(buffer);
-        } else {
-            result = handlePrimitiveType(token.getData(), type);
+    private @NotNull String readKey(@NotNull TokenBuffer buffer) {
+        buffer.cursor.position = buffer.tape.start(buffer.position);
+        return buffer.cursor.readKey();
+    }
+
+    private @NotNull String readString(@NotNull TokenBuffer buffer) {
+        buffer.cursor.position = buffer.tape.start(buffer.position);
+        return buffer.cursor.readString();
+    }
+
+    /**
+     * Moves to the next token, which must be of {@code type}
+     */
+    private void expect(@NotNull TokenBuffer buffer, @NotNull Type type, @NotNull String expected) {
+        if (buffer.next() != type) {
+            throw unexpected(buffer, expected);
         }
+    }
 
-        return type.cast(result);
+    private static @NotNull JSONParseException unexpected(@NotNull TokenBuffer buffer, @NotNull String expected) {
+        TokenTape tape = buffer.tape;
+        if (buffer.position >= tape.size()) {
+            return new JSONParseException("Unexpected end of input, expected " + expected);
+        }
+
+        return new JSONParseException("Unexpected " + tape.text(buffer.position) + ", expected " + expected
+                + " at position " + tape.start(buffer.position));
     }
 
-    @NotNull JSONObject parseObject(@NotNull TokenBuffer buffer) {
-        JSONObject object = new JSONObject();
-        buffer.next();
-        Token current = buffer.current();
+    /**
+     * Enters object or array that starts at current token
+     */
+    private void enter(@NotNull TokenBuffer buffer) {
+        if (++buffer.depth > limits.getMaxDepth()) {
+            throw exceeded(buffer, "Nesting depth", limits.getMaxDepth());
+        }
+    }
+
+    private void checkEntries(@NotNull TokenBuffer buffer, int count) {
+        if (count > limits.getMaxEntries()) {
+            throw exceeded(buffer, "Number of entries", limits.getMaxEntries());
+        }
+    }
 
-        while (buffer.position < buffer.size() && current.getType() != Type.OBJECT_END) {
-            String key = current.getData().replace("\"", "");
-            buffer.next();
-            Object value = map(buffer, Object.class);
+    private static @NotNull JSONParseException exceeded(@NotNull TokenBuffer buffer, String limit, int value) {
+        return new JSONParseException(limit + " exceeds limit of " + value
+                + " at position " + buffer.tape.start(buffer.position));
+    }
 
-            object.put(key, value);
-            current = buffer.next();
+    @NotNull JSONObject parseObject(@NotNull TokenBuffer buffer) {
+        JSONObject object = newObject(buffer.shapes);
+        enter(buffer);
+
+        if (buffer.next() != Type.OBJECT_END) {
+            for (int count = 1; ; count++) {
+                if (buffer.current() != Type.KEY) {
+                    throw unexpected(buffer, "key");
+                }
+
+                checkEntries(buffer, count);
+                String key = readKey(buffer);
+                expect(buffer, Type.COLON, "':'");
+                buffer.next();
+                object.put(key, map(buffer, Object.class));
+
+                Type next = buffer.next();
+                if (next == Type.OBJECT_END) {
+                    break;
+                }
+
+                if (next != Type.COMMA) {
+                    throw unexpected(buffer, "',' or '}'");
+                }
+
+                buffer.next();
+            }
         }
 
+        buffer.depth--;
         return object;
     }
 
     @NotNull JSONArray parseArray(@NotNull TokenBuffer buffer) {
-        JSONArray array = new JSONArray();
-        buffer.next();
-        Token current = buffer.current();
-
-        while (buffer.position < buffer.size() && current.getType() != Type.ARRAY_END) {
-            Object value = map(buffer, Object.class);
-            array.add(value);
-            current = buffer.next();
+        JSONArray array = newArray();
+        enter(buffer);
+
+        if (buffer.next() != Type.ARRAY_END) {
+            for (int count = 1; ; count++) {
+                checkEntries(buffer, count);
+                array.add(map(buffer, Object.class));
+
+                Type next = buffer.next();
+                if (next == Type.ARRAY_END) {
+                    break;
+                }
+
+                if (next != Type.COMMA) {
+                    throw unexpected(buffer, "',' or ']'");
+                }
+
+                buffer.next();
+            }
         }
 
+        buffer.depth--;
         return array;
     }
 }
@@ -0,0 +1,333 @@
+package ru.introguzzle.parsers.json.parse;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Checks that source is a single well-formed JSON text according to
+ * <a href="https://datatracker.ietf.org/doc/html/rfc8259">RFC 8259</a> without building any values.
+ * <p>
+ * Validation is iterative: kinds of enclosing containers are kept as bits of a {@code long},
+ * which covers 64 levels of nesting, and only deeper documents allocate an overflow array.
+ * Errors are reported as positions rather than exceptions, so apart from the validator
+ * itself nothing is allocated for either valid or invalid input.
+ * UTF-8 input is also checked for well-formed encoding of strings.
+ * </p>
+ */
+final class JSONValidator {
+    static final int VALID = -1;
+
+    private static final int WORD = Long.SIZE;
+
+    private final Cursor cursor;
+    private final int limit;
+    private final boolean bytes;
+
+    /**
+     * Kinds of enclosing containers, bit is set for object. Level {@code i} is bit {@code i % 64}
+     * of {@code stack} for the first 64 levels and of {@code overflow[i / 64 - 1]} for others
+     */
+    private long stack;
+    private long[] overflow;
+    private int depth;
+
+    private JSONValidator(Cursor cursor) {
+        this.cursor = cursor;
+        this.limit = cursor.limit;
+        this.bytes = cursor instanceof ByteCursor;
+    }
+
+    /**
+     * @param cursor cursor over source
+     * @return {@link #VALID} or position of the first error
+     */
+    static int validate(@NotNull Cursor cursor) {
+        return new JSONValidator(cursor).validate(cursor.position);
+    }
+
+    private int validate(int p) {
+        while (true) {
+            // value is expected at p
+            p = skipWhitespace(p);
+            if (p >= limit) {
+                return p;
+            }
+
+            switch (cursor.at(p)) {
+                case '{' -> {
+                    p = skipWhitespace(p + 1);
+                    if (p < limit && cursor.at(p) == '}') {
+                        p++;
+                        break;
+                    }
+
+                    push(true);
+                    p = member(p);
+                    if (p < 0) {
+                        return ~p;
+                    }
+
+                    continue;
+                }
+                case '[' -> {
+                    p = skipWhitespace(p + 1);
+                    if (p < limit && cursor.at(p) == ']') {
+                        p++;
+                        break;
+                    }
+
+                    push(false);
+                    continue;
+                }
+                case '"' -> p = string(p);
+                case 't' -> p = literal(p, "true");
+                case 'f' -> p = literal(p, "false");
+                case 'n' -> p = literal(p, "null");
+                default -> p = number(p);
+            }
+
+            if (p < 0) {
+                return ~p;
+            }
+
+            // value has ended at p, close containers that end after it
+            while (true) {
+                p = skipWhitespace(p);
+                if (depth == 0) {
+                    return p == limit ? VALID : p;
+                }
+
+                if (p >= limit) {
+                    return p;
+                }
+
+                int c = cursor.at(p);
+                boolean object = peek();
+                if (c == ',') {
+                    p = object ? member(skipWhitespace(p + 1)) : p + 1;
+                    if (p < 0) {
+                        return ~p;
+                    }
+
+                    break;
+                }
+
+                if (c != (object ? '}' : ']')) {
+                    return p;
+                }
+
+                depth--;
+                p++;
+            }
+        }
+    }
+
+    /**
+     * Checks key and colon of object member that starts at {@code p}
+     *
+     * @return position right after colon or complement of error position
+     */
+    private int member(int p) {
+        if (p >= limit || cursor.at(p) != '"') {
+            return ~p;
+        }
+
+        p = string(p);
+        if (p < 0) {
+            return p;
+        }
+
+        p = skipWhitespace(p);
+        if (p >= limit || cursor.at(p) != ':') {
+            return ~p;
+        }
+
+        return p + 1;
+    }
+
+    private void push(boolean object) {
+        int word = depth / WORD;
+        long bit = 1L << (depth % WORD);
+        if (word == 0) {
+            stack = object ? stack | bit : stack & ~bit;
+        } else {
+            if (overflow == null || overflow.length < word) {
+                long[] grown = new long[Math.max(word, overflow == null ? 4 : overflow.length * 2)];
+                if (overflow != null) {
+                    System.arraycopy(overflow, 0, grown, 0, overflow.length);
+                }
+
+                overflow = grown;
+            }
+
+            overflow[word - 1] = object ? overflow[word - 1] | bit : overflow[word - 1] & ~bit;
+        }
+
+        depth++;
+    }
+
+    private boolean peek() {
+        int level = depth - 1;
+        long word = level < WORD ? stack : overflow[level / WORD - 1];
+        return (word & (1L << (level % WORD))) != 0;
+    }
+
+    private int skipWhitespace(int p) {
+        while (p < limit) {
+            int c = cursor.at(p);
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                break;
+            }
+
+            p++;
+        }
+
+        return p;
+    }
+
+    /**
+     * @return position right after closing quote of string that starts at {@code p} or complement of error position
+     */
+    private int string(int p) {
+        p++;
+        while (p < limit) {
+            int c = cursor.at(p);
+            if (c == '"') {
+                return p + 1;
+            }
+
+            if (c < 0x20) {
+                return ~p;
+            }
+
+            if (c == '\\') {
+                p = escape(p + 1);
+            } else if (c >= 0x80 && bytes) {
+                p = sequence(p);
+            } else {
+                p++;
+            }
+
+            if (p < 0) {
+                return p;
+            }
+        }
+
+        return ~p;
+    }
+
+    private int escape(int p) {
+        if (p >= limit) {
+            return ~p;
+        }
+
+        switch (cursor.at(p)) {
+            case '"', '\\', '/', 'b', 'f', 'n', 'r', 't' -> {
+                return p + 1;
+            }
+            case 'u' -> {
+                for (int i = p + 1; i <= p + 4; i++) {
+                    if (i >= limit || !isHexDigit(cursor.at(i))) {
+                        return ~i;
+                    }
+                }
+
+                return p + 5;
+            }
+            default -> {
+                return ~p;
+            }
+        }
+    }
+
+    private static boolean isHexDigit(int c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+    }
+
+    /**
+     * Checks multibyte UTF-8 sequence starting at {@code p}, rejecting overlong encodings and surrogates
+     */
+    private int sequence(int p) {
+        int lead = cursor.at(p);
+        int count;
+        int low = 0x80;
+        int high = 0xBF;
+
+        if (lead >= 0xC2 && lead <= 0xDF) {
+            count = 1;
+        } else if (lead >= 0xE0 && lead <= 0xEF) {
+            count = 2;
+            if (lead == 0xE0) low = 0xA0;
+            if (lead == 0xED) high = 0x9F;
+        } else if (lead >= 0xF0 && lead <= 0xF4) {
+            count = 3;
+            if (lead == 0xF0) low = 0x90;
+            if (lead == 0xF4) high = 0x8F;
+        } else {
+            return ~p;
+        }
+
+        for (int i = 1; i <= count; i++) {
+            int b = p + i < limit ? cursor.at(p + i) : -1;
+            if (i == 1 ? b < low || b > high : (b & 0xC0) != 0x80) {
+                return ~(p + i);
+            }
+        }
+
+        return p + count + 1;
+    }
+
+    private int literal(int p, String literal) {
+        for (int i = 0; i < literal.length(); i++, p++) {
+            if (p >= limit || cursor.at(p) != literal.charAt(i)) {
+                return ~p;
+            }
+        }
+
+        return p;
+    }
+
+    private int number(int p) {
+        if (p < limit && cursor.at(p) == '-') {
+            p++;
+        }
+
+        if (p < limit && cursor.at(p) == '0') {
+            p++;
+        } else {
+            p = digits(p);
+            if (p < 0) {
+                return p;
+            }
+        }
+
+        if (p < limit && cursor.at(p) == '.') {
+            p = digits(p + 1);
+            if (p < 0) {
+                return p;
+            }
+        }
+
+        if (p < limit && (cursor.at(p) == 'e' || cursor.at(p) == 'E')) {
+            p++;
+            if (p < limit && (cursor.at(p) == '+' || cursor.at(p) == '-')) {
+                p++;
+            }
+
+            return digits(p);
+        }
+
+        return p;
+    }
+
+    /**
+     * @return position after one or more digits or complement of {@code p} if there are none
+     */
+    private int digits(int p) {
+        int start = p;
+        while (p < limit && cursor.at(p) >= '0' && cursor.at(p) <= '9') {
+            p++;
+        }
+
+        return p > start ? p : ~start;
+    }
+}
@@ -0,0 +1,452 @@
+package ru.introguzzle.parsers.json.parse;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import ru.introguzzle.parsers.common.util.CompactMap;
+import ru.introguzzle.parsers.json.entity.JSONArray;
+import ru.introguzzle.parsers.json.entity.JSONObject;
+
+import java.io.Serial;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@code JSONObject} that is backed by a {@link StructuralIndex} over the source and
+ * materializes its values only when they are accessed.
+ * <p>
+ * Keys are decoded on first access to the object. Each value stays a reference to its
+ * offset in the source until {@link #get(Object)} (and so {@code getObject}, {@code getArray} etc.)
+ * touches it: nested objects become {@code LazyJSONObject} themselves, so untouched
+ * subtrees are never decoded. Operations that need every value ({@link #entrySet()},
+ * {@link #values()}, {@link #equals(Object)}, {@link #hashCode()}, serialization)
+ * materialize all values of this object first.
+ * </p>
+ * <p>
+ * Object retains the whole source while any of its values are not materialized, so the source
+ * must not be modified in the meantime. Malformed values are reported with {@link JSONParseException}
+ * at the moment they are materialized. Values that are replaced or removed before they are read are
+ * never materialized, and {@code put} and {@code remove} return {@code null} for them. Concurrent reads are safe: until every value is materialized,
+ * values are read and materialized under the lock of the object, and once the last one is, they are
+ * read without locking. Concurrent modification is not safe, the same as for {@code JSONObject}.
+ * </p>
+ */
+final class LazyJSONObject extends JSONObject {
+    @Serial
+    private static final long serialVersionUID = 3620480766398151712L;
+
+    /**
+     * Index over the source or {@code null} once keys are decoded
+     */
+    private transient volatile StructuralIndex index;
+
+    /**
+     * Ordinal of opening curly brace of this object in {@link #index}
+     */
+    private final transient int open;
+
+    /**
+     * Number of values that are not materialized yet. Written under the lock of this object,
+     * so reading zero guarantees that all materialized values are visible
+     */
+    private transient volatile int pending;
+
+    LazyJSONObject(@NotNull StructuralIndex index, int open) {
+        super();
+        this.index = index;
+        this.open = open;
+    }
+
+    /**
+     * Offset of value that is not materialized yet
+     *
+     * @param start position of the first character of value in source
+     * @param ordinal ordinal of opening bracket for containers,
+     *                ordinal of structural character that follows value for scalars
+     */
+    private record Pending(StructuralIndex index, int start, int ordinal) {
+        Object materialize() {
+            return value(index, start, ordinal);
+        }
+    }
+
+    /**
+     * Materializes value of a member or an element
+     *
+     * @param index index over the source
+     * @param start position of the first character of value in source
+     * @param ordinal ordinal of opening bracket for containers,
+     *                ordinal of structural character that follows value for scalars
+     * @return the value
+     */
+    static Object value(@NotNull StructuralIndex index, int start, int ordinal) {
+        int c = index.charAt(ordinal);
+        if (index.position(ordinal) == start) {
+            if (c == '{') return new LazyJSONObject(index, ordinal);
+            if (c == '[') return readArray(index, ordinal);
+        }
+
+        Cursor cursor = index.cursor(start, index.position(ordinal));
+        Object value = cursor.readScalar(cursor.skipWhitespace());
+        if (!cursor.isExhausted()) {
+            throw cursor.unexpected("end of value");
+        }
+
+        return value;
+    }
+
+    /**
+     * Reads array with specified ordinal. Scalar elements are read immediately,
+     * objects are left lazy
+     *
+     * @param index index over the source
+     * @param open ordinal of opening square bracket
+     * @return the array
+     */
+    static @NotNull JSONArray readArray(@NotNull StructuralIndex index, int open) {
+        JSONArray array = Parser.newArray();
+        Cursor cursor = index.cursor(index.position(open) + 1);
+        int ordinal = open + 1;
+
+        if (cursor.skipWhitespace() == ']') {
+            return array;
+        }
+
+        for (int count = 1; ; count++) {
+            cursor.checkEntries(count);
+            cursor.skipWhitespace();
+            ordinal = skipValue(index, cursor, ordinal);
+            array.add(value(index, cursor.position, ordinal));
+            cursor.position = index.position(nextOrdinal(index, ordinal));
+
+            int c = cursor.skipWhitespace();
+            if (c == ']') {
+                return array;
+            }
+
+            if (c != ',') {
+                throw cursor.unexpected("',' or ']'");
+            }
+
+            cursor.position++;
+            ordinal = nextOrdinal(index, ordinal) + 1;
+        }
+    }
+
+    /**
+     * Locates value that starts at position of {@code cursor} without consuming it
+     *
+     * @param cursor cursor that points at the first character of value
+     * @param ordinal ordinal of the first structural character at or after cursor
+     * @return ordinal that identifies value, as described in {@link #value(StructuralIndex, int, int)}
+     */
+    private static int skipValue(StructuralIndex index, Cursor cursor, int ordinal) {
+        if (ordinal >= index.size()) {
+            cursor.position = cursor.limit;
+            throw cursor.unexpected("value");
+        }
+
+        if (index.position(ordinal) == cursor.position) {
+            int c = index.charAt(ordinal);
+            if (c != '{' && c != '[') {
+                throw cursor.unexpected("value");
+            }
+        }
+
+        return ordinal;
+    }
+
+    /**
+     * Returns ordinal of structural character that follows value identified by {@code ordinal}
+     */
+    private static int nextOrdinal(StructuralIndex index, int ordinal) {
+        int c = index.charAt(ordinal);
+        return c == '{' || c == '[' ? index.match(ordinal) + 1 : ordinal;
+    }
+
+    /**
+     * Decodes keys of this object and binds them to offsets of their values.
+     * Does nothing if keys are already decoded
+     */
+    private void expand() {
+        if (index == null) {
+            return;
+        }
+
+        synchronized (this) {
+            StructuralIndex index = this.index;
+            if (index == null) {
+                return;
+            }
+
+            Cursor cursor = index.cursor(index.position(open) + 1);
+            int ordinal = open + 1;
+
+            int c = cursor.skipWhitespace();
+            if (c != '}') {
+                for (int count = 1; ; count++) {
+                    if (c != '"') {
+                        throw cursor.unexpected("key");
+                    }
+
+                    cursor.checkEntries(count);
+                    String key = cursor.readKey();
+                    cursor.expect(':');
+                    ordinal++;
+
+                    cursor.skipWhitespace();
+                    ordinal = skipValue(index, cursor, ordinal);
+                    if (map.put(key, new Pending(index, cursor.position, ordinal)) == null) {
+                        pending++;
+                    }
+
+                    cursor.position = index.position(nextOrdinal(index, ordinal));
+
+                    c = cursor.skipWhitespace();
+                    if (c == '}') {
+                        break;
+                    }
+
+                    if (c != ',') {
+                        throw cursor.unexpected("',' or '}'");
+                    }
+
+                    cursor.position++;
+                    ordinal = nextOrdinal(index, ordinal) + 1;
+                    c = cursor.skipWhitespace();
+                }
+            }
+
+            this.index = null;
+        }
+    }
+
+    /**
+     * Materializes value of member if it's pending. Must be called under the lock of this object
+     */
+    private Object resolve(Object key) {
+        Object value = map.get(key);
+        if (value instanceof Pending offset) {
+            value = offset.materialize();
+            map.put((String) key, value);
+            pending--;
+        }
+
+        return value;
+    }
+
+    private void materializeAll() {
+        expand();
+        if (pending == 0) {
+            return;
+        }
+
+        synchronized (this) {
+            for (String key : map.keySet()) {
+                resolve(key);
+            }
+        }
+    }
+
+    @Override
+    public Object get(Object key) {
+        expand();
+        if (pending == 0) {
+            return super.get(key);
+        }
+
+        synchronized (this) {
+            return resolve(key);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Previous value that was never read is not materialized, and {@code null} is returned instead
+     * </p>
+     */
+    @Override
+    public @Nullable Object putChecked(String key, Object value) {
+        expand();
+        synchronized (this) {
+            return discard(super.putChecked(key, value));
+        }
+    }
+
+    @Override
+    public void putAll(@NotNull Map<? extends String, ?> m) {
+        for (Entry<? extends String, ?> entry : m.entrySet()) {
+            putChecked(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Previous value that was never read is not materialized, and {@code null} is returned instead
+     * </p>
+     */
+    @Override
+    public Object remove(Object key) {
+        expand();
+        synchronized (this) {
+            return discard(super.remove(key));
+        }
+    }
+
+    /**
+     * Forgets value that was replaced or removed if it was never read. Must be called under the lock of this object
+     */
+    private Object discard(Object previous) {
+        if (previous instanceof Pending) {
+            pending--;
+            return null;
+        }
+
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        expand();
+        synchronized (this) {
+            super.clear();
+            pending = 0;
+        }
+    }
+
+    @Override
+    public int size() {
+        expand();
+        return super.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        expand();
+        return super.isEmpty();
+    }
+
+    @Override
+    public boolean has(Object key) {
+        expand();
+        return super.has(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        expand();
+        return super.containsKey(key);
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        materializeAll();
+        return super.containsValue(value);
+    }
+
+    @Override
+    public @NotNull Set<String> keySet() {
+        expand();
+        return new KeySet(super.keySet());
+    }
+
+    /**
+     * Key view that forgets values of keys removed through it, the same as {@link #remove(Object)}
+     */
+    private final class KeySet extends AbstractSet<String> {
+        private final Set<String> keys;
+
+        KeySet(Set<String> keys) {
+            this.keys = keys;
+        }
+
+        @Override
+        public @NotNull Iterator<String> iterator() {
+            Iterator<String> iterator = keys.iterator();
+            return new Iterator<>() {
+                private String last;
+
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public String next() {
+                    return last = iterator.next();
+                }
+
+                @Override
+                public void remove() {
+                    synchronized (LazyJSONObject.this) {
+                        Object previous = map.get(last);
+                        iterator.remove();
+                        discard(previous);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return keys.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return keys.contains(o);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!keys.contains(o)) {
+                return false;
+            }
+
+            LazyJSONObject.this.remove(o);
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            LazyJSONObject.this.clear();
+        }
+    }
+
+    @Override
+    public @NotNull Collection<Object> values() {
+        materializeAll();
+        return super.values();
+    }
+
+    @Override
+    public @NotNull Set<Entry<String, Object>> entrySet() {
+        materializeAll();
+        return super.entrySet();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        materializeAll();
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        materializeAll();
+        return super.hashCode();
+    }
+
+    /**
+     * Lazy object is serialized as a plain {@code JSONObject}
+     */
+    @Serial
+    private Object writeReplace() {
+        materializeAll();
+        return new JSONObject(new CompactMap<>(map));
+    }
+}
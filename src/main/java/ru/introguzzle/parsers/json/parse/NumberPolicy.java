@@ -0,0 +1,117 @@
+package ru.introguzzle.parsers.json.parse;
+
+import org.jetbrains.annotations.NotNull;
+import ru.introguzzle.parsers.config.Configuration;
+
+import java.math.BigDecimal;
+
+/**
+ * Defines Java types that JSON numbers are decoded into.
+ * <p>
+ * Regardless of policy, integers of up to 18 digits are accumulated directly from the source
+ * without creating intermediate strings. Default policy is read from
+ * {@code json.number_policy} configuration property and is {@link #DOUBLE} if it's absent.
+ * </p>
+ */
+public enum NumberPolicy {
+    /**
+     * Every number is decoded as {@code Double}. Integers above 2<sup>53</sup> lose precision
+     */
+    DOUBLE,
+
+    /**
+     * Integers are decoded as {@code Integer} or {@code Long} when they fit, otherwise as {@code BigDecimal}.
+     * Numbers with fraction or exponent are decoded as {@code Double}
+     */
+    EXACT,
+
+    /**
+     * Integers are decoded as {@code Integer} or {@code Long} when they fit,
+     * all other numbers are decoded as {@code BigDecimal}, so no precision is ever lost
+     */
+    BIG_DECIMAL;
+
+    /**
+     * Maximal number of decimal digits that always fit in {@code long}
+     */
+    static final int MAX_LONG_DIGITS = 18;
+
+    /**
+     * Maximal number of decimal digits of integer that is exactly representable as {@code double}
+     */
+    static final int MAX_EXACT_DOUBLE_DIGITS = 15;
+
+    /**
+     * Powers of ten that are exactly representable as {@code double}
+     */
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    public static @NotNull NumberPolicy defaults() {
+        return Configuration.instance().getNumberPolicyProperty().getValue();
+    }
+
+    /**
+     * Boxes integer that was accumulated from source
+     *
+     * @param value value of integer
+     * @param negative whether integer had minus sign, significant for negative zero
+     * @return boxed number
+     */
+    @NotNull Number ofInteger(long value, boolean negative) {
+        if (this == DOUBLE) {
+            return value == 0 && negative ? -0.0 : (double) value;
+        }
+
+        if (value == (int) value) {
+            return Integer.valueOf((int) value);
+        }
+
+        return Long.valueOf(value);
+    }
+
+    /**
+     * Boxes decimal number {@code significand * 10^-scale} that was accumulated from source.
+     * It's only called when result is exact, i.e. {@code significand} has at most
+     * {@link #MAX_EXACT_DOUBLE_DIGITS} digits and scale is small enough
+     *
+     * @param significand all digits of number without decimal point, with sign
+     * @param scale number of fraction digits
+     * @param negative whether number had minus sign, significant for negative zero
+     * @return boxed number or {@code null} if policy requires {@code BigDecimal}
+     */
+    Number ofDecimal(long significand, int scale, boolean negative) {
+        if (this == BIG_DECIMAL) {
+            return null;
+        }
+
+        double value = significand / POWERS_OF_TEN[scale];
+        return value == 0 && negative ? -0.0 : value;
+    }
+
+    static boolean isExactScale(int scale) {
+        return scale < POWERS_OF_TEN.length;
+    }
+
+    /**
+     * Decodes number that can't be handled by fast paths
+     *
+     * @param text text of number in JSON grammar
+     * @param integral whether number has neither fraction nor exponent
+     * @return decoded number
+     */
+    @NotNull Number ofText(@NotNull String text, boolean integral) {
+        if (this == DOUBLE || (this == EXACT && !integral)) {
+            return Double.parseDouble(text);
+        }
+
+        BigDecimal value = new BigDecimal(text);
+        if (integral && value.toBigInteger().bitLength() < Long.SIZE) {
+            return ofInteger(value.longValue(), false);
+        }
+
+        return value;
+    }
+}
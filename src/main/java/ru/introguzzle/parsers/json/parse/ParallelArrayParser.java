@@ -0,0 +1,183 @@
+package ru.introguzzle.parsers.json.parse;
+
+import org.jetbrains.annotations.NotNull;
+import ru.introguzzle.parsers.json.entity.JSONArray;
+
+import java.io.Serial;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Parses elements of a top-level JSON array in parallel.
+ * <p>
+ * A quick pre-scan that only tracks string quoting and nesting finds boundaries of top-level elements.
+ * Ranges of elements are then recursively split on a {@link ForkJoinPool} until each task covers
+ * about {@link #THRESHOLD} units of source, and every task parses its elements independently
+ * with {@link JSONCursorParser#readValue(Cursor)}. Results are assembled in order of elements.
+ * </p>
+ */
+final class ParallelArrayParser {
+    /**
+     * Approximate number of source units parsed sequentially by a single task
+     */
+    static final int THRESHOLD = 32 * 1024;
+
+    private final JSONCursorParser parser;
+    private final Cursor source;
+
+    /**
+     * Positions of top-level commas, preceded by position of opening bracket and
+     * followed by position of closing bracket. Element {@code i} lies between
+     * {@code boundaries[i]} and {@code boundaries[i + 1]}
+     */
+    private int[] boundaries = new int[64];
+    private int count;
+    private Object[] results;
+
+    private ParallelArrayParser(JSONCursorParser parser, Cursor source) {
+        this.parser = parser;
+        this.source = source;
+    }
+
+    /**
+     * @param parser parser of elements
+     * @param cursor cursor over the document, which must be an array
+     * @param pool pool to run tasks
+     * @return parsed array
+     */
+    static @NotNull JSONArray parse(@NotNull JSONCursorParser parser, @NotNull Cursor cursor, @NotNull ForkJoinPool pool) {
+        if (cursor.skipWhitespace() != '[') {
+            throw cursor.unexpected("'['");
+        }
+
+        cursor.enter();
+        ParallelArrayParser arrayParser = new ParallelArrayParser(parser, cursor);
+        arrayParser.scan();
+
+        int elements = arrayParser.count - 1;
+        if (elements > cursor.limits.getMaxEntries()) {
+            cursor.position = arrayParser.boundaries[cursor.limits.getMaxEntries()];
+            throw cursor.error("Number of entries exceeds limit of " + cursor.limits.getMaxEntries());
+        }
+
+        arrayParser.results = new Object[elements];
+        if (elements == 1 && arrayParser.isBlank(0)) {
+            return Parser.newArray();
+        }
+
+        pool.invoke(arrayParser.new Task(0, elements));
+        JSONArray array = Parser.newArray();
+        array.addAll(Arrays.asList(arrayParser.results));
+        return array;
+    }
+
+    /**
+     * Finds boundaries of top-level elements and checks that nothing follows the array
+     */
+    private void scan() {
+        int depth = 0;
+        for (int i = source.position; i < source.limit; i++) {
+            switch (source.at(i)) {
+                case '"' -> i = skipString(i);
+                case '[', '{' -> {
+                    if (depth++ == 0) {
+                        add(i);
+                    } else if (depth > source.limits.getMaxDepth()) {
+                        source.position = i;
+                        throw source.error("Nesting depth exceeds limit of " + source.limits.getMaxDepth());
+                    }
+                }
+                case ']', '}' -> {
+                    if (--depth == 0) {
+                        if (source.at(i) != ']') {
+                            source.position = i;
+                            throw source.unexpected("',' or ']'");
+                        }
+
+                        add(i);
+                        source.position = i + 1;
+                        if (!source.isExhausted()) {
+                            throw source.unexpected("end of input");
+                        }
+
+                        return;
+                    }
+                }
+                case ',' -> {
+                    if (depth == 1) {
+                        add(i);
+                    }
+                }
+                default -> {}
+            }
+        }
+
+        source.position = source.limit;
+        throw source.unexpected("']'");
+    }
+
+    private int skipString(int start) {
+        for (int i = start + 1; i < source.limit; i++) {
+            int c = source.at(i);
+            if (c == '"') {
+                return i;
+            }
+
+            if (c == '\\') {
+                i++;
+            }
+        }
+
+        source.position = start;
+        throw source.error("Unterminated string");
+    }
+
+    private void add(int position) {
+        if (count == boundaries.length) {
+            boundaries = Arrays.copyOf(boundaries, count * 2);
+        }
+
+        boundaries[count++] = position;
+    }
+
+    private boolean isBlank(int element) {
+        return source.slice(boundaries[element] + 1, boundaries[element + 1]).isExhausted();
+    }
+
+    private void parseElement(int element) {
+        Cursor cursor = source.slice(boundaries[element] + 1, boundaries[element + 1]);
+        Object value = parser.readValue(cursor);
+        if (!cursor.isExhausted()) {
+            throw cursor.unexpected("',' or ']'");
+        }
+
+        results[element] = value;
+    }
+
+    private final class Task extends RecursiveAction {
+        @Serial
+        private static final long serialVersionUID = -2870915375496238465L;
+
+        private final int from;
+        private final int to;
+
+        Task(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1 && boundaries[to] - boundaries[from] > THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Task(from, middle), new Task(middle, to));
+                return;
+            }
+
+            for (int i = from; i < to; i++) {
+                parseElement(i);
+            }
+        }
+    }
+}
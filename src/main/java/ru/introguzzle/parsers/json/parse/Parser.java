@@ -3,15 +3,27 @@ package ru.introguzzle.parsers.json.parse;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import ru.introguzzle.parsers.common.io.IO;
+import ru.introguzzle.parsers.common.parse.AsyncParsing;
 import ru.introguzzle.parsers.common.parse.BaseParser;
+import ru.introguzzle.parsers.common.parse.ParseLimits;
 import ru.introguzzle.parsers.common.util.NumberUtilities;
+import ru.introguzzle.parsers.common.util.PrimitiveList;
+import ru.introguzzle.parsers.common.util.Shape;
+import ru.introguzzle.parsers.common.util.ShapedMap;
+import ru.introguzzle.parsers.config.Configuration;
 import ru.introguzzle.parsers.json.entity.JSONArray;
 import ru.introguzzle.parsers.json.entity.JSONObject;
 import ru.introguzzle.parsers.json.parse.tokenize.Tokenizer;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Supplier;
 
 /**
@@ -30,15 +42,168 @@ import java.util.function.Supplier;
  * @see String
  */
 public abstract class Parser implements BaseParser<JSONObject> {
-    protected Executor executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    /**
+     * Executor of asynchronous parsing. Shared {@link AsyncParsing#sharedExecutor()} is used if it's {@code null}
+     */
+    protected @Nullable Executor executor;
+
+    protected NumberPolicy numberPolicy = NumberPolicy.defaults();
+    protected @Nullable SymbolTable symbolTable;
+    protected ParseLimits limits = ParseLimits.defaults();
+    protected boolean shapeSharing = Configuration.instance().getShapeSharingProperty().getValue();
 
-    public final Parser setExecutor(Executor executor) {
+    /**
+     * Sets executor of asynchronous parsing
+     *
+     * @param executor executor or {@code null} to use shared {@link AsyncParsing#sharedExecutor()}
+     * @return this parser
+     */
+    public final Parser setExecutor(@Nullable Executor executor) {
         this.executor = executor;
         return this;
     }
 
+    public final @NotNull Executor getExecutor() {
+        Executor executor = this.executor;
+        return executor == null ? AsyncParsing.sharedExecutor() : executor;
+    }
+
+    /**
+     * Sets policy that defines Java types of parsed numbers
+     *
+     * @param numberPolicy policy
+     * @return this parser
+     */
+    public final Parser setNumberPolicy(@NotNull NumberPolicy numberPolicy) {
+        this.numberPolicy = numberPolicy;
+        return this;
+    }
+
+    public final @NotNull NumberPolicy getNumberPolicy() {
+        return numberPolicy;
+    }
+
+    /**
+     * Sets table that canonicalizes keys of parsed objects. The same table may be shared by
+     * several parsers and threads. Keys are not canonicalized if table is {@code null} (default)
+     *
+     * @param symbolTable table or {@code null}
+     * @return this parser
+     */
+    public final Parser setSymbolTable(@Nullable SymbolTable symbolTable) {
+        this.symbolTable = symbolTable;
+        return this;
+    }
+
+    public final @Nullable SymbolTable getSymbolTable() {
+        return symbolTable;
+    }
+
+    /**
+     * Sets limits of resources spent on a single document
+     *
+     * @param limits limits
+     * @return this parser
+     */
+    public final Parser setLimits(@NotNull ParseLimits limits) {
+        this.limits = limits;
+        return this;
+    }
+
+    public final @NotNull ParseLimits getLimits() {
+        return limits;
+    }
+
+    /**
+     * Enables sharing of keys among parsed objects. Objects of a document that have the same keys
+     * in the same order store the keys in one shared {@link Shape} and keep only their own values,
+     * which greatly reduces memory of arrays of records. Lazy and legacy parsers ignore this setting
+     *
+     * @param shapeSharing {@code true} to share keys
+     * @return this parser
+     * @see ShapedMap
+     */
+    public final Parser setShapeSharing(boolean shapeSharing) {
+        this.shapeSharing = shapeSharing;
+        return this;
+    }
+
+    public final boolean isShapeSharing() {
+        return shapeSharing;
+    }
+
+    /**
+     * Applies settings of this parser to cursor
+     *
+     * @param cursor cursor
+     * @return {@code cursor}
+     */
+    final <C extends Cursor> @NotNull C configure(@NotNull C cursor) {
+        cursor.numberPolicy = numberPolicy;
+        cursor.symbolTable = symbolTable;
+        cursor.limits = limits;
+        cursor.shapes = shapeSharing ? Shape.root() : null;
+        return cursor;
+    }
+
+    /**
+     * Creates object to be filled with members of a parsed object
+     *
+     * @param shapes root of shapes shared by objects of document or {@code null} if keys are not shared
+     * @return empty object
+     */
+    static @NotNull JSONObject newObject(@Nullable Shape<String> shapes) {
+        return shapes == null ? new JSONObject() : new JSONObject(new ShapedMap<>(shapes));
+    }
+
+    /**
+     * Creates array to be filled with elements of a parsed array. Arrays of numbers or booleans
+     * of a single type are stored without boxing
+     *
+     * @return empty array
+     * @see PrimitiveList
+     */
+    static @NotNull JSONArray newArray() {
+        return new JSONArray(new PrimitiveList());
+    }
+
+    /**
+     * Checks length of document that is not scanned with a cursor
+     *
+     * @param length number of characters or bytes of document
+     * @throws JSONParseException if {@code length} exceeds {@link ParseLimits#getMaxDocumentLength()}
+     */
+    final void checkDocumentLength(int length) {
+        if (length > limits.getMaxDocumentLength()) {
+            throw new JSONParseException("Document length exceeds limit of " + limits.getMaxDocumentLength()
+                    + " at position " + limits.getMaxDocumentLength());
+        }
+    }
+
+    /**
+     * Canonicalizes key with {@link #symbolTable} if it's present
+     *
+     * @param key key
+     * @return canonical key or {@code key} itself
+     */
+    final @NotNull String intern(@NotNull String key) {
+        SymbolTable symbolTable = this.symbolTable;
+        return symbolTable == null ? key : symbolTable.intern(key);
+    }
+
     public static Parser newParser() {
-        return new JSONParser();
+        return new JSONCursorParser();
+    }
+
+    /**
+     * Creates parser that returns objects which materialize their values on first access.
+     * Suitable for large documents of which only a small part is read
+     *
+     * @return new lazy parser
+     * @see JSONLazyParser
+     */
+    public static Parser newLazyParser() {
+        return new JSONLazyParser();
     }
 
     public static Parser newTokenParser() {
@@ -68,10 +233,224 @@ public abstract class Parser implements BaseParser<JSONObject> {
     public abstract <T> @Nullable T parse(@Nullable String data,
                                           @NotNull Class<? extends T> type);
 
+    /**
+     * Parses UTF-8 encoded JSON.
+     *
+     * @param data UTF-8 encoded JSON; may be null or empty
+     * @param type the expected Java type
+     * @param <T>  the return type based on the provided class
+     * @return the same as {@link #parse(String, Class)} for decoded {@code data}
+     */
+    public final <T> @Nullable T parseBytes(byte @Nullable [] data,
+                                            @NotNull Class<? extends T> type) {
+        if (data == null) return null;
+        return parseBytes(ByteBuffer.wrap(data), type);
+    }
+
+    /**
+     * Parses UTF-8 encoded JSON located between position and limit of {@code data}.
+     * Position of {@code data} is not changed.
+     * <br>
+     * Default implementation decodes {@code data} into a {@code String} and delegates to
+     * {@link #parse(String, Class)}. Implementations that are able to scan bytes directly override it.
+     *
+     * @param data UTF-8 encoded JSON; may be null or empty
+     * @param type the expected Java type
+     * @param <T>  the return type based on the provided class
+     * @return the same as {@link #parse(String, Class)} for decoded {@code data}
+     */
+    public <T> @Nullable T parseBytes(@Nullable ByteBuffer data,
+                                      @NotNull Class<? extends T> type) {
+        if (data == null) return null;
+        checkDocumentLength(data.remaining());
+        return parse(StandardCharsets.UTF_8.decode(data.duplicate()).toString(), type);
+    }
+
+    /**
+     * Parses UTF-8 encoded JSON file. File is mapped into memory with {@link IO#map(Path)},
+     * so raw bytes are never copied onto the heap
+     *
+     * @param path the path to the file
+     * @return the parsed {@code JSONObject}
+     * @throws ru.introguzzle.parsers.common.io.WrappedIOException if an I/O error occurs
+     */
+    @Override
+    public final JSONObject parse(@NotNull Path path) {
+        return parseFile(path, JSONObject.class);
+    }
+
+    /**
+     * Parses UTF-8 encoded JSON file. File is mapped into memory with {@link IO#map(Path)},
+     * so raw bytes are never copied onto the heap
+     *
+     * @param path the path to the file
+     * @param type the expected Java type
+     * @param <T>  the return type based on the provided class
+     * @return the same as {@link #parseBytes(ByteBuffer, Class)} for content of the file
+     * @throws ru.introguzzle.parsers.common.io.WrappedIOException if an I/O error occurs
+     */
+    public final <T> @Nullable T parseFile(@NotNull Path path,
+                                           @NotNull Class<? extends T> type) {
+        return parseBytes(IO.map(path), type);
+    }
+
+    /**
+     * Parses JSON array, parsing its elements in parallel on common {@link ForkJoinPool}
+     *
+     * @see #parseParallel(String, ForkJoinPool)
+     */
+    public final @Nullable JSONArray parseParallel(@Nullable String data) {
+        return parseParallel(data, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Parses JSON array, parsing its elements in parallel. Suitable for large documents
+     * that consist of a single array of records.
+     * <br>
+     * Default implementation parses {@code data} sequentially. Implementations that support
+     * parallel parsing pre-scan {@code data} for boundaries of top-level elements
+     * and parse elements as independent tasks on {@code pool}
+     *
+     * @param data raw JSON array; may be null or empty
+     * @param pool pool to run parsing tasks
+     * @return the same as {@link #parse(String, Class)} with {@code JSONArray.class}
+     */
+    public @Nullable JSONArray parseParallel(@Nullable String data, @NotNull ForkJoinPool pool) {
+        return parse(data, JSONArray.class);
+    }
+
+    /**
+     * Parses UTF-8 encoded JSON array, parsing its elements in parallel.
+     * <br>
+     * Default implementation parses {@code data} sequentially
+     *
+     * @param data UTF-8 encoded JSON array; may be null or empty
+     * @param pool pool to run parsing tasks
+     * @return the same as {@link #parseBytes(ByteBuffer, Class)} with {@code JSONArray.class}
+     * @see #parseParallel(String, ForkJoinPool)
+     */
+    public @Nullable JSONArray parseBytesParallel(@Nullable ByteBuffer data, @NotNull ForkJoinPool pool) {
+        return parseBytes(data, JSONArray.class);
+    }
+
+    /**
+     * Checks that {@code data} is a single well-formed JSON text according to RFC 8259.
+     * No values are built, so it's much cheaper than parsing
+     *
+     * @param data raw JSON data
+     * @return {@code true} if {@code data} is well-formed
+     * @see #validate(String)
+     */
+    public final boolean isValid(@Nullable String data) {
+        return validate(data) == JSONValidator.VALID;
+    }
+
+    /**
+     * Checks that {@code data} is a single well-formed JSON text according to RFC 8259 and finds the first error.
+     * No values are built and nothing is allocated while scanning, regardless of size and nesting of {@code data}
+     *
+     * @param data raw JSON data
+     * @return {@code -1} if {@code data} is well-formed, or position of the first error otherwise
+     */
+    public final int validate(@Nullable String data) {
+        if (data == null) return 0;
+        return JSONValidator.validate(new CharCursor(data));
+    }
+
+    /**
+     * Checks that UTF-8 encoded {@code data} is a single well-formed JSON text
+     *
+     * @param data UTF-8 encoded JSON data between position and limit. Position of buffer is not changed
+     * @return {@code true} if {@code data} is well-formed
+     * @see #validateBytes(ByteBuffer)
+     */
+    public final boolean isValidBytes(@Nullable ByteBuffer data) {
+        return validateBytes(data) == JSONValidator.VALID;
+    }
+
+    /**
+     * Checks that UTF-8 encoded {@code data} is a single well-formed JSON text and finds the first error.
+     * Encoding of strings is checked as well
+     *
+     * @param data UTF-8 encoded JSON data between position and limit. Position of buffer is not changed
+     * @return {@code -1} if {@code data} is well-formed, or index in buffer of the first error otherwise
+     * @see #validate(String)
+     */
+    public final int validateBytes(@Nullable ByteBuffer data) {
+        if (data == null) return 0;
+        return JSONValidator.validate(new ByteCursor(data));
+    }
+
+    /**
+     * Extracts only values at requested paths. Members and elements that are not on any requested path
+     * are skipped without being parsed, and nothing after the last requested value is examined,
+     * which makes it much cheaper than parsing the whole document when only a few values are needed.
+     * <br>
+     * Paths are JSON Pointers ({@code /header/id}, {@code /items/0}) or keys in dot notation
+     * ({@code header.id}, {@code items.0}), the same as accepted by {@link JSONObject#getTraverse(String, Class)}
+     *
+     * <h2>Usage Example:</h2>
+     * <pre>{@code
+     * JSONObject headers = Parser.newParser().extract(body, "/header/route", "header.tenant");
+     * String route = headers.getString("/header/route");
+     * }</pre>
+     *
+     * @param data raw JSON data
+     * @param paths requested paths
+     * @return object that maps every requested path that is present in {@code data} to its value
+     * @throws JSONParseException if {@code data} is malformed before the last requested value
+     */
+    public final @NotNull JSONObject extract(@NotNull String data, @NotNull String... paths) {
+        Cursor cursor = configure(new CharCursor(data));
+        cursor.checkDocumentLength();
+        return PathExtractor.extract(cursor, paths);
+    }
+
+    /**
+     * Extracts only values at requested paths of UTF-8 encoded data
+     *
+     * @param data UTF-8 encoded JSON data between position and limit. Position of buffer is not changed
+     * @param paths requested paths
+     * @return object that maps every requested path that is present in {@code data} to its value
+     * @see #extract(String, String...)
+     */
+    public final @NotNull JSONObject extractBytes(@NotNull ByteBuffer data, @NotNull String... paths) {
+        Cursor cursor = configure(new ByteCursor(data));
+        cursor.checkDocumentLength();
+        return PathExtractor.extract(cursor, paths);
+    }
+
     public final <T> @NotNull CompletableFuture<T> parseAsync(@Nullable String data,
                                                               @NotNull Class<? extends T> type) {
         Supplier<T> supplier = () -> parse(data, type);
-        return CompletableFuture.supplyAsync(supplier, executor);
+        return CompletableFuture.supplyAsync(supplier, getExecutor());
+    }
+
+    /**
+     * Parses all inputs asynchronously, running at most {@link AsyncParsing#DEFAULT_CONCURRENCY} parses at the same time
+     *
+     * @see #parseAllAsync(Collection, Class, int)
+     */
+    public final <T> @NotNull CompletableFuture<List<T>> parseAllAsync(@NotNull Collection<String> data,
+                                                                       @NotNull Class<? extends T> type) {
+        return parseAllAsync(data, type, AsyncParsing.DEFAULT_CONCURRENCY);
+    }
+
+    /**
+     * Parses all inputs asynchronously with {@link #getExecutor()}
+     *
+     * @param data raw JSON strings; may contain null or empty strings
+     * @param type the expected Java type
+     * @param maxConcurrency maximal number of parses that run at the same time
+     * @param <T>  the return type based on the provided class
+     * @return future that completes with results in order of {@code data}
+     * or exceptionally with the first {@link JSONParseException}
+     * @throws IllegalArgumentException if {@code maxConcurrency} is not positive
+     */
+    public final <T> @NotNull CompletableFuture<List<T>> parseAllAsync(@NotNull Collection<String> data,
+                                                                       @NotNull Class<? extends T> type,
+                                                                       int maxConcurrency) {
+        return AsyncParsing.supplyAll(data, input -> parse(input, type), getExecutor(), maxConcurrency);
     }
 
     final <T> @Nullable T handleEmptyString(@NotNull String data,
@@ -109,15 +488,20 @@ public abstract class Parser implements BaseParser<JSONObject> {
         }
 
         String unescaped = unescape(data);
+        Number number = decodeNumber(unescaped);
 
         if (type == Number.class) {
-            return Double.parseDouble(unescaped);
+            return number != null ? number : Double.parseDouble(unescaped);
         }
 
         if (data.startsWith("\"") && data.endsWith("\"")) {
             return unescaped;
         }
 
+        if (number != null) {
+            return number;
+        }
+
         if (NumberUtilities.isNumeric(unescaped)) {
             return Double.parseDouble(unescaped);
         }
@@ -125,6 +509,31 @@ public abstract class Parser implements BaseParser<JSONObject> {
         throw new JSONParseException("Not a numeric or string value: " + data);
     }
 
+    /**
+     * Decodes number in JSON grammar according to {@link #numberPolicy}
+     *
+     * @param data text of number, may be surrounded by whitespace
+     * @return decoded number or {@code null} if {@code data} is not a JSON number
+     */
+    final @Nullable Number decodeNumber(@NotNull String data) {
+        return decodeNumber(new CharCursor(data));
+    }
+
+    final @Nullable Number decodeNumber(@NotNull Cursor cursor) {
+        configure(cursor);
+        int c = cursor.skipWhitespace();
+        if (c != '-' && (c < '0' || c > '9')) {
+            return null;
+        }
+
+        try {
+            Number number = cursor.readNumber();
+            return cursor.isExhausted() ? number : null;
+        } catch (JSONParseException e) {
+            return null;
+        }
+    }
+
     private static String unescape(@NotNull String data) {
         return data.replace("\"", "");
     }
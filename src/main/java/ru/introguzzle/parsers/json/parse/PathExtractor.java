@@ -0,0 +1,319 @@
+package ru.introguzzle.parsers.json.parse;
+
+import org.jetbrains.annotations.NotNull;
+import ru.introguzzle.parsers.json.entity.JSONObject;
+import ru.introguzzle.parsers.json.patch.JSONPointer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Extracts values at requested paths without building the whole document.
+ * <p>
+ * Requested paths are merged into a trie. The document is walked once: members and elements
+ * that are not on any requested path are skipped with a scan that only tracks string quoting
+ * and nesting, and only values at requested paths are materialized. Walk stops as soon as
+ * all requested values are found, so input after them is not examined.
+ * </p>
+ * <p>
+ * Paths are either <a href="https://datatracker.ietf.org/doc/html/rfc6901">JSON Pointers</a>
+ * ({@code /header/id}, {@code /items/0}) or keys in dot notation as in
+ * {@link JSONObject#getTraverse(String, Class)} ({@code header.id}, {@code items.0}).
+ * Empty path denotes the whole document. Segments that are array indices select elements of arrays.
+ * </p>
+ */
+final class PathExtractor {
+    private static final JSONCursorParser READER = new JSONCursorParser();
+
+    private final Node root = new Node();
+    private final JSONObject result = new JSONObject();
+    private int remaining;
+
+    private PathExtractor(String... paths) {
+        for (String path : paths) {
+            Node node = root;
+            for (String segment : split(path)) {
+                node = node.children.computeIfAbsent(segment, k -> new Node());
+            }
+
+            if (node.paths.isEmpty()) {
+                remaining++;
+            }
+
+            node.paths.add(path);
+        }
+    }
+
+    /**
+     * @param cursor cursor over the document
+     * @param paths requested paths
+     * @return object that maps every requested path that is present in the document to its value
+     */
+    static @NotNull JSONObject extract(@NotNull Cursor cursor, @NotNull String... paths) {
+        PathExtractor extractor = new PathExtractor(paths);
+        if (extractor.remaining > 0) {
+            if (cursor.isExhausted()) {
+                throw cursor.unexpected("value");
+            }
+
+            extractor.visit(extractor.root, cursor);
+        }
+
+        return extractor.result;
+    }
+
+    /**
+     * Splits path into unescaped segments
+     */
+    static @NotNull List<String> split(@NotNull String path) {
+        if (path.isEmpty() || path.charAt(0) == '/') {
+            return JSONPointer.split(path);
+        }
+
+        return List.of(path.split("\\.", -1));
+    }
+
+    private void visit(Node node, Cursor cursor) {
+        if (!node.paths.isEmpty()) {
+            found(node, READER.readValue(cursor));
+            return;
+        }
+
+        switch (cursor.skipWhitespace()) {
+            case '{' -> visitObject(node, cursor);
+            case '[' -> visitArray(node, cursor);
+            default -> skip(cursor);
+        }
+    }
+
+    private void visitObject(Node node, Cursor cursor) {
+        cursor.enter();
+        cursor.position++;
+
+        int c = cursor.skipWhitespace();
+        if (c == '}') {
+            cursor.position++;
+            cursor.leave();
+            return;
+        }
+
+        for (int count = 1; ; count++) {
+            if (c != '"') {
+                throw cursor.unexpected("key");
+            }
+
+            cursor.checkEntries(count);
+            Node child = child(node, cursor);
+            cursor.expect(':');
+            if (child == null) {
+                skip(cursor);
+            } else {
+                visit(child, cursor);
+                if (remaining == 0) {
+                    return;
+                }
+            }
+
+            c = cursor.skipWhitespace();
+            if (c == '}') {
+                cursor.position++;
+                cursor.leave();
+                return;
+            }
+
+            if (c != ',') {
+                throw cursor.unexpected("',' or '}'");
+            }
+
+            cursor.position++;
+            c = cursor.skipWhitespace();
+        }
+    }
+
+    private void visitArray(Node node, Cursor cursor) {
+        cursor.enter();
+        cursor.position++;
+
+        if (cursor.skipWhitespace() == ']') {
+            cursor.position++;
+            cursor.leave();
+            return;
+        }
+
+        for (int index = 0; ; index++) {
+            cursor.checkEntries(index + 1);
+            Node child = node.children.get(Integer.toString(index));
+            if (child == null) {
+                skip(cursor);
+            } else {
+                visit(child, cursor);
+                if (remaining == 0) {
+                    return;
+                }
+            }
+
+            int c = cursor.skipWhitespace();
+            if (c == ']') {
+                cursor.position++;
+                cursor.leave();
+                return;
+            }
+
+            if (c != ',') {
+                throw cursor.unexpected("',' or ']'");
+            }
+
+            cursor.position++;
+        }
+    }
+
+    /**
+     * Consumes key and finds child node for it. Keys of ASCII characters without escapes
+     * are compared with source in place, without creating a {@code String}
+     *
+     * @return child node or {@code null} if key is not on any requested path
+     */
+    private Node child(Node node, Cursor cursor) {
+        int start = cursor.position + 1;
+        int end = start;
+        while (true) {
+            if (end >= cursor.limit) {
+                throw cursor.error("Unterminated string");
+            }
+
+            int c = cursor.at(end);
+            if (c == '"') {
+                break;
+            }
+
+            if (c == '\\' || c >= 0x80) {
+                return node.children.get(cursor.readString());
+            }
+
+            end++;
+        }
+
+        cursor.position = end + 1;
+        for (Map.Entry<String, Node> entry : node.children.entrySet()) {
+            if (matches(entry.getKey(), cursor, start, end)) {
+                return entry.getValue();
+            }
+        }
+
+        return null;
+    }
+
+    private static boolean matches(String key, Cursor cursor, int start, int end) {
+        if (key.length() != end - start) {
+            return false;
+        }
+
+        for (int i = 0; i < key.length(); i++) {
+            if (key.charAt(i) != cursor.at(start + i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void found(Node node, Object value) {
+        if (!node.paths.isEmpty() && !result.containsKey(node.paths.get(0))) {
+            for (String path : node.paths) {
+                result.put(path, value);
+            }
+
+            remaining--;
+        }
+
+        for (Map.Entry<String, Node> entry : node.children.entrySet()) {
+            if (value instanceof JSONObject object && object.containsKey(entry.getKey())) {
+                found(entry.getValue(), object.get(entry.getKey()));
+            } else if (value instanceof List<?> list && isIndex(entry.getKey(), list.size())) {
+                found(entry.getValue(), list.get(Integer.parseInt(entry.getKey())));
+            }
+        }
+    }
+
+    private static boolean isIndex(String segment, int size) {
+        if (segment.isEmpty() || segment.length() > 9 || (segment.length() > 1 && segment.charAt(0) == '0')) {
+            return false;
+        }
+
+        for (int i = 0; i < segment.length(); i++) {
+            if (segment.charAt(i) < '0' || segment.charAt(i) > '9') {
+                return false;
+            }
+        }
+
+        return Integer.parseInt(segment) < size;
+    }
+
+    /**
+     * Skips value starting at next significant character. Scalars are checked against JSON grammar,
+     * containers are only checked for balanced nesting
+     */
+    private static void skip(Cursor cursor) {
+        int c = cursor.skipWhitespace();
+        switch (c) {
+            case '"' -> cursor.position = skipString(cursor, cursor.position);
+            case '{', '[' -> skipContainer(cursor);
+            case 't' -> cursor.readLiteral("true", Boolean.TRUE);
+            case 'f' -> cursor.readLiteral("false", Boolean.FALSE);
+            case 'n' -> cursor.readLiteral("null", null);
+            case '-', '0', '1', '2', '3', '4', '5', '6', '7', '8', '9' -> cursor.scanNumber();
+            default -> throw cursor.unexpected("value");
+        }
+    }
+
+    private static void skipContainer(Cursor cursor) {
+        int depth = 0;
+        for (int i = cursor.position; i < cursor.limit; i++) {
+            switch (cursor.at(i)) {
+                case '"' -> i = skipString(cursor, i) - 1;
+                case '{', '[' -> {
+                    if (cursor.depth + ++depth > cursor.limits.getMaxDepth()) {
+                        cursor.position = i;
+                        throw cursor.error("Nesting depth exceeds limit of " + cursor.limits.getMaxDepth());
+                    }
+                }
+                case '}', ']' -> {
+                    if (--depth == 0) {
+                        cursor.position = i + 1;
+                        return;
+                    }
+                }
+                default -> {}
+            }
+        }
+
+        cursor.position = cursor.limit;
+        throw cursor.error("Unexpected end of input");
+    }
+
+    /**
+     * @return position right after closing quote of string that starts at {@code start}
+     */
+    private static int skipString(Cursor cursor, int start) {
+        for (int i = start + 1; i < cursor.limit; i++) {
+            int c = cursor.at(i);
+            if (c == '"') {
+                return i + 1;
+            }
+
+            if (c == '\\') {
+                i++;
+            }
+        }
+
+        cursor.position = start;
+        throw cursor.error("Unterminated string");
+    }
+
+    private static final class Node {
+        final Map<String, Node> children = new LinkedHashMap<>(4);
+        final List<String> paths = new ArrayList<>(1);
+    }
+}
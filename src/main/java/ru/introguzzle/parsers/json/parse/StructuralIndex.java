@@ -0,0 +1,174 @@
+package ru.introguzzle.parsers.json.parse;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * Compact index of structural characters of a JSON source.
+ * <p>
+ * Built in one pass that only tracks string boundaries and bracket nesting:
+ * positions of every {@code { } [ ] : ,} outside of string literals are recorded in order,
+ * and every bracket knows the ordinal of its matching counterpart. This is enough to
+ * find any member or element of a container without decoding its siblings,
+ * so values can be materialized on demand by {@link LazyJSONObject}.
+ * </p>
+ * <p>
+ * Only string boundaries and bracket balance are checked while indexing,
+ * the rest of the grammar is checked when the enclosing container is expanded.
+ * </p>
+ */
+final class StructuralIndex {
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * Source cursor, used as prototype for cursors created with {@link #cursor(int)}
+     */
+    private final Cursor source;
+
+    /**
+     * Positions of structural characters in source
+     */
+    private int[] positions;
+
+    /**
+     * Ordinal of matching bracket for every bracket, unused for colons and commas
+     */
+    private int[] matches;
+    private int count;
+
+    private StructuralIndex(@NotNull Cursor source) {
+        this.source = source;
+        this.positions = new int[INITIAL_CAPACITY];
+        this.matches = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Indexes the source from current position of cursor up to its limit
+     *
+     * @param cursor cursor over source
+     * @return the index
+     * @throws JSONParseException if string is not terminated or brackets are not balanced
+     */
+    static @NotNull StructuralIndex build(@NotNull Cursor cursor) {
+        StructuralIndex index = new StructuralIndex(cursor);
+        int[] stack = new int[16];
+        int depth = 0;
+
+        int limit = cursor.limit;
+        for (int i = cursor.position; i < limit; i++) {
+            int c = cursor.at(i);
+            switch (c) {
+                case '"' -> i = skipString(cursor, i);
+                case '{', '[' -> {
+                    if (depth == cursor.limits.getMaxDepth()) {
+                        cursor.position = i;
+                        throw cursor.error("Nesting depth exceeds limit of " + cursor.limits.getMaxDepth());
+                    }
+
+                    if (depth == stack.length) {
+                        stack = Arrays.copyOf(stack, depth * 2);
+                    }
+
+                    stack[depth++] = index.add(i);
+                }
+                case '}', ']' -> {
+                    int open = depth == 0 ? -1 : stack[--depth];
+                    if (open < 0 || cursor.at(index.positions[open]) != (c == '}' ? '{' : '[')) {
+                        cursor.position = i;
+                        throw cursor.error("Unbalanced '" + (char) c + "'");
+                    }
+
+                    int close = index.add(i);
+                    index.matches[open] = close;
+                    index.matches[close] = open;
+                }
+                case ':', ',' -> index.add(i);
+                default -> {}
+            }
+        }
+
+        if (depth != 0) {
+            cursor.position = limit;
+            throw cursor.unexpected(cursor.at(index.positions[stack[depth - 1]]) == '{' ? "'}'" : "']'");
+        }
+
+        return index;
+    }
+
+    /**
+     * Returns position of closing quote of string that starts at {@code start}
+     */
+    private static int skipString(Cursor cursor, int start) {
+        int limit = cursor.limit;
+        for (int i = start + 1; i < limit; i++) {
+            int c = cursor.at(i);
+            if (c == '"') {
+                return i;
+            }
+
+            if (c == '\\') {
+                i++;
+            }
+        }
+
+        cursor.position = start;
+        throw cursor.error("Unterminated string");
+    }
+
+    private int add(int position) {
+        if (count == positions.length) {
+            positions = Arrays.copyOf(positions, count * 2);
+            matches = Arrays.copyOf(matches, count * 2);
+        }
+
+        positions[count] = position;
+        return count++;
+    }
+
+    int size() {
+        return count;
+    }
+
+    /**
+     * Returns position in source of structural character with specified ordinal
+     */
+    int position(int ordinal) {
+        return positions[ordinal];
+    }
+
+    /**
+     * Returns ordinal of bracket that matches bracket with specified ordinal
+     */
+    int match(int ordinal) {
+        return matches[ordinal];
+    }
+
+    /**
+     * Returns structural character with specified ordinal
+     */
+    int charAt(int ordinal) {
+        return source.at(positions[ordinal]);
+    }
+
+    /**
+     * Creates new cursor over the source that starts at specified position
+     *
+     * @param position start position
+     * @return new cursor
+     */
+    @NotNull Cursor cursor(int position) {
+        return cursor(position, source.limit);
+    }
+
+    /**
+     * Creates new cursor over the range of source
+     *
+     * @param start start position
+     * @param limit limit position
+     * @return new cursor
+     */
+    @NotNull Cursor cursor(int start, int limit) {
+        return source.slice(start, limit);
+    }
+}
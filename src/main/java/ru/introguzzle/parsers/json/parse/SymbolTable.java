@@ -0,0 +1,118 @@
+package ru.introguzzle.parsers.json.parse;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Bounded table that canonicalizes object keys during parsing.
+ * <p>
+ * Keys are hashed over raw characters (or bytes) of the source while they are scanned,
+ * so a key that is already present in the table is returned without creating a new {@code String}.
+ * Repeated keys of all parsed objects then share the same instance, which reduces retained heap
+ * and makes map lookups cheaper, since hash code of canonical instance is computed only once.
+ * </p>
+ * <p>
+ * Table is direct-mapped: every slot holds at most one key, and a colliding key replaces previous one.
+ * This keeps the table bounded and lock-free, so it can be shared by any number of parsers and threads.
+ * Keys longer than {@link #MAX_KEY_LENGTH} are never stored.
+ * </p>
+ *
+ * @see Parser#setSymbolTable(SymbolTable)
+ */
+public final class SymbolTable {
+    public static final int DEFAULT_CAPACITY = 1024;
+    public static final int MAX_KEY_LENGTH = 64;
+
+    private final String[] symbols;
+    private final int mask;
+
+    public SymbolTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity maximal number of keys, rounded up to power of two
+     * @throws IllegalArgumentException if {@code capacity} is not positive
+     */
+    public SymbolTable(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+
+        this.symbols = new String[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Returns canonical instance of key
+     *
+     * @param key key
+     * @return key that is equal to {@code key}, the same instance for all equal keys while it stays in the table
+     */
+    public @NotNull String intern(@NotNull CharSequence key) {
+        int length = key.length();
+        if (length > MAX_KEY_LENGTH) {
+            return key.toString();
+        }
+
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + key.charAt(i);
+        }
+
+        int slot = slot(hash);
+        String symbol = symbols[slot];
+        if (symbol != null && symbol.hashCode() == hash && symbol.contentEquals(key)) {
+            return symbol;
+        }
+
+        symbol = key.toString();
+        symbols[slot] = symbol;
+        return symbol;
+    }
+
+    /**
+     * Returns canonical instance of key that consists of ASCII characters of source in specified range
+     *
+     * @param cursor cursor over source
+     * @param start start index, inclusive
+     * @param end end index, exclusive
+     * @param hash hash of range, computed the same way as {@link String#hashCode()}
+     * @return canonical key
+     */
+    @NotNull String lookup(@NotNull Cursor cursor, int start, int end, int hash) {
+        int length = end - start;
+        if (length > MAX_KEY_LENGTH) {
+            return cursor.text(start, end);
+        }
+
+        int slot = slot(hash);
+        String symbol = symbols[slot];
+        if (symbol != null && symbol.hashCode() == hash && symbol.length() == length && matches(symbol, cursor, start)) {
+            return symbol;
+        }
+
+        symbol = cursor.text(start, end);
+        symbols[slot] = symbol;
+        return symbol;
+    }
+
+    private static boolean matches(String symbol, Cursor cursor, int start) {
+        int length = symbol.length();
+        for (int i = 0; i < length; i++) {
+            if (symbol.charAt(i) != cursor.at(start + i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private int slot(int hash) {
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
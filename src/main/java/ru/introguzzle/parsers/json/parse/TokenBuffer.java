@@ -1,28 +1,48 @@
 package ru.introguzzle.parsers.json.parse;
 
-import ru.introguzzle.parsers.json.parse.tokenize.Token;
-
-import java.util.List;
+import org.jetbrains.annotations.Nullable;
+import ru.introguzzle.parsers.common.util.Shape;
+import ru.introguzzle.parsers.json.parse.tokenize.TokenTape;
+import ru.introguzzle.parsers.json.parse.tokenize.Type;
 
+/**
+ * Position over {@link TokenTape}
+ */
 final class TokenBuffer {
     int position;
-    final List<Token> tokens;
+    final TokenTape tape;
+
+    /**
+     * Cursor over source of {@link #tape} that decodes scalar tokens, shared by all of them
+     */
+    final Cursor cursor;
+
+    /**
+     * Number of objects and arrays that enclose current token
+     */
+    int depth;
+
+    /**
+     * Root of shapes shared by parsed objects or {@code null} if keys are not shared
+     */
+    final @Nullable Shape<String> shapes;
 
-    public TokenBuffer(List<Token> tokens) {
-        this.position = 0;
-        this.tokens = tokens;
+    public TokenBuffer(TokenTape tape, Cursor cursor, @Nullable Shape<String> shapes) {
+        this.tape = tape;
+        this.cursor = cursor;
+        this.shapes = shapes;
     }
 
-    public Token current() {
-        return tokens.get(position);
+    public Type current() {
+        return position < tape.size() ? tape.type(position) : Type.END_DOCUMENT;
     }
 
-    public Token next() {
+    public Type next() {
         position++;
         return current();
     }
 
     public int size() {
-        return tokens.size();
+        return tape.size();
     }
 }
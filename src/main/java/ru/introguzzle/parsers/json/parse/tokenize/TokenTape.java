@@ -0,0 +1,175 @@
+package ru.introguzzle.parsers.json.parse.tokenize;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Sequence of tokens stored in parallel primitive arrays.
+ * <p>
+ * Every token is described by its {@link Type}, start offset and length in {@link #source()},
+ * so tokenizing a document allocates a few arrays instead of a {@link Token} and a {@code String}
+ * per token. Text of a token is extracted only when it's requested with {@link #text(int)}.
+ * </p>
+ */
+public final class TokenTape {
+    private static final Type[] TYPES = Type.values();
+    private static final int INITIAL_CAPACITY = 32;
+
+    private String source;
+    private byte[] types;
+    private int[] starts;
+    private int[] lengths;
+    private int size;
+
+    /**
+     * Creates empty tape meant to be filled by {@link Tokenizer#tokenizeToTape(String, TokenTape)}
+     */
+    public TokenTape() {
+        this("", INITIAL_CAPACITY);
+    }
+
+    TokenTape(@NotNull String source) {
+        this(source, Math.max(INITIAL_CAPACITY, source.length() / 4));
+    }
+
+    TokenTape(@NotNull String source, int capacity) {
+        this.source = source;
+        this.types = new byte[capacity];
+        this.starts = new int[capacity];
+        this.lengths = new int[capacity];
+    }
+
+    /**
+     * Clears tape to be filled with tokens of another source, keeping its arrays
+     *
+     * @return this tape
+     */
+    @NotNull TokenTape reset(@NotNull String source) {
+        this.source = source;
+        this.size = 0;
+        return this;
+    }
+
+    void add(@NotNull Type type, int start, int length) {
+        if (size == types.length) {
+            int capacity = size * 2;
+            types = Arrays.copyOf(types, capacity);
+            starts = Arrays.copyOf(starts, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+        }
+
+        types[size] = (byte) type.ordinal();
+        starts[size] = start;
+        lengths[size] = length;
+        size++;
+    }
+
+    void setType(int index, @NotNull Type type) {
+        types[index] = (byte) type.ordinal();
+    }
+
+    /**
+     * @return text that offsets of tokens refer to
+     */
+    public @NotNull String source() {
+        return source;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return number of tokens that tape can hold without growing its arrays
+     */
+    public int capacity() {
+        return types.length;
+    }
+
+    /**
+     * Removes all tokens and drops reference to source, so tape can be kept for reuse
+     * without retaining the document
+     */
+    public void clear() {
+        reset("");
+    }
+
+    public @NotNull Type type(int index) {
+        return TYPES[types[Objects.checkIndex(index, size)]];
+    }
+
+    /**
+     * @param index index of token
+     * @return offset of the first character of token in {@link #source()}
+     */
+    public int start(int index) {
+        return starts[Objects.checkIndex(index, size)];
+    }
+
+    /**
+     * @param index index of token
+     * @return offset right after the last character of token in {@link #source()}
+     */
+    public int end(int index) {
+        return start(index) + lengths[index];
+    }
+
+    public int length(int index) {
+        return lengths[Objects.checkIndex(index, size)];
+    }
+
+    /**
+     * Extracts text of token. String tokens include quotes
+     *
+     * @param index index of token
+     * @return text of token
+     */
+    public @NotNull String text(int index) {
+        return source.substring(start(index), end(index));
+    }
+
+    public @NotNull Token token(int index) {
+        return new Token(text(index), type(index));
+    }
+
+    /**
+     * Materializes tokens as objects
+     *
+     * @return list of tokens
+     */
+    public @NotNull List<Token> toTokens() {
+        List<Token> tokens = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            tokens.add(token(i));
+        }
+
+        return tokens;
+    }
+
+    /**
+     * Builds tape from tokens, source of tape is concatenation of data of all tokens
+     *
+     * @param tokens tokens
+     * @return tape with the same tokens
+     */
+    public static @NotNull TokenTape of(@NotNull List<Token> tokens) {
+        StringBuilder source = new StringBuilder();
+        for (Token token : tokens) {
+            source.append(token.getData());
+        }
+
+        TokenTape tape = new TokenTape(source.toString(), Math.max(INITIAL_CAPACITY, tokens.size()));
+        int offset = 0;
+        for (Token token : tokens) {
+            int length = token.getData().length();
+            tape.add(token.getType(), offset, length);
+            offset += length;
+        }
+
+        return tape;
+    }
+}
@@ -1,12 +1,37 @@
 package ru.introguzzle.parsers.json.parse.tokenize;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
 
 public interface Tokenizer {
     List<Token> tokenize(@NotNull String input);
 
+    /**
+     * Tokenizes input into primitive arrays without allocating object per token.
+     * Default implementation adapts result of {@link #tokenize(String)}
+     *
+     * @param input input
+     * @return tokens of input
+     */
+    default @NotNull TokenTape tokenizeToTape(@NotNull String input) {
+        return TokenTape.of(tokenize(input));
+    }
+
+    /**
+     * Tokenizes input into tape that is reused from previous call, so that repeated tokenizing
+     * doesn't allocate arrays again. Tokens of {@code reuse} are discarded.
+     * Default implementation ignores {@code reuse} and delegates to {@link #tokenizeToTape(String)}
+     *
+     * @param input input
+     * @param reuse tape to fill or {@code null} to create new one
+     * @return tokens of input, either in {@code reuse} or in new tape
+     */
+    default @NotNull TokenTape tokenizeToTape(@NotNull String input, @Nullable TokenTape reuse) {
+        return tokenizeToTape(input);
+    }
+
     static Tokenizer newTokenizer() {
         return new TokenizerImpl();
     }
@@ -1,177 +1,209 @@
 package ru.introguzzle.parsers.json.parse.tokenize;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import ru.introguzzle.parsers.common.util.ScratchPool;
 import ru.introguzzle.parsers.json.parse.JSONParseException;
-import ru.introguzzle.parsers.common.util.NumberUtilities;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Stack;
 
+/**
+ * Single-pass tokenizer that writes tokens into {@link TokenTape} and validates them on the fly:
+ * brackets are matched with a primitive stack, repeated separators and malformed
+ * numbers are reported as soon as they are met
+ */
 class TokenizerImpl implements Tokenizer {
     @Override
     public List<Token> tokenize(@NotNull String input) {
-        List<Token> tokens = new ArrayList<>();
-        StringBuilder buffer = new StringBuilder();
-
-        boolean inQuotes;
+        return tokenizeToTape(input).toTokens();
+    }
 
-        char[] charArray = input.replace(System.lineSeparator(), "").toCharArray();
-        int index = 0;
-        while (index < charArray.length) {
-            char c = charArray[index];
-            buffer.append(c);
+    @Override
+    public @NotNull TokenTape tokenizeToTape(@NotNull String input) {
+        return tokenizeToTape(input, null);
+    }
 
-            if (Character.isWhitespace(c)) {
-                index++;
-                continue;
-            }
+    @Override
+    public @NotNull TokenTape tokenizeToTape(@NotNull String input, @Nullable TokenTape reuse) {
+        TokenTape tape = reuse == null ? new TokenTape(input) : reuse.reset(input);
+        byte[] stack = ScratchPool.BYTE_ARRAYS.acquire();
+        try {
+            int depth = 0;
+            Type previous = null;
+
+            int length = input.length();
+            int index = 0;
+            while (index < length) {
+                char c = input.charAt(index);
+
+                if (Character.isWhitespace(c)) {
+                    index++;
+                    continue;
+                }
 
-            if (c == '"') {
-                index++;
-                inQuotes = true;
-                while (inQuotes && index < charArray.length) {
-                    c = charArray[index];
-                    buffer.append(c);
-                    if (c == '"') {
-                        inQuotes = false;
+                int start = index;
+                Type type;
+                switch (c) {
+                    case '{', '[' -> {
+                        if (depth == stack.length) {
+                            stack = Arrays.copyOf(stack, depth * 2);
+                        }
+
+                        stack[depth++] = (byte) c;
+                        type = c == '{' ? Type.OBJECT_START : Type.ARRAY_START;
+                        index++;
                     }
+                    case '}', ']' -> {
+                        char open = c == '}' ? '{' : '[';
+                        if (depth == 0 || stack[--depth] != open) {
+                            throw getBracketException(index);
+                        }
+
+                        type = c == '}' ? Type.OBJECT_END : Type.ARRAY_END;
+                        index++;
+                    }
+                    case ':', ',' -> {
+                        type = c == ':' ? Type.COLON : Type.COMMA;
+                        if (previous == type) {
+                            throw new JSONParseException("Invalid syntax at position " + index);
+                        }
 
-                    index++;
+                        if (type == Type.COLON && previous == Type.STRING) {
+                            tape.setType(tape.size() - 1, Type.KEY);
+                        }
+
+                        index++;
+                    }
+                    case '"' -> {
+                        index = skipString(input, index);
+                        type = Type.STRING;
+                    }
+                    default -> {
+                        index = skipLiteral(input, index);
+                        type = getLiteralType(input, start, index);
+                    }
                 }
 
-                tokens.add(new Token(buffer.toString(), Type.STRING));
-                buffer.setLength(0);
-                continue;
+                tape.add(type, start, index - start);
+                previous = type;
             }
 
-
-            if (buffer.isEmpty()) {
-                index++;
-                continue;
+            if (depth != 0) {
+                throw getBracketException(length);
             }
 
-            Type type = getType(buffer.charAt(0), switch (buffer.toString()) {
-                case "null"          -> Type.NULL;
-                case "false", "true" -> Type.BOOLEAN;
-                default              -> null;
-            });
-
-            if (type != null) {
-                tokens.add(new Token(buffer, type));
-                buffer.setLength(0);
-            } else {
-                String s = buffer.toString();
-                int len = s.length();
-
-                if (s.endsWith(",") || s.endsWith("}") || s.endsWith("]")) {
-                    String value = s.substring(0, len - 1);
-                    char delimiter = s.substring(len - 1).charAt(0);
-
-                    tokens.add(new Token(value, Type.NUMBER));
-                    tokens.add(new Token(delimiter, getType(delimiter, null)));
+            return tape;
+        } finally {
+            ScratchPool.BYTE_ARRAYS.release(stack);
+        }
+    }
 
-                    buffer.setLength(0);
-                }
+    /**
+     * @return position right after closing quote of string that starts at {@code start}
+     */
+    private static int skipString(String input, int start) {
+        int length = input.length();
+        for (int i = start + 1; i < length; i++) {
+            char c = input.charAt(i);
+            if (c == '"') {
+                return i + 1;
             }
 
-            index++;
+            if (c == '\\') {
+                i++;
+            }
         }
 
-        return validate(tokens);
+        throw new JSONParseException("Unterminated string at position " + start);
     }
 
-    private List<Token> validate(List<Token> tokens) {
-        Stack<Token> stack = new Stack<>();
-
-        for (int i = 0; i < tokens.size(); i++) {
-            Token token = tokens.get(i);
-            Type type = token.getType();
-            String data = token.getData();
-
-            Token next = null;
-
-            if (i != tokens.size() - 1) {
-                next = tokens.get(i + 1);
+    /**
+     * @return position right after the last character of literal that starts at {@code start}
+     */
+    private static int skipLiteral(String input, int start) {
+        int length = input.length();
+        int i = start;
+        while (i < length) {
+            char c = input.charAt(i);
+            if (Character.isWhitespace(c) || isDelimiter(c)) {
+                break;
             }
 
-            switch (type) {
-                case OBJECT_START, ARRAY_START -> stack.push(token);
-                case OBJECT_END -> {
-                    if (stack.isEmpty()) {
-                        throw getBracketException();
-                    }
-
-                    if (stack.peek().getType() != Type.OBJECT_START) {
-                        throw getBracketException();
-                    }
+            i++;
+        }
 
-                    stack.pop();
-                }
-                case ARRAY_END -> {
-                    if (stack.isEmpty()) {
-                        throw getBracketException();
-                    }
+        return i;
+    }
 
-                    if (stack.peek().getType() != Type.ARRAY_START) {
-                        throw getBracketException();
-                    }
+    private static boolean isDelimiter(char c) {
+        return switch (c) {
+            case '{', '}', '[', ']', ':', ',', '"' -> true;
+            default -> false;
+        };
+    }
 
-                    stack.pop();
-                }
-            }
+    private static Type getLiteralType(String input, int start, int end) {
+        int length = end - start;
+        if (length == 4 && input.startsWith("null", start)) return Type.NULL;
+        if (length == 4 && input.startsWith("true", start)) return Type.BOOLEAN;
+        if (length == 5 && input.startsWith("false", start)) return Type.BOOLEAN;
 
-            if (type == Type.STRING) {
-                if (!data.startsWith("\"") || !data.endsWith("\"")) {
-                    throw new JSONParseException("Invalid key: " + token.getData());
-                }
+        if (!isNumeric(input, start, end)) {
+            throw new JSONParseException("Invalid numeric value: "
+                    + input.substring(start, end) + " at position " + start);
+        }
 
-                if (next != null && next.getType() == Type.COLON) {
-                    token.setType(Type.KEY);
-                }
-            }
+        return Type.NUMBER;
+    }
 
-            if (next != null) {
-                for (Type t: INVALID_SEQUENTIAL_TYPES) {
-                    if (type == t && next.getType() == t) {
-                        throw new JSONParseException("Invalid syntax");
-                    }
-                }
-            }
+    /**
+     * Checks that range of input is a number according to JSON grammar
+     */
+    private static boolean isNumeric(String input, int start, int end) {
+        int i = start;
+        if (i < end && input.charAt(i) == '-') {
+            i++;
+        }
 
-            if (type == Type.NUMBER && !isNumeric(data)) {
-                throw new JSONParseException("Invalid numeric value: " + data);
-            }
+        if (i < end && input.charAt(i) == '0') {
+            i++;
+        } else {
+            int digits = skipDigits(input, i, end);
+            if (digits == i) return false;
+            i = digits;
         }
 
-        if (!stack.isEmpty()) {
-            throw getBracketException();
+        if (i < end && input.charAt(i) == '.') {
+            int digits = skipDigits(input, ++i, end);
+            if (digits == i) return false;
+            i = digits;
         }
 
-        return tokens;
-    }
+        if (i < end && (input.charAt(i) == 'e' || input.charAt(i) == 'E')) {
+            i++;
+            if (i < end && (input.charAt(i) == '+' || input.charAt(i) == '-')) {
+                i++;
+            }
 
-    private static final Type[] INVALID_SEQUENTIAL_TYPES = {
-            Type.COLON, Type.COMMA
-    };
+            int digits = skipDigits(input, i, end);
+            if (digits == i) return false;
+            i = digits;
+        }
 
-    private static boolean isNumeric(String string) {
-        return NumberUtilities.isNumeric(string);
+        return i == end;
     }
 
-    private static @NotNull JSONParseException getBracketException() {
-        return new JSONParseException("Unmatched brackets");
+    private static int skipDigits(String input, int start, int end) {
+        int i = start;
+        while (i < end && input.charAt(i) >= '0' && input.charAt(i) <= '9') {
+            i++;
+        }
+
+        return i;
     }
 
-    private Type getType(char character, Type defaultType) {
-        return switch (character) {
-            case '{' -> Type.OBJECT_START;
-            case '}' -> Type.OBJECT_END;
-            case '[' -> Type.ARRAY_START;
-            case ']' -> Type.ARRAY_END;
-            case ':' -> Type.COLON;
-            case ',' -> Type.COMMA;
-            default  -> defaultType;
-        };
+    private static @NotNull JSONParseException getBracketException(int position) {
+        return new JSONParseException("Unmatched brackets at position " + position);
     }
 }
@@ -11,5 +11,6 @@ public enum Type {
     BOOLEAN,
     NULL,
     COLON,
-    COMMA
+    COMMA,
+    END_DOCUMENT
 }
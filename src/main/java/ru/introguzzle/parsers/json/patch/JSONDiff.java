@@ -0,0 +1,327 @@
+package ru.introguzzle.parsers.json.patch;
+
+import org.jetbrains.annotations.NotNull;
+import ru.introguzzle.parsers.common.util.Nullability;
+import ru.introguzzle.parsers.json.entity.JSONArray;
+import ru.introguzzle.parsers.json.entity.JSONObject;
+import ru.introguzzle.parsers.json.entity.JSONStringConvertable;
+import ru.introguzzle.parsers.json.patch.JSONPatch.Operation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Computes {@link JSONPatch} that transforms one JSON document to another.
+ * <p>
+ * Objects are compared by keys, and only changed members are descended into. Arrays are compared
+ * by longest common subsequence of elements, after common prefix and suffix are skipped. Elements
+ * are hashed once per comparison, so elements with different hashes are never compared deeply.
+ * Elements that are removed and added at the same position are diffed recursively, so an edited
+ * element produces patch of the edit instead of its removal and addition. Arrays that are too large
+ * for subsequence matching are compared by position.
+ * </p>
+ * <p>
+ * Identical references are skipped without comparison, as are entities whose serialized forms are
+ * cached and equal, see {@link JSONObject#setSerializationCached(boolean)}. Entity none of whose
+ * entries is kept is replaced as a whole, with a single operation. Numbers are equal if they have
+ * the same value, regardless of type.
+ * </p>
+ * <p>
+ * Values of operations are shared with target document, so it should not be modified while patch is used.
+ * </p>
+ */
+public final class JSONDiff {
+    /**
+     * Maximal size of table of longest common subsequence, larger arrays are compared by position
+     */
+    private static final long MAXIMAL_TABLE_SIZE = 1 << 20;
+
+    private final List<Operation> operations = new ArrayList<>();
+
+    private JSONDiff() {
+    }
+
+    /**
+     * @param source original document
+     * @param target modified document
+     * @return patch that transforms {@code source} to {@code target}
+     */
+    public static @NotNull JSONPatch diff(@NotNull JSONObject source, @NotNull JSONObject target) {
+        return compute(source, target);
+    }
+
+    /**
+     * @param source original document
+     * @param target modified document
+     * @return patch that transforms {@code source} to {@code target}
+     */
+    public static @NotNull JSONPatch diff(@NotNull JSONArray source, @NotNull JSONArray target) {
+        return compute(source, target);
+    }
+
+    private static JSONPatch compute(Object source, Object target) {
+        Nullability.requireNonNull(source, "source");
+        Nullability.requireNonNull(target, "target");
+
+        JSONDiff diff = new JSONDiff();
+        diff.diff(source, target, "");
+        return diff.operations.isEmpty() ? JSONPatch.empty() : new JSONPatch(diff.operations);
+    }
+
+    /**
+     * @return {@code true} if {@code source} is kept, even if modified, and {@code false} if it's replaced
+     */
+    private boolean diff(Object source, Object target, String path) {
+        if (isSame(source, target)) {
+            return true;
+        }
+
+        int mark = operations.size();
+        boolean kept;
+        if (source instanceof JSONObject x && target instanceof JSONObject y) {
+            kept = diffObjects(x, y, path);
+        } else if (source instanceof JSONArray x && target instanceof JSONArray y) {
+            kept = diffArrays(x, y, path);
+        } else if (equal(source, target)) {
+            return true;
+        } else {
+            operations.add(Operation.replace(path, target));
+            return false;
+        }
+
+        // Nothing of source is kept, so a single replacement is shorter
+        if (!kept && operations.size() - mark > 1) {
+            operations.subList(mark, operations.size()).clear();
+            operations.add(Operation.replace(path, target));
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * @return {@code true} if any member of {@code source} is kept
+     */
+    private boolean diffObjects(JSONObject source, JSONObject target, String path) {
+        for (String key : source.keySet()) {
+            if (!target.containsKey(key)) {
+                operations.add(Operation.remove(JSONPointer.append(path, key)));
+            }
+        }
+
+        boolean kept = false;
+        for (Map.Entry<String, Object> entry : target.entrySet()) {
+            String key = entry.getKey();
+            if (source.containsKey(key)) {
+                kept |= diff(source.get(key), entry.getValue(), JSONPointer.append(path, key));
+            } else {
+                operations.add(Operation.add(JSONPointer.append(path, key), entry.getValue()));
+            }
+        }
+
+        return kept;
+    }
+
+    /**
+     * @return {@code true} if any element of {@code source} is kept
+     */
+    private boolean diffArrays(JSONArray source, JSONArray target, String path) {
+        int start = 0;
+        int sourceEnd = source.size();
+        int targetEnd = target.size();
+        while (start < sourceEnd && start < targetEnd && equal(source.get(start), target.get(start))) {
+            start++;
+        }
+
+        while (sourceEnd > start && targetEnd > start
+                && equal(source.get(sourceEnd - 1), target.get(targetEnd - 1))) {
+            sourceEnd--;
+            targetEnd--;
+        }
+
+        int rows = sourceEnd - start;
+        int columns = targetEnd - start;
+        boolean kept = rows < source.size();
+        if (rows == 0 || columns == 0 || (long) (rows + 1) * (columns + 1) > MAXIMAL_TABLE_SIZE) {
+            return diffRange(source, start, sourceEnd, target, start, targetEnd, start, path) || kept;
+        }
+
+        int[] sourceHashes = new int[rows];
+        int[] targetHashes = new int[columns];
+        for (int i = 0; i < rows; i++) {
+            sourceHashes[i] = hash(source.get(start + i));
+        }
+
+        for (int j = 0; j < columns; j++) {
+            targetHashes[j] = hash(target.get(start + j));
+        }
+
+        int offset = start;
+        Matcher matcher = (i, j) -> sourceHashes[i] == targetHashes[j]
+                && equal(source.get(offset + i), target.get(offset + j));
+
+        // lengths[i][j] is length of longest common subsequence of suffixes that start at i and j
+        int[][] lengths = new int[rows + 1][columns + 1];
+        for (int i = rows - 1; i >= 0; i--) {
+            for (int j = columns - 1; j >= 0; j--) {
+                lengths[i][j] = matcher.matches(i, j)
+                        ? lengths[i + 1][j + 1] + 1
+                        : Math.max(lengths[i + 1][j], lengths[i][j + 1]);
+            }
+        }
+
+        int i = 0;
+        int j = 0;
+        int index = start;
+        while (i < rows || j < columns) {
+            // Common element is always part of some longest common subsequence
+            if (i < rows && j < columns && matcher.matches(i, j)) {
+                i++;
+                j++;
+                index++;
+                kept = true;
+                continue;
+            }
+
+            // Extent of elements up to the next common one
+            int gapRow = i;
+            int gapColumn = j;
+            do {
+                if (gapColumn == columns
+                        || gapRow < rows && lengths[gapRow + 1][gapColumn] >= lengths[gapRow][gapColumn + 1]) {
+                    gapRow++;
+                } else {
+                    gapColumn++;
+                }
+            } while ((gapRow < rows || gapColumn < columns)
+                    && !(gapRow < rows && gapColumn < columns && matcher.matches(gapRow, gapColumn)));
+
+            kept |= diffRange(source, start + i, start + gapRow, target, start + j, start + gapColumn, index, path);
+            index += gapColumn - j;
+            i = gapRow;
+            j = gapColumn;
+        }
+
+        return kept;
+    }
+
+    @FunctionalInterface
+    private interface Matcher {
+        boolean matches(int i, int j);
+    }
+
+    /**
+     * Diffs elements of range of {@code source} with elements of range of {@code target} by position,
+     * removing or adding the rest
+     *
+     * @param index index of the first element of range in array being patched
+     * @return {@code true} if any element of range of {@code source} is kept
+     */
+    private boolean diffRange(JSONArray source, int sourceFrom, int sourceTo,
+                          JSONArray target, int targetFrom, int targetTo, int index, String path) {
+        int paired = Math.min(sourceTo - sourceFrom, targetTo - targetFrom);
+        boolean kept = false;
+        for (int k = 0; k < paired; k++) {
+            kept |= diff(source.get(sourceFrom + k), target.get(targetFrom + k), JSONPointer.append(path, index++));
+        }
+
+        for (int k = sourceFrom + paired; k < sourceTo; k++) {
+            operations.add(Operation.remove(JSONPointer.append(path, index)));
+        }
+
+        for (int k = targetFrom + paired; k < targetTo; k++) {
+            operations.add(Operation.add(JSONPointer.append(path, index++), target.get(k)));
+        }
+
+        return kept;
+    }
+
+    private static boolean isSame(Object a, Object b) {
+        return a == b || a instanceof JSONStringConvertable x && b instanceof JSONStringConvertable y
+                && x.isSerializationCached() && y.isSerializationCached()
+                && x.toJSONStringCompact().equals(y.toJSONStringCompact());
+    }
+
+    /**
+     * Deep equality of JSON values, where numbers are equal if they have the same value
+     */
+    static boolean equal(Object a, Object b) {
+        if (isSame(a, b)) {
+            return true;
+        }
+
+        if (a instanceof JSONObject x && b instanceof JSONObject y) {
+            if (x.size() != y.size()) {
+                return false;
+            }
+
+            for (Map.Entry<String, Object> entry : x.entrySet()) {
+                String key = entry.getKey();
+                if (!y.containsKey(key) || !equal(entry.getValue(), y.get(key))) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        if (a instanceof JSONArray x && b instanceof JSONArray y) {
+            int size = x.size();
+            if (size != y.size()) {
+                return false;
+            }
+
+            for (int i = 0; i < size; i++) {
+                if (!equal(x.get(i), y.get(i))) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        if (a instanceof Number x && b instanceof Number y) {
+            return isIntegral(x) && isIntegral(y)
+                    ? x.longValue() == y.longValue()
+                    : x.doubleValue() == y.doubleValue();
+        }
+
+        return Objects.equals(a, b);
+    }
+
+    /**
+     * Deep hash of JSON value, consistent with {@link #equal(Object, Object)}
+     */
+    static int hash(Object value) {
+        return switch (value) {
+            case JSONObject object -> {
+                int hash = 0;
+                for (Map.Entry<String, Object> entry : object.entrySet()) {
+                    hash += entry.getKey().hashCode() ^ hash(entry.getValue());
+                }
+
+                yield hash;
+            }
+            case JSONArray array -> {
+                int hash = 1;
+                for (int i = 0; i < array.size(); i++) {
+                    hash = 31 * hash + hash(array.get(i));
+                }
+
+                yield hash;
+            }
+            case Number number -> {
+                double d = number.doubleValue();
+                // Zeros of both signs are equal
+                yield d == 0 ? 0 : Double.hashCode(d);
+            }
+            case null, default -> Objects.hashCode(value);
+        };
+    }
+
+    private static boolean isIntegral(Number n) {
+        return n instanceof Long || n instanceof Integer || n instanceof Short || n instanceof Byte;
+    }
+}
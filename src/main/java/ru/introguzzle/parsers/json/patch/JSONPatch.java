@@ -0,0 +1,397 @@
+package ru.introguzzle.parsers.json.patch;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import ru.introguzzle.parsers.common.util.Nullability;
+import ru.introguzzle.parsers.json.entity.JSONArray;
+import ru.introguzzle.parsers.json.entity.JSONObject;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Immutable <a href="https://datatracker.ietf.org/doc/html/rfc6902">JSON Patch</a>: a sequence of operations
+ * that transforms one JSON document to another.
+ * <p>
+ * Patches are computed by {@link JSONDiff}, converted to patch documents by {@link #toJSONArray()}
+ * and read from them by {@link #of(JSONArray)}. Paths are JSON Pointers.
+ * </p>
+ * <p>
+ * Patch is applied in place. Operations are applied in order, and if one of them fails,
+ * {@link JSONPatchException} is thrown and operations that were applied before it remain applied.
+ * Objects and arrays that are added by patch are copied, so patch can be applied to any number of documents.
+ * </p>
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * JSONPatch patch = JSONDiff.diff(previous, current);
+ * send(patch.toJSONArray());
+ * ...
+ * JSONPatch.of(received).apply(replica);
+ * }</pre>
+ */
+public final class JSONPatch implements Iterable<JSONPatch.Operation> {
+    public enum Op {
+        ADD, REMOVE, REPLACE, MOVE, COPY, TEST;
+
+        /**
+         * @return name of operation in patch document
+         */
+        public @NotNull String getName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Single operation of patch
+     *
+     * @param op    type of operation
+     * @param path  JSON Pointer to target location
+     * @param from  JSON Pointer to source location of {@code move} and {@code copy}, otherwise {@code null}
+     * @param value value of {@code add}, {@code replace} and {@code test}, otherwise {@code null}
+     */
+    public record Operation(@NotNull Op op, @NotNull String path, @Nullable String from, @Nullable Object value) {
+        public Operation {
+            Nullability.requireNonNull(op, "op");
+            Nullability.requireNonNull(path, "path");
+            if ((op == Op.MOVE || op == Op.COPY) && from == null) {
+                throw new IllegalArgumentException("Operation " + op.getName() + " requires from");
+            }
+        }
+
+        public static @NotNull Operation add(@NotNull String path, @Nullable Object value) {
+            return new Operation(Op.ADD, path, null, value);
+        }
+
+        public static @NotNull Operation remove(@NotNull String path) {
+            return new Operation(Op.REMOVE, path, null, null);
+        }
+
+        public static @NotNull Operation replace(@NotNull String path, @Nullable Object value) {
+            return new Operation(Op.REPLACE, path, null, value);
+        }
+
+        public static @NotNull Operation move(@NotNull String from, @NotNull String path) {
+            return new Operation(Op.MOVE, path, from, null);
+        }
+
+        public static @NotNull Operation copy(@NotNull String from, @NotNull String path) {
+            return new Operation(Op.COPY, path, from, null);
+        }
+
+        public static @NotNull Operation test(@NotNull String path, @Nullable Object value) {
+            return new Operation(Op.TEST, path, null, value);
+        }
+
+        private boolean hasValue() {
+            return op == Op.ADD || op == Op.REPLACE || op == Op.TEST;
+        }
+
+        /**
+         * @return operation object of patch document
+         */
+        public @NotNull JSONObject toJSONObject() {
+            JSONObject object = new JSONObject();
+            object.put("op", op.getName());
+            if (from != null) {
+                object.put("from", from);
+            }
+
+            object.put("path", path);
+            if (hasValue()) {
+                object.put("value", value);
+            }
+
+            return object;
+        }
+    }
+
+    private static final JSONPatch EMPTY = new JSONPatch(List.of());
+
+    private final List<Operation> operations;
+
+    public JSONPatch(@NotNull List<Operation> operations) {
+        this.operations = List.copyOf(operations);
+    }
+
+    public static @NotNull JSONPatch empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Reads patch document
+     *
+     * @param patch array of operation objects
+     * @return patch
+     * @throws JSONPatchException if {@code patch} is malformed
+     */
+    public static @NotNull JSONPatch of(@NotNull JSONArray patch) {
+        Operation[] operations = new Operation[patch.size()];
+        for (int i = 0; i < operations.length; i++) {
+            if (!(patch.get(i) instanceof JSONObject object)) {
+                throw new JSONPatchException("Operation " + i + " is not an object");
+            }
+
+            Op op = null;
+            String name = member(object, "op", i);
+            for (Op candidate : Op.values()) {
+                if (candidate.getName().equals(name)) {
+                    op = candidate;
+                }
+            }
+
+            if (op == null) {
+                throw new JSONPatchException("Unknown operation " + name + " at " + i);
+            }
+
+            String from = op == Op.MOVE || op == Op.COPY ? member(object, "from", i) : null;
+            Operation operation = new Operation(op, member(object, "path", i), from, object.get("value"));
+            if (operation.hasValue() && !object.containsKey("value")) {
+                throw new JSONPatchException("Operation " + i + " has no value");
+            }
+
+            operations[i] = operation;
+        }
+
+        return new JSONPatch(List.of(operations));
+    }
+
+    private static String member(JSONObject object, String key, int index) {
+        if (object.get(key) instanceof String value) {
+            return value;
+        }
+
+        throw new JSONPatchException("Operation " + index + " has no " + key);
+    }
+
+    public @NotNull List<Operation> getOperations() {
+        return operations;
+    }
+
+    public int size() {
+        return operations.size();
+    }
+
+    public boolean isEmpty() {
+        return operations.isEmpty();
+    }
+
+    @Override
+    public @NotNull Iterator<Operation> iterator() {
+        return operations.iterator();
+    }
+
+    /**
+     * @return patch document, array of operation objects
+     */
+    public @NotNull JSONArray toJSONArray() {
+        JSONArray array = new JSONArray();
+        for (Operation operation : operations) {
+            array.add(operation.toJSONObject());
+        }
+
+        return array;
+    }
+
+    /**
+     * Applies this patch to {@code document} in place
+     *
+     * @param document document to modify
+     * @throws JSONPatchException if operation can't be applied or {@code test} fails
+     */
+    public void apply(@NotNull JSONObject document) {
+        applyTo(document);
+    }
+
+    /**
+     * Applies this patch to {@code document} in place
+     *
+     * @param document document to modify
+     * @throws JSONPatchException if operation can't be applied or {@code test} fails
+     */
+    public void apply(@NotNull JSONArray document) {
+        applyTo(document);
+    }
+
+    private void applyTo(Object document) {
+        Nullability.requireNonNull(document, "document");
+        for (Operation operation : operations) {
+            String path = operation.path();
+            switch (operation.op()) {
+                case ADD -> add(document, path, copy(operation.value()));
+                case REMOVE -> remove(document, path);
+                case REPLACE -> replace(document, path, copy(operation.value()));
+                case MOVE -> {
+                    String from = operation.from();
+                    if (path.startsWith(from + "/")) {
+                        throw new JSONPatchException("Can't move " + from + " into itself");
+                    }
+
+                    if (!path.equals(from)) {
+                        add(document, path, remove(document, from));
+                    }
+                }
+                case COPY -> add(document, path, copy(get(document, operation.from())));
+                case TEST -> {
+                    if (!JSONDiff.equal(get(document, path), operation.value())) {
+                        throw new JSONPatchException("Test failed at " + path);
+                    }
+                }
+            }
+        }
+    }
+
+    private static Object copy(Object value) {
+        return switch (value) {
+            case JSONObject object -> object.deepCopy();
+            case JSONArray array -> array.deepCopy();
+            case null, default -> value;
+        };
+    }
+
+    private static Object get(Object document, String path) {
+        Object current = document;
+        for (String token : JSONPointer.split(path)) {
+            current = child(current, token, path);
+        }
+
+        return current;
+    }
+
+    private static Object child(Object container, String token, String path) {
+        if (container instanceof JSONObject object) {
+            if (!object.containsKey(token)) {
+                throw new JSONPatchException("No value at " + path);
+            }
+
+            return object.get(token);
+        }
+
+        if (container instanceof JSONArray array) {
+            return array.get(index(array, token, path, false));
+        }
+
+        throw new JSONPatchException("No object or array at " + path);
+    }
+
+    /**
+     * @return container of last token of {@code tokens}
+     */
+    private static Object parent(Object document, List<String> tokens, String path) {
+        Object current = document;
+        for (int i = 0; i < tokens.size() - 1; i++) {
+            current = child(current, tokens.get(i), path);
+        }
+
+        return current;
+    }
+
+    private static int index(JSONArray array, String token, String path, boolean adding) {
+        if (adding && token.equals("-")) {
+            return array.size();
+        }
+
+        int index = -1;
+        if (!token.isEmpty() && token.length() < 10 && (token.length() == 1 || token.charAt(0) != '0')) {
+            index = 0;
+            for (int i = 0; i < token.length() && index >= 0; i++) {
+                char c = token.charAt(i);
+                index = c >= '0' && c <= '9' ? index * 10 + c - '0' : -1;
+            }
+        }
+
+        if (index < 0 || index > array.size() || index == array.size() && !adding) {
+            throw new JSONPatchException("Invalid index " + token + " at " + path);
+        }
+
+        return index;
+    }
+
+    private static void add(Object document, String path, Object value) {
+        List<String> tokens = JSONPointer.split(path);
+        if (tokens.isEmpty()) {
+            replaceDocument(document, value);
+            return;
+        }
+
+        String token = tokens.getLast();
+        switch (parent(document, tokens, path)) {
+            case JSONObject object -> object.put(token, value);
+            case JSONArray array -> array.add(index(array, token, path, true), value);
+            case null, default -> throw new JSONPatchException("No object or array at " + path);
+        }
+    }
+
+    private static Object remove(Object document, String path) {
+        List<String> tokens = JSONPointer.split(path);
+        if (tokens.isEmpty()) {
+            throw new JSONPatchException("Can't remove document");
+        }
+
+        String token = tokens.getLast();
+        return switch (parent(document, tokens, path)) {
+            case JSONObject object -> {
+                if (!object.containsKey(token)) {
+                    throw new JSONPatchException("No value at " + path);
+                }
+
+                yield object.remove(token);
+            }
+            case JSONArray array -> array.remove(index(array, token, path, false));
+            case null, default -> throw new JSONPatchException("No object or array at " + path);
+        };
+    }
+
+    private static void replace(Object document, String path, Object value) {
+        List<String> tokens = JSONPointer.split(path);
+        if (tokens.isEmpty()) {
+            replaceDocument(document, value);
+            return;
+        }
+
+        String token = tokens.getLast();
+        switch (parent(document, tokens, path)) {
+            case JSONObject object -> {
+                if (!object.containsKey(token)) {
+                    throw new JSONPatchException("No value at " + path);
+                }
+
+                object.put(token, value);
+            }
+            case JSONArray array -> array.set(index(array, token, path, false), value);
+            case null, default -> throw new JSONPatchException("No object or array at " + path);
+        }
+    }
+
+    /**
+     * Replaces contents of document, as it can't be replaced itself in place
+     */
+    private static void replaceDocument(Object document, Object value) {
+        if (document instanceof JSONObject object && value instanceof JSONObject replacement) {
+            object.clear();
+            object.putAll(replacement);
+        } else if (document instanceof JSONArray array && value instanceof JSONArray replacement) {
+            array.clear();
+            array.addAll(replacement);
+        } else {
+            throw new JSONPatchException("Can't replace document with "
+                    + (value == null ? "null" : value.getClass().getSimpleName()) + " in place");
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof JSONPatch patch && operations.equals(patch.operations);
+    }
+
+    @Override
+    public int hashCode() {
+        return operations.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return toJSONArray().toJSONStringCompact();
+    }
+}
@@ -0,0 +1,23 @@
+package ru.introguzzle.parsers.json.patch;
+
+import java.io.Serial;
+
+/**
+ * Thrown when JSON Patch is malformed or can't be applied to a document
+ */
+public class JSONPatchException extends RuntimeException {
+    @Serial
+    private static final long serialVersionUID = -4183504517380620963L;
+
+    public JSONPatchException() {
+        super();
+    }
+
+    public JSONPatchException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public JSONPatchException(String message) {
+        super(message);
+    }
+}
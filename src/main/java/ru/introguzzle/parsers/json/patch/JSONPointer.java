@@ -0,0 +1,66 @@
+package ru.introguzzle.parsers.json.patch;
+
+import org.jetbrains.annotations.NotNull;
+import ru.introguzzle.parsers.common.util.Meta;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Helpers for <a href="https://datatracker.ietf.org/doc/html/rfc6901">JSON Pointers</a>,
+ * shared by {@link JSONPatch} and path extraction of parsers
+ */
+public final class JSONPointer {
+
+    /**
+     * Splits pointer into unescaped reference tokens
+     *
+     * @param pointer JSON Pointer
+     * @return new list of tokens
+     * @throws JSONPatchException if pointer is neither empty nor starts with {@code /}
+     */
+    public static @NotNull List<String> split(@NotNull String pointer) {
+        List<String> tokens = new ArrayList<>();
+        if (pointer.isEmpty()) {
+            return tokens;
+        }
+
+        if (pointer.charAt(0) != '/') {
+            throw new JSONPatchException("JSON Pointer must start with '/': " + pointer);
+        }
+
+        int start = 1;
+        while (true) {
+            int end = pointer.indexOf('/', start);
+            String token = pointer.substring(start, end < 0 ? pointer.length() : end);
+            tokens.add(token.indexOf('~') < 0 ? token : token.replace("~1", "/").replace("~0", "~"));
+            if (end < 0) {
+                return tokens;
+            }
+
+            start = end + 1;
+        }
+    }
+
+    /**
+     * @return {@code pointer} followed by escaped {@code token}
+     */
+    public static @NotNull String append(@NotNull String pointer, @NotNull String token) {
+        if (token.indexOf('~') >= 0 || token.indexOf('/') >= 0) {
+            token = token.replace("~", "~0").replace("/", "~1");
+        }
+
+        return pointer + '/' + token;
+    }
+
+    public static @NotNull String append(@NotNull String pointer, int index) {
+        return pointer + '/' + index;
+    }
+
+    /**
+     * Private constructor. Always throws {@code AssertionError}
+     */
+    private JSONPointer() {
+        throw Meta.newInstantiationError(JSONPointer.class);
+    }
+}
@@ -0,0 +1,145 @@
+package ru.introguzzle.parsers.json.path;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Compiled filter expression of {@link JSONPath}, such as {@code ?(@.price < 10 && @.tags)}
+ */
+sealed interface Filter {
+    /**
+     * @param node current node, denoted by {@code @}
+     * @param root root of document, denoted by {@code $}
+     * @return {@code true} if {@code node} matches this filter
+     */
+    boolean test(Object node, Object root);
+
+    enum Operator {
+        EQ("=="), NE("!="), LT("<"), LE("<="), GT(">"), GE(">=");
+
+        final String symbol;
+
+        Operator(String symbol) {
+            this.symbol = symbol;
+        }
+    }
+
+    /**
+     * Operand of comparison: a literal or a query that evaluates to its first match
+     */
+    sealed interface Operand {
+        /**
+         * @return value of operand or {@link Segment#MISSING}
+         */
+        Object evaluate(Object node, Object root);
+    }
+
+    record Literal(Object value) implements Operand {
+        @Override
+        public Object evaluate(Object node, Object root) {
+            return value;
+        }
+    }
+
+    /**
+     * Query relative to current node ({@code @}) or to root ({@code $})
+     */
+    record Query(JSONPath path, boolean relative) implements Operand, Filter {
+        @Override
+        public Object evaluate(Object node, Object root) {
+            return path.first(relative ? node : root);
+        }
+
+        /**
+         * Tests existence of value at path
+         */
+        @Override
+        public boolean test(Object node, Object root) {
+            return evaluate(node, root) != Segment.MISSING;
+        }
+    }
+
+    record Comparison(Operand left, Operator operator, Operand right) implements Filter {
+        @Override
+        public boolean test(Object node, Object root) {
+            Object l = left.evaluate(node, root);
+            Object r = right.evaluate(node, root);
+            return switch (operator) {
+                case EQ -> equal(l, r);
+                case NE -> !equal(l, r);
+                case LT -> compare(l, r) < 0;
+                case LE -> compare(l, r) <= 0 && comparable(l, r);
+                case GT -> compare(l, r) > 0;
+                case GE -> compare(l, r) >= 0 && comparable(l, r);
+            };
+        }
+
+        private static boolean equal(Object l, Object r) {
+            return l instanceof Number a && r instanceof Number b
+                    ? compareNumbers(a, b) == 0
+                    : Objects.equals(l, r);
+        }
+
+        private static boolean comparable(Object l, Object r) {
+            return l instanceof Number && r instanceof Number || l instanceof String && r instanceof String;
+        }
+
+        /**
+         * @return result of comparison of numbers or strings, {@code 0} for values that can't be ordered
+         */
+        private static int compare(Object l, Object r) {
+            if (l instanceof Number a && r instanceof Number b) {
+                return compareNumbers(a, b);
+            }
+
+            if (l instanceof String a && r instanceof String b) {
+                return a.compareTo(b);
+            }
+
+            return 0;
+        }
+
+        private static int compareNumbers(Number a, Number b) {
+            if (isIntegral(a) && isIntegral(b)) {
+                return Long.compare(a.longValue(), b.longValue());
+            }
+
+            double x = a.doubleValue();
+            double y = b.doubleValue();
+            return x < y ? -1 : x > y ? 1 : 0;
+        }
+
+        private static boolean isIntegral(Number n) {
+            return n instanceof Long || n instanceof Integer || n instanceof Short || n instanceof Byte;
+        }
+    }
+
+    record Not(Filter filter) implements Filter {
+        @Override
+        public boolean test(Object node, Object root) {
+            return !filter.test(node, root);
+        }
+    }
+
+    record And(List<Filter> filters) implements Filter {
+        @Override
+        public boolean test(Object node, Object root) {
+            for (Filter filter : filters) {
+                if (!filter.test(node, root)) return false;
+            }
+
+            return true;
+        }
+    }
+
+    record Or(List<Filter> filters) implements Filter {
+        @Override
+        public boolean test(Object node, Object root) {
+            for (Filter filter : filters) {
+                if (filter.test(node, root)) return true;
+            }
+
+            return false;
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package ru.introguzzle.parsers.json.path;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import ru.introguzzle.parsers.common.cache.Cache;
+import ru.introguzzle.parsers.common.cache.CacheService;
+import ru.introguzzle.parsers.common.util.Nullability;
+import ru.introguzzle.parsers.json.entity.JSONArray;
+import ru.introguzzle.parsers.json.entity.JSONObject;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Compiled JSONPath expression that selects values from {@link JSONObject} and {@link JSONArray} trees.
+ * <p>
+ * Expressions start with {@code $}, which denotes the root, followed by segments:
+ * </p>
+ * <ul>
+ *   <li>{@code .name}, {@code ['name']} — member of object, or element of array if name is an index</li>
+ *   <li>{@code [0]}, {@code [-1]}, {@code [0,2]}, {@code ['a','b']} — elements by index and members by name</li>
+ *   <li>{@code .*}, {@code [*]} — all members or elements</li>
+ *   <li>{@code [start:end:step]} — slice of array, any part can be omitted</li>
+ *   <li>{@code ..name}, {@code ..*}, {@code ..[0]} — recursive descent</li>
+ *   <li>{@code [?(@.price < 10 && @.tags)]} — members or elements that match filter, with operators
+ *   {@code == != < <= > >= && || !}, queries relative to current node ({@code @}) or root ({@code $})
+ *   and string, number, boolean and {@code null} literals</li>
+ * </ul>
+ * <p>
+ * Expressions that don't start with {@code $} are keys in dot notation. Keys that may start with {@code $},
+ * such as {@code $ref}, are compiled by {@link #compileKey(String)}, as by {@link JSONObject#getTraverse(String, Class)}:
+ * every part between dots is a name, with no special characters.
+ * </p>
+ * <p>
+ * Expressions are compiled once, without regular expressions, and compiled paths are cached.
+ * Paths that select at most one value are evaluated with a loop over segments. Other paths are evaluated
+ * as a pipeline that passes every selected value to the next segment, so no intermediate lists are built
+ * and evaluation stops as soon as first match is found when only it is requested.
+ * </p>
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * JSONPath cheap = JSONPath.compile("$.store.book[?(@.price < 10)].title");
+ * JSONArray titles = cheap.readAll(document);
+ * }</pre>
+ *
+ * Instances are immutable and thread-safe.
+ */
+public final class JSONPath {
+    private static final Cache<String, JSONPath> CACHE = CacheService.instance().newCache();
+    private static final Cache<String, JSONPath> KEYS = CacheService.instance().newCache();
+
+    private final String expression;
+    private final Segment[] segments;
+
+    /**
+     * The same segments if all of them are definite, otherwise {@code null}
+     */
+    private final Segment.Definite[] definite;
+
+    JSONPath(String expression, Segment[] segments) {
+        this.expression = expression;
+        this.segments = segments;
+
+        Segment.Definite[] definite = new Segment.Definite[segments.length];
+        for (int i = 0; i < segments.length; i++) {
+            if (!(segments[i] instanceof Segment.Definite segment)) {
+                definite = null;
+                break;
+            }
+
+            definite[i] = segment;
+        }
+
+        this.definite = definite;
+    }
+
+    /**
+     * Returns compiled path, compiling {@code expression} only if it's not cached
+     *
+     * @param expression JSONPath expression or key in dot notation
+     * @return compiled path
+     * @throws IllegalArgumentException if {@code expression} is malformed
+     */
+    public static @NotNull JSONPath compile(@NotNull String expression) {
+        Nullability.requireNonNull(expression, "expression");
+        JSONPath path = CACHE.get(expression);
+        if (path == null) {
+            path = new JSONPath(expression, JSONPathCompiler.compile(expression));
+            CACHE.put(expression, path);
+        }
+
+        return path;
+    }
+
+    /**
+     * Returns compiled path of key in dot notation, compiling it only if it's not cached. Every part
+     * of {@code key} between dots is a name, even if it starts with {@code $} or contains brackets
+     *
+     * @param key key in dot notation
+     * @return compiled path
+     */
+    public static @NotNull JSONPath compileKey(@NotNull String key) {
+        Nullability.requireNonNull(key, "key");
+        JSONPath path = KEYS.get(key);
+        if (path == null) {
+            path = new JSONPath(key, JSONPathCompiler.splitDotNotation(key));
+            KEYS.put(key, path);
+        }
+
+        return path;
+    }
+
+    public @NotNull String getExpression() {
+        return expression;
+    }
+
+    /**
+     * @return {@code true} if this path selects at most one value
+     */
+    public boolean isDefinite() {
+        return definite != null;
+    }
+
+    /**
+     * @param document root of document
+     * @return first selected value, or {@code null} if nothing is selected
+     */
+    public @Nullable Object read(@Nullable Object document) {
+        Object value = first(document);
+        return value == Segment.MISSING ? null : value;
+    }
+
+    /**
+     * @param document root of document
+     * @param type     class of value
+     * @param <T>      type of value
+     * @return first selected value, or {@code null} if nothing is selected
+     * @throws ClassCastException if value is not of {@code type}
+     */
+    public <T> @Nullable T read(@Nullable Object document, @NotNull Class<? extends T> type) {
+        Nullability.requireNonNull(type, "type");
+        return type.cast(read(document));
+    }
+
+    /**
+     * @param document root of document
+     * @return new array of all selected values, in document order
+     */
+    public @NotNull JSONArray readAll(@Nullable Object document) {
+        JSONArray result = new JSONArray();
+        evaluate(document, value -> {
+            result.add(value);
+            return true;
+        });
+
+        return result;
+    }
+
+    /**
+     * Performs {@code action} for every selected value, in document order
+     *
+     * @param document root of document
+     * @param action   action to perform
+     */
+    public void forEach(@Nullable Object document, @NotNull Consumer<Object> action) {
+        Nullability.requireNonNull(action, "action");
+        evaluate(document, value -> {
+            action.accept(value);
+            return true;
+        });
+    }
+
+    /**
+     * Associates {@code value} with the last segment of this path. Missing objects on the path are created,
+     * index equal to size of array appends to it
+     *
+     * @param document root of document
+     * @param value    value to put
+     * @return previous value, or {@code null} if there was none
+     * @throws IllegalArgumentException  if this path is not definite, is empty or doesn't lead to object or array
+     * @throws IndexOutOfBoundsException if index is out of bounds of array
+     */
+    public @Nullable Object put(@NotNull Object document, @Nullable Object value) {
+        if (definite == null || definite.length == 0) {
+            throw new IllegalArgumentException("Can't put value at " + expression);
+        }
+
+        int last = definite.length - 1;
+        Object current = document;
+        for (int i = 0; i < last; i++) {
+            Object next = definite[i].selectOne(current);
+            if (next == null || next == Segment.MISSING) {
+                next = new JSONObject();
+                set(current, definite[i], next);
+            }
+
+            current = next;
+        }
+
+        return set(current, definite[last], value);
+    }
+
+    private Object set(Object container, Segment.Definite segment, Object value) {
+        if (container instanceof JSONObject object && segment instanceof Segment.Name name) {
+            return object.put(name.name(), value);
+        }
+
+        int index = switch (segment) {
+            case Segment.Name name -> name.index();
+            case Segment.Index i -> i.index() < 0 && container instanceof JSONArray array
+                    ? array.size() + i.index()
+                    : i.index();
+        };
+
+        if (container instanceof JSONArray array && index >= 0) {
+            if (index == array.size()) {
+                array.add(value);
+                return null;
+            }
+
+            return array.set(index, value);
+        }
+
+        throw new IllegalArgumentException("Can't put value into " + (container == null
+                ? "null"
+                : container.getClass().getSimpleName()) + " at " + expression);
+    }
+
+    /**
+     * @return first selected value or {@link Segment#MISSING}
+     */
+    Object first(Object document) {
+        if (definite != null) {
+            Object current = document;
+            for (Segment.Definite segment : definite) {
+                current = segment.selectOne(current);
+                if (current == Segment.MISSING) {
+                    break;
+                }
+            }
+
+            return current;
+        }
+
+        Object[] result = {Segment.MISSING};
+        evaluate(document, value -> {
+            result[0] = value;
+            return false;
+        });
+
+        return result[0];
+    }
+
+    /**
+     * Passes every selected value to {@code sink} until it stops evaluation
+     */
+    private void evaluate(Object document, Segment.Sink sink) {
+        if (definite != null) {
+            Object value = first(document);
+            if (value != Segment.MISSING) {
+                sink.accept(value);
+            }
+
+            return;
+        }
+
+        // Every stage selects values from its input and passes them to the next stage
+        Segment.Sink stage = sink;
+        for (int i = segments.length - 1; i >= 0; i--) {
+            Segment segment = segments[i];
+            Segment.Sink next = stage;
+            stage = value -> segment.select(value, document, next);
+        }
+
+        stage.accept(document);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        // Key in dot notation and expression may be the same string with different meaning
+        return this == o || o instanceof JSONPath path && expression.equals(path.expression)
+                && Arrays.equals(segments, path.segments);
+    }
+
+    @Override
+    public int hashCode() {
+        return expression.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+}
@@ -0,0 +1,394 @@
+package ru.introguzzle.parsers.json.path;
+
+import ru.introguzzle.parsers.json.path.Filter.Operator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compiles JSONPath expressions to segments, with a single pass over characters and without regular expressions
+ */
+final class JSONPathCompiler {
+    /**
+     * Operators in order of matching, two-character ones go first so that {@code <=} isn't taken for {@code <}
+     */
+    private static final Operator[] OPERATORS = {
+            Operator.EQ, Operator.NE, Operator.LE, Operator.GE, Operator.LT, Operator.GT
+    };
+
+    private final String expression;
+    private int position;
+
+    private JSONPathCompiler(String expression) {
+        this.expression = expression;
+    }
+
+    static Segment[] compile(String expression) {
+        if (!expression.startsWith("$")) {
+            return splitDotNotation(expression);
+        }
+
+        JSONPathCompiler compiler = new JSONPathCompiler(expression);
+        compiler.position = 1;
+        List<Segment> segments = compiler.segments(false);
+        if (compiler.position != expression.length()) {
+            throw compiler.unexpected();
+        }
+
+        return segments.toArray(Segment[]::new);
+    }
+
+    /**
+     * Splits key in dot notation, every part of which is a name
+     */
+    static Segment[] splitDotNotation(String key) {
+        int count = 1;
+        for (int i = 0; i < key.length(); i++) {
+            if (key.charAt(i) == '.') count++;
+        }
+
+        Segment[] segments = new Segment[count];
+        int start = 0;
+        for (int i = 0; i < count; i++) {
+            int end = key.indexOf('.', start);
+            if (end < 0) {
+                end = key.length();
+            }
+
+            segments[i] = new Segment.Name(key.substring(start, end));
+            start = end + 1;
+        }
+
+        return segments;
+    }
+
+    private IllegalArgumentException unexpected() {
+        String found = position < expression.length()
+                ? "'" + expression.charAt(position) + "'"
+                : "end of expression";
+
+        return new IllegalArgumentException("Unexpected " + found + " at position " + position
+                + " in JSONPath " + expression);
+    }
+
+    private IllegalArgumentException invalid(String message, int at) {
+        return new IllegalArgumentException(message + " at position " + at + " in JSONPath " + expression);
+    }
+
+    private boolean hasNext() {
+        return position < expression.length();
+    }
+
+    private char peek() {
+        return hasNext() ? expression.charAt(position) : '\0';
+    }
+
+    private boolean consume(char c) {
+        if (peek() == c) {
+            position++;
+            return true;
+        }
+
+        return false;
+    }
+
+    private boolean consume(String s) {
+        if (expression.startsWith(s, position)) {
+            position += s.length();
+            return true;
+        }
+
+        return false;
+    }
+
+    private void expect(char c) {
+        if (!consume(c)) {
+            throw unexpected();
+        }
+    }
+
+    private void skipWhitespace() {
+        while (hasNext() && Character.isWhitespace(peek())) {
+            position++;
+        }
+    }
+
+    /**
+     * Parses segments up to the end of expression or, in filter, up to the first character that can't continue path
+     */
+    private List<Segment> segments(boolean inFilter) {
+        List<Segment> segments = new ArrayList<>();
+        while (hasNext()) {
+            char c = peek();
+            if (c == '.') {
+                position++;
+                if (consume('.')) {
+                    segments.add(new Segment.Descendants(peek() == '[' ? bracket() : member(inFilter)));
+                } else {
+                    segments.add(member(inFilter));
+                }
+            } else if (c == '[') {
+                segments.add(bracket());
+            } else if (inFilter) {
+                break;
+            } else {
+                throw unexpected();
+            }
+        }
+
+        return segments;
+    }
+
+    /**
+     * Parses {@code *} or name that follows dot
+     */
+    private Segment member(boolean inFilter) {
+        if (consume('*')) {
+            return new Segment.Wildcard();
+        }
+
+        int start = position;
+        while (hasNext() && !isNameEnd(peek(), inFilter)) {
+            position++;
+        }
+
+        if (start == position) {
+            throw unexpected();
+        }
+
+        return new Segment.Name(expression.substring(start, position));
+    }
+
+    private static boolean isNameEnd(char c, boolean inFilter) {
+        return switch (c) {
+            case '.', '[', ']' -> true;
+            case ')', '=', '!', '<', '>', '&', '|', ' ', '\t', '\n', '\r' -> inFilter;
+            default -> false;
+        };
+    }
+
+    /**
+     * Parses bracketed selector: wildcard, filter, names, indices or slice
+     */
+    private Segment bracket() {
+        expect('[');
+        skipWhitespace();
+        Segment segment;
+        if (consume('*')) {
+            segment = new Segment.Wildcard();
+        } else if (consume('?')) {
+            skipWhitespace();
+            expect('(');
+            Filter filter = or();
+            skipWhitespace();
+            expect(')');
+            segment = new Segment.Select(filter);
+        } else {
+            segment = selectors();
+        }
+
+        skipWhitespace();
+        expect(']');
+        return segment;
+    }
+
+    private Segment selectors() {
+        List<Segment> selectors = new ArrayList<>();
+        do {
+            skipWhitespace();
+            char c = peek();
+            if (c == '\'' || c == '"') {
+                selectors.add(new Segment.Name(string()));
+            } else {
+                int start = position;
+                Integer first = c == ':' ? null : integer();
+                skipWhitespace();
+                if (peek() == ':') {
+                    if (!selectors.isEmpty()) {
+                        throw invalid("Slice in union", start);
+                    }
+
+                    return slice(first);
+                }
+
+                selectors.add(new Segment.Index(first));
+            }
+
+            skipWhitespace();
+        } while (consume(','));
+
+        return selectors.size() == 1 ? selectors.getFirst() : new Segment.Union(List.copyOf(selectors));
+    }
+
+    private Segment slice(Integer start) {
+        expect(':');
+        skipWhitespace();
+        Integer end = isIntegerStart(peek()) ? integer() : null;
+        skipWhitespace();
+        int step = 1;
+        if (consume(':')) {
+            skipWhitespace();
+            if (isIntegerStart(peek())) {
+                int at = position;
+                step = integer();
+                if (step == 0) {
+                    throw invalid("Slice step must not be zero", at);
+                }
+            }
+        }
+
+        return new Segment.Slice(start, end, step);
+    }
+
+    private static boolean isIntegerStart(char c) {
+        return c == '-' || c >= '0' && c <= '9';
+    }
+
+    private int integer() {
+        int start = position;
+        consume('-');
+        while (peek() >= '0' && peek() <= '9') {
+            position++;
+        }
+
+        try {
+            return Integer.parseInt(expression, start, position, 10);
+        } catch (NumberFormatException e) {
+            position = start;
+            throw unexpected();
+        }
+    }
+
+    /**
+     * Parses quoted string with backslash escapes
+     */
+    private String string() {
+        int start = position;
+        char quote = expression.charAt(position++);
+        StringBuilder builder = new StringBuilder();
+        while (true) {
+            if (!hasNext()) {
+                throw invalid("Unterminated string", start);
+            }
+
+            char c = expression.charAt(position++);
+            if (c == quote) {
+                return builder.toString();
+            }
+
+            if (c == '\\' && hasNext()) {
+                c = expression.charAt(position++);
+            }
+
+            builder.append(c);
+        }
+    }
+
+    private Filter or() {
+        List<Filter> filters = new ArrayList<>();
+        do {
+            filters.add(and());
+            skipWhitespace();
+        } while (consume("||"));
+
+        return filters.size() == 1 ? filters.getFirst() : new Filter.Or(List.copyOf(filters));
+    }
+
+    private Filter and() {
+        List<Filter> filters = new ArrayList<>();
+        do {
+            filters.add(term());
+            skipWhitespace();
+        } while (consume("&&"));
+
+        return filters.size() == 1 ? filters.getFirst() : new Filter.And(List.copyOf(filters));
+    }
+
+    private Filter term() {
+        skipWhitespace();
+        if (consume('(')) {
+            Filter filter = or();
+            skipWhitespace();
+            expect(')');
+            return filter;
+        }
+
+        if (peek() == '!' && !expression.startsWith("!=", position)) {
+            position++;
+            return new Filter.Not(term());
+        }
+
+        int start = position;
+        Filter.Operand left = operand();
+        skipWhitespace();
+        Operator operator = operator();
+        if (operator == null) {
+            if (left instanceof Filter.Query query) {
+                return query;
+            }
+
+            throw invalid("Expected query", start);
+        }
+
+        skipWhitespace();
+        return new Filter.Comparison(left, operator, operand());
+    }
+
+    private Operator operator() {
+        for (Operator operator : OPERATORS) {
+            if (consume(operator.symbol)) {
+                return operator;
+            }
+        }
+
+        return null;
+    }
+
+    private Filter.Operand operand() {
+        char c = peek();
+        if (c == '@' || c == '$') {
+            int start = position++;
+            Segment[] segments = segments(true).toArray(Segment[]::new);
+            JSONPath path = new JSONPath(expression.substring(start, position), segments);
+            return new Filter.Query(path, c == '@');
+        }
+
+        if (c == '\'' || c == '"') {
+            return new Filter.Literal(string());
+        }
+
+        if (consume("true")) return new Filter.Literal(Boolean.TRUE);
+        if (consume("false")) return new Filter.Literal(Boolean.FALSE);
+        if (consume("null")) return new Filter.Literal(null);
+        if (isIntegerStart(c)) {
+            return new Filter.Literal(number());
+        }
+
+        throw unexpected();
+    }
+
+    private Number number() {
+        int start = position;
+        consume('-');
+        boolean integral = true;
+        while (hasNext()) {
+            char c = peek();
+            if (c >= '0' && c <= '9') {
+                position++;
+            } else if (c == '.' || c == 'e' || c == 'E'
+                    || (c == '+' || c == '-') && Character.toLowerCase(expression.charAt(position - 1)) == 'e') {
+                integral = false;
+                position++;
+            } else {
+                break;
+            }
+        }
+
+        String literal = expression.substring(start, position);
+        try {
+            return integral ? Long.parseLong(literal) : Double.parseDouble(literal);
+        } catch (NumberFormatException e) {
+            throw invalid("Invalid number " + literal, start);
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package ru.introguzzle.parsers.json.path;
+
+import ru.introguzzle.parsers.json.entity.JSONArray;
+import ru.introguzzle.parsers.json.entity.JSONObject;
+import ru.introguzzle.parsers.json.mapping.reference.StandardCircularReferenceStrategies.CircularReference;
+
+import java.util.List;
+
+/**
+ * Single step of compiled {@link JSONPath} that selects values from a node
+ */
+sealed interface Segment {
+    /**
+     * Result of {@link Definite#selectOne(Object)} when nothing is selected, distinct from selected {@code null}
+     */
+    Object MISSING = new Object();
+
+    /**
+     * Receiver of selected values
+     */
+    @FunctionalInterface
+    interface Sink {
+        /**
+         * @param value selected value
+         * @return {@code false} to stop evaluation
+         */
+        boolean accept(Object value);
+    }
+
+    /**
+     * Passes all values selected from {@code node} to {@code sink}
+     *
+     * @param node current node
+     * @param root root of document, used by filters
+     * @param sink receiver of selected values
+     * @return {@code false} if {@code sink} stopped evaluation
+     */
+    boolean select(Object node, Object root, Sink sink);
+
+    /**
+     * Segment that selects at most one value
+     */
+    sealed interface Definite extends Segment {
+        /**
+         * @param node current node
+         * @return selected value or {@link #MISSING}
+         */
+        Object selectOne(Object node);
+
+        @Override
+        default boolean select(Object node, Object root, Sink sink) {
+            Object value = selectOne(node);
+            return value == MISSING || sink.accept(value);
+        }
+    }
+
+    /**
+     * Selects member of object by name. Names that are array indices also select elements of arrays
+     */
+    record Name(String name, int index) implements Definite {
+        Name(String name) {
+            this(name, Index.parse(name));
+        }
+
+        @Override
+        public Object selectOne(Object node) {
+            if (node instanceof JSONObject object) {
+                Object value = object.get(name);
+                if (value == null) {
+                    return object.containsKey(name) ? null : MISSING;
+                }
+
+                return value instanceof CircularReference<?> ? object.getObject(name) : value;
+            }
+
+            return index >= 0 && node instanceof JSONArray array && index < array.size()
+                    ? array.get(index)
+                    : MISSING;
+        }
+    }
+
+    /**
+     * Selects element of array by index, negative index counts from the end
+     */
+    record Index(int index) implements Definite {
+        /**
+         * @return non-negative index that {@code s} denotes, or {@code -1} if it's not an index
+         */
+        static int parse(String s) {
+            int length = s.length();
+            if (length == 0 || length > 9 || length > 1 && s.charAt(0) == '0') {
+                return -1;
+            }
+
+            int index = 0;
+            for (int i = 0; i < length; i++) {
+                char c = s.charAt(i);
+                if (c < '0' || c > '9') {
+                    return -1;
+                }
+
+                index = index * 10 + c - '0';
+            }
+
+            return index;
+        }
+
+        @Override
+        public Object selectOne(Object node) {
+            if (node instanceof JSONArray array) {
+                int i = index < 0 ? array.size() + index : index;
+                if (i >= 0 && i < array.size()) {
+                    return array.get(i);
+                }
+            }
+
+            return MISSING;
+        }
+    }
+
+    /**
+     * Selects all members of object or all elements of array
+     */
+    record Wildcard() implements Segment {
+        @Override
+        public boolean select(Object node, Object root, Sink sink) {
+            if (node instanceof JSONObject object) {
+                for (Object value : object.values()) {
+                    if (!sink.accept(value)) return false;
+                }
+            } else if (node instanceof JSONArray array) {
+                for (int i = 0; i < array.size(); i++) {
+                    if (!sink.accept(array.get(i))) return false;
+                }
+            }
+
+            return true;
+        }
+    }
+
+    /**
+     * Selects values of several names or indices, in order of selectors
+     */
+    record Union(List<Segment> selectors) implements Segment {
+        @Override
+        public boolean select(Object node, Object root, Sink sink) {
+            for (Segment selector : selectors) {
+                if (!selector.select(node, root, sink)) return false;
+            }
+
+            return true;
+        }
+    }
+
+    /**
+     * Selects elements of array from {@code start} inclusive to {@code end} exclusive with {@code step},
+     * with semantics of Python slices. Missing bounds are {@code null}
+     */
+    record Slice(Integer start, Integer end, int step) implements Segment {
+        @Override
+        public boolean select(Object node, Object root, Sink sink) {
+            if (!(node instanceof JSONArray array)) {
+                return true;
+            }
+
+            // Indices are long, so that adding step doesn't overflow
+            int size = array.size();
+            if (step > 0) {
+                int lower = start == null ? 0 : bound(start, size, 0, size);
+                int upper = end == null ? size : bound(end, size, 0, size);
+                for (long i = lower; i < upper; i += step) {
+                    if (!sink.accept(array.get((int) i))) return false;
+                }
+            } else {
+                int upper = start == null ? size - 1 : bound(start, size, -1, size - 1);
+                int lower = end == null ? -1 : bound(end, size, -1, size - 1);
+                for (long i = upper; i > lower; i += step) {
+                    if (!sink.accept(array.get((int) i))) return false;
+                }
+            }
+
+            return true;
+        }
+
+        private static int bound(int index, int size, int min, int max) {
+            return Math.min(Math.max(index < 0 ? size + index : index, min), max);
+        }
+    }
+
+    /**
+     * Selects members of object or elements of array that match filter
+     */
+    record Select(Filter filter) implements Segment {
+        @Override
+        public boolean select(Object node, Object root, Sink sink) {
+            if (node instanceof JSONObject object) {
+                for (Object value : object.values()) {
+                    if (filter.test(value, root) && !sink.accept(value)) return false;
+                }
+            } else if (node instanceof JSONArray array) {
+                for (int i = 0; i < array.size(); i++) {
+                    Object value = array.get(i);
+                    if (filter.test(value, root) && !sink.accept(value)) return false;
+                }
+            }
+
+            return true;
+        }
+    }
+
+    /**
+     * Applies {@code selector} to node and all its descendants, in document order
+     */
+    record Descendants(Segment selector) implements Segment {
+        @Override
+        public boolean select(Object node, Object root, Sink sink) {
+            if (!selector.select(node, root, sink)) {
+                return false;
+            }
+
+            if (node instanceof JSONObject object) {
+                for (Object value : object.values()) {
+                    if (!select(value, root, sink)) return false;
+                }
+            } else if (node instanceof JSONArray array) {
+                for (int i = 0; i < array.size(); i++) {
+                    if (!select(array.get(i), root, sink)) return false;
+                }
+            }
+
+            return true;
+        }
+    }
+}
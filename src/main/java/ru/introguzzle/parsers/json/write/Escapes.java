@@ -0,0 +1,48 @@
+package ru.introguzzle.parsers.json.write;
+
+/**
+ * Lookup table of escape sequences of ASCII characters in JSON strings
+ */
+final class Escapes {
+    /**
+     * Character is written as is
+     */
+    static final byte NONE = 0;
+
+    /**
+     * Character is written as {@code \}{@code u00XX}
+     */
+    static final byte UNICODE = 'u';
+
+    /**
+     * For every ASCII character either {@link #NONE}, {@link #UNICODE},
+     * or character that follows backslash in its escape sequence
+     */
+    static final byte[] TABLE = new byte[128];
+
+    static final byte[] HEX = "0123456789abcdef".getBytes();
+
+    static {
+        for (int i = 0; i < 0x20; i++) {
+            TABLE[i] = UNICODE;
+        }
+
+        TABLE['"'] = '"';
+        TABLE['\\'] = '\\';
+        TABLE['\b'] = 'b';
+        TABLE['\f'] = 'f';
+        TABLE['\n'] = 'n';
+        TABLE['\r'] = 'r';
+        TABLE['\t'] = 't';
+    }
+
+    private Escapes() {
+    }
+
+    /**
+     * @return {@code true} if {@code c} must be escaped
+     */
+    static boolean isEscaped(char c) {
+        return c < 128 && TABLE[c] != NONE;
+    }
+}
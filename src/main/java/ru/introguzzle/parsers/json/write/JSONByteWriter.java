@@ -0,0 +1,321 @@
+package ru.introguzzle.parsers.json.write;
+
+import org.jetbrains.annotations.NotNull;
+import ru.introguzzle.parsers.common.io.WrappedIOException;
+import ru.introguzzle.parsers.common.util.ScratchPool;
+import ru.introguzzle.parsers.json.entity.JSONStringConvertable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Writer of JSON entities to UTF-8 bytes.
+ * <p>
+ * Writes compact JSON, the same as {@link JSONWriter} in compact mode, directly into an internal
+ * {@code byte[]} that is reused after {@link #reset()}, so bytes for network or file output are produced
+ * without building a {@code String} and encoding it afterwards. ASCII characters that don't need
+ * escaping are copied as is, other characters are looked up in a 128-entry escape table or encoded
+ * to UTF-8 in place. Integers and integral doubles are formatted into the buffer without allocating strings.
+ * Nested entities whose serialized form is cached are copied from cache.
+ * </p>
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * JSONByteWriter writer = new JSONByteWriter();
+ * for (JSONObject response : responses) {
+ *     writer.reset();
+ *     writer.write(response).writeTo(outputStream);
+ * }
+ * }</pre>
+ *
+ * This class is not thread-safe.
+ */
+public class JSONByteWriter {
+    private static final int DEFAULT_CAPACITY = 256;
+    private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+    private static final byte[] TRUE = {'t', 'r', 'u', 'e'};
+    private static final byte[] FALSE = {'f', 'a', 'l', 's', 'e'};
+    private static final byte[] MIN_LONG = String.valueOf(Long.MIN_VALUE).getBytes();
+
+    /**
+     * Absolute value below which integral doubles are formatted without exponent by {@link Double#toString(double)}
+     */
+    private static final double PLAIN_DOUBLE_LIMIT = 1e7;
+
+    private static final ScratchPool<JSONByteWriter> WRITERS = new ScratchPool<>(
+            JSONByteWriter::new, JSONByteWriter::capacity, 64 * 1024);
+
+    private byte[] buffer;
+    private int count;
+
+    public JSONByteWriter() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity initial capacity of buffer in bytes
+     */
+    public JSONByteWriter(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative: " + capacity);
+        }
+
+        this.buffer = new byte[capacity];
+    }
+
+    /**
+     * Serializes {@code entity} to UTF-8 bytes of compact JSON, using a thread-local writer
+     *
+     * @param entity entity to write
+     * @return new array of bytes
+     */
+    public static byte @NotNull [] toBytes(@NotNull JSONStringConvertable entity) {
+        JSONByteWriter writer = WRITERS.acquire();
+        try {
+            writer.reset();
+            return writer.write(entity).toByteArray();
+        } finally {
+            WRITERS.release(writer);
+        }
+    }
+
+    /**
+     * @return number of written bytes
+     */
+    public int size() {
+        return count;
+    }
+
+    public int capacity() {
+        return buffer.length;
+    }
+
+    /**
+     * Discards written bytes, keeping the buffer
+     */
+    public void reset() {
+        count = 0;
+    }
+
+    /**
+     * @return new array of written bytes
+     */
+    public byte @NotNull [] toByteArray() {
+        return Arrays.copyOf(buffer, count);
+    }
+
+    /**
+     * Returns buffer that wraps written bytes. It's valid until this writer is written to or reset
+     *
+     * @return read-only buffer of written bytes
+     */
+    public @NotNull ByteBuffer toByteBuffer() {
+        return ByteBuffer.wrap(buffer, 0, count).asReadOnlyBuffer();
+    }
+
+    /**
+     * Copies written bytes to {@code out}
+     *
+     * @param out destination
+     * @throws java.nio.BufferOverflowException if {@code out} doesn't have enough space
+     */
+    public void writeTo(@NotNull ByteBuffer out) {
+        out.put(buffer, 0, count);
+    }
+
+    /**
+     * Copies written bytes to {@code out}
+     *
+     * @param out destination
+     * @throws WrappedIOException if an I/O error occurs
+     */
+    public void writeTo(@NotNull OutputStream out) {
+        try {
+            out.write(buffer, 0, count);
+        } catch (IOException e) {
+            throw new WrappedIOException(e);
+        }
+    }
+
+    /**
+     * Appends {@code entity} as compact JSON
+     *
+     * @param entity entity to write
+     * @return this writer
+     */
+    public @NotNull JSONByteWriter write(@NotNull JSONStringConvertable entity) {
+        writeAscii(entity.getOpeningSymbol());
+        Iterator<?> iterator = entity.getIterator();
+        while (iterator.hasNext()) {
+            Object value = iterator.next();
+            if (value instanceof Map.Entry<?, ?> entry) {
+                writeString(String.valueOf(entry.getKey()));
+                writeByte(':');
+                value = entry.getValue();
+            }
+
+            writeValue(value);
+            if (iterator.hasNext()) {
+                writeByte(',');
+            }
+        }
+
+        writeAscii(entity.getClosingSymbol());
+        return this;
+    }
+
+    private void writeValue(Object value) {
+        switch (value) {
+            case null -> writeBytes(NULL);
+            case JSONStringConvertable convertable when convertable.isSerializationCached() ->
+                    writeBytes(convertable.toJSONBytes());
+            case JSONStringConvertable convertable -> write(convertable);
+            case String s -> writeString(s);
+            case Boolean b -> writeBytes(b ? TRUE : FALSE);
+            case Integer i -> writeLong(i);
+            case Long l -> writeLong(l);
+            case Short s -> writeLong(s);
+            case Byte b -> writeLong(b);
+            case Double d -> writeDouble(d);
+            case Number n -> writeAscii(n.toString());
+            default -> writeBytes(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(capacity, buffer.length * 2));
+        }
+    }
+
+    private void writeByte(char c) {
+        ensureCapacity(count + 1);
+        buffer[count++] = (byte) c;
+    }
+
+    private void writeBytes(byte[] bytes) {
+        ensureCapacity(count + bytes.length);
+        System.arraycopy(bytes, 0, buffer, count, bytes.length);
+        count += bytes.length;
+    }
+
+    /**
+     * Writes string that is known to consist of ASCII characters only
+     */
+    private void writeAscii(String s) {
+        int length = s.length();
+        ensureCapacity(count + length);
+        for (int i = 0; i < length; i++) {
+            buffer[count++] = (byte) s.charAt(i);
+        }
+    }
+
+    private void writeLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            writeBytes(MIN_LONG);
+            return;
+        }
+
+        ensureCapacity(count + 20);
+        if (value < 0) {
+            buffer[count++] = '-';
+            value = -value;
+        }
+
+        int end = count + digits(value);
+        int position = end;
+        do {
+            buffer[--position] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+
+        count = end;
+    }
+
+    private static int digits(long value) {
+        int digits = 1;
+        for (long limit = 10; digits < 19 && value >= limit; limit *= 10) {
+            digits++;
+        }
+
+        return digits;
+    }
+
+    /**
+     * Writes double the same as {@link Double#toString(double)}, avoiding the string for integral values
+     */
+    private void writeDouble(double value) {
+        if (value == (long) value && Math.abs(value) < PLAIN_DOUBLE_LIMIT
+                && (value != 0 || Double.doubleToRawLongBits(value) == 0)) {
+            writeLong((long) value);
+            ensureCapacity(count + 2);
+            buffer[count++] = '.';
+            buffer[count++] = '0';
+        } else {
+            writeAscii(Double.toString(value));
+        }
+    }
+
+    private void writeString(String s) {
+        int length = s.length();
+        // Enough for the string if it's all ASCII without escapes, checked again on slow path
+        ensureCapacity(count + length + 2);
+        byte[] buffer = this.buffer;
+        int count = this.count;
+        buffer[count++] = '"';
+
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (c < 128 && Escapes.TABLE[c] == Escapes.NONE) {
+                buffer[count++] = (byte) c;
+                continue;
+            }
+
+            // At most 6 bytes per character and a quote
+            this.count = count;
+            ensureCapacity(count + 6 + (length - i) + 1);
+            buffer = this.buffer;
+
+            if (c < 128) {
+                byte escape = Escapes.TABLE[c];
+                buffer[count++] = '\\';
+                buffer[count++] = escape;
+                if (escape == Escapes.UNICODE) {
+                    buffer[count++] = '0';
+                    buffer[count++] = '0';
+                    buffer[count++] = Escapes.HEX[c >> 4];
+                    buffer[count++] = Escapes.HEX[c & 0xF];
+                }
+            } else if (c < 0x800) {
+                buffer[count++] = (byte) (0xC0 | c >> 6);
+                buffer[count++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isSurrogate(c)) {
+                char next;
+                if (Character.isHighSurrogate(c) && i + 1 < length
+                        && Character.isLowSurrogate(next = s.charAt(i + 1))) {
+                    int code = Character.toCodePoint(c, next);
+                    buffer[count++] = (byte) (0xF0 | code >> 18);
+                    buffer[count++] = (byte) (0x80 | code >> 12 & 0x3F);
+                    buffer[count++] = (byte) (0x80 | code >> 6 & 0x3F);
+                    buffer[count++] = (byte) (0x80 | code & 0x3F);
+                    i++;
+                } else {
+                    // Malformed, replaced the same as by String.getBytes
+                    buffer[count++] = '?';
+                }
+            } else {
+                buffer[count++] = (byte) (0xE0 | c >> 12);
+                buffer[count++] = (byte) (0x80 | c >> 6 & 0x3F);
+                buffer[count++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+
+        buffer[count++] = '"';
+        this.count = count;
+    }
+}
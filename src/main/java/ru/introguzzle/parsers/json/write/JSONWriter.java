@@ -0,0 +1,263 @@
+package ru.introguzzle.parsers.json.write;
+
+import org.jetbrains.annotations.NotNull;
+import ru.introguzzle.parsers.common.io.WrappedIOException;
+import ru.introguzzle.parsers.json.entity.JSONStringConvertable;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Streaming writer of JSON entities.
+ * <p>
+ * Writes {@link JSONStringConvertable} entities directly to an {@link Appendable}, such as
+ * {@link StringBuilder} or {@link java.io.Writer}, or to an {@link OutputStream} in UTF-8, without
+ * building intermediate strings for nested entities, so memory used by writing doesn't depend on size
+ * of output. Indentation strings are computed once and shared by all writers.
+ * </p>
+ * <p>
+ * In pretty mode output is the same as of {@link JSONStringConvertable#toJSONString()}: entries on
+ * separate lines, indented with tabs. In compact mode output has no whitespace at all. Keys and
+ * string values are escaped, so output is valid JSON for arbitrary strings. In compact mode nested
+ * entities whose serialized form is cached are written from cache.
+ * </p>
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * try (JSONWriter writer = JSONWriter.compact(outputStream)) {
+ *     writer.write(jsonObject);
+ * }
+ * }</pre>
+ *
+ * This class is not thread-safe.
+ */
+public class JSONWriter implements Flushable, Closeable {
+    private static final String NEW_LINE = System.lineSeparator();
+
+    /**
+     * Indentation strings by level
+     */
+    private static final String[] INDENTS = new String[32];
+
+    static {
+        for (int i = 0; i < INDENTS.length; i++) {
+            INDENTS[i] = JSONStringConvertable.TAB.repeat(i);
+        }
+    }
+
+    private final Appendable out;
+    private final boolean compact;
+
+    /**
+     * Writer that was created by this instance and must be flushed after every entity
+     */
+    private final BufferedWriter buffer;
+
+    /**
+     * Constructs writer that writes to {@code out}
+     *
+     * @param out     destination of output
+     * @param compact whether to write compact JSON
+     */
+    public JSONWriter(@NotNull Appendable out, boolean compact) {
+        this.out = Objects.requireNonNull(out, "out");
+        this.compact = compact;
+        this.buffer = null;
+    }
+
+    /**
+     * Constructs writer that writes to {@code out} in UTF-8
+     *
+     * @param out     destination of output
+     * @param compact whether to write compact JSON
+     */
+    public JSONWriter(@NotNull OutputStream out, boolean compact) {
+        this.buffer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        this.out = buffer;
+        this.compact = compact;
+    }
+
+    public static @NotNull JSONWriter pretty(@NotNull Appendable out) {
+        return new JSONWriter(out, false);
+    }
+
+    public static @NotNull JSONWriter compact(@NotNull Appendable out) {
+        return new JSONWriter(out, true);
+    }
+
+    public static @NotNull JSONWriter pretty(@NotNull OutputStream out) {
+        return new JSONWriter(out, false);
+    }
+
+    public static @NotNull JSONWriter compact(@NotNull OutputStream out) {
+        return new JSONWriter(out, true);
+    }
+
+    public boolean isCompact() {
+        return compact;
+    }
+
+    /**
+     * Writes {@code entity} as JSON
+     *
+     * @param entity entity to write
+     * @return this writer
+     * @throws WrappedIOException if an I/O error occurs
+     */
+    public @NotNull JSONWriter write(@NotNull JSONStringConvertable entity) {
+        try {
+            out.append(entity.getOpeningSymbol());
+            if (compact) {
+                writeCompactBody(entity);
+            } else {
+                out.append(NEW_LINE);
+                writePrettyBody(entity, JSONStringConvertable.INITIAL_LEVEL);
+            }
+
+            out.append(entity.getClosingSymbol());
+            if (buffer != null) {
+                buffer.flush();
+            }
+        } catch (IOException e) {
+            throw new WrappedIOException(e);
+        }
+
+        return this;
+    }
+
+    private static String indent(int level) {
+        return level < INDENTS.length ? INDENTS[level] : JSONStringConvertable.TAB.repeat(level);
+    }
+
+    private void writePrettyBody(JSONStringConvertable entity, int level) throws IOException {
+        String indent = indent(level);
+        Iterator<?> iterator = entity.getIterator();
+        while (iterator.hasNext()) {
+            Object value = iterator.next();
+            out.append(indent);
+            if (value instanceof Map.Entry<?, ?> entry) {
+                writeString(String.valueOf(entry.getKey()));
+                out.append(": ");
+                value = entry.getValue();
+            }
+
+            if (value instanceof JSONStringConvertable convertable) {
+                out.append(convertable.getOpeningSymbol());
+                if (convertable.size() != 0) {
+                    out.append(NEW_LINE);
+                    writePrettyBody(convertable, level + 1);
+                    out.append(indent);
+                }
+
+                out.append(convertable.getClosingSymbol());
+            } else {
+                writeValue(value);
+            }
+
+            if (iterator.hasNext()) {
+                out.append(',');
+            }
+
+            out.append(NEW_LINE);
+        }
+    }
+
+    private void writeCompactBody(JSONStringConvertable entity) throws IOException {
+        Iterator<?> iterator = entity.getIterator();
+        while (iterator.hasNext()) {
+            Object value = iterator.next();
+            if (value instanceof Map.Entry<?, ?> entry) {
+                writeString(String.valueOf(entry.getKey()));
+                out.append(':');
+                value = entry.getValue();
+            }
+
+            if (value instanceof JSONStringConvertable convertable) {
+                if (convertable.isSerializationCached()) {
+                    out.append(convertable.toJSONStringCompact());
+                } else {
+                    out.append(convertable.getOpeningSymbol());
+                    writeCompactBody(convertable);
+                    out.append(convertable.getClosingSymbol());
+                }
+            } else {
+                writeValue(value);
+            }
+
+            if (iterator.hasNext()) {
+                out.append(',');
+            }
+        }
+    }
+
+    private void writeValue(Object value) throws IOException {
+        if (value instanceof String s) {
+            writeString(s);
+        } else {
+            out.append(String.valueOf(value));
+        }
+    }
+
+    /**
+     * Writes quoted string, escaping quotes, backslashes and control characters
+     */
+    private void writeString(String s) throws IOException {
+        out.append('"');
+        int start = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (!Escapes.isEscaped(c)) {
+                continue;
+            }
+
+            out.append(s, start, i).append('\\');
+            byte escape = Escapes.TABLE[c];
+            if (escape == Escapes.UNICODE) {
+                out.append("u00")
+                        .append((char) Escapes.HEX[c >> 4])
+                        .append((char) Escapes.HEX[c & 0xF]);
+            } else {
+                out.append((char) escape);
+            }
+
+            start = i + 1;
+        }
+
+        out.append(s, start, s.length()).append('"');
+    }
+
+    @Override
+    public void flush() {
+        if (out instanceof Flushable flushable) {
+            try {
+                flushable.flush();
+            } catch (IOException e) {
+                throw new WrappedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Closes destination of output if it's {@link Closeable}
+     *
+     * @throws WrappedIOException if an I/O error occurs
+     */
+    @Override
+    public void close() {
+        if (out instanceof Closeable closeable) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                throw new WrappedIOException(e);
+            }
+        }
+    }
+}
@@ -1,14 +1,22 @@
 package ru.introguzzle.parsers.xml.parse;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import ru.introguzzle.parsers.common.io.IO;
+import ru.introguzzle.parsers.common.parse.AsyncParsing;
 import ru.introguzzle.parsers.common.parse.BaseParser;
+import ru.introguzzle.parsers.common.parse.ParseLimits;
 import ru.introguzzle.parsers.xml.entity.XMLDocument;
 
 import java.io.Serial;
 import java.io.Serializable;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
 
 /**
  * Abstract base class for XML parsers.
@@ -27,9 +35,9 @@ public abstract class Parser implements Serializable, BaseParser<XMLDocument> {
 
     /**
      * The executor responsible for running asynchronous parsing tasks.
-     * Default is a fixed thread pool based on the number of available processors.
+     * If it's {@code null} (default), the shared {@link AsyncParsing#sharedExecutor()} is used.
      */
-    protected Executor executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    protected transient @Nullable Executor executor;
 
     /**
      * The tokenizer that breaks down XML data into tokens.
@@ -37,17 +45,33 @@ public abstract class Parser implements Serializable, BaseParser<XMLDocument> {
      */
     protected Tokenizer tokenizer = new Tokenizer();
 
+    /**
+     * Limits of resources spent on a single document.
+     * By default, limits defined by {@link ParseLimits#defaults()} are used.
+     */
+    protected ParseLimits limits = ParseLimits.defaults();
+
     /**
      * Sets a executor for handling asynchronous tasks.
      *
-     * @param executor the custom {@link Executor} to be used.
+     * @param executor the custom {@link Executor} to be used, or {@code null} to use the shared one.
      * @return the current {@link Parser} instance for chaining.
      */
-    public final Parser setExecutor(@NotNull Executor executor) {
+    public final Parser setExecutor(@Nullable Executor executor) {
         this.executor = executor;
         return this;
     }
 
+    /**
+     * Returns the executor used for asynchronous parsing.
+     *
+     * @return the custom executor if it's set, otherwise {@link AsyncParsing#sharedExecutor()}.
+     */
+    public final @NotNull Executor getExecutor() {
+        Executor executor = this.executor;
+        return executor == null ? AsyncParsing.sharedExecutor() : executor;
+    }
+
     /**
      * Sets a tokenizer for parsing XML data.
      *
@@ -68,6 +92,26 @@ public abstract class Parser implements Serializable, BaseParser<XMLDocument> {
         return tokenizer;
     }
 
+    /**
+     * Sets limits of resources spent on a single document.
+     *
+     * @param limits the {@link ParseLimits} to be checked while parsing.
+     * @return the current {@link Parser} instance for chaining.
+     */
+    public final Parser setLimits(@NotNull ParseLimits limits) {
+        this.limits = limits;
+        return this;
+    }
+
+    /**
+     * Returns limits of resources spent on a single document.
+     *
+     * @return the {@link ParseLimits} instance.
+     */
+    public final @NotNull ParseLimits getLimits() {
+        return limits;
+    }
+
     /**
      * Synchronously parses the given XML data into an {@link XMLDocument}.
      * This method is to be implemented by subclasses, as the parsing logic depends on the
@@ -79,6 +123,33 @@ public abstract class Parser implements Serializable, BaseParser<XMLDocument> {
     @Override
     public abstract @NotNull XMLDocument parse(@NotNull String data);
 
+    /**
+     * Parses UTF-8 encoded XML file into an {@link XMLDocument}.
+     *
+     * @param path the path to the file
+     * @return an {@link XMLDocument} representing the parsed XML
+     * @throws ru.introguzzle.parsers.common.io.WrappedIOException if an I/O error occurs
+     * @see #parse(Path, Charset)
+     */
+    @Override
+    public final @NotNull XMLDocument parse(@NotNull Path path) {
+        return parse(path, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parses XML file into an {@link XMLDocument}.
+     * File is mapped into memory with {@link IO#map(Path)} and decoded straight from the mapped region,
+     * so raw bytes are never copied onto the heap.
+     *
+     * @param path the path to the file
+     * @param encoding the charset to use for decoding the file's content
+     * @return an {@link XMLDocument} representing the parsed XML
+     * @throws ru.introguzzle.parsers.common.io.WrappedIOException if an I/O error occurs
+     */
+    public final @NotNull XMLDocument parse(@NotNull Path path, @NotNull Charset encoding) {
+        return parse(encoding.decode(IO.map(path)).toString());
+    }
+
     /**
      * Asynchronously parses the given XML data into an {@link XMLDocument}.
      * This method runs the {@link #parse(String)} method asynchronously using the provided
@@ -88,6 +159,32 @@ public abstract class Parser implements Serializable, BaseParser<XMLDocument> {
      * @return a {@link CompletableFuture} that will contain the parsed {@link XMLDocument}.
      */
     public final @NotNull CompletableFuture<XMLDocument> parseAsync(@NotNull String data) {
-        return CompletableFuture.supplyAsync(() -> parse(data), executor);
+        return CompletableFuture.supplyAsync(() -> parse(data), getExecutor());
+    }
+
+    /**
+     * Asynchronously parses all given XML strings, running at most
+     * {@link AsyncParsing#DEFAULT_CONCURRENCY} parses at the same time.
+     *
+     * @param data the XML strings.
+     * @return a {@link CompletableFuture} that will contain parsed documents in order of {@code data}.
+     * @see #parseAllAsync(Collection, int)
+     */
+    public final @NotNull CompletableFuture<List<XMLDocument>> parseAllAsync(@NotNull Collection<String> data) {
+        return parseAllAsync(data, AsyncParsing.DEFAULT_CONCURRENCY);
+    }
+
+    /**
+     * Asynchronously parses all given XML strings using the executor of this parser.
+     *
+     * @param data the XML strings.
+     * @param maxConcurrency the maximal number of parses that run at the same time.
+     * @return a {@link CompletableFuture} that will contain parsed documents in order of {@code data},
+     * or complete exceptionally with the first failure.
+     * @throws IllegalArgumentException if {@code maxConcurrency} is not positive.
+     */
+    public final @NotNull CompletableFuture<List<XMLDocument>> parseAllAsync(@NotNull Collection<String> data,
+                                                                             int maxConcurrency) {
+        return AsyncParsing.supplyAll(data, this::parse, getExecutor(), maxConcurrency);
     }
 }
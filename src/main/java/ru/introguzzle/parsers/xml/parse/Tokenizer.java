@@ -2,6 +2,8 @@ package ru.introguzzle.parsers.xml.parse;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import ru.introguzzle.parsers.common.parse.ParseLimits;
+import ru.introguzzle.parsers.common.util.ScratchPool;
 import ru.introguzzle.parsers.xml.meta.Encoding;
 import ru.introguzzle.parsers.xml.meta.Version;
 
@@ -10,61 +12,117 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Stack;
 
 class Tokenizer implements Serializable {
     @Serial
     private static final long serialVersionUID = -2340475536496178165L;
 
+    private static final ScratchPool<ElementHeadToken[]> STACKS
+            = new ScratchPool<>(() -> new ElementHeadToken[16], stack -> stack.length);
+
     public @NotNull List<Token> tokenize(@Nullable String data) {
+        return tokenize(data, ParseLimits.NONE);
+    }
+
+    /**
+     * Splits data into tokens, checking limits on the fly. Positions in messages are indices of tokens
+     *
+     * @param data the XML data
+     * @param limits limits to check
+     * @return tokens
+     * @throws XMLParseException if data is malformed or any limit is exceeded
+     */
+    public @NotNull List<Token> tokenize(@Nullable String data, @NotNull ParseLimits limits) {
         List<Token> tokens = new ArrayList<>();
         if (data == null) return tokens;
 
+        if (data.length() > limits.getMaxDocumentLength()) {
+            throw new XMLParseException("Document length exceeds limit of " + limits.getMaxDocumentLength());
+        }
+
         List<String> lines = split(data);
         if (!lines.getFirst().startsWith("<?xml")) {
             throw new XMLParseException("Invalid syntax");
         }
 
         tokens.add(getDeclarationToken(lines.getFirst()));
-        Stack<ElementHeadToken> stack = new Stack<>();
+        ElementHeadToken[] stack = STACKS.acquire();
+        int depth = 0;
         boolean seenRoot = false;
 
-        for (int i = 1; i < lines.size(); i++) {
-            Token token = handle(lines.get(i));
+        // Number of children of elements on the stack, by depth
+        int[] children = ScratchPool.INT_ARRAYS.acquire();
 
-            if (token instanceof ElementHeadToken head) {
-                if (!stack.isEmpty()) {
-                    stack.peek().addChild(head);
+        try {
+            for (int i = 1; i < lines.size(); i++) {
+                String line = lines.get(i);
+                if (line.length() > limits.getMaxStringLength()) {
+                    throw exceeded("String length", limits.getMaxStringLength(), i);
                 }
 
-                stack.push(head);
-                if (!seenRoot) {
-                    seenRoot = true;
-                    tokens.add(head);
-                } else if (stack.isEmpty()) {
-                    throw new XMLParseException("More than one root found");
+                Token token = handle(line);
+                if (depth > 0 && !(token instanceof ElementTailToken) && ++children[depth - 1] > limits.getMaxEntries()) {
+                    throw exceeded("Number of entries", limits.getMaxEntries(), i);
                 }
 
-            } else if (token instanceof ElementTailToken tail) {
-                if (stack.isEmpty()) {
-                    throw new XMLParseException("No head match found for tail with name: " + tail.getName());
+                if (token instanceof ElementToken element && element.getAttributes().size() > limits.getMaxEntries()) {
+                    throw exceeded("Number of entries", limits.getMaxEntries(), i);
                 }
 
-                stack.pop();
-            } else if (!stack.isEmpty()) {
-                stack.peek().addChild(token);
-            } else {
-                tokens.add(token);
+                if (token instanceof ElementHeadToken head) {
+                    if (depth > 0) {
+                        stack[depth - 1].addChild(head);
+                    }
+
+                    if (depth == limits.getMaxDepth()) {
+                        throw exceeded("Nesting depth", limits.getMaxDepth(), i);
+                    }
+
+                    if (depth == stack.length) {
+                        stack = Arrays.copyOf(stack, depth * 2);
+                    }
+
+                    if (depth == children.length) {
+                        children = Arrays.copyOf(children, depth * 2);
+                    }
+
+                    children[depth] = 0;
+                    stack[depth++] = head;
+                    if (!seenRoot) {
+                        seenRoot = true;
+                        tokens.add(head);
+                    }
+
+                } else if (token instanceof ElementTailToken tail) {
+                    if (depth == 0) {
+                        throw new XMLParseException("No head match found for tail with name: " + tail.getName());
+                    }
+
+                    stack[--depth] = null;
+                } else if (depth > 0) {
+                    stack[depth - 1].addChild(token);
+                } else {
+                    tokens.add(token);
+                }
             }
-        }
 
-        if (!stack.isEmpty()) {
-            throw new XMLParseException("Unmatched tags");
+            if (depth != 0) {
+                throw new XMLParseException("Unmatched tags");
+            }
+        } finally {
+            // Pooled stack must not retain tokens of this document
+            Arrays.fill(stack, 0, depth, null);
+            STACKS.release(stack);
+            ScratchPool.INT_ARRAYS.release(children);
         }
 
         return tokens;
     }
 
+    private static XMLParseException exceeded(String limit, int value, int token) {
+        return new XMLParseException(limit + " exceeds limit of " + value + " at token " + token);
+    }
+
     private Token getDeclarationToken(String declaration) {
         List<AttributeToken> attributes = getAttributes(declaration);
 
@@ -95,11 +153,13 @@ class Tokenizer implements Serializable {
     @SuppressWarnings("ALL")
     private static List<String> splitAttributes(String line) {
         List<String> attributes = new ArrayList<>();
-        StringBuilder currentAttribute = new StringBuilder();
+        StringBuilder currentAttribute = ScratchPool.STRING_BUILDERS.acquire();
+        currentAttribute.setLength(0);
         boolean inQuotes = false;
         char quoteChar = '\0';
 
-        for (char c : line.toCharArray()) {
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
             if (c == '"' || c == '\'') {
                 if (inQuotes && c == quoteChar) {
                     inQuotes = false;
@@ -123,6 +183,7 @@ class Tokenizer implements Serializable {
             attributes.add(currentAttribute.toString().strip());
         }
 
+        ScratchPool.STRING_BUILDERS.release(currentAttribute);
         return attributes;
     }
 
@@ -189,7 +250,7 @@ class Tokenizer implements Serializable {
 
     private List<String> split(@NotNull String data) {
         List<String> parts = new ArrayList<>();
-        StringBuilder buffer = null;
+        StringBuilder buffer = ScratchPool.STRING_BUILDERS.acquire();
         boolean inCharacterData = false;
 
         for (String part : data.split("(?=<)|(?<=>)")) {
@@ -200,7 +261,8 @@ class Tokenizer implements Serializable {
                 }
 
                 inCharacterData = true;
-                buffer = new StringBuilder(part);
+                buffer.setLength(0);
+                buffer.append(part);
             } else if (inCharacterData) {
                 buffer.append(part);
                 if (part.endsWith(CharacterDataToken.TAIL)) {
@@ -215,6 +277,7 @@ class Tokenizer implements Serializable {
             }
         }
 
+        ScratchPool.STRING_BUILDERS.release(buffer);
         return parts;
     }
 }
@@ -15,7 +15,7 @@ class XMLParser extends Parser {
 
     @Override
     public @NotNull XMLDocument parse(@NotNull String data) throws XMLParseException {
-        List<Token> tokens = getTokenizer().tokenize(data);
+        List<Token> tokens = getTokenizer().tokenize(data, getLimits());
 
         Token first = tokens.getFirst();
         if (!(first instanceof DeclarationToken declarationToken)) {
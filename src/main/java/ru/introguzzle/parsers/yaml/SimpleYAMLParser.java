@@ -1,9 +1,11 @@
 package ru.introguzzle.parsers.yaml;
 
 import org.jetbrains.annotations.NotNull;
+import ru.introguzzle.parsers.common.parse.ParseLimits;
 import ru.introguzzle.parsers.common.util.Line;
 import ru.introguzzle.parsers.common.util.Line.Pair;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Stack;
 
@@ -12,12 +14,23 @@ public class SimpleYAMLParser extends YAMLParser {
         super(spacesCount);
     }
 
+    public SimpleYAMLParser(int spacesCount, @NotNull ParseLimits limits) {
+        super(spacesCount, limits);
+    }
+
     @Override
     public @NotNull YAMLDocument parse(@NotNull String data) {
+        if (data.length() > limits.getMaxDocumentLength()) {
+            throw new YAMLParseException("Document length exceeds limit of " + limits.getMaxDocumentLength());
+        }
+
         YAMLDocument root = new YAMLDocument();
         Stack<YAMLDocument> stack = new Stack<>();
         stack.push(root);
 
+        // Number of entries of documents on the stack, by level
+        int[] entries = new int[8];
+
         List<YAMLLine> lines = Line.stream(data, s -> new YAMLLine(s, countLevel(s)))
                 .map(YAMLLine::deleteComment)
                 .map(YAMLLine::strip)
@@ -25,11 +38,16 @@ public class SimpleYAMLParser extends YAMLParser {
 
         int currentLevel = 0;
 
-        for (YAMLLine line : lines) {
+        for (int number = 1; number <= lines.size(); number++) {
+            YAMLLine line = lines.get(number - 1);
             if (line.contains("\t")) {
                 throw new YAMLParseException("Tabs are not allowed");
             }
 
+            if (line.length() > limits.getMaxStringLength()) {
+                throw new YAMLParseException("String length exceeds limit of " + limits.getMaxStringLength() + " at line " + number);
+            }
+
             int level = line.level;
             Pair pair = line.toPair();
             String key = pair.key().toString();
@@ -39,6 +57,15 @@ public class SimpleYAMLParser extends YAMLParser {
                     throw new YAMLParseException("Invalid indentation at line: " + line);
                 }
 
+                if (level >= limits.getMaxDepth()) {
+                    throw new YAMLParseException("Nesting depth exceeds limit of " + limits.getMaxDepth() + " at line " + number);
+                }
+
+                if (level == entries.length) {
+                    entries = Arrays.copyOf(entries, level * 2);
+                }
+
+                entries[level] = 0;
                 currentLevel = level;
             } else if (level < currentLevel) {
                 while (level < currentLevel) {
@@ -47,6 +74,10 @@ public class SimpleYAMLParser extends YAMLParser {
                 }
             }
 
+            if (++entries[currentLevel] > limits.getMaxEntries()) {
+                throw new YAMLParseException("Number of entries exceeds limit of " + limits.getMaxEntries() + " at line " + number);
+            }
+
             YAMLDocument currentDocument = stack.peek();
 
             if (line.isSimpleEntry()) {
@@ -2,6 +2,7 @@ package ru.introguzzle.parsers.yaml;
 
 import lombok.Getter;
 import org.jetbrains.annotations.NotNull;
+import ru.introguzzle.parsers.common.parse.ParseLimits;
 import ru.introguzzle.parsers.common.util.Line;
 
 import java.util.function.Supplier;
@@ -9,12 +10,26 @@ import java.util.function.Supplier;
 public abstract class YAMLParser implements Parser {
     private final int spacesCount;
 
+    /**
+     * Limits of resources spent on a single document
+     */
+    protected final ParseLimits limits;
+
     public YAMLParser(int spacesCount) {
+        this(spacesCount, ParseLimits.defaults());
+    }
+
+    public YAMLParser(int spacesCount, @NotNull ParseLimits limits) {
         if (spacesCount != 2 && spacesCount != 4) {
             throw new IllegalArgumentException("Spaces count must be 2 or 4");
         }
 
         this.spacesCount = spacesCount;
+        this.limits = limits;
+    }
+
+    public final @NotNull ParseLimits getLimits() {
+        return limits;
     }
 
     @Override
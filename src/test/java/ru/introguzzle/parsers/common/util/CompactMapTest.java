@@ -0,0 +1,105 @@
+package ru.introguzzle.parsers.common.util;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class CompactMapTest {
+    @Test
+    public void test_matches_linked_hash_map() {
+        Map<String, Integer> expected = new LinkedHashMap<>();
+        Map<String, Integer> map = new CompactMap<>();
+
+        // Crosses threshold in both directions
+        for (int i = 0; i < 40; i++) {
+            assertEquals(expected.put("k" + i, i), map.put("k" + i, i));
+        }
+
+        assertEquals(expected.put("k3", -3), map.put("k3", -3));
+        for (int i = 0; i < 40; i += 3) {
+            assertEquals(expected.remove("k" + i), map.remove("k" + i));
+        }
+
+        assertEquals(expected, map);
+        assertEquals(expected.hashCode(), map.hashCode());
+        assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(map.keySet()));
+
+        for (int i = 0; i < 40; i++) {
+            assertEquals(expected.get("k" + i), map.get("k" + i));
+            assertEquals(expected.containsKey("k" + i), map.containsKey("k" + i));
+        }
+
+        for (int i = 1; i < 40; i++) {
+            expected.remove("k" + i);
+            map.remove("k" + i);
+        }
+
+        assertEquals(expected, map);
+        assertNull(map.get("k1"));
+    }
+
+    @Test
+    public void test_null_keys_and_values() {
+        Map<String, Object> map = new CompactMap<>();
+        map.put(null, 1);
+        map.put("a", null);
+
+        assertEquals(1, map.get(null));
+        assertTrue(map.containsKey("a"));
+        assertTrue(map.containsValue(null));
+        assertEquals("x", map.getOrDefault("b", "x"));
+        assertNull(map.getOrDefault("a", "x"));
+    }
+
+    @Test
+    public void test_iterator_remove_and_set_value() {
+        Map<String, Integer> map = new CompactMap<>();
+        for (int i = 0; i < 12; i++) {
+            map.put(Integer.toString(i), i);
+        }
+
+        Iterator<Map.Entry<String, Integer>> iterator = map.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Integer> entry = iterator.next();
+            if (entry.getValue() % 2 == 0) {
+                iterator.remove();
+            } else {
+                entry.setValue(-entry.getValue());
+            }
+        }
+
+        List<Integer> values = new ArrayList<>(map.values());
+        assertEquals(List.of(-1, -3, -5, -7, -9, -11), values);
+        assertEquals(-7, (int) map.get("7"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void test_serialization() throws Exception {
+        Map<String, Integer> map = new CompactMap<>();
+        for (int i = 0; i < 10; i++) {
+            map.put("k" + i, i);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(map);
+        }
+
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            Map<String, Integer> copy = (Map<String, Integer>) in.readObject();
+            assertEquals(map, copy);
+            assertEquals(9, (int) copy.get("k9"));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package ru.introguzzle.parsers.common.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class PersistentMapTest {
+    @Test
+    public void test_matches_linked_hash_map() {
+        Map<String, Integer> expected = new LinkedHashMap<>();
+        PersistentMap<String, Integer> map = PersistentMap.empty();
+
+        for (int i = 0; i < 5_000; i++) {
+            expected.put("k" + i, i);
+            map = map.with("k" + i, i);
+        }
+
+        for (int i = 0; i < 5_000; i += 3) {
+            expected.put("k" + i, -i);
+            map = map.with("k" + i, -i);
+        }
+
+        // Removes enough entries to compact
+        for (int i = 0; i < 5_000; i += 2) {
+            expected.remove("k" + i);
+            map = map.without("k" + i);
+        }
+
+        assertEquals(expected, map);
+        assertEquals(expected.hashCode(), map.hashCode());
+        assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(map.keySet()));
+        for (int i = 0; i < 5_000; i++) {
+            assertEquals(expected.get("k" + i), map.get("k" + i));
+        }
+    }
+
+    @Test
+    public void test_colliding_keys() {
+        // "Aa" and "BB" have equal hash codes
+        PersistentMap<String, Integer> map = PersistentMap.<String, Integer>empty()
+                .with("Aa", 1)
+                .with("BB", 2)
+                .with("AaBB", 3)
+                .with("BBAa", 4);
+
+        assertEquals(Integer.valueOf(1), map.get("Aa"));
+        assertEquals(Integer.valueOf(4), map.get("BBAa"));
+
+        PersistentMap<String, Integer> removed = map.without("BB").without("AaBB");
+        assertEquals(Map.of("Aa", 1, "BBAa", 4), removed);
+        assertEquals(4, map.size());
+        assertNull(removed.get("BB"));
+    }
+
+    @Test
+    public void test_versions_are_independent() {
+        PersistentMap<String, Integer> v1 = PersistentMap.of(Map.of("a", 1));
+        PersistentMap<String, Integer> v2 = v1.with("b", 2);
+
+        assertEquals(Map.of("a", 1), v1);
+        assertEquals(Map.of("a", 1, "b", 2), v2);
+        assertSame(v2, v2.with("b", 2));
+        assertSame(v2, v2.without("c"));
+        assertThrows(NullPointerException.class, () -> v1.with(null, 1));
+        assertThrows(UnsupportedOperationException.class, () -> v1.put("c", 3));
+    }
+}
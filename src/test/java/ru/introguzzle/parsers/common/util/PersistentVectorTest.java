@@ -0,0 +1,44 @@
+package ru.introguzzle.parsers.common.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PersistentVectorTest {
+    @Test
+    public void test_matches_array_list() {
+        List<Integer> expected = new ArrayList<>();
+        PersistentVector<Integer> vector = PersistentVector.empty();
+
+        // Grows trie by two levels
+        for (int i = 0; i < 40_000; i++) {
+            expected.add(i);
+            vector = vector.plus(i);
+        }
+
+        assertEquals(expected, vector);
+        for (int i = 0; i < 40_000; i += 7) {
+            expected.set(i, -i);
+            vector = vector.with(i, -i);
+        }
+
+        assertEquals(expected, vector);
+        assertEquals(expected.hashCode(), vector.hashCode());
+    }
+
+    @Test
+    public void test_versions_are_independent() {
+        PersistentVector<String> v1 = PersistentVector.of(List.of("a", "b", "c"));
+        PersistentVector<String> v2 = v1.with(1, "x");
+        PersistentVector<String> v3 = v1.with(3, "d");
+
+        assertEquals(List.of("a", "b", "c"), v1);
+        assertEquals(List.of("a", "x", "c"), v2);
+        assertEquals(List.of("a", "b", "c", "d"), v3);
+        assertThrows(IndexOutOfBoundsException.class, () -> v1.with(4, "e"));
+        assertThrows(UnsupportedOperationException.class, () -> v1.add("e"));
+    }
+}
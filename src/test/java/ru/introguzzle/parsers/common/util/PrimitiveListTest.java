@@ -0,0 +1,111 @@
+package ru.introguzzle.parsers.common.util;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PrimitiveListTest {
+    @Test
+    public void test_storage_by_elements() {
+        PrimitiveList list = new PrimitiveList();
+        assertEquals(PrimitiveList.Storage.EMPTY, list.getStorage());
+
+        list.add(1.5);
+        list.add(-0.0);
+        list.add(0, Double.NaN);
+        assertEquals(PrimitiveList.Storage.DOUBLE, list.getStorage());
+        assertEquals(List.of(Double.NaN, 1.5, -0.0), list);
+        assertEquals(1.5, list.getDouble(1), 0);
+
+        // Another class of element switches to boxed storage, keeping classes of elements
+        list.add(2L);
+        assertEquals(PrimitiveList.Storage.OBJECT, list.getStorage());
+        assertEquals(Arrays.asList(Double.NaN, 1.5, -0.0, 2L), list);
+        assertEquals(Long.class, list.get(3).getClass());
+
+        list.clear();
+        list.add(true);
+        assertEquals(PrimitiveList.Storage.BOOLEAN, list.getStorage());
+    }
+
+    @Test
+    public void test_matches_array_list() {
+        List<Object> expected = new ArrayList<>();
+        PrimitiveList list = new PrimitiveList(0);
+        for (long i = 0; i < 100; i++) {
+            expected.add(i);
+            list.add(i);
+        }
+
+        expected.remove(10);
+        list.remove(10);
+        expected.set(0, 7L);
+        list.set(0, 7L);
+
+        assertEquals(PrimitiveList.Storage.LONG, list.getStorage());
+        assertEquals(expected, list);
+        assertEquals(expected.hashCode(), list.hashCode());
+        assertEquals(7L, list.getLong(0));
+        assertEquals(99.0, list.getDouble(98), 0);
+
+        list.set(1, null);
+        expected.set(1, null);
+        assertEquals(PrimitiveList.Storage.OBJECT, list.getStorage());
+        assertEquals(expected, list);
+    }
+
+    @Test
+    public void test_bulk() {
+        PrimitiveList list = PrimitiveList.ofDoubles(1, 2, 3);
+        list.addAll(4.0, 5.0);
+        assertArrayEquals(new double[] {1, 2, 3, 4, 5}, list.toDoubleArray(), 0);
+        assertArrayEquals(new long[] {1, 2, 3, 4, 5}, list.toLongArray());
+
+        PrimitiveList ints = new PrimitiveList();
+        ints.add(1);
+        ints.add(2);
+        assertEquals(PrimitiveList.Storage.INT, ints.getStorage());
+        assertArrayEquals(new double[] {1, 2}, ints.toDoubleArray(), 0);
+
+        PrimitiveList booleans = PrimitiveList.ofBooleans(true, false);
+        booleans.addAll(1L);
+        assertEquals(PrimitiveList.Storage.OBJECT, booleans.getStorage());
+        assertEquals(Arrays.asList(true, false, 1L), booleans);
+    }
+
+    @Test
+    public void test_serialization() throws Exception {
+        PrimitiveList[] lists = {
+                PrimitiveList.ofDoubles(1.5, 2),
+                PrimitiveList.ofLongs(1, 2, 3),
+                PrimitiveList.ofBooleans(true),
+                new PrimitiveList(),
+                new PrimitiveList(0)
+        };
+
+        lists[3].add("a");
+        lists[3].add(null);
+        for (PrimitiveList list : lists) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                out.writeObject(list);
+            }
+
+            try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+                PrimitiveList copy = (PrimitiveList) in.readObject();
+                assertEquals(list, copy);
+                assertEquals(list.getStorage(), copy.getStorage());
+                copy.add(1);
+                assertEquals(list.size() + 1, copy.size());
+            }
+        }
+    }
+}
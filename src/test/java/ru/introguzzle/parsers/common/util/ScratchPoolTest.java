@@ -0,0 +1,45 @@
+package ru.introguzzle.parsers.common.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ScratchPoolTest {
+    @Test
+    public void test_reuse() {
+        ScratchPool<StringBuilder> pool = new ScratchPool<>(StringBuilder::new, StringBuilder::capacity);
+        StringBuilder builder = pool.acquire();
+
+        // Nested acquire never returns object that is in use
+        StringBuilder nested = pool.acquire();
+        assertNotSame(builder, nested);
+
+        pool.release(builder);
+        assertSame(builder, pool.acquire());
+    }
+
+    @Test
+    public void test_oversized_dropped() {
+        ScratchPool<int[]> pool = new ScratchPool<>(() -> new int[4], array -> array.length, 8);
+        int[] small = pool.acquire();
+        pool.release(small);
+        assertSame(small, pool.acquire());
+
+        int[] large = new int[16];
+        pool.release(large);
+        assertNotSame(large, pool.acquire());
+    }
+
+    @Test
+    public void test_virtual_thread_bypasses_pool() throws InterruptedException {
+        ScratchPool<StringBuilder> pool = new ScratchPool<>(StringBuilder::new, StringBuilder::capacity);
+        boolean[] reused = {true};
+        Thread.ofVirtual().start(() -> {
+            StringBuilder builder = pool.acquire();
+            pool.release(builder);
+            reused[0] = builder == pool.acquire();
+        }).join();
+
+        assertFalse(reused[0]);
+    }
+}
@@ -0,0 +1,95 @@
+package ru.introguzzle.parsers.common.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ShapedMapTest {
+    @Test
+    public void test_shared_shape() {
+        Shape<String> root = Shape.root();
+        ShapedMap<String, Integer> first = new ShapedMap<>(root);
+        ShapedMap<String, Integer> second = new ShapedMap<>(root);
+
+        first.put("id", 1);
+        first.put("name", 2);
+        second.put("id", 3);
+        second.put("name", 4);
+
+        assertSame(first.getShape(), second.getShape());
+        assertEquals(4, (int) second.get("name"));
+        assertEquals(1, first.getShape().indexOf("name"));
+
+        // Removal transitions to the shape of remaining keys
+        first.remove("id");
+        ShapedMap<String, Integer> third = new ShapedMap<>(root);
+        third.put("name", 5);
+        assertSame(third.getShape(), first.getShape());
+        assertEquals(List.of("name"), new ArrayList<>(first.keySet()));
+    }
+
+    @Test
+    public void test_dictionary_fallback() {
+        Map<String, Integer> expected = new LinkedHashMap<>();
+        ShapedMap<String, Integer> map = new ShapedMap<>();
+        for (int i = 0; i < Shape.MAX_SIZE + 10; i++) {
+            expected.put("k" + i, i);
+            map.put("k" + i, i);
+        }
+
+        assertFalse(map.isShaped());
+        assertEquals(expected, map);
+        assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(map.keySet()));
+
+        map.clear();
+        assertTrue(map.isShaped());
+        map.put(null, 0);
+        assertFalse(map.isShaped());
+        assertEquals(0, (int) map.get(null));
+    }
+
+    @Test
+    public void test_transition_limit() {
+        Shape<String> root = Shape.root();
+        for (int i = 0; i < Shape.MAX_TRANSITIONS; i++) {
+            assertNotNull(root.with("k" + i));
+        }
+
+        assertNull(root.with("other"));
+        assertSame(root.with("k0"), root.with("k0"));
+
+        ShapedMap<String, Integer> map = new ShapedMap<>(root);
+        map.put("other", 1);
+        assertFalse(map.isShaped());
+        assertEquals(1, (int) map.get("other"));
+    }
+
+    @Test
+    public void test_iterator_remove() {
+        Shape<String> root = Shape.root();
+        ShapedMap<String, Integer> map = new ShapedMap<>(root);
+        for (int i = 0; i < 6; i++) {
+            map.put("k" + i, i);
+        }
+
+        Iterator<Map.Entry<String, Integer>> iterator = map.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Integer> entry = iterator.next();
+            if (entry.getValue() % 2 == 1) {
+                iterator.remove();
+            } else {
+                entry.setValue(entry.getValue() * 10);
+            }
+        }
+
+        assertEquals(Map.of("k0", 0, "k2", 20, "k4", 40), map);
+        assertEquals(List.of("k0", "k2", "k4"), new ArrayList<>(map.keySet()));
+        assertTrue(map.isShaped());
+    }
+}
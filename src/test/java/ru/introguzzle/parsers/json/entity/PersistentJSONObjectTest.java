@@ -0,0 +1,57 @@
+package ru.introguzzle.parsers.json.entity;
+
+import org.junit.Test;
+import ru.introguzzle.parsers.json.parse.Parser;
+
+import static org.junit.Assert.*;
+
+public class PersistentJSONObjectTest {
+    @Test
+    public void test_with_path_shares_subtrees() {
+        PersistentJSONObject v1 = Parser.newParser().parse("""
+                {"server": {"host": "localhost", "port": 80}, "client": {"timeout": 30}, "tags": ["a", {}]}
+                """, JSONObject.class).toPersistent();
+        PersistentJSONObject v2 = v1.withPath("server.port", 8080);
+
+        assertEquals(80, ((Number) v1.getPath("server.port")).intValue());
+        assertEquals(8080, v2.getPath("server.port"));
+        assertSame(v1.getObject("client"), v2.getObject("client"));
+        assertSame(v1.getArray("tags"), v2.getArray("tags"));
+
+        PersistentJSONObject v3 = v2.withPath("tags.1.name", "b").withPath("metrics.enabled", true);
+        assertEquals("b", v3.getPath("tags.1.name"));
+        assertEquals(true, v3.getPath("metrics.enabled"));
+        assertNull(v2.getPath("metrics.enabled"));
+        assertThrows(IllegalArgumentException.class, () -> v3.withPath("tags.x", 1));
+        assertThrows(IllegalArgumentException.class, () -> v3.withPath("server.host.name", 1));
+    }
+
+    @Test
+    public void test_conversion() {
+        JSONObject object = Parser.newParser().parse("{\"a\": {\"b\": 1}, \"c\": [true, \"x\"]}", JSONObject.class);
+        PersistentJSONObject persistent = object.toPersistent();
+
+        assertEquals(object.toJSONString(), persistent.toJSONString());
+        assertEquals(object, persistent.toJSONObject());
+
+        // Stored mutable values are frozen
+        JSONArray array = new JSONArray();
+        array.add(1);
+        array.add(2);
+        PersistentJSONObject with = persistent.with("array", array);
+        array.add(3);
+        assertEquals(2, with.getArray("array").size());
+    }
+
+    @Test
+    public void test_deep_copy() {
+        JSONObject object = Parser.newParser().parse("{\"server\": {\"port\": 80}, \"tags\": [\"a\", {}]}",
+                JSONObject.class);
+        JSONObject copy = object.deepCopy();
+
+        assertEquals(object, copy);
+        assertNotSame(object.getObject("server"), copy.getObject("server"));
+        assertNotSame(object.getArray("tags"), copy.getArray("tags"));
+        assertEquals(object.getArray("tags"), copy.getArray("tags").deepCopy());
+    }
+}
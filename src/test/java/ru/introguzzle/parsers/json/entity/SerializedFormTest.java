@@ -0,0 +1,218 @@
+package ru.introguzzle.parsers.json.entity;
+
+import org.junit.Test;
+import ru.introguzzle.parsers.json.parse.Parser;
+import ru.introguzzle.parsers.json.write.JSONWriter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class SerializedFormTest {
+    private static void assertFresh(JSONObject object) {
+        StringBuilder builder = new StringBuilder();
+        JSONWriter.compact(builder).write(object.deepCopy());
+        String expected = builder.toString();
+
+        assertEquals(expected, object.toJSONStringCompact());
+        assertArrayEquals(expected.getBytes(StandardCharsets.UTF_8), object.toJSONBytes());
+    }
+
+    @Test
+    public void test_cache_is_reused() {
+        JSONObject object = Parser.newParser().parse("{\"name\": \"root\", \"catalog\": {\"items\": [{\"id\": 0}]}}",
+                JSONObject.class);
+        object.setSerializationCached(true);
+
+        assertTrue(object.isSerializationCached());
+        assertSame(object.toJSONStringCompact(), object.toJSONStringCompact());
+        assertArrayEquals(object.toJSONBytes(), object.toJSONBytes());
+        assertFresh(object);
+
+        object.setSerializationCached(false);
+        assertFalse(object.isSerializationCached());
+        assertNotSame(object.toJSONStringCompact(), object.toJSONStringCompact());
+    }
+
+    @Test
+    public void test_nested_changes_invalidate() {
+        JSONObject object = Parser.newParser().parse("""
+                {"name": "root", "catalog": {"items": [{"id": 0}, {"id": 1}, {"id": 2}]}}
+                """, JSONObject.class);
+        object.setSerializationCached(true);
+        JSONObject catalog = object.getObject("catalog");
+        JSONArray items = catalog.getArray("items");
+
+        object.toJSONStringCompact();
+        items.getObject(1).put("id", 10);
+        assertFresh(object);
+
+        items.add(new JSONObject());
+        assertFresh(object);
+
+        // Added objects are tracked too
+        items.getObject(3).put("id", 3);
+        assertFresh(object);
+
+        items.remove(0);
+        assertFresh(object);
+
+        catalog.put("count", 3);
+        assertFresh(object);
+    }
+
+    @Test
+    public void test_view_changes_invalidate() {
+        JSONObject object = Parser.newParser().parse("""
+                {"name": "root", "catalog": {"items": [{"id": 0}, {"id": 1}, {"id": 2}]}}
+                """, JSONObject.class);
+        object.setSerializationCached(true);
+        JSONArray items = object.getObject("catalog").getArray("items");
+
+        object.toJSONStringCompact();
+        for (Map.Entry<String, Object> entry : object.entrySet()) {
+            if (entry.getKey().equals("name")) {
+                entry.setValue("renamed");
+            }
+        }
+
+        assertFresh(object);
+
+        Iterator<Object> iterator = items.iterator();
+        iterator.next();
+        iterator.remove();
+        assertFresh(object);
+
+        ListIterator<Object> listIterator = items.listIterator();
+        listIterator.next();
+        listIterator.set("replaced");
+        assertFresh(object);
+
+        List<Object> subList = items.subList(0, 1);
+        subList.set(0, "sub");
+        assertFresh(object);
+
+        items.swap(0, 1);
+        assertFresh(object);
+
+        object.keySet().remove("name");
+        assertFresh(object);
+
+        object.values().clear();
+        assertFresh(object);
+    }
+
+    @Test
+    public void test_cached_subtrees_are_spliced() {
+        JSONObject object = Parser.newParser().parse("{\"name\": \"root\", \"catalog\": {\"items\": [{\"id\": 0}]}}",
+                JSONObject.class);
+        JSONObject catalog = object.getObject("catalog");
+        catalog.setSerializationCached(true);
+        object.setSerializationCached(true);
+
+        String cached = catalog.toJSONStringCompact();
+        object.put("name", "changed");
+
+        assertSame(cached, catalog.toJSONStringCompact());
+        assertFresh(object);
+
+        // Removed objects no longer invalidate
+        object.remove("catalog");
+        String detached = object.toJSONStringCompact();
+        catalog.put("count", 1);
+        assertSame(detached, object.toJSONStringCompact());
+    }
+
+    @Test
+    public void test_cycle_terminates() {
+        JSONArray array = new JSONArray();
+        JSONObject object = new JSONObject();
+        object.put("array", array);
+        array.add(object);
+        array.setSerializationCached(true);
+        object.setSerializationCached(true);
+
+        // Invalidation goes around the cycle once
+        object.put("key", "value");
+        array.add(1);
+        assertEquals(2, array.size());
+    }
+
+    @Test
+    public void test_duplicated_child() {
+        JSONObject child = new JSONObject();
+        child.put("x", 1);
+
+        JSONArray array = new JSONArray();
+        array.add(child);
+        array.add(child);
+        array.setSerializationCached(true);
+        array.remove(0);
+        child.put("y", 2);
+        assertEquals("[{\"x\":1,\"y\":2}]", array.toJSONStringCompact());
+
+        JSONObject object = new JSONObject();
+        object.put("a", child);
+        object.put("b", child);
+        object.setSerializationCached(true);
+        object.remove("a");
+        child.put("z", 3);
+        assertEquals("{\"b\":{\"x\":1,\"y\":2,\"z\":3}}", object.toJSONStringCompact());
+
+        // Removing through views keeps remaining copy linked as well
+        object.put("c", child);
+        object.keySet().remove("c");
+        child.remove("z");
+        assertEquals("{\"b\":{\"x\":1,\"y\":2}}", object.toJSONStringCompact());
+    }
+
+    @Test
+    public void test_bulk_removal_releases() {
+        JSONObject first = new JSONObject();
+        JSONObject second = new JSONObject();
+        JSONObject third = new JSONObject();
+
+        JSONArray array = new JSONArray();
+        array.add(first);
+        array.add(second);
+        array.add(third);
+        array.add(1);
+        array.setSerializationCached(true);
+
+        array.remove((Object) first);
+        array.removeAll(List.of(second));
+        array.retainAll(List.of(1));
+        String cached = array.toJSONStringCompact();
+        first.put("a", 1);
+        second.put("a", 1);
+        third.put("a", 1);
+        assertSame(cached, array.toJSONStringCompact());
+
+        array.add(first);
+        array.clear();
+        cached = array.toJSONStringCompact();
+        first.put("b", 1);
+        assertSame(cached, array.toJSONStringCompact());
+
+        JSONObject object = new JSONObject();
+        object.put("first", first);
+        object.put("second", second);
+        object.setSerializationCached(true);
+        object.putAll(Map.of("first", 1));
+        object.values().clear();
+        cached = object.toJSONStringCompact();
+        first.put("c", 1);
+        second.put("c", 1);
+        assertSame(cached, object.toJSONStringCompact());
+
+        object.put("third", third);
+        object.clear();
+        cached = object.toJSONStringCompact();
+        third.put("c", 1);
+        assertSame(cached, object.toJSONStringCompact());
+    }
+}
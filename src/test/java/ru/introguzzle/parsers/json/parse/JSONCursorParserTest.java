@@ -0,0 +1,171 @@
+package ru.introguzzle.parsers.json.parse;
+
+import org.junit.Test;
+import ru.introguzzle.parsers.common.util.PrimitiveList;
+import ru.introguzzle.parsers.common.util.ShapedMap;
+import ru.introguzzle.parsers.json.entity.JSONArray;
+import ru.introguzzle.parsers.json.entity.JSONObject;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+
+public class JSONCursorParserTest extends ParserTest {
+    private final Parser parser = new JSONCursorParser();
+
+    @Override
+    public Parser getParser() {
+        return parser;
+    }
+
+    @Test
+    public void test_same_tree_as_splitting_parser() {
+        String data = "{\"a\": {\"b\": [1, 2.5, {\"c\": \"d, e\"}], \"f\": []}, \"g\": [[], [true, null]], \"h\": {}}";
+        JSONObject expected = new JSONParser().parse(data, JSONObject.class);
+        JSONObject actual = getParser().parse(data, JSONObject.class);
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void test_shape_sharing() {
+        String data = "[{\"id\": 1, \"name\": \"a\"}, {\"id\": 2, \"name\": \"b\"}, {\"name\": \"c\"}]";
+        JSONArray expected = getParser().parse(data, JSONArray.class);
+        JSONArray array = new JSONCursorParser().setShapeSharing(true).parse(data, JSONArray.class);
+
+        assertEquals(expected, array);
+        for (Object element : array) {
+            assertEquals(ShapedMap.class, ((JSONObject) element).getImplementationClass());
+        }
+
+        JSONObject record = array.get(0, JSONObject.class);
+        record.put("extra", true);
+        record.remove("id");
+        assertEquals(List.of("name", "extra"), List.copyOf(record.keySet()));
+        assertEquals(2, array.get(1, JSONObject.class).size());
+    }
+
+    @Test
+    public void test_primitive_arrays() {
+        JSONObject object = getParser().parse("{\"x\": [1.5, 2, -3], \"flags\": [true, false], \"mixed\": [1, \"a\"]}", JSONObject.class);
+        JSONArray x = object.get("x", JSONArray.class);
+        assertEquals(PrimitiveList.class, x.getImplementationClass());
+        assertArrayEquals(new double[] {1.5, 2, -3}, x.toDoubleArray(), 0);
+        assertEquals(-3.0, x.getDouble(2), 0);
+        assertEquals(List.of(1.5, 2.0, -3.0), x);
+
+        assertArrayEquals(new boolean[] {true, false}, object.get("flags", JSONArray.class).toBooleanArray());
+        assertEquals(List.of(1.0, "a"), object.get("mixed", JSONArray.class));
+
+        JSONArray longs = JSONArray.ofLongs(1, 2);
+        longs.addAll(3L, 4L);
+        assertArrayEquals(new long[] {1, 2, 3, 4}, longs.toLongArray());
+    }
+
+    @Test
+    public void test_escapes() {
+        String data = "{\"text\":\"say \\\"hi\\\"\\n\\u0041\"}";
+        JSONObject object = getParser().parse(data, JSONObject.class);
+        assertEquals("say \"hi\"\nA", object.getString("text"));
+    }
+
+    @Test
+    public void test_deep_nesting() {
+        int depth = 500;
+        String data = "[".repeat(depth) + "]".repeat(depth);
+        JSONArray array = getParser().parse(data, JSONArray.class);
+
+        for (int i = 0; i < depth - 1; i++) {
+            array = array.getArray(0);
+        }
+
+        assertTrue(array.isEmpty());
+    }
+
+    @Test(expected = JSONParseException.class)
+    public void test_trailing_content() {
+        getParser().parse("{\"a\":1} {", JSONObject.class);
+    }
+
+    @Test(expected = JSONParseException.class)
+    public void test_trailing_comma() {
+        getParser().parse("[1, 2,]", JSONArray.class);
+    }
+
+    @Test
+    public void test_bytes_same_tree_as_string() {
+        String data = "{\"ascii\": \"plain\", \"mixed\": \"caf\u00e9 \\u00e9 \\n\", \"emoji\": \"\uD83D\uDE00\", \"n\": [-1.5e3, 0, 7]}";
+        JSONObject expected = getParser().parse(data, JSONObject.class);
+
+        byte[] bytes = data.getBytes(StandardCharsets.UTF_8);
+        assertEquals(expected, getParser().parseBytes(bytes, JSONObject.class));
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes).flip();
+        assertEquals(expected, getParser().parseBytes(direct, JSONObject.class));
+        assertEquals(0, direct.position());
+    }
+
+    @Test
+    public void test_bytes_with_byte_order_mark() {
+        byte[] bytes = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF, '[', '1', ']'};
+        JSONArray array = getParser().parseBytes(bytes, JSONArray.class);
+        assertEquals(1, array.getNumber(0).intValue());
+    }
+
+    @Test(expected = JSONParseException.class)
+    public void test_bytes_malformed_utf8() {
+        byte[] bytes = {'[', '"', (byte) 0xC3, '"', ']'};
+        getParser().parseBytes(bytes, JSONArray.class);
+    }
+
+    @Test
+    public void test_parse_parallel() {
+        String data = IntStream.range(0, 5000)
+                .mapToObj(i -> "{\"id\": " + i + ", \"tags\": [\"a,]\", \"b\\\"\"], \"nested\": {\"n\": [" + i + "]}}")
+                .collect(Collectors.joining(",\n", "[", "]"));
+
+        JSONArray expected = getParser().parse(data, JSONArray.class);
+        assertEquals(expected, getParser().parseParallel(data));
+        assertEquals(expected, getParser().parseBytesParallel(ByteBuffer.wrap(data.getBytes(StandardCharsets.UTF_8)), ForkJoinPool.commonPool()));
+        assertEquals(new JSONArray(), getParser().parseParallel(" [ ] "));
+    }
+
+    @Test(expected = JSONParseException.class)
+    public void test_parse_parallel_trailing_comma() {
+        getParser().parseParallel("[{\"a\": 1}, {\"b\": 2},]");
+    }
+
+    @Test
+    public void test_extract() {
+        String data = "{\"body\": {\"items\": [1, 2, {\"deep\": \"x\"}]}, \"header\": {\"a/b\": 1, \"ro\\u0075te\": \"orders\","
+                + " \"tenant\": null, \"meta\": {\"v\": [true]}}, \"tail\": [0]}";
+        JSONObject values = getParser().extract(data, "/header/route", "header.tenant", "/header/a~1b",
+                "/body/items/2/deep", "header.meta", "header.meta.v.0", "/missing");
+
+        assertEquals("orders", values.getString("/header/route"));
+        assertTrue(values.containsKey("header.tenant"));
+        assertNull(values.get("header.tenant"));
+        assertEquals(1, values.getNumber("/header/a~1b").intValue());
+        assertEquals("x", values.getString("/body/items/2/deep"));
+        assertEquals(Boolean.TRUE, values.get("header.meta.v.0"));
+        assertEquals(1, values.getObject("header.meta").getArray("v").size());
+        assertFalse(values.containsKey("/missing"));
+
+        JSONObject bytes = getParser().extractBytes(ByteBuffer.wrap(data.getBytes(StandardCharsets.UTF_8)), "/header/route", "");
+        assertEquals("orders", bytes.getString("/header/route"));
+        assertEquals(getParser().parse(data, JSONObject.class), bytes.get(""));
+
+        assertEquals(1, getParser().extract("{\"a\": 1, \"tail\": [", "a").getNumber("a").intValue());
+    }
+
+    @Test(expected = JSONParseException.class)
+    public void test_extract_malformed() {
+        getParser().extract("{\"a\": [1, 2, \"b\": 1}", "b");
+    }
+}
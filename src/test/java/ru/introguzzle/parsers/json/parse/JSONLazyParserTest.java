@@ -0,0 +1,181 @@
+package ru.introguzzle.parsers.json.parse;
+
+import org.junit.Test;
+import ru.introguzzle.parsers.json.entity.JSONArray;
+import ru.introguzzle.parsers.json.entity.JSONObject;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class JSONLazyParserTest extends ParserTest {
+    private final Parser parser = Parser.newLazyParser();
+
+    @Override
+    public Parser getParser() {
+        return parser;
+    }
+
+    @Test
+    public void test_same_tree_as_cursor_parser() {
+        String data = "{\"a\": {\"b\": [1, 2.5, {\"c\": \"d, e\"}], \"f\": []}, \"g\": [[], [true, null]], \"h\": {}, \"i\": \"}]\\\"\"}";
+        JSONObject expected = new JSONCursorParser().parse(data, JSONObject.class);
+        JSONObject actual = getParser().parse(data, JSONObject.class);
+
+        assertEquals(expected, actual);
+        assertEquals(actual, expected);
+        assertEquals(expected.hashCode(), actual.hashCode());
+        assertEquals(expected.toJSONString(), actual.toJSONString());
+    }
+
+    @Test
+    public void test_untouched_values_are_not_materialized() {
+        String data = "{\"valid\": {\"n\": 1}, \"broken\": {\"x\": 1 2}, \"bad\": tru}";
+        JSONObject object = getParser().parse(data, JSONObject.class);
+
+        assertEquals(3, object.size());
+        assertTrue(object.containsKey("broken"));
+        assertEquals(1, object.getObject("valid").getNumber("n").intValue());
+
+        JSONObject broken = object.getObject("broken");
+        assertThrows(JSONParseException.class, () -> broken.get("x"));
+        assertThrows(JSONParseException.class, () -> object.get("bad"));
+    }
+
+    @Test
+    public void test_bytes_same_tree_as_string() {
+        String data = "{\"city\": \"Москва\", \"nested\": {\"values\": [1, {\"k\": \"\\u0041\"}]}}";
+        JSONObject expected = getParser().parse(data, JSONObject.class);
+        JSONObject actual = getParser().parseBytes(data.getBytes(StandardCharsets.UTF_8), JSONObject.class);
+
+        assertEquals("A", actual.getObject("nested").getArray("values").get(1, JSONObject.class).getString("k"));
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void test_concurrent_reads() throws InterruptedException {
+        StringBuilder data = new StringBuilder("{");
+        for (int i = 0; i < 100; i++) {
+            data.append(i == 0 ? "" : ", ").append("\"k").append(i).append("\": {\"v\": [").append(i).append("]}");
+        }
+
+        JSONObject object = getParser().parse(data.append('}').toString(), JSONObject.class);
+        Thread[] threads = new Thread[4];
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                try {
+                    for (int i = 99; i >= 0; i--) {
+                        assertEquals(i, object.getObject("k" + i).getArray("v").getNumber(0).intValue());
+                    }
+                } catch (Throwable e) {
+                    failure.set(e);
+                }
+            });
+
+            threads[t].start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertNull(failure.get());
+        assertSame(object.get("k0"), object.get("k0"));
+    }
+
+    @Test
+    public void test_modification() {
+        JSONObject object = getParser().parse("{\"a\": 1, \"b\": {\"c\": 2}}", JSONObject.class);
+
+        assertEquals(1, object.getNumber("a").intValue());
+        assertEquals(1, ((Number) object.put("a", 3)).intValue());
+
+        // Values that were never read are not materialized
+        assertNull(object.remove("b"));
+        object.put("d", "e");
+        assertEquals(new JSONObject(Map.of("a", 3, "d", "e")), object);
+
+        JSONObject malformed = getParser().parse("{\"bad\": tru, \"worse\": [1 2]}", JSONObject.class);
+        assertNull(malformed.put("bad", 1));
+        assertNull(malformed.remove("worse"));
+        assertEquals(new JSONObject(Map.of("bad", 1)), malformed);
+    }
+
+    @Test
+    public void test_reads_are_unlocked_once_nothing_is_pending() throws Exception {
+        JSONObject object = getParser().parse("{\"a\": {\"x\": 1}, \"b\": [2], \"c\": 3}", JSONObject.class);
+        object.putAll(Map.of("a", 1, "c", 4));
+        Iterator<String> keys = object.keySet().iterator();
+        keys.next();
+        keys.next();
+        keys.remove();
+
+        // Another thread holds the lock of the object, so reads that take it would block
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        Thread holder = new Thread(() -> {
+            synchronized (object) {
+                locked.countDown();
+                try {
+                    done.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+
+        holder.start();
+        locked.await();
+        try {
+            assertEquals(4, CompletableFuture.supplyAsync(() -> object.get("c")).get(5, TimeUnit.SECONDS));
+        } finally {
+            done.countDown();
+            holder.join();
+        }
+
+        assertEquals(new JSONObject(Map.of("a", 1, "c", 4)), object);
+    }
+
+    @Test
+    public void test_serialization() throws IOException, ClassNotFoundException {
+        JSONObject object = getParser().parse("{\"a\": {\"b\": null}, \"c\": {\"d\": true}}", JSONObject.class);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeObject(object);
+        }
+
+        try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            Object copy = input.readObject();
+            assertEquals(JSONObject.class, copy.getClass());
+            assertEquals(object, copy);
+        }
+    }
+
+    @Test(expected = JSONParseException.class)
+    public void test_unbalanced() {
+        getParser().parse("{\"a\": [1, 2}", JSONObject.class);
+    }
+
+    @Test(expected = JSONParseException.class)
+    public void test_trailing_content() {
+        getParser().parse("{\"a\":1} {", JSONObject.class);
+    }
+
+    @Test(expected = JSONParseException.class)
+    public void test_trailing_comma() {
+        getParser().parse("[1, 2,]", JSONArray.class);
+    }
+}
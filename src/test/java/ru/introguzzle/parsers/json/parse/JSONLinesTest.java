@@ -0,0 +1,70 @@
+package ru.introguzzle.parsers.json.parse;
+
+import org.junit.Test;
+import ru.introguzzle.parsers.json.entity.JSONObject;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+
+public class JSONLinesTest {
+    private static final int COUNT = 1000;
+    private static final String DATA = IntStream.range(0, COUNT)
+            .mapToObj(i -> "{\"id\": " + i + ", \"name\": \"record " + i + "\"}" + (i % 7 == 0 ? "\r\n\n" : "\n"))
+            .collect(Collectors.joining());
+
+    private static void assertRecords(List<JSONObject> records) {
+        assertEquals(COUNT, records.size());
+        for (int i = 0; i < COUNT; i++) {
+            assertEquals(i, records.get(i).getNumber("id").intValue());
+            assertEquals("record " + i, records.get(i).getString("name"));
+        }
+    }
+
+    @Test
+    public void test_sequential() {
+        assertRecords(new JSONLines().stream(DATA).toList());
+    }
+
+    @Test
+    public void test_parallel_preserves_order() {
+        JSONLines lines = new JSONLines(Parser.newParser(), 64);
+        assertTrue(lines.parallelStream(DATA).isParallel());
+        assertRecords(lines.parallelStream(DATA).toList());
+        assertRecords(lines.parallelStream(ByteBuffer.wrap(DATA.getBytes(StandardCharsets.UTF_8))).toList());
+    }
+
+    @Test
+    public void test_file() throws IOException {
+        Path path = Files.createTempFile("records", ".jsonl");
+        try {
+            Files.writeString(path, DATA, StandardCharsets.UTF_8);
+            assertRecords(new JSONLines(Parser.newParser(), 128).parallelStream(path).toList());
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void test_other_parser() {
+        String data = "{\"city\": \"Москва\"}\n\n{\"city\": \"Zoë\"}";
+        List<JSONObject> records = new JSONLines(Parser.newTokenParser())
+                .stream(ByteBuffer.wrap(data.getBytes(StandardCharsets.UTF_8)))
+                .toList();
+
+        assertEquals(2, records.size());
+        assertEquals("Zoë", records.get(1).getString("city"));
+    }
+
+    @Test(expected = JSONParseException.class)
+    public void test_malformed_record() {
+        new JSONLines().stream("{\"a\": 1}\n{\"a\": }\n").count();
+    }
+}
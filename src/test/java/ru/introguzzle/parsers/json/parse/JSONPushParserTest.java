@@ -0,0 +1,82 @@
+package ru.introguzzle.parsers.json.parse;
+
+import org.junit.Test;
+import ru.introguzzle.parsers.json.entity.JSONArray;
+import ru.introguzzle.parsers.json.entity.JSONObject;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class JSONPushParserTest {
+    private static List<Object> feed(String data, int chunkSize, boolean unwrap) {
+        byte[] bytes = data.getBytes(StandardCharsets.UTF_8);
+        List<Object> values = new ArrayList<>();
+        JSONPushParser parser = new JSONPushParser(values::add).setUnwrapRootArray(unwrap);
+        for (int i = 0; i < bytes.length; i += chunkSize) {
+            parser.feed(ByteBuffer.wrap(bytes, i, Math.min(chunkSize, bytes.length - i)));
+        }
+
+        parser.endOfInput();
+        return values;
+    }
+
+    @Test
+    public void test_values_split_at_every_byte() {
+        String data = "{\"city\": \"Москва\", \"tags\": [\"a\\\"]\", {}]} [1, 2]\n\"Zoë\" 42 true null";
+        for (int chunkSize = 1; chunkSize <= 8; chunkSize++) {
+            List<Object> values = feed(data, chunkSize, false);
+            assertEquals(6, values.size());
+
+            JSONObject object = (JSONObject) values.get(0);
+            assertEquals("Москва", object.getString("city"));
+            assertEquals("a\"]", ((JSONArray) object.get("tags")).get(0));
+            assertEquals(2, ((JSONArray) values.get(1)).size());
+            assertEquals("Zoë", values.get(2));
+            assertEquals(42, ((Number) values.get(3)).intValue());
+            assertEquals(true, values.get(4));
+            assertNull(values.get(5));
+        }
+    }
+
+    @Test
+    public void test_values_emitted_as_soon_as_closed() {
+        List<Object> values = new ArrayList<>();
+        JSONPushParser parser = new JSONPushParser(values::add);
+
+        parser.feed(ByteBuffer.wrap("{\"a\": 1} {\"b\"".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(1, values.size());
+
+        parser.feed(ByteBuffer.wrap(": 2}".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(2, values.size());
+        assertEquals(2, ((JSONObject) values.get(1)).getNumber("b").intValue());
+    }
+
+    @Test
+    public void test_unwrap_root_array() {
+        String data = "\uFEFF[{\"id\": 0}, {\"id\": 1},\n \"two\", 3, [4]]";
+        for (int chunkSize = 1; chunkSize <= 4; chunkSize++) {
+            List<Object> values = feed(data, chunkSize, true);
+            assertEquals(5, values.size());
+            assertEquals(1, ((JSONObject) values.get(1)).getNumber("id").intValue());
+            assertEquals("two", values.get(2));
+            assertEquals(3, ((Number) values.get(3)).intValue());
+            assertEquals(1, ((JSONArray) values.get(4)).size());
+        }
+
+        assertTrue(feed("[ ]", 1, true).isEmpty());
+    }
+
+    @Test
+    public void test_malformed_input() {
+        assertThrows(JSONParseException.class, () -> feed("[1, 2,]", 1, true));
+        assertThrows(JSONParseException.class, () -> feed("[1 2]", 1, true));
+        assertThrows(JSONParseException.class, () -> feed("[1] [2]", 1, true));
+        assertThrows(JSONParseException.class, () -> feed("{\"a\": 1", 3, false));
+        assertThrows(JSONParseException.class, () -> feed("{\"a\" 1}", 3, false));
+        assertThrows(JSONParseException.class, () -> feed("\"abc", 2, false));
+    }
+}
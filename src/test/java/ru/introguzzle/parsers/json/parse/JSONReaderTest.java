@@ -0,0 +1,153 @@
+package ru.introguzzle.parsers.json.parse;
+
+import org.junit.Test;
+import ru.introguzzle.parsers.common.parse.ParseLimits;
+import ru.introguzzle.parsers.json.entity.JSONObject;
+import ru.introguzzle.parsers.json.parse.tokenize.Type;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class JSONReaderTest {
+    private static final String DATA = "{\"name\": \"Al\\\"ice\", \"age\": 30, \"tags\": [\"a\", \"b\"], \"address\": {\"city\": \"Paris\", \"zip\": null}, \"active\": true}";
+
+    private static JSONReader reader(String data) {
+        // Small buffer forces values to span several refills
+        return new JSONReader(new StringReader(data), 3);
+    }
+
+    @Test
+    public void test_tokens() {
+        List<Type> types = new ArrayList<>();
+        try (JSONReader reader = reader("{\"a\": [1, \"x\", false, null], \"b\": {}}")) {
+            Type type;
+            while ((type = reader.nextToken()) != Type.END_DOCUMENT) {
+                types.add(type);
+            }
+        }
+
+        assertEquals(List.of(
+                Type.OBJECT_START, Type.KEY, Type.ARRAY_START, Type.NUMBER, Type.STRING,
+                Type.BOOLEAN, Type.NULL, Type.ARRAY_END, Type.KEY, Type.OBJECT_START,
+                Type.OBJECT_END, Type.OBJECT_END), types);
+    }
+
+    @Test
+    public void test_typed_access() {
+        JSONReader reader = reader(DATA);
+        reader.beginObject();
+
+        assertEquals("name", reader.nextName());
+        assertEquals("Al\"ice", reader.nextString());
+        assertEquals("age", reader.nextName());
+        assertEquals(30, reader.nextNumber().intValue());
+        assertEquals("tags", reader.nextName());
+        reader.skipValue();
+        reader.skipValue();
+        assertEquals("active", reader.nextName());
+        assertTrue(reader.nextBoolean());
+        assertFalse(reader.hasNext());
+
+        reader.endObject();
+        assertEquals(Type.END_DOCUMENT, reader.peek());
+    }
+
+    @Test
+    public void test_read_object_matches_parser() {
+        JSONObject expected = Parser.newParser().parse(DATA, JSONObject.class);
+        JSONReader reader = new JSONReader(new ByteArrayInputStream(DATA.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(expected, reader.readObject());
+    }
+
+    @Test
+    public void test_multiple_top_level_values() {
+        JSONReader reader = reader("{\"id\": 1}\n{\"id\": 2}\n{\"id\": 3}\n");
+        int sum = 0;
+        while (reader.hasNext()) {
+            sum += reader.readObject().getNumber("id").intValue();
+        }
+
+        assertEquals(6, sum);
+    }
+
+    @Test(expected = JSONParseException.class)
+    public void test_missing_comma() {
+        JSONReader reader = reader("[1 2]");
+        reader.readArray();
+    }
+
+    @Test(expected = JSONParseException.class)
+    public void test_wrong_token() {
+        JSONReader reader = reader("[1]");
+        reader.beginObject();
+    }
+
+    @Test
+    public void test_limits() {
+        String nested = "[".repeat(200000) + "]".repeat(200000);
+        JSONParseException e = assertThrows(JSONParseException.class, () -> reader(nested).readValue());
+        assertTrue(e.getMessage(), e.getMessage().startsWith("Nesting depth exceeds limit of 1000"));
+
+        ParseLimits limits = ParseLimits.builder()
+                .setMaxDepth(2)
+                .setMaxStringLength(4)
+                .setMaxEntries(3)
+                .build();
+
+        assertEquals(2, reader("[[1, \"abcd\"]]").setLimits(limits).readArray().getArray(0).size());
+        assertThrows(JSONParseException.class, () -> reader("[[[]]]").setLimits(limits).readArray());
+        assertThrows(JSONParseException.class, () -> reader("[\"abcde\"]").setLimits(limits).readArray());
+        assertThrows(JSONParseException.class, () -> reader("{\"abcde\": 1}").setLimits(limits).readObject());
+        assertThrows(JSONParseException.class, () -> reader("[1, 2, 3, 4]").setLimits(limits).readArray());
+        assertThrows(JSONParseException.class, () -> reader("{\"a\": 1, \"b\": 2, \"c\": 3, \"d\": 4}")
+                .setLimits(limits)
+                .readObject());
+
+        JSONReader skipping = reader("[\"abcde\"]").setLimits(limits);
+        skipping.beginArray();
+        assertThrows(JSONParseException.class, skipping::skipValue);
+    }
+
+    @Test
+    public void test_skip_rejects_what_read_rejects() {
+        for (String data : new String[] {
+                "[--1]", "[01]", "[1.]", "[1e]", "[-]", "[\"a\u0001\"]", "[\"a\\x\"]", "[\"a\\u12\"]"
+        }) {
+            assertThrows(data, JSONParseException.class, () -> reader(data).readValue());
+            assertThrows(data, JSONParseException.class, () -> reader(data).skipValue());
+        }
+
+        for (String data : new String[] {"[-1.5e+3, \"a\\n\\u0041\", 0]", "{\"a\": [0.25, -0]}"}) {
+            reader(data).skipValue();
+            reader(data).readValue();
+        }
+    }
+
+    @Test
+    public void test_adjacent_top_level_values() {
+        for (String data : new String[] {"truefalse", "\"a\"\"b\"", "1\"a\"", "null1"}) {
+            JSONReader reader = reader(data);
+            reader.readValue();
+            assertThrows(data, JSONParseException.class, reader::hasNext);
+
+            JSONReader skipping = reader(data);
+            skipping.skipValue();
+            assertThrows(data, JSONParseException.class, skipping::hasNext);
+        }
+
+        JSONReader reader = reader("1 2{}[]\"a\"");
+        int count = 0;
+        while (reader.hasNext()) {
+            reader.readValue();
+            count++;
+        }
+
+        assertEquals(5, count);
+    }
+}
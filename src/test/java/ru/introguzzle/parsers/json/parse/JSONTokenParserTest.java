@@ -1,5 +1,14 @@
 package ru.introguzzle.parsers.json.parse;
 
+import org.junit.Test;
+import ru.introguzzle.parsers.json.entity.JSONArray;
+import ru.introguzzle.parsers.json.entity.JSONObject;
+import ru.introguzzle.parsers.json.parse.tokenize.TokenTape;
+import ru.introguzzle.parsers.json.parse.tokenize.Tokenizer;
+import ru.introguzzle.parsers.json.parse.tokenize.Type;
+
+import static org.junit.Assert.*;
+
 public class JSONTokenParserTest extends ParserTest {
     private final Parser parser = new JSONTokenParser();
 
@@ -7,4 +16,59 @@ public class JSONTokenParserTest extends ParserTest {
     public Parser getParser() {
         return parser;
     }
+
+    @Test
+    public void test_tape() {
+        TokenTape tape = Tokenizer.newTokenizer().tokenizeToTape("{\"a\": [1, true, null, \"x\\\"y\"]}");
+
+        Type[] expected = {
+                Type.OBJECT_START, Type.KEY, Type.COLON, Type.ARRAY_START, Type.NUMBER, Type.COMMA,
+                Type.BOOLEAN, Type.COMMA, Type.NULL, Type.COMMA, Type.STRING, Type.ARRAY_END, Type.OBJECT_END
+        };
+
+        assertEquals(expected.length, tape.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], tape.type(i));
+        }
+
+        assertEquals("\"x\\\"y\"", tape.text(10));
+        assertEquals(tape.toTokens(), TokenTape.of(tape.toTokens()).toTokens());
+    }
+
+    @Test
+    public void test_tape_reuse() {
+        Tokenizer tokenizer = Tokenizer.newTokenizer();
+        TokenTape tape = tokenizer.tokenizeToTape("[1, 2, 3]");
+        assertSame(tape, tokenizer.tokenizeToTape("{\"a\": null}", tape));
+        assertEquals("{\"a\": null}", tape.source());
+        assertEquals(5, tape.size());
+        assertEquals(Type.KEY, tape.type(1));
+
+        tape.clear();
+        assertEquals(0, tape.size());
+        assertEquals("", tape.source());
+    }
+
+    @Test
+    public void test_escaped_quotes() {
+        JSONObject object = getParser().parse("{\"k\\\"ey\": \"say \\\"hi\\\"\"}", JSONObject.class);
+        assertEquals("say \"hi\"", object.getString("k\"ey"));
+    }
+
+    @Test(expected = JSONParseException.class)
+    public void test_unmatched_brackets() {
+        getParser().parse("{\"a\": [1, 2}", JSONObject.class);
+    }
+
+    @Test
+    public void test_missing_separators_and_trailing_values() {
+        for (String data : new String[] {
+                "[1 2]", "[1] [2]", "1 2", "9007199254740993 ,", "{\"a\" 1}", "{\"a\": 1 \"b\": 2}",
+                "[1,]", "[,1]", "{\"a\": 1,}", "{,}", "{\"a\": 1} x", "{\"a\":}"
+        }) {
+            assertThrows(data, JSONParseException.class, () -> getParser().parse(data, Object.class));
+        }
+
+        assertEquals(2, getParser().parse("[1, {\"a\": [2]}]", JSONArray.class).size());
+    }
 }
@@ -0,0 +1,56 @@
+package ru.introguzzle.parsers.json.parse;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class JSONValidatorTest {
+    private final Parser parser = Parser.newParser();
+
+    @Test
+    public void test_valid() {
+        String[] valid = {
+                "{}", "[]", " 0 ", "-1.5e+3", "\"\"", "true", "null",
+                "{\"a\": [1, {\"b\": \"c\\\"d\\u00e9\"}, false], \"e\": {}}",
+                "\"Москва \\/ Zoë\"",
+                "[".repeat(200) + "]".repeat(200),
+                "[{\"a\":".repeat(100) + "1" + "}]".repeat(100)
+        };
+
+        for (String data : valid) {
+            assertEquals(data, -1, parser.validate(data));
+            assertTrue(data, parser.isValidBytes(ByteBuffer.wrap(data.getBytes(StandardCharsets.UTF_8))));
+        }
+    }
+
+    @Test
+    public void test_error_position() {
+        assertEquals(0, parser.validate(""));
+        assertEquals(0, parser.validate(null));
+        assertEquals(7, parser.validate("[1, 2, ]"));
+        assertEquals(5, parser.validate("{\"a\" 1}"));
+        assertEquals(6, parser.validate("{\"a\":1]"));
+        assertEquals(2, parser.validate("[01]"));
+        assertEquals(3, parser.validate("[1."));
+        assertEquals(9, parser.validate("{\"a\": 1} {"));
+        assertEquals(3, parser.validate("[\"\\x\"]"));
+        assertEquals(2, parser.validate("[\"\n\"]"));
+        assertEquals(4, parser.validate("[tru]"));
+        assertEquals(800, parser.validate("[{\"a\":".repeat(100) + "1" + "}]".repeat(99) + "}}"));
+        assertFalse(parser.isValid("{\"a\": 1"));
+        assertFalse(parser.isValid("[1 2]"));
+        assertFalse(parser.isValid("{'a': 1}"));
+        assertFalse(parser.isValid("[NaN]"));
+    }
+
+    @Test
+    public void test_malformed_utf8() {
+        assertEquals(3, parser.validateBytes(ByteBuffer.wrap(new byte[] {'[', '"', (byte) 0xC3, '"', ']'})));
+        assertFalse(parser.isValidBytes(ByteBuffer.wrap(new byte[] {'"', (byte) 0xC0, (byte) 0x80, '"'})));
+        assertFalse(parser.isValidBytes(ByteBuffer.wrap(new byte[] {'"', (byte) 0xED, (byte) 0xA0, (byte) 0x80, '"'})));
+        assertTrue(parser.isValidBytes(ByteBuffer.wrap(new byte[] {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF, '[', ']'})));
+    }
+}
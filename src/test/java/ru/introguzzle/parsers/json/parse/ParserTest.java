@@ -1,10 +1,24 @@
 package ru.introguzzle.parsers.json.parse;
 
 import org.junit.Test;
+import ru.introguzzle.parsers.common.parse.ParseLimits;
 import ru.introguzzle.parsers.json.entity.JSONArray;
 import ru.introguzzle.parsers.json.entity.JSONObject;
 
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
 import static org.junit.Assert.*;
 
@@ -162,4 +176,157 @@ public abstract class ParserTest {
         assertEquals(2, secondObject.get("id", Number.class).intValue());
         assertEquals("Bob", secondObject.get("name", String.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void test_utf8_bytes() {
+        String data = "{\"name\":\"Zoë\",\"city\":\"Москва\",\"items\":[1,2]}";
+        JSONObject o = getParser().parseBytes(data.getBytes(StandardCharsets.UTF_8), JSONObject.class);
+
+        assertEquals("Zoë", o.getString("name"));
+        assertEquals("Москва", o.getString("city"));
+        assertEquals(2, o.getArray("items").size());
+    }
+
+    @Test
+    public void test_parse_file() throws IOException {
+        String data = "{\"name\":\"Zoë\",\"nested\":{\"values\":[1,2,3]}}";
+        Path path = Files.createTempFile("document", ".json");
+        try {
+            Files.writeString(path, data, StandardCharsets.UTF_8);
+            assertEquals(getParser().parse(data), getParser().parse(path));
+            assertEquals(3, getParser().parseFile(path, JSONObject.class).getObject("nested").getArray("values").size());
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void test_number_policy() {
+        String data = "{\"id\": 9007199254740993, \"small\": -7, \"big\": 123456789012345678901234, \"f\": 0.1, \"e\": 1e3, \"z\": -0}";
+        Parser parser = getParser();
+        NumberPolicy policy = parser.getNumberPolicy();
+
+        try {
+            JSONObject doubles = parser.setNumberPolicy(NumberPolicy.DOUBLE).parse(data, JSONObject.class);
+            assertEquals(9007199254740992.0, doubles.get("id"));
+            assertEquals(-7.0, doubles.get("small"));
+            assertEquals(0.1, doubles.get("f"));
+            assertEquals(1000.0, doubles.get("e"));
+            assertEquals(-0.0, doubles.get("z"));
+
+            JSONObject exact = parser.setNumberPolicy(NumberPolicy.EXACT).parse(data, JSONObject.class);
+            assertEquals(9007199254740993L, exact.get("id"));
+            assertEquals(-7, exact.get("small"));
+            assertEquals(new BigDecimal("123456789012345678901234"), exact.get("big"));
+            assertEquals(0.1, exact.get("f"));
+            assertEquals(1000.0, exact.get("e"));
+            assertEquals(0, exact.get("z"));
+
+            JSONObject decimals = parser.setNumberPolicy(NumberPolicy.BIG_DECIMAL).parse(data, JSONObject.class);
+            assertEquals(9007199254740993L, decimals.get("id"));
+            assertEquals(new BigDecimal("0.1"), decimals.get("f"));
+            assertEquals(new BigDecimal("1e3"), decimals.get("e"));
+        } finally {
+            parser.setNumberPolicy(policy);
+        }
+    }
+
+    @Test
+    public void test_symbol_table() {
+        String data = "[{\"id\": 1, \"na\\u006De\": \"a\"}, {\"id\": 2, \"name\": \"b\"}]";
+        SymbolTable symbolTable = new SymbolTable();
+        Parser parser = getParser().setSymbolTable(symbolTable);
+
+        try {
+            JSONArray first = parser.parse(data, JSONArray.class);
+            JSONArray second = parser.parseBytes(data.getBytes(StandardCharsets.UTF_8), JSONArray.class);
+
+            String key = first.get(0, JSONObject.class).keySet().iterator().next();
+            assertEquals("id", key);
+            assertSame(key, first.get(1, JSONObject.class).keySet().iterator().next());
+            assertSame(key, second.get(1, JSONObject.class).keySet().iterator().next());
+            assertSame(symbolTable.intern("name"), second.get(1, JSONObject.class).keySet().toArray()[1]);
+        } finally {
+            parser.setSymbolTable(null);
+        }
+    }
+
+    @Test
+    public void test_parse_all_async() {
+        List<String> data = IntStream.range(0, 100)
+                .mapToObj(i -> "{\"id\": " + i + "}")
+                .toList();
+
+        List<JSONObject> objects = getParser().parseAllAsync(data, JSONObject.class, 4)
+                .orTimeout(5, TimeUnit.SECONDS)
+                .join();
+
+        assertEquals(data.size(), objects.size());
+        for (int i = 0; i < objects.size(); i++) {
+            assertEquals(i, objects.get(i).getNumber("id").intValue());
+        }
+    }
+
+    @Test
+    public void test_parse_all_async_failure() {
+        CompletableFuture<List<JSONObject>> future = getParser()
+                .parseAllAsync(List.of("{}", "{\"a\": [}", "{}"), JSONObject.class);
+
+        CompletionException exception = assertThrows(CompletionException.class, future::join);
+        assertTrue(exception.getCause() instanceof JSONParseException);
+    }
+
+    @Test
+    public void test_parse_all_async_rejected() {
+        Parser parser = getParser();
+        ExecutorService service = Executors.newSingleThreadExecutor();
+        AtomicInteger submitted = new AtomicInteger();
+
+        // Executor is shut down when the second input is submitted
+        parser.setExecutor(task -> {
+            if (submitted.incrementAndGet() > 1) {
+                service.shutdown();
+            }
+
+            service.execute(task);
+        });
+
+        try {
+            CompletableFuture<List<JSONObject>> future = parser
+                    .parseAllAsync(List.of("{}", "{}", "{}"), JSONObject.class, 1);
+
+            CompletionException exception = assertThrows(CompletionException.class,
+                    () -> future.orTimeout(5, TimeUnit.SECONDS).join());
+            assertTrue(exception.getCause() instanceof RejectedExecutionException);
+        } finally {
+            parser.setExecutor(null);
+            service.shutdownNow();
+        }
+    }
+
+    @Test
+    public void test_limits() {
+        Parser parser = getParser();
+        ParseLimits limits = parser.getLimits();
+
+        try {
+            parser.setLimits(ParseLimits.builder()
+                    .setMaxDepth(3)
+                    .setMaxEntries(3)
+                    .setMaxStringLength(5)
+                    .setMaxDocumentLength(64)
+                    .build());
+
+            JSONObject object = parser.parse("{\"a\": [[1, 2, 3]], \"b\": \"12345\"}", JSONObject.class);
+            assertEquals("12345", object.getString("b"));
+
+            assertThrows(JSONParseException.class, () -> parser.parse("{\"a\": [[[1]]]}", JSONObject.class));
+            assertThrows(JSONParseException.class, () -> parser.parse("[1, 2, 3, 4]", JSONArray.class));
+            assertThrows(JSONParseException.class, () -> parser.parse("{\"a\": 1, \"b\": 2, \"c\": 3, \"d\": 4}", JSONObject.class).size());
+            assertThrows(JSONParseException.class, () -> parser.parse("[\"123456\"]", JSONArray.class));
+            assertThrows(JSONParseException.class, () -> parser.parse("[1" + " ".repeat(64) + "]", JSONArray.class));
+        } finally {
+            parser.setLimits(limits);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package ru.introguzzle.parsers.json.patch;
+
+import org.junit.Test;
+import ru.introguzzle.parsers.json.entity.JSONArray;
+import ru.introguzzle.parsers.json.entity.JSONObject;
+import ru.introguzzle.parsers.json.parse.Parser;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class JSONDiffTest {
+    private static final Parser PARSER = Parser.newParser();
+
+    private static JSONObject object(String json) {
+        return PARSER.parse(json, JSONObject.class);
+    }
+
+    private static JSONArray array(String json) {
+        return PARSER.parse(json, JSONArray.class);
+    }
+
+    private static void assertPatch(String expected, JSONObject source, JSONObject target) {
+        JSONPatch patch = JSONDiff.diff(source, target);
+        assertEquals(array(expected).toJSONStringCompact(), patch.toJSONArray().toJSONStringCompact());
+
+        JSONObject copy = source.deepCopy();
+        copy.apply(JSONPatch.of(array(patch.toJSONArray().toJSONStringCompact())));
+        assertTrue(JSONDiff.equal(target, copy));
+    }
+
+    @Test
+    public void test_identical() {
+        JSONObject object = object("{\"a\": [1, 2, {\"b\": null}]}");
+        assertTrue(JSONDiff.diff(object, object).isEmpty());
+        assertTrue(JSONDiff.diff(object, object.deepCopy()).isEmpty());
+
+        JSONObject integral = new JSONObject();
+        integral.put("n", 1);
+        JSONObject decimal = new JSONObject();
+        decimal.put("n", 1.0);
+        assertTrue(JSONDiff.diff(integral, decimal).isEmpty());
+    }
+
+    @Test
+    public void test_objects() {
+        assertPatch("""
+                [
+                  {"op": "remove", "path": "/b"},
+                  {"op": "replace", "path": "/a", "value": 2},
+                  {"op": "add", "path": "/nested/d", "value": true},
+                  {"op": "add", "path": "/c~1d~0e", "value": "x"}
+                ]
+                """,
+                object("{\"a\": 1, \"b\": 2, \"nested\": {\"c\": 3}}"),
+                object("{\"a\": 2, \"nested\": {\"c\": 3, \"d\": true}, \"c/d~e\": \"x\"}"));
+    }
+
+    @Test
+    public void test_arrays() {
+        assertPatch("""
+                [{"op": "add", "path": "/a/2", "value": 9}]
+                """,
+                object("{\"a\": [1, 2, 3, 4]}"),
+                object("{\"a\": [1, 2, 9, 3, 4]}"));
+
+        assertPatch("""
+                [{"op": "remove", "path": "/a/0"}, {"op": "remove", "path": "/a/2"}]
+                """,
+                object("{\"a\": [1, 2, 3, 4, 5]}"),
+                object("{\"a\": [2, 3, 5]}"));
+
+        // Edited element is patched in place instead of being removed and added
+        assertPatch("""
+                [{"op": "replace", "path": "/a/1/name", "value": "b2"}]
+                """,
+                object("{\"a\": [{\"id\": 1, \"name\": \"a\"}, {\"id\": 2, \"name\": \"b\"}, {\"id\": 3, \"name\": \"c\"}]}"),
+                object("{\"a\": [{\"id\": 1, \"name\": \"a\"}, {\"id\": 2, \"name\": \"b2\"}, {\"id\": 3, \"name\": \"c\"}]}"));
+
+        // Entity that changed entirely is replaced as a whole
+        assertPatch("""
+                [{"op": "replace", "path": "/a", "value": [4, 5]}]
+                """,
+                object("{\"a\": [1, 2, 3]}"),
+                object("{\"a\": [4, 5]}"));
+    }
+
+    @Test
+    public void test_cached_forms() {
+        JSONObject source = object("{\"a\": {\"b\": [1, 2]}, \"c\": 1}");
+        JSONObject target = object("{\"a\": {\"b\": [1, 2]}, \"c\": 2}");
+        source.getObject("a").setSerializationCached(true);
+        target.getObject("a").setSerializationCached(true);
+
+        List<JSONPatch.Operation> operations = JSONDiff.diff(source, target).getOperations();
+        assertEquals(1, operations.size());
+        assertEquals("/c", operations.getFirst().path());
+
+        target.getObject("a").getArray("b").add(3);
+        assertEquals("/a/b/2", JSONDiff.diff(source, target).getOperations().getFirst().path());
+    }
+
+    @Test
+    public void test_random() {
+        Random random = new Random(42);
+        for (int n = 0; n < 200; n++) {
+            JSONArray source = randomArray(random, 3);
+            JSONArray target = source.deepCopy();
+            mutate(random, target, 3);
+
+            JSONPatch patch = JSONDiff.diff(source, target);
+            JSONArray copy = source.deepCopy();
+            copy.apply(patch);
+            assertTrue(JSONDiff.equal(target, copy));
+        }
+    }
+
+    private static Object randomValue(Random random, int depth) {
+        return switch (depth == 0 ? random.nextInt(3) : random.nextInt(5)) {
+            case 0 -> random.nextInt(5);
+            case 1 -> "s" + random.nextInt(5);
+            case 2 -> random.nextBoolean() ? null : random.nextBoolean();
+            case 3 -> randomArray(random, depth - 1);
+            default -> {
+                JSONObject object = new JSONObject();
+                for (int i = random.nextInt(4); i > 0; i--) {
+                    object.put("k" + random.nextInt(6), randomValue(random, depth - 1));
+                }
+
+                yield object;
+            }
+        };
+    }
+
+    private static JSONArray randomArray(Random random, int depth) {
+        JSONArray array = new JSONArray();
+        for (int i = random.nextInt(8); i > 0; i--) {
+            array.add(randomValue(random, depth));
+        }
+
+        return array;
+    }
+
+    private static void mutate(Random random, JSONArray array, int depth) {
+        for (int i = random.nextInt(4); i > 0; i--) {
+            int index = array.isEmpty() ? 0 : random.nextInt(array.size());
+            switch (random.nextInt(4)) {
+                case 0 -> array.add(index, randomValue(random, depth));
+                case 1 -> {
+                    if (!array.isEmpty()) array.remove(index);
+                }
+                case 2 -> {
+                    if (!array.isEmpty()) array.set(index, randomValue(random, depth));
+                }
+                default -> {
+                    if (!array.isEmpty() && array.get(index) instanceof JSONArray nested) {
+                        mutate(random, nested, depth - 1);
+                    } else if (!array.isEmpty() && array.get(index) instanceof JSONObject nested) {
+                        nested.put("k" + random.nextInt(6), randomValue(random, depth - 1));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_apply() {
+        JSONObject document = object("{\"a\": {\"b\": [1, 2]}, \"c\": \"x\"}");
+        JSONPatch.of(array("""
+                [
+                  {"op": "test", "path": "/c", "value": "x"},
+                  {"op": "copy", "from": "/a/b", "path": "/d"},
+                  {"op": "move", "from": "/c", "path": "/a/b/-"},
+                  {"op": "add", "path": "/d/0", "value": 0},
+                  {"op": "test", "path": "/d", "value": [0, 1, 2]}
+                ]
+                """)).apply(document);
+
+        assertTrue(JSONDiff.equal(object("{\"a\": {\"b\": [1, 2, \"x\"]}, \"d\": [0, 1, 2]}"), document));
+
+        JSONPatch.of(array("[{\"op\": \"replace\", \"path\": \"\", \"value\": {\"e\": 1}}]")).apply(document);
+        assertTrue(JSONDiff.equal(object("{\"e\": 1}"), document));
+    }
+
+    @Test
+    public void test_apply_failures() {
+        JSONObject document = object("{\"a\": [1], \"b\": 1}");
+        for (String operation : new String[] {
+                "{\"op\": \"test\", \"path\": \"/b\", \"value\": 2}",
+                "{\"op\": \"remove\", \"path\": \"/c\"}",
+                "{\"op\": \"replace\", \"path\": \"/a/1\", \"value\": 2}",
+                "{\"op\": \"add\", \"path\": \"/a/01\", \"value\": 2}",
+                "{\"op\": \"add\", \"path\": \"/c/d\", \"value\": 2}",
+                "{\"op\": \"move\", \"from\": \"/a\", \"path\": \"/a/0\"}",
+                "{\"op\": \"add\", \"path\": \"a\", \"value\": 2}",
+                "{\"op\": \"add\", \"path\": \"/a\"}",
+                "{\"op\": \"unknown\", \"path\": \"/a\"}"
+        }) {
+            assertThrows(operation, JSONPatchException.class,
+                    () -> JSONPatch.of(array("[" + operation + "]")).apply(document));
+        }
+
+        assertTrue(JSONDiff.equal(object("{\"a\": [1], \"b\": 1}"), document));
+    }
+}
@@ -0,0 +1,179 @@
+package ru.introguzzle.parsers.json.path;
+
+import org.junit.Test;
+import ru.introguzzle.parsers.json.entity.JSONArray;
+import ru.introguzzle.parsers.json.entity.JSONObject;
+import ru.introguzzle.parsers.json.parse.Parser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class JSONPathTest {
+    private static final String STORE = """
+            {
+              "store": {
+                "book": [
+                  {"category": "reference", "author": "Nigel Rees", "title": "Sayings", "price": 8.95},
+                  {"category": "fiction", "author": "Evelyn Waugh", "title": "Sword", "price": 12.99},
+                  {"category": "fiction", "author": "Herman Melville", "title": "Moby Dick",
+                   "isbn": "0-553-21311-3", "price": 8.99},
+                  {"category": "fiction", "author": "J. R. R. Tolkien", "title": "The Lord of the Rings",
+                   "isbn": "0-395-19395-8", "price": 22.99}
+                ],
+                "bicycle": {"color": "red", "price": 19.95}
+              },
+              "limit": 10
+            }
+            """;
+
+    private static JSONObject store() {
+        return Parser.newParser().parse(STORE, JSONObject.class);
+    }
+
+    private static List<Object> list(JSONArray array) {
+        return new ArrayList<>(array);
+    }
+
+    @Test
+    public void test_definite() {
+        JSONObject store = store();
+        JSONPath path = JSONPath.compile("$.store.book[0].title");
+        assertTrue(path.isDefinite());
+        assertEquals("Sayings", path.read(store));
+        assertEquals("Moby Dick", JSONPath.compile("$['store']['book'][-2]['title']").read(store));
+        assertEquals("red", JSONPath.compile("$.store.bicycle.color").read(store, String.class));
+        assertNull(JSONPath.compile("$.store.book[10].title").read(store));
+        assertNull(JSONPath.compile("$.missing.title").read(store));
+        assertSame(store, JSONPath.compile("$").read(store));
+        assertEquals(List.of("Sayings"), list(path.readAll(store)));
+    }
+
+    @Test
+    public void test_wildcard_and_union() {
+        JSONObject store = store();
+        assertEquals(List.of("Nigel Rees", "Evelyn Waugh", "Herman Melville", "J. R. R. Tolkien"),
+                list(JSONPath.compile("$.store.book[*].author").readAll(store)));
+        assertEquals(List.of("Sayings", "Moby Dick"),
+                list(JSONPath.compile("$.store.book[0,2].title").readAll(store)));
+        assertEquals(List.of("red", 19.95),
+                list(JSONPath.compile("$.store.bicycle['color','price']").readAll(store)));
+        assertEquals(2, JSONPath.compile("$.store.*").readAll(store).size());
+        assertFalse(JSONPath.compile("$.store.*").isDefinite());
+    }
+
+    @Test
+    public void test_slice() {
+        JSONArray numbers = new JSONArray();
+        for (int i = 0; i < 6; i++) {
+            numbers.add(i);
+        }
+
+        JSONObject object = new JSONObject();
+        object.put("n", numbers);
+
+        assertEquals(List.of(1, 2), list(JSONPath.compile("$.n[1:3]").readAll(object)));
+        assertEquals(List.of(4, 5), list(JSONPath.compile("$.n[-2:]").readAll(object)));
+        assertEquals(List.of(0, 2, 4), list(JSONPath.compile("$.n[::2]").readAll(object)));
+        assertEquals(List.of(5, 4, 3, 2, 1, 0), list(JSONPath.compile("$.n[::-1]").readAll(object)));
+        assertEquals(List.of(4, 2), list(JSONPath.compile("$.n[4:1:-2]").readAll(object)));
+        assertEquals(List.of(), list(JSONPath.compile("$.n[10:]").readAll(object)));
+        assertEquals(List.of(1), list(JSONPath.compile("$.n[1::2147483647]").readAll(object)));
+        assertEquals(List.of(4), list(JSONPath.compile("$.n[-2::-2147483648]").readAll(object)));
+    }
+
+    @Test
+    public void test_descendants() {
+        JSONObject store = store();
+        assertEquals(List.of(8.95, 12.99, 8.99, 22.99, 19.95),
+                list(JSONPath.compile("$..price").readAll(store)));
+        assertEquals(List.of("Sayings", "Moby Dick"),
+                list(JSONPath.compile("$..book[0,2].title").readAll(store)));
+        assertEquals("The Lord of the Rings", JSONPath.compile("$..book[-1].title").read(store));
+    }
+
+    @Test
+    public void test_filters() {
+        JSONObject store = store();
+        assertEquals(List.of("Sayings", "Moby Dick"),
+                list(JSONPath.compile("$.store.book[?(@.price < 10)].title").readAll(store)));
+        assertEquals(List.of("Moby Dick", "The Lord of the Rings"),
+                list(JSONPath.compile("$.store.book[?(@.isbn)].title").readAll(store)));
+        assertEquals(List.of("Sayings", "Sword"),
+                list(JSONPath.compile("$.store.book[?(!@.isbn)].title").readAll(store)));
+        assertEquals(List.of("Moby Dick"), list(JSONPath.compile(
+                "$.store.book[?(@.category == 'fiction' && @.price < $.limit)].title").readAll(store)));
+        assertEquals(List.of("Sayings", "The Lord of the Rings"), list(JSONPath.compile(
+                "$.store.book[?(@.category != \"fiction\" || (@.price >= 20 && @.price <= 30))].title")
+                .readAll(store)));
+        assertEquals(List.of("red"), list(JSONPath.compile("$.store[?(@.price > 19)].color").readAll(store)));
+    }
+
+    @Test
+    public void test_for_each_and_first() {
+        JSONObject store = store();
+        List<Object> titles = new ArrayList<>();
+        JSONPath path = JSONPath.compile("$.store.book[*].title");
+        path.forEach(store, titles::add);
+
+        assertEquals(4, titles.size());
+        assertEquals("Sayings", path.read(store));
+    }
+
+    @Test
+    public void test_dot_notation() {
+        JSONObject store = store();
+        assertEquals("red", store.getTraverse("store.bicycle.color", String.class));
+        assertEquals("Sword", store.getTraverse("store.book.1.title", String.class));
+        assertEquals(10, store.getTraverse("limit", Number.class).intValue());
+        assertNull(store.getTraverse("store.missing.color", String.class));
+
+        // Special characters are part of names in dot notation
+        JSONObject object = new JSONObject();
+        object.put("a[*]", "value");
+        assertEquals("value", object.getTraverse("a[*]", String.class));
+
+        // Keys that start with $ are names too
+        object.put("$ref", "#/definitions/a");
+        object.put("$", "root");
+        assertEquals("#/definitions/a", object.getTraverse("$ref", String.class));
+        assertEquals("root", object.getTraverse("$", String.class));
+        assertEquals("#/definitions/a", object.putTraverse("$ref", "#/definitions/b"));
+        assertEquals("#/definitions/b", object.get("$ref"));
+        assertNull(object.putTraverse("$id.$schema", "x"));
+        assertEquals("x", object.getObject("$id").get("$schema"));
+        assertNotEquals(JSONPath.compile("$"), JSONPath.compileKey("$"));
+    }
+
+    @Test
+    public void test_put() {
+        JSONObject object = new JSONObject();
+        assertNull(object.putTraverse("a.b.c", 1));
+        assertEquals(1, object.getTraverse("a.b.c", Integer.class).intValue());
+        assertEquals(1, object.putTraverse("a.b.c", 2));
+        assertEquals(2, JSONPath.compile("$.a.b.c").read(object));
+
+        object.put("items", new JSONArray());
+        JSONPath.compile("$.items[0]").put(object, "x");
+        JSONPath.compile("$.items[1]").put(object, "y");
+        assertEquals("y", JSONPath.compile("$.items[-1]").put(object, "z"));
+        assertEquals(List.of("x", "z"), list(object.getArray("items")));
+
+        assertThrows(IllegalArgumentException.class, () -> JSONPath.compile("$.items[*]").put(object, 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> JSONPath.compile("$.items[5]").put(object, 1));
+    }
+
+    @Test
+    public void test_cache() {
+        assertSame(JSONPath.compile("$.a[*].b"), JSONPath.compile("$.a[*].b"));
+    }
+
+    @Test
+    public void test_invalid() {
+        for (String expression : new String[] {"$.", "$[", "$.a[1", "$.a[x]", "$[::0]", "$['a]", "$a",
+                "$[?(@.a ==)]", "$[?(1)]", "$.a]"}) {
+            assertThrows(expression, IllegalArgumentException.class, () -> JSONPath.compile(expression));
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package ru.introguzzle.parsers.json.write;
+
+import org.junit.Test;
+import ru.introguzzle.parsers.json.entity.JSONArray;
+import ru.introguzzle.parsers.json.entity.JSONObject;
+import ru.introguzzle.parsers.json.parse.Parser;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class JSONByteWriterTest {
+    @Test
+    public void test_matches_compact_string() {
+        JSONArray numbers = new JSONArray();
+        for (Object number : new Object[] {0, -1, 42L, Long.MIN_VALUE, Long.MAX_VALUE, (short) 7, (byte) -8,
+                1.0, -0.0, 0.0, 0.1, -12345.0, 1e7, 9999999.0, 1e-5, 2.5f, new BigDecimal("1.50")}) {
+            numbers.add(number);
+        }
+
+        JSONObject object = new JSONObject();
+        object.put("ascii", "plain text");
+        object.put("escapes", "quote \" backslash \\ tab \t line \n control \u0001");
+        object.put("unicode", "кириллица, 漢字, 😀");
+        object.put("malformed", "\uD83D x");
+        object.put("numbers", numbers);
+        object.put("flags", JSONArray.of(true, false));
+        object.put("null", null);
+        object.put("ключ \"", new JSONObject());
+
+        byte[] expected = object.toJSONStringCompact().getBytes(StandardCharsets.UTF_8);
+
+        assertArrayEquals(expected, object.toJSONBytes());
+        assertArrayEquals(expected, new JSONByteWriter(0).write(object).toByteArray());
+    }
+
+    @Test
+    public void test_reuse() {
+        JSONObject object = Parser.newParser().parse("{\"text\": \"кириллица\", \"array\": [1.5, null, {}]}", JSONObject.class);
+        JSONByteWriter writer = new JSONByteWriter();
+        writer.write(object);
+
+        int capacity = writer.capacity();
+        byte[] first = writer.toByteArray();
+        writer.reset();
+        writer.write(object);
+
+        assertEquals(capacity, writer.capacity());
+        assertArrayEquals(first, writer.toByteArray());
+
+        ByteBuffer buffer = ByteBuffer.allocate(writer.size());
+        writer.writeTo(buffer);
+        assertArrayEquals(first, buffer.array());
+        assertEquals(ByteBuffer.wrap(first), writer.toByteBuffer());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.writeTo(out);
+        assertArrayEquals(first, out.toByteArray());
+    }
+}
@@ -0,0 +1,64 @@
+package ru.introguzzle.parsers.json.write;
+
+import org.junit.Test;
+import ru.introguzzle.parsers.json.entity.JSONArray;
+import ru.introguzzle.parsers.json.entity.JSONObject;
+import ru.introguzzle.parsers.json.parse.Parser;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class JSONWriterTest {
+    @Test
+    public void test_pretty() {
+        JSONObject object = Parser.newParser().parse("""
+                {"name": "value", "array": ["строка", {}], "inner": {"flag": true, "empty": []}, "null": null}
+                """, JSONObject.class);
+
+        String n = System.lineSeparator();
+        String expected = "{" + n
+                + "\t\"name\": \"value\"," + n
+                + "\t\"array\": [" + n
+                + "\t\t\"строка\"," + n
+                + "\t\t{}" + n
+                + "\t]," + n
+                + "\t\"inner\": {" + n
+                + "\t\t\"flag\": true," + n
+                + "\t\t\"empty\": []" + n
+                + "\t}," + n
+                + "\t\"null\": null" + n
+                + "}";
+
+        assertEquals(expected, object.toJSONString());
+    }
+
+    @Test
+    public void test_compact() {
+        String data = "{\"name\":\"value\",\"array\":[\"строка\",{}],\"inner\":{\"flag\":true,\"empty\":[]},\"null\":null}";
+
+        assertEquals(data, Parser.newParser().parse(data, JSONObject.class).toJSONStringCompact());
+        assertEquals("[]", new JSONArray().toJSONStringCompact());
+    }
+
+    @Test
+    public void test_escapes() {
+        JSONObject object = new JSONObject();
+        object.put("key \"", "\"quoted\" \\ \n\u001f");
+
+        assertEquals("{\"key \\\"\":\"\\\"quoted\\\" \\\\ \\n\\u001f\"}", object.toJSONStringCompact());
+        assertEquals(object, Parser.newParser().parse(object.toJSONStringCompact(), JSONObject.class));
+        assertEquals(object, Parser.newParser().parse(object.toJSONString(), JSONObject.class));
+    }
+
+    @Test
+    public void test_output_stream() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JSONObject object = Parser.newParser().parse("{\"array\": [true, \"строка\"], \"inner\": {}}", JSONObject.class);
+        JSONWriter.compact(out).write(object).write(object.getArray("array"));
+
+        assertEquals(object.toJSONStringCompact() + object.getArray("array").toJSONStringCompact(),
+                out.toString(StandardCharsets.UTF_8));
+    }
+}
@@ -1,12 +1,20 @@
 package ru.introguzzle.parsers.xml;
 
 import org.junit.Test;
+import ru.introguzzle.parsers.common.parse.ParseLimits;
 import ru.introguzzle.parsers.json.entity.JSONObject;
 import ru.introguzzle.parsers.xml.entity.XMLDocument;
 import ru.introguzzle.parsers.xml.entity.XMLElement;
 import ru.introguzzle.parsers.xml.parse.Parser;
 import ru.introguzzle.parsers.xml.parse.XMLParseException;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.Assert.*;
 
 public class XMLParserTest {
@@ -185,4 +193,42 @@ public class XMLParserTest {
         String string = "<library xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\" xsi:noNamespaceSchemaLocation=\"library-schema.xsd\">";
         parser.parse(string);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void test_parse_file() throws IOException {
+        String string = "<?xml version=\"1.0\" encoding=\"UTF-8\"?> <object attr=\"значение\"></object>";
+        Path path = Files.createTempFile("document", ".xml");
+        try {
+            Files.writeString(path, string, StandardCharsets.UTF_8);
+            assertEquals(parser.parse(string), parser.parse(path));
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void test_parse_all_async() {
+        String declaration = "<?xml version=\"1.0\" encoding=\"UTF-8\"?> ";
+        List<String> data = List.of(declaration + "<a>1</a>", declaration + "<b>2</b>", declaration + "<c>3</c>");
+        List<XMLDocument> documents = parser.parseAllAsync(data, 2)
+                .orTimeout(5, TimeUnit.SECONDS)
+                .join();
+
+        assertEquals("a", documents.get(0).getRoot().getName());
+        assertEquals("c", documents.get(2).getRoot().getName());
+    }
+
+    @Test
+    public void test_limits() {
+        String declaration = "<?xml version=\"1.0\" encoding=\"UTF-8\"?> ";
+        Parser parser = Parser.newParser().setLimits(ParseLimits.builder()
+                .setMaxDepth(2)
+                .setMaxEntries(2)
+                .build());
+
+        assertEquals("a", parser.parse(declaration + "<a><b>1</b><c/></a>").getRoot().getName());
+        assertThrows(XMLParseException.class, () -> parser.parse(declaration + "<a><b><c>1</c></b></a>"));
+        assertThrows(XMLParseException.class, () -> parser.parse(declaration + "<a><b/><c/><d/></a>"));
+        assertThrows(XMLParseException.class, () -> parser.parse(declaration + "<a x=\"1\" y=\"2\" z=\"3\"/>"));
+    }
+}
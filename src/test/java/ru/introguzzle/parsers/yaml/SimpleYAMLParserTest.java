@@ -1,5 +1,11 @@
 package ru.introguzzle.parsers.yaml;
 
+import org.junit.Test;
+import ru.introguzzle.parsers.common.parse.ParseLimits;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
 public class SimpleYAMLParserTest extends ParserTest {
     private final Parser parser = new SimpleYAMLParser(2);
 
@@ -7,4 +13,16 @@ public class SimpleYAMLParserTest extends ParserTest {
     public Parser getParser() {
         return parser;
     }
+
+    @Test
+    public void test_limits() {
+        Parser parser = new SimpleYAMLParser(2, ParseLimits.builder()
+                .setMaxDepth(2)
+                .setMaxEntries(2)
+                .build());
+
+        assertEquals("1", parser.parse("a:\n  b: 1\n  c: 2\n").get("a.b", String.class));
+        assertThrows(YAMLParseException.class, () -> parser.parse("a:\n  b:\n    c: 1\n"));
+        assertThrows(YAMLParseException.class, () -> parser.parse("a: 1\nb: 2\nc: 3\n"));
+    }
 }